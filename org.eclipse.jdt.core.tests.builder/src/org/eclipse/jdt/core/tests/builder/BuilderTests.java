@@ -544,6 +544,7 @@ public class BuilderTests extends TestCase {
 			ReferenceCollectionTest.class,
 			StateTest.class,
 			CompressedWriterTest.class,
+			JarPackageIndexTest.class,
 			TestAttributeBuilderTests.class,
 			Bug530366Test.class,
 			Bug531382Test.class,
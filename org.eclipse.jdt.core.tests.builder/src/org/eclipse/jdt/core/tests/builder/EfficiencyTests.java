@@ -13,10 +13,15 @@
  *******************************************************************************/
 package org.eclipse.jdt.core.tests.builder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import junit.framework.*;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.builder.BuildMetrics;
+import org.eclipse.jdt.internal.core.builder.JavaBuilder;
 
 /**
  * Basic efficiency tests of the image builder.
@@ -152,6 +157,65 @@ public class EfficiencyTests extends BuilderTests {
 		expectingCompilingOrder(new String[] { "/Project/src/p1/X.java", "/Project/src/p2/Y.java" });
 	}
 
+	public void testMemberChange() throws JavaModelException {
+
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		fullBuild(projectPath);
+
+		// remove old package fragment root so that names don't collide
+		env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+
+		IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+		env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "X", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class X {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n" + //$NON-NLS-1$
+			"	public void bar() {}\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		env.addClass(root, "p2", "Y", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"import p1.*;\n"+ //$NON-NLS-1$
+			"public class Y {\n"+ //$NON-NLS-1$
+			"	void use(X x) { x.foo(); }\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		env.addClass(root, "p2", "Z", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"import p1.*;\n"+ //$NON-NLS-1$
+			"public class Z {\n"+ //$NON-NLS-1$
+			"	void use(X x) { x.bar(); }\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		env.addClass(root, "p2", "W", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"import p1.*;\n"+ //$NON-NLS-1$
+			"public class W extends X {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		fullBuild(projectPath);
+
+		env.addClass(root, "p1", "X", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class X {\n"+ //$NON-NLS-1$
+			"	public void foo(int i) {}\n" + //$NON-NLS-1$
+			"	public void bar() {}\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		incrementalBuild(projectPath);
+
+		// Z does not use foo, so only the users of foo and the subtypes of X are recompiled
+		expectingCompiledClasses(new String[]{"p1.X", "p2.W", "p2.Y"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
 	public void testLocalTypeAddition() throws JavaModelException {
 
 		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
@@ -412,4 +476,224 @@ public class EfficiencyTests extends BuilderTests {
 		expectingCompilingOrder(
 				new String[] { "/Project/src/p2/Z.java", "/Project/src/p2/Y.java", "/Project/src/p1/X.java" });
 	}
+
+	/*
+	 * The units affected by a change are looked up in an index of the references of the state, which must follow
+	 * the units whose references change, are added or are removed across incremental builds.
+	 */
+	public void testAffectedSourceFiles() throws JavaModelException {
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		fullBuild(projectPath);
+
+		// remove old package fragment root so that names don't collide
+		env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+
+		IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+		env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class B {\n"+ //$NON-NLS-1$
+			"	p1.A a;\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "C", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class C {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p3", "D", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p3;\n"+ //$NON-NLS-1$
+			"import p1.A;\n"+ //$NON-NLS-1$
+			"public class D extends A {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		fullBuild(projectPath);
+
+		// the superinterfaces of A change, so all the units referencing A are recompiled whatever members they use
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A implements Cloneable {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p1.A", "p2.B", "p3.D"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		// B no longer references A, E is added and references A
+		env.addClass(root, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class B {\n"+ //$NON-NLS-1$
+			"	Object a;\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "E", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class E {\n"+ //$NON-NLS-1$
+			"	void bar(p1.A a) { a.foo(); }\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p2.B", "p2.E"}); //$NON-NLS-1$ //$NON-NLS-2$
+
+		// the modifiers of A change: the index no longer answers B, and answers E
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public abstract class A implements Cloneable {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p1.A", "p2.E", "p3.D"}); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		// D is removed, the index no longer answers it
+		env.removeClass(root.append("p3"), "D"); //$NON-NLS-1$ //$NON-NLS-2$
+		incrementalBuild(projectPath);
+		env.addClass(root, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		incrementalBuild(projectPath);
+		expectingCompiledClasses(new String[]{"p1.A", "p2.E"}); //$NON-NLS-1$ //$NON-NLS-2$
+		expectingNoProblems();
+	}
+
+	public void testBuildMetrics() throws JavaModelException {
+
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		fullBuild(projectPath);
+
+		// remove old package fragment root so that names don't collide
+		env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+
+		IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+		env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "X", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class X {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "Y", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class Y {\n"+ //$NON-NLS-1$
+			"	void bar(p1.X x) { x.foo(); }\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "Z", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class Z {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		fullBuild(projectPath);
+
+		List<BuildMetrics> builds = new ArrayList<>();
+		BuildMetrics.Listener listener = builds::add;
+		JavaBuilder.addBuildMetricsListener(listener);
+		try {
+			env.addClass(root, "p1", "X", //$NON-NLS-1$ //$NON-NLS-2$
+				"package p1;\n"+ //$NON-NLS-1$
+				"public class X {\n"+ //$NON-NLS-1$
+				"	public void foo(int i) {}\n" + //$NON-NLS-1$
+				"}\n" //$NON-NLS-1$
+				);
+			incrementalBuild(projectPath);
+		} finally {
+			JavaBuilder.removeBuildMetricsListener(listener);
+		}
+
+		expectingCompiledClasses(new String[]{"p1.X", "p2.Y"}); //$NON-NLS-1$ //$NON-NLS-2$
+		expectingOnlyProblemsFor(root.append("p2/Y.java")); //$NON-NLS-1$
+		assertEquals("Unexpected number of builds", 1, builds.size()); //$NON-NLS-1$
+		BuildMetrics metrics = builds.get(0);
+		assertEquals("Project", metrics.getProjectName()); //$NON-NLS-1$
+		// X is compiled since it changed, then Y since it uses the changed method
+		assertEquals(2, metrics.getCompileLoopCount());
+		assertEquals(1, metrics.getAffectedSourceFileCount(0));
+		assertEquals(1, metrics.getCompiledUnitCount(0));
+		assertEquals(1, metrics.getAffectedSourceFileCount(1));
+		assertEquals(1, metrics.getCompiledUnitCount(1));
+		assertEquals(2, metrics.getClassFilesWritten());
+		assertTrue(metrics.getBytesWritten() > 0);
+		assertEquals(1, metrics.getMarkersCreated());
+		assertEquals(0, metrics.getMarkersRemoved());
+		long phases = 0;
+		for (BuildMetrics.Phase phase : BuildMetrics.Phase.values())
+			phases += metrics.getDuration(phase);
+		assertTrue(metrics.getDuration(BuildMetrics.Phase.COMPILING) > 0);
+		assertTrue(phases <= metrics.getDuration());
+	}
+
+	public void testFullBuildKeepsUnchangedClassFiles() throws JavaModelException {
+
+		IPath projectPath = env.addProject("Project"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+		fullBuild(projectPath);
+
+		// remove old package fragment root so that names don't collide
+		env.removePackageFragmentRoot(projectPath, ""); //$NON-NLS-1$
+
+		IPath root = env.addPackageFragmentRoot(projectPath, "src"); //$NON-NLS-1$
+		IPath bin = env.setOutputFolder(projectPath, "bin"); //$NON-NLS-1$
+
+		env.addClass(root, "p1", "X", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class X {\n"+ //$NON-NLS-1$
+			"	class M {}\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p1", "Y", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class Y {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.addClass(root, "p2", "Z", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class Z {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		fullBuild(projectPath);
+		expectingNoProblems();
+
+		env.removeClass(root.append("p2"), "Z"); //$NON-NLS-1$ //$NON-NLS-2$
+		env.addClass(root, "p1", "Y", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class Y {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n" + //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		List<BuildMetrics> builds = new ArrayList<>();
+		BuildMetrics.Listener listener = builds::add;
+		JavaBuilder.addBuildMetricsListener(listener);
+		try {
+			fullBuild(projectPath);
+		} finally {
+			JavaBuilder.removeBuildMetricsListener(listener);
+		}
+
+		expectingNoProblems();
+		assertEquals("Unexpected number of builds", 1, builds.size()); //$NON-NLS-1$
+		BuildMetrics metrics = builds.get(0);
+		// only Y changed, the class files of X and X$M are kept
+		assertEquals(1, metrics.getClassFilesWritten());
+		assertEquals(2, metrics.getClassFilesUnchanged());
+		expectingPresenceOf(new IPath[] {
+			bin.append("p1/X.class"), //$NON-NLS-1$
+			bin.append("p1/X$M.class"), //$NON-NLS-1$
+			bin.append("p1/Y.class") //$NON-NLS-1$
+		});
+		// the class file of the deleted type is deleted with its package folder
+		expectingNoPresenceOf(bin.append("p2")); //$NON-NLS-1$
+	}
 }
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.builder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.eclipse.jdt.internal.compiler.util.SimpleSet;
+import org.eclipse.jdt.internal.core.builder.JarPackageIndex;
+
+import junit.framework.Test;
+
+public class JarPackageIndexTest extends BuilderTests {
+
+	private File jar;
+
+	public JarPackageIndexTest(String name) {
+		super(name);
+	}
+
+	public static Test suite() {
+		return buildTestSuite(JarPackageIndexTest.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		// the index only records the path, size and modification time of the jar
+		this.jar = File.createTempFile("lib", ".jar");
+		Files.write(this.jar.toPath(), new byte[] {1, 2, 3});
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		String path = this.jar.getPath();
+		this.jar.delete();
+		JarPackageIndex.getIndexFile(path).delete();
+		super.tearDown();
+	}
+
+	private void writeIndex() {
+		SimpleSet packageSet = new SimpleSet(3);
+		packageSet.add("");
+		packageSet.add("p");
+		packageSet.add("p/q");
+		JarPackageIndex.write(this.jar.getPath(), this.jar.lastModified(), this.jar.length(), packageSet);
+	}
+
+	public void testReused() {
+		writeIndex();
+		assertTrue("Missing index file", JarPackageIndex.getIndexFile(this.jar.getPath()).exists());
+		SimpleSet packageSet = JarPackageIndex.read(this.jar.getPath(), this.jar.lastModified(), this.jar.length());
+		assertNotNull("Index should be reused", packageSet);
+		assertEquals(3, packageSet.elementSize);
+		assertTrue(packageSet.includes(""));
+		assertTrue(packageSet.includes("p"));
+		assertTrue(packageSet.includes("p/q"));
+	}
+
+	public void testInvalidatedWhenJarChanged() throws Exception {
+		writeIndex();
+		File indexFile = JarPackageIndex.getIndexFile(this.jar.getPath());
+		assertNull("Index of a jar of another size should be ignored",
+				JarPackageIndex.read(this.jar.getPath(), this.jar.lastModified(), this.jar.length() + 1));
+		assertFalse("Index of a changed jar should be deleted", indexFile.exists());
+
+		writeIndex();
+		assertNull("Index of a jar of another timestamp should be ignored",
+				JarPackageIndex.read(this.jar.getPath(), this.jar.lastModified() + 2000, this.jar.length()));
+		assertFalse("Index of a changed jar should be deleted", indexFile.exists());
+
+		writeIndex();
+		Files.write(this.jar.toPath(), new byte[] {1, 2, 3, 4});
+		JarPackageIndex.cleanUp();
+		assertFalse("Index of a changed jar should be cleaned up", indexFile.exists());
+	}
+
+	public void testCleanedUpWhenJarDeleted() {
+		writeIndex();
+		File indexFile = JarPackageIndex.getIndexFile(this.jar.getPath());
+		JarPackageIndex.cleanUp();
+		assertTrue("Index of an unchanged jar should be kept", indexFile.exists());
+
+		this.jar.delete();
+		JarPackageIndex.cleanUp();
+		assertFalse("Index of a deleted jar should be cleaned up", indexFile.exists());
+	}
+}
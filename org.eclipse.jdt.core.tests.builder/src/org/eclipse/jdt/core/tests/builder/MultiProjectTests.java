@@ -17,6 +17,7 @@ import java.util.Hashtable;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IWorkspaceDescription;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -25,6 +26,7 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.builder.JavaBuilder;
 import org.eclipse.test.OrderedTestSuite;
 
 import junit.framework.Test;
@@ -2208,4 +2210,89 @@ public void test461074_error() throws JavaModelException {
 	env.removeProject(p2);
 	env.removeProject(p3);
 }
+
+public void testParallelBuild() throws CoreException {
+	String wasParallel = System.getProperty(JavaBuilder.PARALLEL_BUILD_PROPERTY);
+	IWorkspaceDescription description = env.getWorkspace().getDescription();
+	int maxConcurrentBuilds = description.getMaxConcurrentBuilds();
+	try {
+		System.setProperty(JavaBuilder.PARALLEL_BUILD_PROPERTY, "true"); //$NON-NLS-1$
+		description.setMaxConcurrentBuilds(4);
+		env.getWorkspace().setDescription(description);
+
+		// Project2 and Project3 only depend on Project1 and may be built concurrently
+		IPath p1 = env.addProject("Project1"); //$NON-NLS-1$
+		env.addExternalJars(p1, Util.getJavaClassLibs());
+		IPath root1 = env.getPackageFragmentRootPath(p1, ""); //$NON-NLS-1$
+		env.addClass(root1, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {\n"+ //$NON-NLS-1$
+			"	public void foo() {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		IPath p2 = env.addProject("Project2"); //$NON-NLS-1$
+		env.addExternalJars(p2, Util.getJavaClassLibs());
+		env.addRequiredProject(p2, p1);
+		IPath root2 = env.getPackageFragmentRootPath(p2, ""); //$NON-NLS-1$
+		env.addClass(root2, "p2", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p2;\n"+ //$NON-NLS-1$
+			"public class B extends p1.A {\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		IPath p3 = env.addProject("Project3"); //$NON-NLS-1$
+		env.addExternalJars(p3, Util.getJavaClassLibs());
+		env.addRequiredProject(p3, p1);
+		IPath root3 = env.getPackageFragmentRootPath(p3, ""); //$NON-NLS-1$
+		env.addClass(root3, "p3", "C", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p3;\n"+ //$NON-NLS-1$
+			"public class C {\n"+ //$NON-NLS-1$
+			"	void bar(p1.A a) { a.foo(); }\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		IPath p4 = env.addProject("Project4"); //$NON-NLS-1$
+		env.addExternalJars(p4, Util.getJavaClassLibs());
+		env.addRequiredProject(p4, p1);
+		env.addRequiredProject(p4, p2);
+		env.addRequiredProject(p4, p3);
+		IPath root4 = env.getPackageFragmentRootPath(p4, ""); //$NON-NLS-1$
+		env.addClass(root4, "p4", "D", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p4;\n"+ //$NON-NLS-1$
+			"public class D extends p2.B {\n"+ //$NON-NLS-1$
+			"	p3.C c;\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+
+		env.waitForManualRefresh();
+		fullBuild();
+		env.waitForAutoBuild();
+		expectingNoProblems();
+
+		env.addClass(root1, "p1", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package p1;\n"+ //$NON-NLS-1$
+			"public class A {\n"+ //$NON-NLS-1$
+			"	public void foo(int i) {}\n"+ //$NON-NLS-1$
+			"}\n" //$NON-NLS-1$
+			);
+		env.waitForManualRefresh();
+		incrementalBuild();
+		env.waitForAutoBuild();
+		// only the users of the changed method are broken
+		expectingOnlyProblemsFor(root3.append("p3/C.java")); //$NON-NLS-1$
+
+		env.removeProject(p1);
+		env.removeProject(p2);
+		env.removeProject(p3);
+		env.removeProject(p4);
+	} finally {
+		if (wasParallel == null)
+			System.clearProperty(JavaBuilder.PARALLEL_BUILD_PROPERTY);
+		else
+			System.setProperty(JavaBuilder.PARALLEL_BUILD_PROPERTY, wasParallel);
+		description.setMaxConcurrentBuilds(maxConcurrentBuilds);
+		env.getWorkspace().setDescription(description);
+	}
+}
 }
@@ -20,6 +20,7 @@ import java.util.Arrays;
 import java.util.Collections;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.core.builder.NamePool;
 import org.eclipse.jdt.internal.core.builder.ReferenceCollection;
 
 import junit.framework.Test;
@@ -369,4 +370,21 @@ public class ReferenceCollectionTest extends BuilderTests {
 
 		assertTrue("Should include", collection.includes(qualifiedNames, simpleNames, rootNames));
 	}
+
+	public void testInternedNamesAreShared() {
+		char[][][] first = ReferenceCollection.internQualifiedNames(new char[][][] {
+			CharOperation.splitOn('.', "p1.p2.Shared".toCharArray())
+		});
+		char[][][] second = ReferenceCollection.internQualifiedNames(new char[][][] {
+			CharOperation.splitOn('.', "p1.p2.Shared".toCharArray())
+		});
+		assertSame("Equal qualified names should be identical", first[0], second[0]);
+		assertSame("Equal simple names should be identical", first[0][2],
+				ReferenceCollection.internSimpleNames(new char[][] {"Shared".toCharArray()}, true)[0]);
+
+		long hits = NamePool.SIMPLE_NAMES.getHitCount();
+		char[] shared = ReferenceCollection.internSimpleNames(new char[][] {"Shared".toCharArray()}, true)[0];
+		assertEquals("Should count the duplicate", hits + 1, NamePool.SIMPLE_NAMES.getHitCount());
+		assertSame("Should answer the pooled name", first[0][2], shared);
+	}
 }
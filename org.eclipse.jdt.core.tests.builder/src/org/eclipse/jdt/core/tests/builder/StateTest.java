@@ -225,6 +225,100 @@ public class StateTest extends BuilderTests {
 		writeReadAndCompareExternalAnnotationLocations(project.getProject());
 	}
 
+	public void testRewriteUndecodedState() throws JavaModelException, Exception {
+		IPath projectPath = env.addProject("Rewrite"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+
+		env.addClass(projectPath, "a", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package a;\n" +
+			"public class A {\n" +
+			"	public void foo() {}\n" +
+			"}" //$NON-NLS-1$
+		);
+		env.addClass(projectPath, "b", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package b;\n" +
+			"class Other {}\n" +
+			"public class B extends a.A {\n" +
+			"	void bar() { foo(); }\n" +
+			"}" //$NON-NLS-1$
+		);
+		fullBuild();
+
+		IProject project = env.getProject(projectPath);
+		PerProjectInfo info = JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(project);
+		State savedState = (State) info.savedState;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(savedState, new DataOutputStream(outputStream));
+		byte[] bytes = outputStream.toByteArray();
+
+		// the sections of a state which was read but not used are written back as they were read
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(bytes)));
+		outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(readState, new DataOutputStream(outputStream));
+		assertArrayEquals(bytes, outputStream.toByteArray());
+
+		State rereadState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		assertEqualLookupTables(savedState.getReferences(), rereadState.getReferences());
+		assertEquals(rereadState, savedState);
+	}
+
+	public void testReadStateChanges() throws JavaModelException, Exception {
+		IPath projectPath = env.addProject("Changes"); //$NON-NLS-1$
+		env.addExternalJars(projectPath, Util.getJavaClassLibs());
+
+		env.addClass(projectPath, "a", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package a;\n" +
+			"public class A {\n" +
+			"	public void foo() {}\n" +
+			"}" //$NON-NLS-1$
+		);
+		IPath pathToB = env.addClass(projectPath, "b", "B", //$NON-NLS-1$ //$NON-NLS-2$
+			"package b;\n" +
+			"public class B extends a.A {\n" +
+			"	class Member {}\n" +
+			"}" //$NON-NLS-1$
+		);
+		fullBuild();
+
+		IProject project = env.getProject(projectPath);
+		PerProjectInfo info = JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(project);
+		State savedState = (State) info.savedState;
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(savedState, new DataOutputStream(outputStream));
+		JavaBuilder.stateSaved(savedState);
+		byte[] bytes = outputStream.toByteArray();
+		assertTrue(JavaBuilder.isStateSaved(savedState));
+
+		env.addClass(projectPath, "a", "A", //$NON-NLS-1$ //$NON-NLS-2$
+			"package a;\n" +
+			"public class A {\n" +
+			"	public void foo(int i) {}\n" +
+			"}" //$NON-NLS-1$
+		);
+		env.removeFile(pathToB);
+		env.addClass(projectPath, "c", "C", //$NON-NLS-1$ //$NON-NLS-2$
+			"package c;\n" +
+			"public class C {\n" +
+			"	a.A a;\n" +
+			"}" //$NON-NLS-1$
+		);
+		incrementalBuild();
+
+		State changedState = (State) info.savedState;
+		assertFalse(JavaBuilder.isStateSaved(changedState));
+		outputStream = new ByteArrayOutputStream();
+		assertTrue(JavaBuilder.writeStateChanges(changedState, new DataOutputStream(outputStream)));
+		assertTrue(JavaBuilder.isStateSaved(changedState));
+
+		// the state file and the changes written since give back the changed state
+		State readState = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(bytes)));
+		JavaBuilder.readStateChanges(readState, project, new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray())));
+		assertEqualLookupTables(changedState.getReferences(), readState.getReferences());
+		assertEqualTypeLocators(changedState.typeLocators, readState.typeLocators);
+		assertEquals(readState, changedState);
+		assertTrue(JavaBuilder.isStateSaved(readState));
+	}
+
 	private void writeReadAndCompareTestBinaryLocations(IPath projectPath)
 			throws JavaModelException, IOException, CoreException {
 		JavaModelManager javaModelManager = JavaModelManager.getJavaModelManager();
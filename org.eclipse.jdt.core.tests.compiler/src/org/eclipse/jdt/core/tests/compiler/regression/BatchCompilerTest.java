@@ -58,6 +58,7 @@ import org.eclipse.jdt.core.tests.util.AbstractCompilerTest;
 import org.eclipse.jdt.core.tests.util.Util;
 import org.eclipse.jdt.internal.compiler.batch.ClasspathDirectory;
 import org.eclipse.jdt.internal.compiler.batch.ClasspathJar;
+import org.eclipse.jdt.internal.compiler.batch.CompileServer;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem;
 import org.eclipse.jdt.internal.compiler.batch.Main;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
@@ -13476,4 +13477,183 @@ public void testIssue89_5() {
 				"error: warnings found and -failOnWarning specified\n",
 				true);
 }
+// method bodies read by parsing worker threads ahead of processing
+public void testParsingThreads() {
+	String setting = System.getProperty("jdt.compiler.parsingThreads");
+	try {
+		System.setProperty("jdt.compiler.parsingThreads", "2");
+		this.runNegativeTest(
+			new String[] {
+				"X.java",
+				"import java.util.function.Supplier;\n" +
+				"public class X {\n" +
+				"	Supplier<Y> s = Y::new;\n" +
+				"	void foo() {\n" +
+				"		Z z = new Z();\n" +
+				"		z.bar(Y::new);\n" +
+				"	}\n" +
+				"}",
+				"Y.java",
+				"public class Y {\n" +
+				"	void foo() {\n" +
+				"		int i = 0\n" +
+				"	}\n" +
+				"}",
+				"Z.java",
+				"import java.util.function.Supplier;\n" +
+				"public class Z {\n" +
+				"	void bar(Supplier<Y> s) {\n" +
+				"		s.get();\n" +
+				"	}\n" +
+				"}"
+			},
+			"\"" + OUTPUT_DIR +  File.separator + "X.java\""
+			+ " \"" + OUTPUT_DIR +  File.separator + "Y.java\""
+			+ " \"" + OUTPUT_DIR +  File.separator + "Z.java\""
+			+ " -1.8 -proc:none -d none",
+			"",
+			"----------\n" +
+			"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/Y.java (at line 3)\n" +
+			"	int i = 0\n" +
+			"	        ^\n" +
+			"Syntax error, insert \";\" to complete BlockStatements\n" +
+			"----------\n" +
+			"1 problem (1 error)\n",
+			true);
+	} finally {
+		if (setting == null)
+			System.clearProperty("jdt.compiler.parsingThreads");
+		else
+			System.setProperty("jdt.compiler.parsingThreads", setting);
+	}
+}
+public void testJarCache() throws IOException {
+	String setting = System.getProperty("jdt.compiler.jarCacheSize");
+	String libPath = LIB_DIR + File.separator + "cached.jar";
+	try {
+		System.setProperty("jdt.compiler.jarCacheSize", "16");
+		Util.createJar(
+			new String[] {
+				"p/A.java",
+				"package p;\n" +
+				"public class A {\n" +
+				"	public void foo() {}\n" +
+				"}"
+			},
+			null,
+			libPath,
+			JavaCore.VERSION_1_8);
+		String[] files = new String[] {
+			"X.java",
+			"public class X {\n" +
+			"	void test(p.A a) {\n" +
+			"		a.foo();\n" +
+			"		a.bar();\n" +
+			"	}\n" +
+			"}"
+		};
+		String commandLine = "\"" + OUTPUT_DIR +  File.separator + "X.java\""
+			+ " -classpath \"" + libPath + "\""
+			+ " -1.8 -proc:none -d none";
+		String expectedErrors =
+			"----------\n" +
+			"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/X.java (at line 4)\n" +
+			"	a.bar();\n" +
+			"	  ^^^\n" +
+			"The method bar() is undefined for the type A\n" +
+			"----------\n" +
+			"1 problem (1 error)\n";
+		this.runNegativeTest(files, commandLine, "", expectedErrors, true);
+		// the second compilation answers A from the cache
+		this.runNegativeTest(files, commandLine, "", expectedErrors, true);
+		// a modified jar is read again
+		Util.createJar(
+			new String[] {
+				"p/A.java",
+				"package p;\n" +
+				"public class A {\n" +
+				"	public void foo() {}\n" +
+				"	public void bar() {}\n" +
+				"}"
+			},
+			null,
+			libPath,
+			JavaCore.VERSION_1_8);
+		new File(libPath).setLastModified(System.currentTimeMillis() + 10000);
+		this.runConformTest(files, commandLine, "", "", true);
+	} finally {
+		if (setting == null)
+			System.clearProperty("jdt.compiler.jarCacheSize");
+		else
+			System.setProperty("jdt.compiler.jarCacheSize", setting);
+		Util.delete(libPath);
+	}
+}
+// more processed units than the queue between the processing and the writing threads can hold
+public void testProcessedUnitsQueue() {
+	int count = 3 * 100; // ProcessTaskManager.PROCESSED_QUEUE_SIZE
+	String[] files = new String[count * 2];
+	StringBuilder commandLine = new StringBuilder();
+	for (int i = 0; i < count; i++) {
+		files[i * 2] = "X" + i + ".java";
+		files[i * 2 + 1] =
+			"public class X" + i + " {\n" +
+			"	X" + ((i + 1) % count) + " next;\n" +
+			"}";
+		commandLine.append(" \"").append(OUTPUT_DIR).append(File.separator).append("X").append(i).append(".java\"");
+	}
+	commandLine.append(" -1.8 -proc:none -d \"").append(OUTPUT_DIR).append(File.separator).append("bin\"");
+	String setting = System.getProperty("jdt.compiler.useSingleThread");
+	try {
+		System.clearProperty("jdt.compiler.useSingleThread");
+		this.runConformTest(files, commandLine.toString(), "", "", true);
+	} finally {
+		if (setting != null)
+			System.setProperty("jdt.compiler.useSingleThread", setting);
+	}
+	for (int i = 0; i < count; i++) {
+		File classFile = new File(OUTPUT_DIR + File.separator + "bin" + File.separator + "X" + i + ".class");
+		assertTrue("Missing class file " + classFile, classFile.exists());
+	}
+}
+public void testCompileServer() throws IOException {
+	Util.createFile(OUTPUT_DIR + File.separator + "p" + File.separator + "X.java",
+		"package p;\n" +
+		"public class X {\n" +
+		"	Y y;\n" +
+		"}");
+	Util.createFile(OUTPUT_DIR + File.separator + "p" + File.separator + "Y.java",
+		"package p;\n" +
+		"public class Y {\n" +
+		"}");
+	String options = " -1.8 -proc:none -d none";
+	String requests =
+		"\"" + OUTPUT_DIR + File.separator + "p" + File.separator + "X.java\"" + options + "\n" +
+		"\"" + OUTPUT_DIR + File.separator + "p" + File.separator + "X.java\" -sourcepath \"" + OUTPUT_DIR + "\"" + options + "\n" +
+		"\n" +
+		"ignored after the empty line\n";
+	java.io.StringWriter responses = new java.io.StringWriter();
+	int served = CompileServer.serve(new java.io.BufferedReader(new java.io.StringReader(requests)), responses);
+	assertEquals("Unexpected number of requests served", 2, served);
+	String expectedErrors =
+		"----------\n" +
+		"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/p/X.java (at line 3)\n" +
+		"	Y y;\n" +
+		"	^\n" +
+		"Y cannot be resolved to a type\n" +
+		"----------\n" +
+		"1 problem (1 error)\n";
+	java.io.BufferedReader reader = new java.io.BufferedReader(new java.io.StringReader(responses.toString()));
+	assertEquals("Unexpected first response",
+		"1 " + expectedErrors,
+		readCompileServerResponse(reader).replace(OUTPUT_DIR, "---OUTPUT_DIR_PLACEHOLDER---").replace(File.separatorChar, '/'));
+	assertEquals("Unexpected second response", "0 ", readCompileServerResponse(reader));
+	assertNull("Unexpected extra response", reader.readLine());
+}
+private String readCompileServerResponse(java.io.BufferedReader reader) throws IOException {
+	String[] header = reader.readLine().split(" ");
+	char[] output = new char[Integer.parseInt(header[1])];
+	assertEquals("Truncated response", output.length, reader.read(output));
+	return header[0] + ' ' + Util.convertToIndependantLineDelimiter(new String(output));
+}
 }
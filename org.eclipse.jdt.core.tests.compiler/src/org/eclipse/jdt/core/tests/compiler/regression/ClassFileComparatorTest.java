@@ -471,4 +471,62 @@ public class ClassFileComparatorTest extends AbstractRegressionTest {
 			removeTempClass("A016");
 		}
 	}
+
+	private long getStructuralFingerprint(String classFile) {
+		try {
+			return ClassFileReader.read(EVAL_DIRECTORY + File.separator + classFile + ".class").getStructuralFingerprint();
+		} catch(IOException | ClassFormatException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	public void test017() {
+		try {
+			String sourceA017 =
+				"public class A017 {\n" +
+				"  public static final int K = 1;\n" +
+				"  public int foo() {\n" +
+				"    return 2;\n" +
+				"  }\n" +
+				"  public String toString() {\n" +
+				"    return \"hello\";\n" +
+				"  }\n" +
+				"}";
+			compileAndDeploy(sourceA017, "A017");
+			long fingerprint = getStructuralFingerprint("A017");
+			String sourceA017_2 =
+				"public class A017 {\n" +
+				"  public String toString() {\n" +
+				"    return \"bye\";\n" +
+				"  }\n" +
+				"  public int foo() {\n" +
+				"    return 3;\n" +
+				"  }\n" +
+				"  public static final int K = 1;\n" +
+				"}";
+			compileAndDeploy(sourceA017_2, "A017");
+			assertEquals("Unexpected structural change", fingerprint, getStructuralFingerprint("A017"));
+		} finally {
+			removeTempClass("A017");
+		}
+	}
+
+	public void test018() {
+		try {
+			String sourceA018 =
+				"public class A018 {\n" +
+				"  public static final int K = 1;\n" +
+				"}";
+			compileAndDeploy(sourceA018, "A018");
+			long fingerprint = getStructuralFingerprint("A018");
+			String sourceA018_2 =
+				"public class A018 {\n" +
+				"  public static final int K = 2;\n" +
+				"}";
+			compileAndDeploy(sourceA018_2, "A018");
+			assertTrue("Missing structural change", fingerprint != getStructuralFingerprint("A018"));
+		} finally {
+			removeTempClass("A018");
+		}
+	}
 }
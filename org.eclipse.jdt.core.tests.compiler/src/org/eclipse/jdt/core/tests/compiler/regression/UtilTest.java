@@ -14,10 +14,27 @@
 package org.eclipse.jdt.core.tests.compiler.regression;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 //import org.apache.tools.ant.types.selectors.SelectorUtils;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.compiler.util.CtSym;
+import org.eclipse.jdt.internal.compiler.util.JRTUtil;
+import org.eclipse.jdt.internal.compiler.util.Util;
 
 //import junit.framework.AssertionFailedError;
 import junit.framework.Test;
@@ -743,6 +760,148 @@ public void test73b() { // previous test cases but with 3.3 behavior
 	// Verify that there were no unexpected results
     assertTrue(this.camelCaseErrors.toString(), this.camelCaseErrors.length()==0);
 }
+// sources made of ASCII characters, possibly followed by other characters, are decoded as by the charset
+public void testDecodeAsciiPrefix() throws IOException {
+	String ascii = "public class X {\n\tString s = \"abc\";\n}\n";
+	String[] contents = {
+		"",
+		ascii,
+		ascii + "// \u00e9t\u00e9\n", // non-ASCII characters after a long ASCII prefix
+		"/* \u00e9 */" + ascii, // non-ASCII characters near the start
+		ascii + "\u20ac\ud83d\ude00\n", // a 3 bytes and a 4 bytes UTF-8 sequence
+	};
+	for (String content : contents) {
+		for (String encoding : new String[] {"UTF-8", "ISO-8859-1", "US-ASCII", "UTF-16"}) {
+			byte[] bytes = content.getBytes(encoding);
+			assertEquals("Unexpected decoding with " + encoding + " of: " + content,
+					new String(bytes, encoding), new String(Util.bytesToChar(bytes, encoding)));
+		}
+	}
+	// the UTF-8 byte order mark is skipped
+	byte[] bytes = ("\ufeff" + ascii).getBytes(StandardCharsets.UTF_8);
+	assertEquals(ascii, new String(Util.bytesToChar(bytes, "UTF-8")));
+}
+// background threads are daemon threads, and virtual threads only when requested and supported by the VM
+public void testNewBackgroundThread() throws Exception {
+	String setting = System.getProperty("jdt.compiler.useVirtualThreads");
+	try {
+		System.clearProperty("jdt.compiler.useVirtualThreads");
+		Thread thread = Util.newBackgroundThread(() -> {}, "Background Thread");
+		assertEquals("Background Thread", thread.getName());
+		assertEquals(Thread.State.NEW, thread.getState());
+		assertTrue("Should be a daemon thread", thread.isDaemon());
+		assertFalse("Should not be a virtual thread", isVirtual(thread));
+
+		System.setProperty("jdt.compiler.useVirtualThreads", "true");
+		assertEquals(Runtime.version().feature() >= 21, Util.useVirtualThreads());
+		thread = Util.newBackgroundThread(() -> {}, "Background Thread");
+		assertEquals("Background Thread", thread.getName());
+		assertTrue("Should be a daemon thread", thread.isDaemon());
+		assertEquals(Util.useVirtualThreads(), isVirtual(thread));
+		thread.start();
+		thread.join();
+	} finally {
+		if (setting == null)
+			System.clearProperty("jdt.compiler.useVirtualThreads");
+		else
+			System.setProperty("jdt.compiler.useVirtualThreads", setting);
+	}
+}
+private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+	try {
+		return ((Boolean) Thread.class.getMethod("isVirtual").invoke(thread)).booleanValue();
+	} catch (NoSuchMethodException e) {
+		return false; // before Java 21
+	}
+}
+// the package tables shared through JRTUtil answer what walking the module image answers
+public void testJrtPackageTables() throws IOException {
+	File image = new File(System.getProperty("java.home"));
+	final Map<String, Set<String>> walkedPackages = new HashMap<>();
+	final List<String> walkedFiles = new ArrayList<>();
+	JRTUtil.walkModuleImage(image, new JRTUtil.JrtFileVisitor<Path>() {
+		@Override
+		public FileVisitResult visitPackage(Path dir, Path mod, BasicFileAttributes attrs) {
+			walkedPackages.get(mod.toString()).add(dir.toString());
+			return FileVisitResult.CONTINUE;
+		}
+		@Override
+		public FileVisitResult visitFile(Path file, Path mod, BasicFileAttributes attrs) {
+			if (JRTUtil.JAVA_BASE.equals(mod.toString()) && "java/lang".equals(String.valueOf(file.getParent())))
+				walkedFiles.add(file.getFileName().toString());
+			return FileVisitResult.CONTINUE;
+		}
+		@Override
+		public FileVisitResult visitModule(Path path, String name) {
+			walkedPackages.put(name, new HashSet<>());
+			return FileVisitResult.CONTINUE;
+		}
+	}, JRTUtil.NOTIFY_ALL);
+
+	Map<String, Set<String>> packages = JRTUtil.getPackagesByModule(image, null);
+	assertEquals(walkedPackages, packages);
+	assertSame("Should be computed once", packages, JRTUtil.getPackagesByModule(image, null));
+	try {
+		packages.get(JRTUtil.JAVA_BASE).add("p");
+		fail("Should not be modifiable");
+	} catch (UnsupportedOperationException e) {
+		// expected
+	}
+
+	List<String> files = JRTUtil.getPackageFileNames(image, "java/lang", JRTUtil.JAVA_BASE);
+	assertTrue("Should list java/lang/Object.class", files.contains("Object.class"));
+	assertEquals(new HashSet<>(walkedFiles), new HashSet<>(files));
+	assertSame("Should be cached", files, JRTUtil.getPackageFileNames(image, "java/lang", JRTUtil.JAVA_BASE));
+	assertTrue(JRTUtil.getPackageFileNames(image, "no/such/pkg", JRTUtil.JAVA_BASE).isEmpty());
+}
+// the paths of the files of a release of ct.sym are persisted, and read back unless the index is outdated
+public void testCtSymReleaseIndex() throws IOException {
+	Path jdkHome = Paths.get(System.getProperty("java.home"));
+	if (!Files.exists(jdkHome.resolve("lib/ct.sym")))
+		return;
+	String[] names = {"java/lang/Object.sig", "java/util/List.sig", "java/lang/NoSuchType.sig"};
+	String releaseCode = CtSym.getReleaseCode("8");
+	Path indexDir = Files.createTempDirectory("ctsym");
+	Path indexFile = indexDir.resolve(CtSym.getReleaseIndexFileName(jdkHome.resolve("lib/ct.sym"), releaseCode));
+	String setting = System.getProperty(CtSym.INDEX_DIRECTORY_PROPERTY);
+	try {
+		System.setProperty(CtSym.INDEX_DIRECTORY_PROPERTY, indexDir.toString());
+		JRTUtil.reset();
+		String expected = getFullPaths(JRTUtil.getCtSym(jdkHome), releaseCode, names);
+		assertTrue("Should find java/lang/Object.sig: " + expected, expected.startsWith("/"));
+		assertTrue("Should write the index", Files.isRegularFile(indexFile));
+		long size = Files.size(indexFile);
+
+		// read back: the index is not written again
+		FileTime written = FileTime.fromMillis(1000);
+		Files.setLastModifiedTime(indexFile, written);
+		JRTUtil.reset();
+		assertEquals(expected, getFullPaths(JRTUtil.getCtSym(jdkHome), releaseCode, names));
+		assertEquals("Should read the index", written, Files.getLastModifiedTime(indexFile));
+
+		// outdated: ct.sym is walked again and the index replaced
+		Files.write(indexFile, new byte[] {0, 0, 0, 0});
+		Files.setLastModifiedTime(indexFile, written);
+		JRTUtil.reset();
+		assertEquals(expected, getFullPaths(JRTUtil.getCtSym(jdkHome), releaseCode, names));
+		assertFalse("Should replace the index", written.equals(Files.getLastModifiedTime(indexFile)));
+		assertEquals(size, Files.size(indexFile));
+	} finally {
+		if (setting == null)
+			System.clearProperty(CtSym.INDEX_DIRECTORY_PROPERTY);
+		else
+			System.setProperty(CtSym.INDEX_DIRECTORY_PROPERTY, setting);
+		JRTUtil.reset();
+		Files.deleteIfExists(indexFile);
+		Files.deleteIfExists(indexDir);
+	}
+}
+private static String getFullPaths(CtSym ctSym, String releaseCode, String[] names) {
+	StringBuilder paths = new StringBuilder();
+	for (String name : names)
+		paths.append(ctSym.getFullPath(releaseCode, name, null)).append('\n');
+	return paths.toString();
+}
 public static Class testClass() {
 	return UtilTest.class;
 }
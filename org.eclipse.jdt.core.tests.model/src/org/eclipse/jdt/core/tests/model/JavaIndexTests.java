@@ -35,11 +35,14 @@ import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.index.*;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.tests.util.Util;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.UserLibraryClasspathContainer;
+import org.eclipse.jdt.internal.core.index.DiskIndex;
 import org.osgi.service.prefs.BackingStoreException;
 
 public class JavaIndexTests extends AbstractJavaSearchTests  {
@@ -134,6 +137,85 @@ public class JavaIndexTests extends AbstractJavaSearchTests  {
 		}
 	}
 
+	// Test that the words of an index file spanning several blocks are found by the different match rules
+	public void testUseIndexWithSeveralBlocks() throws CoreException, IOException {
+		useIndexWithSeveralBlocks(false);
+	}
+
+	// Test that the words of an index file spanning several pages are found when the index file is not mapped in memory
+	public void testUseIndexWithSeveralBlocksUnmapped() throws CoreException, IOException {
+		boolean mapIndexFiles = DiskIndex.MAP_INDEX_FILES;
+		DiskIndex.MAP_INDEX_FILES = false;
+		try {
+			useIndexWithSeveralBlocks(false);
+		} finally {
+			DiskIndex.MAP_INDEX_FILES = mapIndexFiles;
+		}
+	}
+
+	// Test that the words of an index file spanning several pages are found when the index file is in a jar file
+	public void testUseIndexWithSeveralBlocksInJar() throws CoreException, IOException {
+		useIndexWithSeveralBlocks(true);
+	}
+
+	private void useIndexWithSeveralBlocks(boolean indexInJar) throws CoreException, IOException {
+		String indexFilePath = getExternalResourcePath("Test.index");
+		String jarFilePath = getExternalResourcePath("Test.jar");
+		String indexZipPath = getExternalResourcePath("TestIndex.zip");
+		try {
+			// enough types for the category tables and the document names to span several pages of the index file
+			String[] pathAndContents = new String[2002];
+			for (int i = 0; i < 1000; i++) {
+				String name = "Type" + (i < 100 ? "0" : "") + (i < 10 ? "0" : "") + i;
+				pathAndContents[i * 2] = "pkg/" + name + ".java";
+				pathAndContents[i * 2 + 1] = "package pkg;\n" + "public class " + name + " {}";
+			}
+			pathAndContents[2000] = "pkg/OtherType.java";
+			pathAndContents[2001] = "package pkg;\n" + "public class OtherType {}";
+			createJar(pathAndContents, jarFilePath);
+			JavaIndexer.generateIndexForJar(jarFilePath, indexFilePath);
+			assertTrue("Index file should span several pages", new File(indexFilePath).length() > 8192);
+			String url = "file:///" + indexFilePath;
+			if (indexInJar) {
+				Util.zipFiles(new File[]{new File(indexFilePath)}, indexZipPath);
+				url = "jar:file:" + indexZipPath + "!/Test.index";
+			}
+
+			IJavaProject p = createJavaProject("P");
+			Path libPath = new Path(jarFilePath);
+			IClasspathAttribute attribute = JavaCore.newClasspathAttribute(IClasspathAttribute.INDEX_LOCATION_ATTRIBUTE_NAME, url);
+			IClasspathEntry entry = JavaCore.newLibraryEntry(libPath, null, null, null, new IClasspathAttribute[]{attribute}, false);
+			setClasspath(p, new IClasspathEntry[] {entry});
+			waitUntilIndexesReady();
+			assertEquals(url, JavaModelManager.getIndexManager().getIndex(libPath, false, false).getIndexLocation().getUrl().toString());
+			IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[]{p});
+
+			search("Type997", TYPE, DECLARATIONS, EXACT_RULE, scope);
+			assertSearchResults(getExternalPath() + "Test.jar pkg.Type997");
+
+			this.resultCollector = new JavaSearchResultCollector();
+			search("Type5", TYPE, DECLARATIONS, SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE, scope);
+			assertEquals("Unexpected number of prefix matches", 100, this.resultCollector.count);
+
+			this.resultCollector = new JavaSearchResultCollector();
+			search("Type?3?", TYPE, DECLARATIONS, SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE, scope);
+			assertEquals("Unexpected number of pattern matches", 100, this.resultCollector.count);
+
+			this.resultCollector = new JavaSearchResultCollector();
+			search("OT", TYPE, DECLARATIONS, SearchPattern.R_CAMELCASE_MATCH, scope);
+			assertSearchResults(getExternalPath() + "Test.jar pkg.OtherType");
+
+			this.resultCollector = new JavaSearchResultCollector();
+			search("Type", TYPE, DECLARATIONS, SearchPattern.R_PREFIX_MATCH, scope);
+			assertEquals("Unexpected number of matches", 1000, this.resultCollector.count);
+		} finally {
+			deleteProject("P");
+			new File(indexFilePath).delete();
+			new File(indexZipPath).delete();
+			new File(jarFilePath).delete();
+		}
+	}
+
 	// Test that the same index file is used even after restarting
 	public void testUseIndexAfterRestart() throws IOException, CoreException {
 		String indexFilePath = getExternalResourcePath("Test.index");
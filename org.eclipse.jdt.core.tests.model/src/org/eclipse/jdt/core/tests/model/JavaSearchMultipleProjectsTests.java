@@ -22,10 +22,13 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
 import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.core.tests.model.AbstractJavaSearchTests.JavaSearchResultCollector;
 import org.eclipse.jdt.core.tests.model.AbstractJavaSearchTests.TypeNameMatchCollector;
+import org.eclipse.jdt.internal.core.search.matching.MatchLocator;
 import org.eclipse.jdt.internal.core.search.matching.PatternLocator;
 
 /**
@@ -1572,4 +1575,68 @@ public void testBug250454_jars() throws CoreException, IOException {
 		deleteProject("P2");
 	}
 }
+/**
+ * Ensure that the matches located in parallel are reported as the sequential search reports them.
+ */
+public void testParallelMatchLocating() throws CoreException {
+	IEclipsePreferences preferences = InstanceScope.INSTANCE.getNode(JavaCore.PLUGIN_ID);
+	try {
+		// setup project P1
+		createJavaProject("P1");
+		createFolder("/P1/p1");
+		createFile(
+			"/P1/p1/X.java",
+			"package p1;\n" +
+			"public class X {\n" +
+			"	public void foo() {}\n" +
+			"	void bar() { foo(); }\n" +
+			"}"
+		);
+
+		// setup projects P2 and P3
+		for (int i = 2; i <= 3; i++) {
+			createJavaProject("P" + i, new String[] {""}, new String[] {"JCL_LIB"}, new String[] {"/P1"}, "");
+			createFolder("/P" + i + "/q");
+			createFile(
+				"/P" + i + "/q/Y.java",
+				"package q;\n" +
+				"public class Y {\n" +
+				"	void bar(p1.X x) { x.foo(); }\n" +
+				"}"
+			);
+			createFile(
+				"/P" + i + "/q/Z.java",
+				"package q;\n" +
+				"public class Z {\n" +
+				"	void baz() { new p1.X().foo(); }\n" +
+				"}"
+			);
+		}
+
+		IMethod method = getCompilationUnit("/P1/p1/X.java").getType("X").getMethod("foo", new String[0]);
+		String expected =
+			"p1/X.java [in P1] void p1.X.bar() [foo()] EXACT_MATCH\n" +
+			"q/Y.java [in P2] void q.Y.bar(p1.X) [foo()] EXACT_MATCH\n" +
+			"q/Z.java [in P2] void q.Z.baz() [foo()] EXACT_MATCH\n" +
+			"q/Y.java [in P3] void q.Y.bar(p1.X) [foo()] EXACT_MATCH\n" +
+			"q/Z.java [in P3] void q.Z.baz() [foo()] EXACT_MATCH";
+		JavaSearchResultCollector resultCollector = new JavaSearchResultCollector();
+		resultCollector.showProject();
+		resultCollector.showAccuracy(true);
+		search(method, REFERENCES, SearchEngine.createWorkspaceScope(), resultCollector);
+		assertSearchResults("Unexpected references to " + method, expected, resultCollector);
+
+		preferences.putBoolean(MatchLocator.ENABLE_PARALLEL_MATCH_LOCATING, true);
+		resultCollector = new JavaSearchResultCollector();
+		resultCollector.showProject();
+		resultCollector.showAccuracy(true);
+		search(method, REFERENCES, SearchEngine.createWorkspaceScope(), resultCollector);
+		assertSearchResults("Unexpected references to " + method + " located in parallel", expected, resultCollector);
+	} finally {
+		preferences.remove(MatchLocator.ENABLE_PARALLEL_MATCH_LOCATING);
+		deleteProject("P1");
+		deleteProject("P2");
+		deleteProject("P3");
+	}
+}
 }
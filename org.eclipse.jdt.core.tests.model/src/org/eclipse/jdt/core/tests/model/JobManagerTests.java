@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Test;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.internal.core.search.processing.IJob;
+import org.eclipse.jdt.internal.core.search.processing.JobManager;
+
+/**
+ * Tests the scheduling of the jobs of a job manager executing the jobs of different indexes concurrently.
+ */
+public class JobManagerTests extends TestCase {
+
+	private static final String PROCESS_NAME = "JobManagerTests";
+	private static final long TIMEOUT = 30000;
+
+	private TestJobManager manager;
+
+	class TestJobManager extends JobManager {
+		final List<String> events = new ArrayList<>();
+		final Set<Object> runningKeys = new HashSet<>();
+		int running;
+		int maxRunning;
+		String error;
+
+		@Override
+		public String processName() {
+			return PROCESS_NAME;
+		}
+
+		@Override
+		protected int getMaxConcurrentJobs() {
+			return 3;
+		}
+
+		synchronized void started(TestJob job) {
+			this.running++;
+			this.maxRunning = Math.max(this.maxRunning, this.running);
+			if (job.indexKey == null && this.running > 1 && this.error == null)
+				this.error = job + " started while other jobs were running";
+			if (job.indexKey != null && !this.runningKeys.add(job.indexKey) && this.error == null)
+				this.error = job + " started while a job of the same index was running";
+			this.events.add("start " + job);
+		}
+
+		synchronized void ended(TestJob job) {
+			this.running--;
+			if (job.indexKey != null)
+				this.runningKeys.remove(job.indexKey);
+			this.events.add("end " + job);
+		}
+
+		synchronized int indexOf(String event) {
+			return this.events.indexOf(event);
+		}
+	}
+
+	class TestJob implements IJob {
+		final String name;
+		final String family;
+		final Object indexKey;
+		final long duration;
+		volatile boolean started;
+		volatile boolean ended;
+		volatile boolean canceled;
+
+		TestJob(String name, String family, Object indexKey, long duration) {
+			this.name = name;
+			this.family = family;
+			this.indexKey = indexKey;
+			this.duration = duration;
+		}
+
+		@Override
+		public boolean belongsTo(String jobFamily) {
+			return this.family.equals(jobFamily);
+		}
+
+		@Override
+		public void cancel() {
+			this.canceled = true;
+		}
+
+		@Override
+		public void ensureReadyToRun() {
+			// always ready
+		}
+
+		@Override
+		public boolean execute(IProgressMonitor progress) {
+			JobManagerTests.this.manager.started(this);
+			this.started = true;
+			try {
+				long end = System.currentTimeMillis() + this.duration;
+				while (!this.canceled && System.currentTimeMillis() < end)
+					Thread.sleep(5);
+			} catch (InterruptedException e) {
+				// stop
+			} finally {
+				JobManagerTests.this.manager.ended(this);
+				this.ended = true;
+			}
+			return !this.canceled;
+		}
+
+		@Override
+		public String getJobFamily() {
+			return this.family;
+		}
+
+		@Override
+		public Object getIndexKey() {
+			return this.indexKey;
+		}
+
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+
+	public static Test suite() {
+		return buildTestSuite(JobManagerTests.class);
+	}
+
+	public JobManagerTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		this.manager = new TestJobManager();
+		this.manager.reset(); // starts the background thread
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.manager.shutdown();
+		this.manager = null;
+		super.tearDown();
+	}
+
+	private TestJob request(String name, String family, Object indexKey, long duration) {
+		TestJob job = new TestJob(name, family, indexKey, duration);
+		this.manager.request(job);
+		return job;
+	}
+
+	private void waitUntilAllDone() throws InterruptedException {
+		long timeout = System.currentTimeMillis() + TIMEOUT;
+		while (this.manager.awaitingJobsCount() > 0) {
+			if (System.currentTimeMillis() > timeout)
+				fail("Jobs not done: " + this.manager.events);
+			Thread.sleep(10);
+		}
+	}
+
+	private void waitUntilStarted(TestJob job) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + TIMEOUT;
+		while (!job.started) {
+			if (System.currentTimeMillis() > timeout)
+				fail(job + " not started: " + this.manager.events);
+			Thread.sleep(10);
+		}
+	}
+
+	private void assertBefore(String event, String laterEvent) {
+		int index = this.manager.indexOf(event);
+		int laterIndex = this.manager.indexOf(laterEvent);
+		assertTrue("Missing " + event + " in " + this.manager.events, index >= 0);
+		assertTrue("Missing " + laterEvent + " in " + this.manager.events, laterIndex >= 0);
+		assertTrue(event + " should be before " + laterEvent + " in " + this.manager.events, index < laterIndex);
+	}
+
+	// Test that the jobs of different indexes run concurrently, and the jobs of the same index in the order of the queue
+	public void testSameIndexKeyInQueueOrder() throws InterruptedException {
+		request("a1", "f", "A", 100);
+		request("a2", "f", "A", 50);
+		request("b1", "f", "B", 100);
+		request("a3", "f", "A", 10);
+		request("b2", "f", "B", 10);
+		request("c1", "f", "C", 100);
+		waitUntilAllDone();
+		assertNull(this.manager.error, this.manager.error);
+		assertBefore("end a1", "start a2");
+		assertBefore("end a2", "start a3");
+		assertBefore("end b1", "start b2");
+		assertTrue("Jobs of different indexes should run concurrently: " + this.manager.events, this.manager.maxRunning > 1);
+		assertTrue("At most 3 jobs should run concurrently: " + this.manager.events, this.manager.maxRunning <= 3);
+	}
+
+	// Test that a job without index key waits for the jobs before it, and the jobs after it wait for it
+	public void testJobWithoutIndexKey() throws InterruptedException {
+		request("a1", "f", "A", 100);
+		request("b1", "f", "B", 200);
+		request("x1", "f", null, 50);
+		request("c1", "f", "C", 10);
+		request("a2", "f", "A", 10);
+		waitUntilAllDone();
+		assertNull(this.manager.error, this.manager.error);
+		assertBefore("end a1", "start x1");
+		assertBefore("end b1", "start x1");
+		assertBefore("end x1", "start c1");
+		assertBefore("end x1", "start a2");
+	}
+
+	// Test that discarding a family cancels its running and awaiting jobs, and only waits for its running jobs
+	public void testDiscardJobsOfFamily() throws InterruptedException {
+		TestJob discarded1 = request("d1", "discarded", "A", TIMEOUT);
+		TestJob discarded2 = request("d2", "discarded", "B", TIMEOUT);
+		TestJob other = request("o1", "other", "C", TIMEOUT);
+		TestJob awaiting = request("d3", "discarded", "A", 10);
+		waitUntilStarted(discarded1);
+		waitUntilStarted(discarded2);
+		waitUntilStarted(other);
+
+		this.manager.discardJobs("discarded");
+		assertTrue("Running job of the family should be canceled", discarded1.canceled && discarded2.canceled);
+		assertTrue("Running jobs of the family should be waited for", discarded1.ended && discarded2.ended);
+		assertTrue("Awaiting job of the family should be canceled", awaiting.canceled);
+		assertFalse("Awaiting job of the family should not run", awaiting.started);
+		assertFalse("Job of another family should not be canceled", other.canceled);
+		assertFalse("Job of another family should not be waited for", other.ended);
+		assertEquals("Unexpected awaiting jobs", 1, this.manager.awaitingJobsCount());
+
+		// the discarded jobs do not block the other jobs of their indexes
+		TestJob next = request("a1", "f", "A", 10);
+		waitUntilStarted(next);
+		other.cancel();
+		waitUntilAllDone();
+		assertNull(this.manager.error, this.manager.error);
+	}
+
+	// Test that shutting down stops the background thread and the workers
+	public void testShutdown() throws InterruptedException {
+		request("a1", "f", "A", 10);
+		request("b1", "f", "B", 10);
+		request("c1", "f", "C", 10);
+		waitUntilAllDone();
+		assertFalse("No thread of the job manager", processThreads().isEmpty());
+		// unlike virtual threads, the workers are less prioritary
+		for (Thread thread : processThreads())
+			assertTrue("Unexpected priority of " + thread, thread.getPriority() < Thread.NORM_PRIORITY);
+
+		TestJob running = request("d1", "f", "D", TIMEOUT);
+		waitUntilStarted(running);
+		this.manager.shutdown();
+		assertTrue("Running job should be canceled", running.canceled && running.ended);
+		long timeout = System.currentTimeMillis() + TIMEOUT;
+		List<Thread> threads;
+		while (!(threads = processThreads()).isEmpty()) {
+			if (System.currentTimeMillis() > timeout)
+				fail("Threads still alive: " + threads);
+			Thread.sleep(10);
+		}
+	}
+
+	private static List<Thread> processThreads() {
+		List<Thread> threads = new ArrayList<>();
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+			if (PROCESS_NAME.equals(thread.getName()) && thread.isAlive())
+				threads.add(thread);
+		return threads;
+	}
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.TreeSet;
+
+import junit.framework.Test;
+
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.FileIndexLocation;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+
+/**
+ * Tests that the substring and subword queries of a disk index, which only match the words having the n-grams of the
+ * key, answer the words matching the key according to {@link Index#isMatch(char[], char[], int)}.
+ */
+public class NgramIndexTests extends TestCase {
+
+	private static final char[][] CATEGORIES = { IIndexConstants.REF };
+
+	private static final String[] PARTS = {
+		"Array", "Exception", "Hash", "Http", "List", "Map", "Null", "Pointer", "Request", "Type", "XML", "abc", "x", "Zz"
+	};
+
+	private static final String[] KEYS = {
+		"a", "A", "x", "Z", // 1 character
+		"ab", "Ab", "AB", "zz", // 2 characters
+		"abc", "aBc", "ABC", "map", "Map", "MAP", "NPE", "nPE", "zzz", // 3 characters
+		"hashmap", "HashMap", "mapHash", "NuPoEx", "pointerexc", "PointerException", "ointerExc", "xmlhttp", "XMLHttp",
+		"HttpReq", "ArrayListMap", "qqqq"
+	};
+
+	private static final int[] RULES = {
+		SearchPattern.R_SUBSTRING_MATCH,
+		SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_CASE_SENSITIVE,
+		SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_PREFIX_MATCH,
+		SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_CAMELCASE_MATCH,
+		SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE,
+		SearchPattern.R_SUBWORD_MATCH,
+		SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CASE_SENSITIVE,
+		SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CAMELCASE_MATCH,
+		SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH,
+		SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH,
+	};
+
+	private File indexFile;
+	private Index index;
+	private TreeSet<String> words;
+
+	public static Test suite() {
+		return buildTestSuite(NgramIndexTests.class);
+	}
+
+	public NgramIndexTests(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		// the words of the parts and of the pairs of parts: several blocks of 32 words, the last one being partial
+		this.words = new TreeSet<>();
+		for (String part : PARTS) {
+			this.words.add(part);
+			for (String other : PARTS)
+				this.words.add(part + other);
+		}
+		this.words.add("A");
+		this.words.add("a");
+		this.words.add("ab");
+		this.words.add("AB");
+		this.words.add("aBc");
+		this.words.add("NPE");
+		this.words.add("Ab$1");
+		this.words.add("zzz");
+		assertTrue("The last block should be partial", this.words.size() % 32 != 0);
+
+		this.indexFile = File.createTempFile("NgramIndexTests", ".index");
+		this.index = new Index(new FileIndexLocation(this.indexFile), "/P", false);
+		int document = 0;
+		for (String word : this.words)
+			this.index.addIndexEntry(IIndexConstants.REF, word.toCharArray(), "X" + (document++ % 10) + ".java");
+		this.index.save(); // queries the disk index
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		this.index = null;
+		this.indexFile.delete();
+		super.tearDown();
+	}
+
+	private TreeSet<String> assertQuery(String key, int matchRule) throws IOException {
+		TreeSet<String> expected = new TreeSet<>();
+		for (String word : this.words)
+			if (Index.isMatch(key.toCharArray(), word.toCharArray(), matchRule))
+				expected.add(word);
+		TreeSet<String> actual = new TreeSet<>();
+		this.index.startQuery();
+		try {
+			EntryResult[] entries = this.index.query(CATEGORIES, key.toCharArray(), matchRule);
+			if (entries != null)
+				for (EntryResult entry : entries)
+					actual.add(new String(entry.getWord()));
+		} finally {
+			this.index.stopQuery();
+		}
+		assertEquals("Unexpected words matching " + key + " with rule " + matchRule, expected.toString(), actual.toString());
+		return expected;
+	}
+
+	// Test the keys of 1, 2, 3 and more characters, in lower, upper and mixed case
+	public void testSubstringAndSubwordKeys() throws IOException {
+		for (String key : KEYS)
+			for (int rule : RULES)
+				assertQuery(key, rule);
+	}
+
+	// Test that the candidates are found in all the blocks of words, up to the last partial block
+	public void testSeveralBlocks() throws IOException {
+		int lastBlock = (this.words.size() - 1) / 32;
+		TreeSet<Integer> blocks = blocksOf(assertQuery("zz", SearchPattern.R_SUBSTRING_MATCH));
+		assertTrue("Should match in several blocks", blocks.size() > 1);
+		assertEquals("Should match in the last partial block", lastBlock, blocks.last().intValue());
+
+		blocks = blocksOf(assertQuery("Zz", SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CASE_SENSITIVE));
+		assertTrue("Should match in several blocks", blocks.size() > 1);
+		assertEquals("Should match in the last partial block", lastBlock, blocks.last().intValue());
+
+		TreeSet<String> matches = assertQuery("AZ", SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE);
+		assertTrue("Should match camel case words", matches.contains("ArrayZz"));
+	}
+
+	// the numbers of the blocks of 32 words holding the given words
+	private TreeSet<Integer> blocksOf(TreeSet<String> matches) {
+		TreeSet<Integer> blocks = new TreeSet<>();
+		int position = 0;
+		for (String word : this.words) {
+			if (matches.contains(word))
+				blocks.add(Integer.valueOf(position / 32));
+			position++;
+		}
+		return blocks;
+	}
+
+	// Test that the keys with wild cards are matched against every word
+	public void testWildcardKeys() throws IOException {
+		String[] keys = { "*ointer*", "p?inter", "N*E", "*", "?", "zz*", "*zz" };
+		int[] rules = {
+			SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_PATTERN_MATCH,
+			SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE,
+			SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_PATTERN_MATCH,
+		};
+		for (String key : keys)
+			for (int rule : rules)
+				assertQuery(key, rule);
+		assertEquals("Should match every word", this.words.size(), assertQuery("*", SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_PATTERN_MATCH).size());
+	}
+}
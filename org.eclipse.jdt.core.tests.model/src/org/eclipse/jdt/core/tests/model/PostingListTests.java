@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import junit.framework.Test;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.tests.junit.extension.TestCase;
+import org.eclipse.jdt.internal.compiler.env.AccessRuleSet;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.FileIndexLocation;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.index.PostingList;
+import org.eclipse.jdt.internal.core.search.AbstractSearchScope;
+import org.eclipse.jdt.internal.core.search.IndexQueryRequestor;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
+import org.eclipse.jdt.internal.core.search.matching.TypeReferencePattern;
+
+/**
+ * Tests the posting lists combining the document numbers of the index queries.
+ */
+public class PostingListTests extends TestCase {
+
+	private static final int GROUP = 1 << 16; // document numbers with the same high 16 bits are in the same group
+
+	public static Test suite() {
+		return buildTestSuite(PostingListTests.class);
+	}
+
+	public PostingListTests(String name) {
+		super(name);
+	}
+
+	private static TreeSet<Integer> numbers(int start, int end, int step) {
+		TreeSet<Integer> numbers = new TreeSet<>();
+		for (int number = start; number < end; number += step)
+			numbers.add(number);
+		return numbers;
+	}
+
+	@SafeVarargs
+	private static TreeSet<Integer> union(TreeSet<Integer>... sets) {
+		TreeSet<Integer> union = new TreeSet<>();
+		for (TreeSet<Integer> set : sets)
+			union.addAll(set);
+		return union;
+	}
+
+	private static PostingList postingList(TreeSet<Integer> numbers) {
+		int[] documentNumbers = new int[numbers.size()];
+		int index = 0;
+		for (Integer number : numbers)
+			documentNumbers[index++] = number.intValue();
+		return PostingList.of(documentNumbers);
+	}
+
+	private void assertDocumentNumbers(String message, TreeSet<Integer> expected, PostingList actual) {
+		int[] expectedNumbers = new int[expected.size()];
+		int index = 0;
+		for (Integer number : expected)
+			expectedNumbers[index++] = number.intValue();
+		int[] actualNumbers = actual.toArray();
+		assertTrue(message + ": unexpected document numbers, expected " + expected.size() + " but got " + actualNumbers.length,
+				Arrays.equals(expectedNumbers, actualNumbers));
+		assertEquals(message + ": unexpected cardinality", expected.size(), actual.cardinality());
+		assertEquals(message + ": unexpected emptiness", expected.isEmpty(), actual.isEmpty());
+	}
+
+	private void assertBitmaps(String message, int expected, PostingList actual) {
+		assertTrue(message + ": unexpected containers in " + actual, actual.toString().endsWith(", " + expected + " bitmaps"));
+	}
+
+	// Test that the numbers of a group are kept in an array up to MAX_ARRAY_SIZE numbers, and in a bitmap above
+	public void testArrayToBitmap() {
+		for (int size = PostingList.MAX_ARRAY_SIZE - 1; size <= PostingList.MAX_ARRAY_SIZE + 1; size++) {
+			TreeSet<Integer> numbers = numbers(GROUP - 2 * size, GROUP, 2); // the last numbers of the first group
+			PostingList postingList = postingList(numbers);
+			assertDocumentNumbers("Size " + size, numbers, postingList);
+			assertBitmaps("Size " + size, size > PostingList.MAX_ARRAY_SIZE ? 1 : 0, postingList);
+		}
+		// the numbers of the next group start a new array
+		TreeSet<Integer> numbers = union(numbers(0, 2 * PostingList.MAX_ARRAY_SIZE + 2, 2), numbers(GROUP, GROUP + 10, 1));
+		PostingList postingList = postingList(numbers);
+		assertDocumentNumbers("Two groups", numbers, postingList);
+		assertBitmaps("Two groups", 1, postingList);
+	}
+
+	// Test that the document numbers are answered sorted across groups and containers
+	public void testToArray() {
+		TreeSet<Integer> numbers = union(
+				numbers(0, 10, 1),
+				numbers(GROUP - 3, GROUP + 3, 1), // across the boundary of the first two groups
+				numbers(GROUP + 100, GROUP + 100 + 3 * 5000, 3), // a bitmap
+				numbers(5 * GROUP, 5 * GROUP + 4, 1),
+				numbers(Integer.MAX_VALUE - 2, Integer.MAX_VALUE, 1));
+		PostingList postingList = postingList(numbers);
+		assertDocumentNumbers("Sorted numbers", numbers, postingList);
+		assertBitmaps("Sorted numbers", 1, postingList);
+		assertDocumentNumbers("Empty", new TreeSet<>(), PostingList.EMPTY);
+	}
+
+	// Test the union of posting lists mixing arrays and bitmaps in several groups
+	public void testUnion() {
+		TreeSet<Integer> a = union(numbers(0, 3000, 3), numbers(GROUP, GROUP + 30000, 5), numbers(GROUP - 6, GROUP + 6, 1));
+		TreeSet<Integer> b = union(numbers(0, 20000, 2), numbers(GROUP + 1, GROUP + 4000, 4), numbers(2 * GROUP, 2 * GROUP + 100, 1));
+		TreeSet<Integer> c = union(numbers(GROUP - 6, GROUP + 6, 1), numbers(2 * GROUP + 50, 2 * GROUP + 150, 1), numbers(7 * GROUP, 7 * GROUP + 2, 1));
+		PostingList union = PostingList.union(new PostingList[] {postingList(a), postingList(b), postingList(c)});
+		assertDocumentNumbers("Union", union(a, b, c), union);
+		assertBitmaps("Union", 2, union);
+
+		PostingList single = postingList(a);
+		assertSame("Union of one posting list", single, PostingList.union(new PostingList[] {single}));
+		assertDocumentNumbers("Union of no posting list", new TreeSet<>(), PostingList.union(new PostingList[0]));
+
+		// arrays whose union has more than MAX_ARRAY_SIZE numbers
+		TreeSet<Integer> d = numbers(0, 8000, 4), e = numbers(1, 8000, 4), f = numbers(2, 8000, 4);
+		union = PostingList.union(new PostingList[] {postingList(d), postingList(e), postingList(f)});
+		assertDocumentNumbers("Union of arrays", union(d, e, f), union);
+		assertBitmaps("Union of arrays", 1, union);
+	}
+
+	// Test the intersection and the difference of posting lists mixing arrays and bitmaps in several groups
+	public void testAndAndNot() {
+		List<TreeSet<Integer>> sets = new ArrayList<>();
+		sets.add(union(numbers(0, 3000, 3), numbers(GROUP, GROUP + 30000, 5), numbers(GROUP - 6, GROUP + 6, 1))); // array, bitmap
+		sets.add(union(numbers(0, 20000, 2), numbers(GROUP + 1, GROUP + 4000, 4), numbers(2 * GROUP, 2 * GROUP + 100, 1))); // bitmap, array, array
+		sets.add(union(numbers(0, 30000, 3), numbers(GROUP, GROUP + 40000, 2))); // bitmaps
+		sets.add(union(numbers(GROUP - 6, GROUP + 6, 1), numbers(2 * GROUP + 50, 2 * GROUP + 150, 1))); // arrays
+		sets.add(new TreeSet<>());
+		for (int i = 0, size = sets.size(); i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				TreeSet<Integer> and = new TreeSet<>(sets.get(i));
+				and.retainAll(sets.get(j));
+				assertDocumentNumbers(i + " and " + j, and, postingList(sets.get(i)).and(postingList(sets.get(j))));
+				TreeSet<Integer> andNot = new TreeSet<>(sets.get(i));
+				andNot.removeAll(sets.get(j));
+				assertDocumentNumbers(i + " and not " + j, andNot, postingList(sets.get(i)).andNot(postingList(sets.get(j))));
+			}
+		}
+
+		// the intersection of bitmaps with at most MAX_ARRAY_SIZE numbers is an array
+		PostingList and = postingList(numbers(0, 20000, 2)).and(postingList(numbers(0, 20000, 3)));
+		assertDocumentNumbers("Bitmaps and", numbers(0, 20000, 6), and);
+		assertBitmaps("Bitmaps and", 0, and);
+		// the difference of a bitmap and an array with more than MAX_ARRAY_SIZE numbers is a bitmap
+		PostingList andNot = postingList(numbers(0, 20000, 2)).andNot(postingList(numbers(0, 4000, 2)));
+		assertDocumentNumbers("Bitmap and not array", numbers(4000, 20000, 2), andNot);
+		assertBitmaps("Bitmap and not array", 1, andNot);
+	}
+
+	// Test that an intersecting pattern queries the index again when a query saved the index, since the numbers of the
+	// documents answered by the previous queries are obsolete
+	public void testIntersectingPatternAfterSave() throws IOException {
+		File indexFile = File.createTempFile("PostingListTests", ".index");
+		try {
+			final int[] queries = new int[1];
+			Index index = new Index(new FileIndexLocation(indexFile), "/P", false) {
+				@Override
+				public EntryResult[] query(char[][] categories, char[] key, int matchRule) throws IOException {
+					if (++queries[0] == 2) {
+						// as if the memory index had to be merged: 0.java is numbered before the documents of the previous query
+						addIndexEntry(IIndexConstants.REF, "p".toCharArray(), "0.java");
+						save();
+					}
+					return super.query(categories, key, matchRule);
+				}
+			};
+			index.addIndexEntry(IIndexConstants.REF, "p".toCharArray(), "A.java");
+			index.addIndexEntry(IIndexConstants.REF, "q".toCharArray(), "A.java");
+			index.addIndexEntry(IIndexConstants.REF, "p".toCharArray(), "B.java");
+			index.save();
+
+			final List<String> documentPaths = new ArrayList<>();
+			IndexQueryRequestor requestor = new IndexQueryRequestor() {
+				@Override
+				public boolean acceptIndexMatch(String documentPath, SearchPattern indexRecord, SearchParticipant participant, AccessRuleSet access) {
+					documentPaths.add(documentPath);
+					return true;
+				}
+			};
+			AbstractSearchScope scope = new AbstractSearchScope() {
+				@Override
+				public boolean encloses(String resourcePath) {
+					return true;
+				}
+				@Override
+				public boolean encloses(IJavaElement element) {
+					return true;
+				}
+				@Override
+				public IPath[] enclosingProjectsAndJars() {
+					return new IPath[0];
+				}
+				@Override
+				public void processDelta(IJavaElementDelta delta, int eventType) {
+					// not needed
+				}
+			};
+			// queries the references to q, then to p
+			TypeReferencePattern pattern = new TypeReferencePattern("p.q".toCharArray(), null, SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			pattern.findIndexMatches(index, requestor, null, scope, null);
+			assertEquals("Unexpected queries", 4, queries[0]);
+			assertEquals("Unexpected documents", "[/P/A.java]", documentPaths.toString());
+		} finally {
+			indexFile.delete();
+		}
+	}
+}
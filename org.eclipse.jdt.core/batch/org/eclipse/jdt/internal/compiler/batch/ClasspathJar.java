@@ -40,6 +40,7 @@ import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.env.IBinaryType;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.lookup.BinaryTypeBinding.ExternalAnnotationStatus;
+import org.eclipse.jdt.internal.compiler.util.ClasspathJarCache;
 import org.eclipse.jdt.internal.compiler.util.ManifestAnalyzer;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.compiler.util.Util;
@@ -53,6 +54,7 @@ protected ZipFile annotationZipFile;
 protected boolean closeZipFileAtEnd;
 protected Set<String> packageCache;
 protected List<String> annotationPaths;
+protected ClasspathJarCache.JarContents cachedContents; // non null if the contents of the jar are shared with other compilations
 
 public ClasspathJar(File file, boolean closeZipFileAtEnd,
 		AccessRuleSet accessRuleSet, String destinationPath) {
@@ -117,15 +119,17 @@ public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageN
 		return null; // most common case
 
 	try {
-		IBinaryType reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		IBinaryType reader = this.cachedContents != null
+				? this.cachedContents.readType(this.zipFile, qualifiedBinaryFileName)
+				: ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
 		if (reader != null) {
 			char[] modName = this.module == null ? null : this.module.name();
 			if (reader instanceof ClassFileReader) {
 				ClassFileReader classReader = (ClassFileReader) reader;
-				if (classReader.moduleName == null)
-					classReader.moduleName = modName;
-				else
+				if (classReader.moduleName != null)
 					modName = classReader.moduleName;
+				else if (this.cachedContents == null) // cached readers are shared, do not tie them to this classpath entry
+					classReader.moduleName = modName;
 			}
 			searchPaths:
 			if (this.annotationPaths != null) {
@@ -200,6 +204,11 @@ public void initialize() throws IOException {
 	if (this.zipFile == null) {
 		this.zipFile = new ZipFile(this.file);
 	}
+	if (this.cachedContents == null && getClass() == ClasspathJar.class) { // subclasses read their jars differently
+		ClasspathJarCache cache = ClasspathJarCache.getInstance();
+		if (cache != null)
+			this.cachedContents = cache.getContents(this.file, getPath());
+	}
 }
 void acceptModule(ClassFileReader reader) {
 	if (reader != null) {
@@ -235,6 +244,12 @@ public synchronized char[][] getModulesDeclaringPackage(String qualifiedPackageN
 	if (this.packageCache != null)
 		return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
 
+	if (this.cachedContents != null) {
+		this.packageCache = this.cachedContents.getPackages();
+		if (this.packageCache != null)
+			return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
+	}
+
 	this.packageCache = new HashSet<>(41);
 	this.packageCache.add(Util.EMPTY_STRING);
 
@@ -242,6 +257,8 @@ public synchronized char[][] getModulesDeclaringPackage(String qualifiedPackageN
 		String fileName = ((ZipEntry) e.nextElement()).getName();
 		addToPackageCache(fileName, false);
 	}
+	if (this.cachedContents != null)
+		this.cachedContents.setPackages(this.packageCache);
 	return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
 }
 @Override
@@ -130,41 +130,18 @@ public class ClasspathJrt extends ClasspathLocation implements IMultiModuleEntry
 		final ArrayList answers = new ArrayList();
 
 		try {
-			JRTUtil.walkModuleImage(this.file, new JRTUtil.JrtFileVisitor<java.nio.file.Path>() {
-
-				@Override
-				public FileVisitResult visitPackage(java.nio.file.Path dir, java.nio.file.Path modPath, BasicFileAttributes attrs) throws IOException {
-					if (qualifiedPackageName.startsWith(dir.toString())) {
-						return FileVisitResult.CONTINUE;
-					}
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-
-				@Override
-				public FileVisitResult visitFile(java.nio.file.Path dir, java.nio.file.Path modPath, BasicFileAttributes attrs) throws IOException {
-					Path parent = dir.getParent();
-					if (parent == null)
-						return FileVisitResult.CONTINUE;
-					if (!parent.toString().equals(qualifiedPackageName)) {
-						return FileVisitResult.CONTINUE;
-					}
-					String fileName = dir.getName(dir.getNameCount() - 1).toString();
-					// The path already excludes the folders and all the '/', hence the -1 for last index of '/'
+			// answer the types from the tables shared by all the clients of the image rather than walking it
+			for (Map.Entry<String, Set<String>> entry : JRTUtil.getPackagesByModule(this.file, null).entrySet()) {
+				String name = entry.getKey();
+				if (moduleName != null && !moduleName.equals(name))
+					continue;
+				if (!entry.getValue().contains(qualifiedPackageName))
+					continue;
+				for (String fileName : JRTUtil.getPackageFileNames(this.file, qualifiedPackageName, name)) {
+					// The name already excludes the folders and all the '/', hence the -1 for last index of '/'
 					addTypeName(answers, fileName, -1, packageArray);
-					return FileVisitResult.CONTINUE;
 				}
-
-				@Override
-				public FileVisitResult visitModule(Path p, String name) throws IOException {
-					if (moduleName == null)
-						return FileVisitResult.CONTINUE;
-					if (!moduleName.equals(name)) {
-						return FileVisitResult.SKIP_SUBTREE;
-					}
-					return FileVisitResult.CONTINUE;
-				}
-
-			}, JRTUtil.NOTIFY_ALL);
+			}
 		} catch (IOException e) {
 			// Ignore and move on
 		}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs the batch compiler repeatedly in the same VM, so that a build tool issuing many small compilations
+ * pays for starting and warming up the VM once only.
+ * <p>
+ * Every compilation still gets its own {@link Main}, name environment and lookup environment: bindings are
+ * completed lazily and are specific to the options and classpath of a compilation. What is reused are the
+ * caches kept by the VM, e.g. the module images and ct.sym indexes of JRTUtil, and the class files read
+ * from classpath jars (see {@link org.eclipse.jdt.internal.compiler.util.ClasspathJarCache}, enabled with a default size of 256MB in this mode).
+ * </p>
+ * <p>
+ * Requests are read from the standard input, one per line, holding the arguments of a command line (quoted
+ * as described in {@link Main#tokenize(String)}). An empty line or the end of the input stops the server.
+ * For each request, a header line <code>&lt;status&gt; &lt;length&gt;</code> is written to the standard output,
+ * where status is 0 if the compilation succeeded, 1 otherwise, followed by the <code>length</code> characters
+ * the compiler printed. Relative paths are resolved against the working directory of the server.
+ * </p>
+ */
+public class CompileServer {
+
+	public static final String DEFAULT_JAR_CACHE_SIZE = "256"; //$NON-NLS-1$
+
+public static void main(String[] args) throws IOException {
+	if (System.getProperty("jdt.compiler.jarCacheSize") == null) //$NON-NLS-1$
+		System.setProperty("jdt.compiler.jarCacheSize", DEFAULT_JAR_CACHE_SIZE); //$NON-NLS-1$
+	PrintStream protocolOut = System.out;
+	// anything printed directly to System.out (e.g. by annotation processors) must not corrupt the responses
+	System.setOut(System.err);
+	try {
+		serve(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+				new OutputStreamWriter(protocolOut, StandardCharsets.UTF_8));
+	} finally {
+		System.setOut(protocolOut);
+	}
+}
+
+/**
+ * Compile the requests read from the given reader until an empty line or the end of the input,
+ * writing the response to each request to the given writer.
+ *
+ * @return the number of requests served
+ */
+public static int serve(BufferedReader requests, Writer responses) throws IOException {
+	int served = 0;
+	String request;
+	while ((request = requests.readLine()) != null && !request.trim().isEmpty()) {
+		StringWriter output = new StringWriter();
+		boolean success;
+		try (PrintWriter writer = new PrintWriter(output)) {
+			success = compile(request, writer);
+		}
+		String text = output.toString();
+		responses.write((success ? 0 : 1) + " " + text.length() + '\n'); //$NON-NLS-1$
+		responses.write(text);
+		responses.flush();
+		served++;
+	}
+	return served;
+}
+
+private static boolean compile(String request, PrintWriter writer) {
+	try {
+		return new Main(writer, writer, false /* systemExit */, null /* options */, null /* progress */).compile(Main.tokenize(request));
+	} catch (RuntimeException | LinkageError e) {
+		// keep serving the next requests
+		e.printStackTrace(writer);
+		return false;
+	}
+}
+}
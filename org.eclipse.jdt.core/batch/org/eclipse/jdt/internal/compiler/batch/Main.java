@@ -86,6 +86,7 @@ import org.eclipse.jdt.internal.compiler.Compiler;
 import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
 import org.eclipse.jdt.internal.compiler.IErrorHandlingPolicy;
 import org.eclipse.jdt.internal.compiler.IProblemFactory;
+import org.eclipse.jdt.internal.compiler.ParseTaskManager;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
 import org.eclipse.jdt.internal.compiler.batch.ModuleFinder.AddExport;
@@ -1060,6 +1061,24 @@ public class Main implements ProblemSeverities, SuffixConstants {
 								String.valueOf(compilerStats.generateTime),
 								String.valueOf(((int) (compilerStats.generateTime * 1000.0 / time)) / 10.0),
 							}));
+				if (compilerStats.readChars > 0) {
+					printlnOut(
+							this.main.bind("compile.readTime", //$NON-NLS-1$
+								new String[] {
+									String.valueOf(compilerStats.readChars),
+									String.valueOf(compilerStats.readTime),
+									String.valueOf(compilerStats.readWaitTime),
+								}));
+				}
+				if (compilerStats.maxQueuedUnits > 0) {
+					printlnOut(
+							this.main.bind("compile.queueTime", //$NON-NLS-1$
+								new String[] {
+									String.valueOf(compilerStats.maxQueuedUnits),
+									String.valueOf(compilerStats.processingWaitTime),
+									String.valueOf(compilerStats.writingWaitTime),
+								}));
+				}
 			}
 		}
 
@@ -4756,6 +4775,7 @@ public void performCompilation() {
 		// temporary code to allow the compiler to revert to a single thread
 		String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 		this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+		this.batchCompiler.parsingThreads = ParseTaskManager.getParsingThreads();
 
 		if (this.compilerOptions.complianceLevel >= ClassFileConstants.JDK1_6
 				&& this.compilerOptions.processAnnotations) {
@@ -58,6 +58,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public int annotationProcessorStartIndex = 0;
 	public ReferenceBinding[] referenceBindings;
 	public boolean useSingleThread = true; // by default the compiler will not use worker threads to read/process/write
+	public int parsingThreads = 0; // number of worker threads reading method bodies ahead of processing (0: none)
+	private ParseTaskManager parsingTask;
 
 	// number of initial units parsed at once (-1: none)
 
@@ -597,6 +599,11 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 							}));
 				}
 			} else {
+				if (this.parsingThreads > 0 && this.annotationProcessorManager == null) {
+					Parser bodiesParser = newMethodBodiesParser();
+					if (bodiesParser != null)
+						this.parsingTask = new ParseTaskManager(this, startingIndex, this.parsingThreads, bodiesParser);
+				}
 				processingTask = new ProcessTaskManager(this, startingIndex);
 				int acceptedCount = 0;
 				// process all units (some more could be injected in the loop by the lookup environment)
@@ -645,6 +652,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				processingTask.shutdown();
 				processingTask = null;
 			}
+			if (this.parsingTask != null) {
+				this.parsingTask.shutdown();
+				this.parsingTask = null;
+			}
 			reset();
 			this.annotationProcessorStartIndex  = 0;
 			this.stats.endTime = System.currentTimeMillis();
@@ -804,6 +815,19 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		this.parser = new Parser(this.problemReporter, this.options.parseLiteralExpressionsAsConstants);
 	}
 
+	/**
+	 * Answer a new parser able to read method bodies on a parsing worker thread, or null if
+	 * method bodies can only be read by the compiler parser.
+	 * The answered parser must not share any state with the compiler parser, in particular
+	 * its problem reporter.
+	 */
+	protected Parser newMethodBodiesParser() {
+		if (this.parser.getClass() != Parser.class)
+			return null; // specialized parsers (e.g. recording comments) may rely on more than the unit source
+		ProblemReporter reporter = new ProblemReporter(this.problemReporter.policy, this.options, this.problemReporter.problemFactory);
+		return new Parser(reporter, this.options.parseLiteralExpressionsAsConstants);
+	}
+
 	private  void abortIfPreviewNotAllowed(ICompilationUnit[] sourceUnits, int maxUnits) {
 		if (!this.options.enablePreviewFeatures)
 			return;
@@ -874,6 +898,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		} finally { // especially on AbortCompilation
 			if (this.parser.readManager != null) {
 				this.parser.readManager.shutdown();
+				this.parser.readManager.recordStats(this.stats);
 				this.parser.readManager = null;
 			}
 		}
@@ -888,6 +913,9 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		this.lookupEnvironment.unitBeingCompleted = unit;
 		long parseStart = System.currentTimeMillis();
 
+		ParseTaskManager parsing = this.parsingTask;
+		if (parsing != null)
+			parsing.prepare(unit, i); // waits until a worker has read the method bodies
 		this.parser.getMethodBodies(unit);
 
 		long resolveStart = System.currentTimeMillis();
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.compiler;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.ast.ASTNode;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+
+/**
+ * Reads the method bodies of the units to process on a pool of worker threads, ahead of
+ * the thread which resolves, analyses and generates code for them.
+ * <p>
+ * Bindings are shared by all units of a compilation and are completed lazily, hence units
+ * are still processed one at a time. Parsing method bodies only depends on the source of
+ * a unit though, so it is done in parallel, each worker using its own {@link Parser} and
+ * problem reporter.
+ * </p>
+ */
+public class ParseTaskManager {
+
+	Compiler compiler;
+	private ExecutorService executor;
+	private int nextIndex;
+	private int lookAhead;
+
+	// parsers not currently used by a worker
+	private ConcurrentLinkedQueue<Parser> parsers = new ConcurrentLinkedQueue<>();
+	// units handed to the workers, only accessed by the processing thread
+	private Map<CompilationUnitDeclaration, Future<?>> scheduledUnits = new IdentityHashMap<>();
+
+	public static final int LOOK_AHEAD_PER_THREAD = 4;
+
+public ParseTaskManager(Compiler compiler, int startingIndex, int threadCount, Parser parser) {
+	this.compiler = compiler;
+	this.nextIndex = startingIndex;
+
+	int threads = Math.max(1, Math.min(threadCount, Runtime.getRuntime().availableProcessors()));
+	this.lookAhead = threads * LOOK_AHEAD_PER_THREAD;
+	this.parsers.add(parser);
+	this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+		Thread thread = new Thread(runnable, "Compiler Parsing Task"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+}
+
+/**
+ * Answer the number of parsing threads requested through the <code>jdt.compiler.parsingThreads</code>
+ * system property, 0 if method bodies should be read by the processing thread only.
+ */
+public static int getParsingThreads() {
+	return Math.max(0, Integer.getInteger("jdt.compiler.parsingThreads", 0).intValue()); //$NON-NLS-1$
+}
+
+/*
+ * Called by the processing thread before processing the given unit: hand the next units over
+ * to the workers, then wait until the method bodies of the given unit have been read.
+ * Problems raised while parsing (e.g. AbortCompilation) are rethrown in the processing thread.
+ */
+public void prepare(CompilationUnitDeclaration unit, int index) {
+	if (this.nextIndex <= index)
+		this.nextIndex = index + 1; // the processing thread is in a better position to parse the current unit
+	scheduleUnits(index + this.lookAhead);
+
+	Future<?> parsing = this.scheduledUnits.remove(unit);
+	if (parsing == null) return;
+
+	boolean interrupted = false;
+	try {
+		while (true) {
+			try {
+				parsing.get();
+				return;
+			} catch (InterruptedException e) {
+				interrupted = true; // never let the processing thread read the unit while a worker is still on it
+			} catch (ExecutionException e) {
+				// rethrow the exception caught in the worker in the processing thread
+				Throwable cause = e.getCause();
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw (RuntimeException) cause;
+			}
+		}
+	} finally {
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+}
+
+private void scheduleUnits(int limit) {
+	synchronized (this.compiler) {
+		if (this.compiler.unitsToProcess == null || this.executor.isShutdown()) return;
+		int max = Math.min(limit, this.compiler.totalUnits);
+		for (; this.nextIndex < max; this.nextIndex++) {
+			CompilationUnitDeclaration next = this.compiler.unitsToProcess[this.nextIndex];
+			if (next == null || (next.bits & ASTNode.HasAllMethodBodies) != 0 || next.ignoreMethodBodies)
+				continue;
+			if (next.compilationResult.hasBeenAccepted)
+				continue;
+			this.scheduledUnits.put(next, this.executor.submit(() -> parseMethodBodies(next)));
+		}
+	}
+}
+
+void parseMethodBodies(CompilationUnitDeclaration unit) {
+	Parser parser = this.parsers.poll();
+	if (parser == null)
+		parser = this.compiler.newMethodBodiesParser();
+	try {
+		// reference expressions hold onto the scanner which read them so as to parse copies while
+		// being resolved by the processing thread, so every unit gets its own scanner
+		parser.initializeScanner();
+		parser.getMethodBodies(unit);
+	} finally {
+		this.parsers.add(parser);
+	}
+}
+
+/*
+ * Cancel the units not parsed yet, then wait until the workers have stopped: the units may be
+ * reused once the compiler is reset, so no worker may still be reading method bodies into them.
+ */
+public void shutdown() {
+	for (Future<?> parsing : this.scheduledUnits.values())
+		parsing.cancel(false);
+	this.scheduledUnits.clear();
+	this.executor.shutdown();
+	boolean interrupted = false;
+	try {
+		while (true) {
+			try {
+				if (this.executor.awaitTermination(250, TimeUnit.MILLISECONDS))
+					return;
+			} catch (InterruptedException e) {
+				interrupted = true; // a worker only parses the unit it was handed, so it stops shortly
+			}
+		}
+	} finally {
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+}
+}
@@ -14,7 +14,11 @@
 
 package org.eclipse.jdt.internal.compiler;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
 import org.eclipse.jdt.internal.compiler.util.Messages;
 
 public class ProcessTaskManager implements Runnable {
@@ -23,13 +27,25 @@ public class ProcessTaskManager implements Runnable {
 	private int unitIndex;
 	private Thread processingThread;
 	CompilationUnitDeclaration unitToProcess;
-	private Throwable caughtException;
-
-	// queue
-	volatile int currentIndex, availableIndex, size, sleepCount;
+	private volatile Throwable caughtException;
+	private volatile boolean stopped; // requested by the writing/main thread
+	private volatile boolean finished; // no more units will be added by the processing thread
+
+	// queue: a ring with a single producer (the processing thread) and a single consumer (the writing/main thread),
+	// availableIndex is only written by the producer and currentIndex only by the consumer
+	volatile long currentIndex, availableIndex;
+	int size;
 	CompilationUnitDeclaration[] units;
+	// thread parked because the queue is full (producer) or empty (consumer), if any
+	private volatile Thread waitingProducer, waitingConsumer;
+
+	// statistics, each owned by one of the threads
+	private long processingWaitTime, writingWaitTime; // in nanoseconds
+	private int maxQueuedUnits;
 
 	public static final int PROCESSED_QUEUE_SIZE = 100;
+	// free slots needed before waking up a processing thread waiting for room in the queue
+	static final int RESUME_THRESHOLD = 4;
 
 public ProcessTaskManager(Compiler compiler, int startingIndex) {
 	this.compiler = compiler;
@@ -38,99 +54,88 @@ public ProcessTaskManager(Compiler compiler, int startingIndex) {
 	this.currentIndex = 0;
 	this.availableIndex = 0;
 	this.size = PROCESSED_QUEUE_SIZE;
-	this.sleepCount = 0; // 0 is no one, +1 is the processing thread & -1 is the writing/main thread
 	this.units = new CompilationUnitDeclaration[this.size];
 
-	synchronized (this) {
-		this.processingThread = new Thread(this, "Compiler Processing Task"); //$NON-NLS-1$
-		this.processingThread.setDaemon(true);
-		this.processingThread.start();
-	}
+	this.processingThread = new Thread(this, "Compiler Processing Task"); //$NON-NLS-1$
+	this.processingThread.setDaemon(true);
+	this.processingThread.start();
 }
 
 // add unit to the queue - wait if no space is available
-private synchronized void addNextUnit(CompilationUnitDeclaration newElement) {
-	while (this.units[this.availableIndex] != null) {
-		//System.out.print('a');
-		//if (this.sleepCount < 0) throw new IllegalStateException(Integer.valueOf(this.sleepCount).toString());
-		this.sleepCount = 1;
-		try {
-			wait(250);
-		} catch (InterruptedException ignore) {
-			// ignore
+private void addNextUnit(CompilationUnitDeclaration newElement) {
+	long available = this.availableIndex;
+	while (available - this.currentIndex >= this.size) {
+		if (this.stopped) return;
+		this.waitingProducer = this.processingThread;
+		// check again once registered, the writing thread may have made room in the meantime
+		if (available - this.currentIndex >= this.size && !this.stopped) {
+			long start = System.nanoTime();
+			LockSupport.park(this);
+			this.processingWaitTime += System.nanoTime() - start;
 		}
-		this.sleepCount = 0;
+		this.waitingProducer = null;
 	}
 
-	this.units[this.availableIndex++] = newElement;
-	if (this.availableIndex >= this.size)
-		this.availableIndex = 0;
-	if (this.sleepCount <= -1)
-		notify(); // wake up writing thread to accept next unit - could be the last one - must avoid deadlock
+	this.units[(int) (available % this.size)] = newElement;
+	this.availableIndex = available + 1; // publish the unit
+	Thread consumer = this.waitingConsumer;
+	if (consumer != null)
+		LockSupport.unpark(consumer); // wake up writing thread to accept next unit - could be the last one
 }
 
 public CompilationUnitDeclaration removeNextUnit() throws Error {
-	CompilationUnitDeclaration next = null;
-	boolean yield = false;
-	synchronized (this) {
-		next = this.units[this.currentIndex];
-		if (next == null || this.caughtException != null) {
-			do {
-				if (this.processingThread == null) {
-					if (this.caughtException != null) {
-						// rethrow the caught exception from the processingThread in the main compiler thread
-						if (this.caughtException instanceof Error)
-							throw (Error) this.caughtException;
-						throw (RuntimeException) this.caughtException;
-					}
-					return null;
-				}
-				//System.out.print('r');
-				//if (this.sleepCount > 0) throw new IllegalStateException(Integer.valueOf(this.sleepCount).toString());
-				this.sleepCount = -1;
-				try {
-					wait(100);
-				} catch (InterruptedException ignore) {
-					// ignore
-				}
-				this.sleepCount = 0;
-				next = this.units[this.currentIndex];
-			} while (next == null);
+	while (true) {
+		if (this.caughtException != null) {
+			// rethrow the caught exception from the processingThread in the main compiler thread
+			if (this.caughtException instanceof Error)
+				throw (Error) this.caughtException;
+			throw (RuntimeException) this.caughtException;
 		}
-
-		this.units[this.currentIndex++] = null;
-		if (this.currentIndex >= this.size)
-			this.currentIndex = 0;
-		if (this.sleepCount >= 1 && ++this.sleepCount > 4) {
-			notify(); // wake up processing thread to add next unit but only after removing some elements first
-			yield = this.sleepCount > 8;
+		long current = this.currentIndex;
+		long available = this.availableIndex;
+		if (current < available) {
+			int index = (int) (current % this.size);
+			CompilationUnitDeclaration next = this.units[index];
+			this.units[index] = null;
+			this.currentIndex = current + 1;
+			int queued = (int) (available - current);
+			if (queued > this.maxQueuedUnits)
+				this.maxQueuedUnits = queued;
+			Thread producer = this.waitingProducer;
+			if (producer != null && queued - 1 <= this.size - RESUME_THRESHOLD)
+				LockSupport.unpark(producer); // wake up processing thread but only after removing some elements first
+			return next;
+		}
+		if (this.finished) {
+			if (this.availableIndex == current && this.caughtException == null)
+				return null;
+			continue; // pick up a last unit or exception published before finishing
 		}
+		this.waitingConsumer = Thread.currentThread();
+		// check again once registered, the processing thread may have added a unit in the meantime
+		if (this.availableIndex == current && !this.finished) {
+			long start = System.nanoTime();
+			LockSupport.park(this);
+			this.writingWaitTime += System.nanoTime() - start;
+		}
+		this.waitingConsumer = null;
 	}
-	if (yield)
-		Thread.yield();
-	return next;
 }
 
 @Override
 public void run() {
 	boolean noAnnotations = this.compiler.annotationProcessorManager == null;
-	while (this.processingThread != null) {
-		this.unitToProcess = null;
-		int index = -1;
-		boolean cleanup = noAnnotations || this.compiler.shouldCleanup(this.unitIndex);
-		try {
-			synchronized (this) {
-				if (this.processingThread == null) return;
-
-				this.unitToProcess = this.compiler.getUnitToProcess(this.unitIndex);
-				if (this.unitToProcess == null) {
-					this.processingThread = null;
-					return;
-				}
-				index = this.unitIndex++;
-				if (this.unitToProcess.compilationResult.hasBeenAccepted)
-					continue;
-			}
+	try {
+		while (!this.stopped) {
+			this.unitToProcess = null;
+			int index = -1;
+			boolean cleanup = noAnnotations || this.compiler.shouldCleanup(this.unitIndex);
+			this.unitToProcess = this.compiler.getUnitToProcess(this.unitIndex);
+			if (this.unitToProcess == null)
+				return;
+			index = this.unitIndex++;
+			if (this.unitToProcess.compilationResult.hasBeenAccepted)
+				continue;
 
 			try {
 				this.compiler.reportProgress(Messages.bind(Messages.compilation_processing, new String(this.unitToProcess.getFileName())));
@@ -150,30 +155,31 @@ public void run() {
 			}
 
 			addNextUnit(this.unitToProcess);
-		} catch (Error | RuntimeException e) {
-			synchronized (this) {
-				this.processingThread = null;
-				this.caughtException = e;
-			}
-			return;
 		}
+	} catch (Error | RuntimeException e) {
+		this.caughtException = e;
+	} finally {
+		this.finished = true;
+		Thread consumer = this.waitingConsumer;
+		if (consumer != null)
+			LockSupport.unpark(consumer);
 	}
 }
 
 public void shutdown() {
 	try {
-		Thread t = null;
-		synchronized (this) {
-			if (this.processingThread != null) {
-				t = this.processingThread;
-				this.processingThread = null;
-				notifyAll();
-			}
+		if (!this.finished) {
+			this.stopped = true;
+			LockSupport.unpark(this.processingThread);
+			this.processingThread.join(250); // do not wait forever
 		}
-		if (t != null)
-			t.join(250); // do not wait forever
 	} catch (InterruptedException ignored) {
 		// ignore
 	}
+	CompilerStats stats = this.compiler.stats;
+	stats.processingWaitTime += TimeUnit.NANOSECONDS.toMillis(this.processingWaitTime);
+	stats.writingWaitTime += TimeUnit.NANOSECONDS.toMillis(this.writingWaitTime);
+	if (this.maxQueuedUnits > stats.maxQueuedUnits)
+		stats.maxQueuedUnits = this.maxQueuedUnits;
 }
 }
@@ -14,7 +14,13 @@
 
 package org.eclipse.jdt.internal.compiler;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.impl.CompilerStats;
+import org.eclipse.jdt.internal.compiler.util.Util;
 
 public class ReadManager implements Runnable {
 	ICompilationUnit[] units;
@@ -26,23 +32,38 @@ public class ReadManager implements Runnable {
 	Thread[] readingThreads;
 	char[] readInProcessMarker = new char[0];
 	int sleepingThreadCount;
+	int cachedChars; // size of the contents read ahead and not yet consumed
 	private Throwable caughtException;
 
+	// a lock rather than the monitor of the manager, as monitor waits pin the reading threads when they are virtual
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition fileRead = this.lock.newCondition(); // the main thread waits for the file it needs
+	private final Condition spotFreed = this.lock.newCondition(); // the reading threads wait for room in the cache
+
+	// statistics
+	long readChars;
+	long readTime, waitTime; // in nanoseconds
+
 	static final int START_CUSHION = 5;
 	public static final int THRESHOLD = 10;
-	static final int CACHE_SIZE = 15; // do not waste memory by keeping too many files in memory
+	static final int MAX_THREADS = 15;
+	// the look-ahead window adapts to the size of the files: it holds as many files as fit in MAX_CACHED_CHARS,
+	// with at most CACHE_SIZE files
+	static final int CACHE_SIZE = 64;
+	static final int MAX_CACHED_CHARS = 4 * 1024 * 1024; // do not waste memory by keeping too much source in memory
 
 public ReadManager(ICompilationUnit[] files, int length) {
 	// start the background threads to read the file's contents
 	int threadCount = Runtime.getRuntime().availableProcessors() + 1;
 	if (threadCount < 2) {
 		threadCount = 0;
-	} else if (threadCount > CACHE_SIZE) {
-		threadCount = CACHE_SIZE;
+	} else if (threadCount > MAX_THREADS) {
+		threadCount = MAX_THREADS;
 	}
 
 	if (threadCount > 0) {
-		synchronized (this) {
+		this.lock.lock();
+		try {
 			this.units = new ICompilationUnit[length];
 			System.arraycopy(files, 0, this.units, 0, length);
 			this.nextFileToRead = START_CUSHION; // skip some files to reduce the number of times we have to wait
@@ -51,12 +72,14 @@ public ReadManager(ICompilationUnit[] files, int length) {
 			this.readyToReadPosition = 0;
 			this.nextAvailablePosition = 0;
 			this.sleepingThreadCount = 0;
+			this.cachedChars = 0;
 			this.readingThreads = new Thread[threadCount];
 			for (int i = threadCount; --i >= 0;) {
-				this.readingThreads[i] = new Thread(this, "Compiler Source File Reader"); //$NON-NLS-1$
-				this.readingThreads[i].setDaemon(true);
+				this.readingThreads[i] = Util.newBackgroundThread(this, "Compiler Source File Reader"); //$NON-NLS-1$
 				this.readingThreads[i].start();
 			}
+		} finally {
+			this.lock.unlock();
 		}
 	}
 }
@@ -75,26 +98,32 @@ public char[] getContents(ICompilationUnit unit) throws Error {
 
 	boolean yield = this.sleepingThreadCount == rThreads.length;
 	char[] result = null;
-	synchronized (this) {
+	this.lock.lock();
+	try {
 		if (unit == this.filesRead[this.readyToReadPosition]) {
 			result = this.contentsRead[this.readyToReadPosition];
-			while (result == this.readInProcessMarker || result == null) {
-				// let the readingThread know we're waiting
-				//System.out.print('|');
-				this.contentsRead[this.readyToReadPosition] = null;
-				try {
-					wait(250);
-				} catch (InterruptedException ignore) { // ignore
-				}
-				if (this.caughtException != null) {
-					// rethrow the caught exception from the readingThreads in the main compiler thread
-					if (this.caughtException instanceof Error)
-						throw (Error) this.caughtException;
-					throw (RuntimeException) this.caughtException;
+			if (result == this.readInProcessMarker || result == null) {
+				long start = System.nanoTime();
+				while (result == this.readInProcessMarker || result == null) {
+					// let the readingThread know we're waiting
+					//System.out.print('|');
+					this.contentsRead[this.readyToReadPosition] = null;
+					try {
+						this.fileRead.await(250, TimeUnit.MILLISECONDS);
+					} catch (InterruptedException ignore) { // ignore
+					}
+					if (this.caughtException != null) {
+						// rethrow the caught exception from the readingThreads in the main compiler thread
+						if (this.caughtException instanceof Error)
+							throw (Error) this.caughtException;
+						throw (RuntimeException) this.caughtException;
+					}
+					result = this.contentsRead[this.readyToReadPosition];
 				}
-				result = this.contentsRead[this.readyToReadPosition];
+				this.waitTime += System.nanoTime() - start;
 			}
 			// free spot for next file
+			this.cachedChars -= result.length;
 			this.filesRead[this.readyToReadPosition] = null;
 			this.contentsRead[this.readyToReadPosition] = null;
 			if (++this.readyToReadPosition >= this.contentsRead.length)
@@ -102,7 +131,7 @@ public char[] getContents(ICompilationUnit unit) throws Error {
 			if (this.sleepingThreadCount > 0) {
 				//System.out.print('+');
 				//System.out.print(this.nextFileToRead);
-				notify();
+				this.spotFreed.signal();
 			}
 		} else {
 			// must make sure we're reading ahead of the unit
@@ -120,9 +149,12 @@ public char[] getContents(ICompilationUnit unit) throws Error {
 				this.nextAvailablePosition = 0;
 				this.filesRead = new ICompilationUnit[CACHE_SIZE];
 				this.contentsRead = new char[CACHE_SIZE][];
-				notifyAll();
+				this.cachedChars = 0;
+				this.spotFreed.signalAll();
 			}
 		}
+	} finally {
+		this.lock.unlock();
 	}
 	if (yield)
 		Thread.yield(); // ensure other threads get a chance
@@ -138,13 +170,14 @@ public void run() {
 		while (this.readingThreads != null && this.nextFileToRead < this.units.length) {
 			ICompilationUnit unit = null;
 			int position = -1;
-			synchronized (this) {
+			this.lock.lock();
+			try {
 				if (this.readingThreads == null) return;
 
-				while (this.filesRead[this.nextAvailablePosition] != null) {
+				while (this.filesRead[this.nextAvailablePosition] != null || this.cachedChars >= MAX_CACHED_CHARS) {
 					this.sleepingThreadCount++;
 					try {
-						wait(250); // wait until a spot in contents is available
+						this.spotFreed.await(250, TimeUnit.MILLISECONDS); // wait until a spot in contents is available
 					} catch (InterruptedException e) { // ignore
 					}
 					this.sleepingThreadCount--;
@@ -158,27 +191,60 @@ public void run() {
 					this.nextAvailablePosition = 0;
 				this.filesRead[position] = unit;
 				this.contentsRead[position] = this.readInProcessMarker; // mark the spot so we know its being read
+			} finally {
+				this.lock.unlock();
 			}
+			long start = System.nanoTime();
 			char[] result = unit.getContents();
-			synchronized (this) {
+			long time = System.nanoTime() - start;
+			this.lock.lock();
+			try {
+				this.readTime += time;
+				this.readChars += result.length;
 				if (this.filesRead[position] == unit) {
 					if (this.contentsRead[position] == null) // wake up main thread which is waiting for this file
-						notifyAll();
+						this.fileRead.signalAll();
 					this.contentsRead[position] = result;
+					this.cachedChars += result.length;
 				}
+			} finally {
+				this.lock.unlock();
 			}
 		}
 	} catch (Error | RuntimeException e) {
-		synchronized (this) {
+		this.lock.lock();
+		try {
 			this.caughtException = e;
 			shutdown();
+		} finally {
+			this.lock.unlock();
 		}
 		return;
 	}
 }
 
-public synchronized void shutdown() {
-	this.readingThreads = null; // mark the read manager as shutting down so that the reading threads stop
-	notifyAll();
+public void shutdown() {
+	this.lock.lock();
+	try {
+		this.readingThreads = null; // mark the read manager as shutting down so that the reading threads stop
+		this.fileRead.signalAll();
+		this.spotFreed.signalAll();
+	} finally {
+		this.lock.unlock();
+	}
+}
+
+/*
+ * Add the work done by the reading threads so far to the given statistics.
+ */
+public void recordStats(CompilerStats stats) {
+	this.lock.lock();
+	try {
+		stats.readChars += this.readChars;
+		stats.readTime += TimeUnit.NANOSECONDS.toMillis(this.readTime);
+		stats.readWaitTime += TimeUnit.NANOSECONDS.toMillis(this.waitTime);
+	} finally {
+		this.lock.unlock();
+	}
 }
 }
\ No newline at end of file
@@ -22,12 +22,15 @@ package org.eclipse.jdt.internal.compiler.classfmt;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.function.Predicate;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.codegen.AnnotationTargetTypeConstants;
 import org.eclipse.jdt.internal.compiler.codegen.AttributeNamesConstants;
+import org.eclipse.jdt.internal.compiler.codegen.ConstantPool;
 import org.eclipse.jdt.internal.compiler.env.IBinaryAnnotation;
 import org.eclipse.jdt.internal.compiler.env.IBinaryElementValuePair;
 import org.eclipse.jdt.internal.compiler.env.IBinaryField;
@@ -89,6 +92,13 @@ public class ClassFileReader extends ClassFileStruct implements IBinaryType {
 	private int recordComponentsCount;
 	private RecordComponentInfo[] recordComponents;
 
+	// only consider a portion of the tagbits which indicate a structural change for dependents
+	// e.g. @Override change has no influence outside
+	private static final long ONLY_STRUCTURAL_TAG_BITS = TagBits.AnnotationTargetMASK // different @Target status ?
+		| TagBits.AnnotationDeprecated // different @Deprecated status ?
+		| TagBits.AnnotationRetentionMASK // different @Retention status ?
+		| TagBits.HierarchyHasProblems; // different hierarchy status ?
+
 private static String printTypeModifiers(int modifiers) {
 	java.io.StringWriter out = new java.io.StringWriter();
 	java.io.PrintWriter print = new java.io.PrintWriter(out);
@@ -352,8 +362,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 		readOffset += 2;
 
 		for (int i = 0; i < attributesCount; i++) {
-			int utf8Offset = this.constantPoolOffsets[u2At(readOffset)];
-			char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+			char[] attributeName = attributeNameAt(readOffset);
 			if (attributeName.length == 0) {
 				readOffset += (6 + u4At(readOffset + 2));
 				continue;
@@ -361,7 +370,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 			switch(attributeName[0] ) {
 				case 'E' :
 					if (CharOperation.equals(attributeName, AttributeNamesConstants.EnclosingMethodName)) {
-						utf8Offset =
+						int utf8Offset =
 							this.constantPoolOffsets[u2At(this.constantPoolOffsets[u2At(readOffset + 6)] + 1)];
  						this.enclosingTypeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
 						this.enclosingNameAndTypeIndex = u2At(readOffset + 8);
@@ -403,7 +412,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 						switch(attributeName[1]) {
 							case 'o' :
 								if (CharOperation.equals(attributeName, AttributeNamesConstants.SourceName)) {
-									utf8Offset = this.constantPoolOffsets[u2At(readOffset + 6)];
+									int utf8Offset = this.constantPoolOffsets[u2At(readOffset + 6)];
 									this.sourceFileName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
 								}
 								break;
@@ -414,7 +423,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 								break;
 							case 'i' :
 								if (CharOperation.equals(attributeName, AttributeNamesConstants.SignatureName)) {
-									utf8Offset = this.constantPoolOffsets[u2At(readOffset + 6)];
+									int utf8Offset = this.constantPoolOffsets[u2At(readOffset + 6)];
 									this.signature = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
 								}
 						}
@@ -443,7 +452,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 							this.missingTypeNames = new char[numberOfMissingTypes][][];
 							missingTypeOffset += 2;
 							for (int j = 0; j < numberOfMissingTypes; j++) {
-								utf8Offset = this.constantPoolOffsets[u2At(this.constantPoolOffsets[u2At(missingTypeOffset)] + 1)];
+								int utf8Offset = this.constantPoolOffsets[u2At(this.constantPoolOffsets[u2At(missingTypeOffset)] + 1)];
 								char[] missingTypeConstantPoolName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
 								this.missingTypeNames[j] = CharOperation.splitOn('/', missingTypeConstantPoolName);
 								missingTypeOffset += 2;
@@ -456,7 +465,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 					break;
 				case 'N' :
 					if (CharOperation.equals(attributeName, AttributeNamesConstants.NestHost)) {
-						utf8Offset =
+						int utf8Offset =
 							this.constantPoolOffsets[u2At(this.constantPoolOffsets[u2At(readOffset + 6)] + 1)];
  						this.nestHost = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
 					} else if (CharOperation.equals(attributeName, AttributeNamesConstants.NestMembers)) {
@@ -466,7 +475,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 							offset += 2;
 							this.nestMembers = new char[this.nestMembersCount][];
 							for (int j = 0; j < this.nestMembersCount; j++) {
-								utf8Offset =
+								int utf8Offset =
 									this.constantPoolOffsets[u2At(this.constantPoolOffsets[u2At(offset)] + 1)];
 		 						this.nestMembers[j] = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
 		 						offset += 2;
@@ -483,7 +492,7 @@ public ClassFileReader(byte[] classFileBytes, char[] fileName, boolean fullyInit
 							offset += 2;
 							this.permittedSubtypesNames = new char[this.permittedSubtypesCount][];
 							for (int j = 0; j < this.permittedSubtypesCount; j++) {
-								utf8Offset =
+								int utf8Offset =
 									this.constantPoolOffsets[u2At(this.constantPoolOffsets[u2At(offset)] + 1)];
 		 						this.permittedSubtypesNames[j] = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
 		 						offset += 2;
@@ -1029,69 +1038,8 @@ public boolean hasStructuralChanges(byte[] newBytes, boolean orderRequired, bool
 	try {
 		ClassFileReader newClassFile =
 			new ClassFileReader(newBytes, this.classFileName);
-		// type level comparison
-		// modifiers
-		if (getModifiers() != newClassFile.getModifiers())
-			return true;
-
-		// only consider a portion of the tagbits which indicate a structural change for dependents
-		// e.g. @Override change has no influence outside
-		long OnlyStructuralTagBits = TagBits.AnnotationTargetMASK // different @Target status ?
-			| TagBits.AnnotationDeprecated // different @Deprecated status ?
-			| TagBits.AnnotationRetentionMASK // different @Retention status ?
-			| TagBits.HierarchyHasProblems; // different hierarchy status ?
-
-		// meta-annotations
-		if ((getTagBits() & OnlyStructuralTagBits) != (newClassFile.getTagBits() & OnlyStructuralTagBits))
-			return true;
-		// annotations
-		if (hasStructuralAnnotationChanges(getAnnotations(), newClassFile.getAnnotations()))
-			return true;
-		if (this.version >= ClassFileConstants.JDK1_8
-				&& hasStructuralTypeAnnotationChanges(getTypeAnnotations(), newClassFile.getTypeAnnotations()))
-			return true;
-
-		// generic signature
-		if (!CharOperation.equals(getGenericSignature(), newClassFile.getGenericSignature()))
-			return true;
-		// superclass
-		if (!CharOperation.equals(getSuperclassName(), newClassFile.getSuperclassName()))
+		if (hasStructuralTypeChanges(newClassFile))
 			return true;
-		// interfaces
-		char[][] newInterfacesNames = newClassFile.getInterfaceNames();
-		if (this.interfaceNames != newInterfacesNames) { // TypeConstants.NoSuperInterfaces
-			int newInterfacesLength = newInterfacesNames == null ? 0 : newInterfacesNames.length;
-			if (newInterfacesLength != this.interfacesCount)
-				return true;
-			for (int i = 0, max = this.interfacesCount; i < max; i++)
-				if (!CharOperation.equals(this.interfaceNames[i], newInterfacesNames[i]))
-					return true;
-		}
-
-		// permitted sub-types
-		char[][] newPermittedSubtypeNames = newClassFile.getPermittedSubtypeNames();
-		if (this.permittedSubtypesNames != newPermittedSubtypeNames) {
-			int newPermittedSubtypesLength = newPermittedSubtypeNames == null ? 0 : newPermittedSubtypeNames.length;
-			if (newPermittedSubtypesLength != this.permittedSubtypesCount)
-				return true;
-			for (int i = 0, max = this.permittedSubtypesCount; i < max; i++)
-				if (!CharOperation.equals(this.permittedSubtypesNames[i], newPermittedSubtypeNames[i]))
-					return true;
-		}
-
-		// member types
-		IBinaryNestedType[] currentMemberTypes = getMemberTypes();
-		IBinaryNestedType[] otherMemberTypes = newClassFile.getMemberTypes();
-		if (currentMemberTypes != otherMemberTypes) { // TypeConstants.NoMemberTypes
-			int currentMemberTypeLength = currentMemberTypes == null ? 0 : currentMemberTypes.length;
-			int otherMemberTypeLength = otherMemberTypes == null ? 0 : otherMemberTypes.length;
-			if (currentMemberTypeLength != otherMemberTypeLength)
-				return true;
-			for (int i = 0; i < currentMemberTypeLength; i++)
-				if (!CharOperation.equals(currentMemberTypes[i].getName(), otherMemberTypes[i].getName())
-					|| currentMemberTypes[i].getModifiers() != otherMemberTypes[i].getModifiers())
-						return true;
-		}
 
 		// fields
 		FieldInfo[] otherFieldInfos = (FieldInfo[]) newClassFile.getFields();
@@ -1153,29 +1101,335 @@ public boolean hasStructuralChanges(byte[] newBytes, boolean orderRequired, bool
 			}
 		}
 
-		// missing types
-		char[][][] missingTypes = getMissingTypeNames();
-		char[][][] newMissingTypes = newClassFile.getMissingTypeNames();
-		if (missingTypes != null) {
-			if (newMissingTypes == null) {
+		return false;
+	} catch (ClassFormatException e) {
+		return true;
+	}
+}
+
+// the type level part of hasStructuralChanges(byte[], boolean, boolean), i.e. everything but the fields and methods
+private boolean hasStructuralTypeChanges(ClassFileReader newClassFile) {
+	// modifiers
+	if (getModifiers() != newClassFile.getModifiers())
+		return true;
+
+	// meta-annotations
+	if ((getTagBits() & ONLY_STRUCTURAL_TAG_BITS) != (newClassFile.getTagBits() & ONLY_STRUCTURAL_TAG_BITS))
+		return true;
+	// annotations
+	if (hasStructuralAnnotationChanges(getAnnotations(), newClassFile.getAnnotations()))
+		return true;
+	if (this.version >= ClassFileConstants.JDK1_8
+			&& hasStructuralTypeAnnotationChanges(getTypeAnnotations(), newClassFile.getTypeAnnotations()))
+		return true;
+
+	// generic signature
+	if (!CharOperation.equals(getGenericSignature(), newClassFile.getGenericSignature()))
+		return true;
+	// superclass
+	if (!CharOperation.equals(getSuperclassName(), newClassFile.getSuperclassName()))
+		return true;
+	// interfaces
+	char[][] newInterfacesNames = newClassFile.getInterfaceNames();
+	if (this.interfaceNames != newInterfacesNames) { // TypeConstants.NoSuperInterfaces
+		int newInterfacesLength = newInterfacesNames == null ? 0 : newInterfacesNames.length;
+		if (newInterfacesLength != this.interfacesCount)
+			return true;
+		for (int i = 0, max = this.interfacesCount; i < max; i++)
+			if (!CharOperation.equals(this.interfaceNames[i], newInterfacesNames[i]))
 				return true;
-			}
-			int length = missingTypes.length;
-			if (length != newMissingTypes.length) {
+	}
+
+	// permitted sub-types
+	char[][] newPermittedSubtypeNames = newClassFile.getPermittedSubtypeNames();
+	if (this.permittedSubtypesNames != newPermittedSubtypeNames) {
+		int newPermittedSubtypesLength = newPermittedSubtypeNames == null ? 0 : newPermittedSubtypeNames.length;
+		if (newPermittedSubtypesLength != this.permittedSubtypesCount)
+			return true;
+		for (int i = 0, max = this.permittedSubtypesCount; i < max; i++)
+			if (!CharOperation.equals(this.permittedSubtypesNames[i], newPermittedSubtypeNames[i]))
 				return true;
-			}
-			for (int i = 0; i < length; i++) {
-				if (!CharOperation.equals(missingTypes[i], newMissingTypes[i])) {
+	}
+
+	// member types
+	IBinaryNestedType[] currentMemberTypes = getMemberTypes();
+	IBinaryNestedType[] otherMemberTypes = newClassFile.getMemberTypes();
+	if (currentMemberTypes != otherMemberTypes) { // TypeConstants.NoMemberTypes
+		int currentMemberTypeLength = currentMemberTypes == null ? 0 : currentMemberTypes.length;
+		int otherMemberTypeLength = otherMemberTypes == null ? 0 : otherMemberTypes.length;
+		if (currentMemberTypeLength != otherMemberTypeLength)
+			return true;
+		for (int i = 0; i < currentMemberTypeLength; i++)
+			if (!CharOperation.equals(currentMemberTypes[i].getName(), otherMemberTypes[i].getName())
+				|| currentMemberTypes[i].getModifiers() != otherMemberTypes[i].getModifiers())
 					return true;
-				}
-			}
-		} else if (newMissingTypes != null) {
+	}
+
+	// missing types
+	char[][][] missingTypes = getMissingTypeNames();
+	char[][][] newMissingTypes = newClassFile.getMissingTypeNames();
+	if (missingTypes != null) {
+		if (newMissingTypes == null) {
 			return true;
 		}
-		return false;
-	} catch (ClassFormatException e) {
+		int length = missingTypes.length;
+		if (length != newMissingTypes.length) {
+			return true;
+		}
+		for (int i = 0; i < length; i++) {
+			if (!CharOperation.equals(missingTypes[i], newMissingTypes[i])) {
+				return true;
+			}
+		}
+	} else if (newMissingTypes != null) {
 		return true;
 	}
+	return false;
+}
+
+/**
+ * Answer the names of the members of the receiver which have structural changes, as defined by
+ * {@link #hasStructuralChanges(byte[])}, compared to the class file in argument: the names of the fields and
+ * methods which were added, removed or changed. Constructors are answered as the simple name of the type,
+ * which is how source code names them.
+ * <p>
+ * Answer an empty array if there is no structural change, or null if the change is not limited to named members,
+ * i.e. if the type level changed, or if a dependent may be affected without naming a changed member:
+ * <ul>
+ * <li>the methods of interfaces other than static ones, which define the function type of lambda expressions</li>
+ * <li>the members of enums, records and annotation types, which switch statements, record patterns and
+ * annotations use implicitly</li>
+ * <li>the methods invoked implicitly by enhanced for statements, try-with-resources statements and provides
+ * directives</li>
+ * </ul>
+ * As for {@link #hasStructuralChanges(byte[])}, synthetic members are ignored and the order of the members
+ * does not matter. Subtypes inherit the changed members without naming them, see the callers.
+ * </p>
+ * @param newBytes the bytes of the .class file we want to compare the receiver to
+ * @return the names of the changed members, or null if the change is not limited to them
+ */
+public char[][] getStructurallyChangedMembers(byte[] newBytes) {
+	ClassFileReader newClassFile;
+	try {
+		newClassFile = new ClassFileReader(newBytes, this.classFileName);
+	} catch (ClassFormatException e) {
+		return null;
+	}
+	if (hasStructuralTypeChanges(newClassFile))
+		return null;
+	int modifiers = getModifiers();
+	if ((modifiers & (ClassFileConstants.AccEnum | ClassFileConstants.AccAnnotation)) != 0 || isRecord())
+		return null;
+
+	List<char[]> changedNames = new ArrayList<>();
+	FieldInfo[] currentFields = nonSyntheticFields(this.fields);
+	FieldInfo[] otherFields = nonSyntheticFields((FieldInfo[]) newClassFile.getFields());
+	for (int i = 0, j = 0; i < currentFields.length || j < otherFields.length;) {
+		int compare = i == currentFields.length ? 1 : j == otherFields.length ? -1 : currentFields[i].compareTo(otherFields[j]);
+		FieldInfo currentField = compare <= 0 ? currentFields[i++] : null;
+		FieldInfo otherField = compare >= 0 ? otherFields[j++] : null;
+		if (currentField != null && otherField != null && !hasStructuralFieldChanges(currentField, otherField))
+			continue;
+		addChangedName(changedNames, currentField != null ? currentField.getName() : otherField.getName());
+	}
+	boolean isInterface = (modifiers & ClassFileConstants.AccInterface) != 0;
+	MethodInfo[] currentMethods = nonSyntheticMethods(this.methods);
+	MethodInfo[] otherMethods = nonSyntheticMethods((MethodInfo[]) newClassFile.getMethods());
+	for (int i = 0, j = 0; i < currentMethods.length || j < otherMethods.length;) {
+		int compare = i == currentMethods.length ? 1 : j == otherMethods.length ? -1 : currentMethods[i].compareTo(otherMethods[j]);
+		MethodInfo currentMethod = compare <= 0 ? currentMethods[i++] : null;
+		MethodInfo otherMethod = compare >= 0 ? otherMethods[j++] : null;
+		if (currentMethod != null && otherMethod != null && !hasStructuralMethodChanges(currentMethod, otherMethod))
+			continue;
+		if (isInterface
+				&& ((currentMethod != null && (currentMethod.getModifiers() & ClassFileConstants.AccStatic) == 0)
+					|| (otherMethod != null && (otherMethod.getModifiers() & ClassFileConstants.AccStatic) == 0)))
+			return null;
+		MethodInfo changedMethod = currentMethod != null ? currentMethod : otherMethod;
+		char[] selector = changedMethod.getSelector();
+		if (CharOperation.equals(selector, ConstantPool.ITERATOR_NAME)
+				|| CharOperation.equals(selector, ConstantPool.HasNext)
+				|| CharOperation.equals(selector, ConstantPool.Next)
+				|| CharOperation.equals(selector, ConstantPool.Close)
+				|| CharOperation.equals(selector, TypeConstants.PROVIDER))
+			return null;
+		addChangedName(changedNames, changedMethod.isConstructor() ? getSourceName() : selector);
+	}
+	return changedNames.toArray(new char[changedNames.size()][]);
+}
+
+// the members are sorted by name, so the same name is answered once when several members having it changed
+private static void addChangedName(List<char[]> changedNames, char[] name) {
+	if (changedNames.isEmpty() || !CharOperation.equals(changedNames.get(changedNames.size() - 1), name))
+		changedNames.add(name);
+}
+
+private static FieldInfo[] nonSyntheticFields(FieldInfo[] fieldInfos) {
+	if (fieldInfos == null)
+		return new FieldInfo[0];
+	List<FieldInfo> result = new ArrayList<>(fieldInfos.length);
+	for (FieldInfo fieldInfo : fieldInfos)
+		if (!fieldInfo.isSynthetic())
+			result.add(fieldInfo);
+	FieldInfo[] sorted = result.toArray(new FieldInfo[result.size()]);
+	Arrays.sort(sorted);
+	return sorted;
+}
+
+private static MethodInfo[] nonSyntheticMethods(MethodInfo[] methodInfos) {
+	if (methodInfos == null)
+		return new MethodInfo[0];
+	List<MethodInfo> result = new ArrayList<>(methodInfos.length);
+	for (MethodInfo methodInfo : methodInfos)
+		if (!(methodInfo.isSynthetic() || methodInfo.isClinit()))
+			result.add(methodInfo);
+	MethodInfo[] sorted = result.toArray(new MethodInfo[result.size()]);
+	Arrays.sort(sorted);
+	return sorted;
+}
+
+/**
+ * Answer a fingerprint of the properties of the receiver which {@link #hasStructuralChanges(byte[])} compares.
+ * Two class files with different fingerprints have structural changes, two class files with the same fingerprint
+ * are considered not to have any. As for {@link #hasStructuralChanges(byte[])}, synthetic members are ignored
+ * and the order of the members does not matter.
+ * @return the structural fingerprint of the receiver
+ */
+public long getStructuralFingerprint() {
+	StructuralFingerprint fingerprint = new StructuralFingerprint();
+	fingerprint.add(getModifiers());
+	fingerprint.add(getTagBits() & ONLY_STRUCTURAL_TAG_BITS);
+	fingerprint.add(getAnnotations());
+	if (this.version >= ClassFileConstants.JDK1_8)
+		fingerprint.add(getTypeAnnotations());
+	fingerprint.add(getGenericSignature());
+	fingerprint.add(getSuperclassName());
+	fingerprint.add(getInterfaceNames());
+	fingerprint.add(getPermittedSubtypeNames());
+	IBinaryNestedType[] memberTypes = getMemberTypes();
+	int memberTypesLength = memberTypes == null ? 0 : memberTypes.length;
+	fingerprint.add(memberTypesLength);
+	for (int i = 0; i < memberTypesLength; i++) {
+		fingerprint.add(memberTypes[i].getName());
+		fingerprint.add(memberTypes[i].getModifiers());
+	}
+
+	if (this.fieldsCount != 0) {
+		FieldInfo[] sortedFields = this.fields.clone();
+		Arrays.sort(sortedFields);
+		for (FieldInfo field : sortedFields) {
+			if (field.isSynthetic()) continue;
+			fingerprint.add(field.getGenericSignature());
+			fingerprint.add(field.getModifiers());
+			fingerprint.add(field.getTagBits() & TagBits.AnnotationDeprecated);
+			fingerprint.add(field.getAnnotations());
+			if (this.version >= ClassFileConstants.JDK1_8)
+				fingerprint.add(field.getTypeAnnotations());
+			fingerprint.add(field.getName());
+			fingerprint.add(field.getTypeName());
+			if (field.hasConstant()) {
+				Constant constant = field.getConstant();
+				fingerprint.add(constant.typeID());
+				fingerprint.add(constant.toString()); // includes the type and the value of the constant
+			} else {
+				fingerprint.add(-1);
+			}
+		}
+	}
+	fingerprint.add(-1); // separate the fields from the methods
+	if (this.methodsCount != 0) {
+		MethodInfo[] sortedMethods = this.methods.clone();
+		Arrays.sort(sortedMethods);
+		for (MethodInfo method : sortedMethods) {
+			if (method.isSynthetic() || method.isClinit()) continue;
+			fingerprint.add(method.getGenericSignature());
+			fingerprint.add(method.getModifiers());
+			fingerprint.add(method.getTagBits() & TagBits.AnnotationDeprecated);
+			fingerprint.add(method.getAnnotations());
+			int annotatedParametersCount = method.getAnnotatedParametersCount();
+			fingerprint.add(annotatedParametersCount);
+			for (int i = 0; i < annotatedParametersCount; i++)
+				fingerprint.add(method.getParameterAnnotations(i, this.classFileName));
+			if (this.version >= ClassFileConstants.JDK1_8)
+				fingerprint.add(method.getTypeAnnotations());
+			fingerprint.add(method.getSelector());
+			fingerprint.add(method.getMethodDescriptor());
+			fingerprint.add(method.getExceptionTypeNames());
+		}
+	}
+	char[][][] missingTypes = getMissingTypeNames();
+	int missingTypesLength = missingTypes == null ? -1 : missingTypes.length;
+	fingerprint.add(missingTypesLength);
+	for (int i = 0; i < missingTypesLength; i++)
+		fingerprint.add(missingTypes[i]);
+	return fingerprint.hash;
+}
+
+/**
+ * 64-bit FNV-1a hash of the structural properties of a class file. Every character is hashed
+ * and every name is followed by its length, so that different structures do not collide in practice.
+ */
+private static class StructuralFingerprint {
+	long hash = 0xcbf29ce484222325L;
+
+	void add(long value) {
+		for (int i = 0; i < 64; i += 16)
+			addChar((char) (value >>> i));
+	}
+	void addChar(char c) {
+		this.hash = (this.hash ^ c) * 0x100000001b3L;
+	}
+	void add(char[] name) {
+		if (name == null) {
+			add(-1);
+			return;
+		}
+		for (char c : name)
+			addChar(c);
+		add(name.length);
+	}
+	void add(char[][] names) {
+		int length = names == null ? 0 : names.length;
+		add(length);
+		for (int i = 0; i < length; i++)
+			add(names[i]);
+	}
+	void add(String value) {
+		add(value.toCharArray());
+	}
+	void add(IBinaryAnnotation[] annotations) {
+		int length = annotations == null ? 0 : annotations.length;
+		add(length);
+		for (int i = 0; i < length; i++)
+			add(annotations[i]);
+	}
+	void add(IBinaryAnnotation annotation) {
+		add(annotation.getTypeName());
+		IBinaryElementValuePair[] pairs = annotation.getElementValuePairs();
+		int length = pairs == null ? 0 : pairs.length;
+		add(length);
+		for (int i = 0; i < length; i++) {
+			add(pairs[i].getName());
+			Object value = pairs[i].getValue();
+			add(value instanceof Object[] ? Arrays.toString((Object[]) value) : String.valueOf(value));
+		}
+	}
+	void add(IBinaryTypeAnnotation[] typeAnnotations) {
+		// like hasStructuralTypeAnnotationChanges(), only consider the annotations affecting the signature, in any order
+		long sum = 0;
+		int count = 0;
+		if (typeAnnotations != null) {
+			for (IBinaryTypeAnnotation typeAnnotation : typeAnnotations) {
+				if (!affectsSignature(typeAnnotation)) continue;
+				StructuralFingerprint annotationFingerprint = new StructuralFingerprint();
+				annotationFingerprint.add(typeAnnotation.getAnnotation());
+				sum += annotationFingerprint.hash;
+				count++;
+			}
+		}
+		add(count);
+		add(sum);
+	}
 }
 
 private boolean hasStructuralAnnotationChanges(IBinaryAnnotation[] currentAnnotations, IBinaryAnnotation[] otherAnnotations) {
@@ -1354,7 +1608,7 @@ private boolean hasStructuralTypeAnnotationChanges(IBinaryTypeAnnotation[] curre
 	return false;
 }
 
-private boolean affectsSignature(IBinaryTypeAnnotation typeAnnotation) {
+private static boolean affectsSignature(IBinaryTypeAnnotation typeAnnotation) {
 	if (typeAnnotation == null) return false;
 	int targetType = typeAnnotation.getTargetType();
 	if (targetType >= AnnotationTargetTypeConstants.LOCAL_VARIABLE && targetType <= AnnotationTargetTypeConstants.METHOD_REFERENCE_TYPE_ARGUMENT)
@@ -13,15 +13,67 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.classfmt;
 
+import org.eclipse.jdt.internal.compiler.codegen.AttributeNamesConstants;
+
 abstract public class ClassFileStruct {
 	byte[] reference;
 	int[] constantPoolOffsets;
 	int structOffset;
+
+	// the attribute names read by the class file readers, the most frequent ones first
+	private static final char[][] KNOWN_ATTRIBUTE_NAMES = {
+		AttributeNamesConstants.CodeName,
+		AttributeNamesConstants.SignatureName,
+		AttributeNamesConstants.ExceptionsName,
+		AttributeNamesConstants.RuntimeVisibleAnnotationsName,
+		AttributeNamesConstants.RuntimeInvisibleAnnotationsName,
+		AttributeNamesConstants.ConstantValueName,
+		AttributeNamesConstants.MethodParametersName,
+		AttributeNamesConstants.DeprecatedName,
+		AttributeNamesConstants.SyntheticName,
+		AttributeNamesConstants.LineNumberTableName,
+		AttributeNamesConstants.LocalVariableTableName,
+		AttributeNamesConstants.LocalVariableTypeTableName,
+		AttributeNamesConstants.StackMapTableName,
+		AttributeNamesConstants.InnerClassName,
+		AttributeNamesConstants.SourceName,
+		AttributeNamesConstants.EnclosingMethodName,
+		AttributeNamesConstants.RuntimeVisibleParameterAnnotationsName,
+		AttributeNamesConstants.RuntimeInvisibleParameterAnnotationsName,
+		AttributeNamesConstants.RuntimeVisibleTypeAnnotationsName,
+		AttributeNamesConstants.RuntimeInvisibleTypeAnnotationsName,
+		AttributeNamesConstants.AnnotationDefaultName,
+		AttributeNamesConstants.BootstrapMethodsName,
+		AttributeNamesConstants.NestHost,
+		AttributeNamesConstants.NestMembers,
+		AttributeNamesConstants.RecordClass,
+		AttributeNamesConstants.PermittedSubclasses,
+		AttributeNamesConstants.ModuleName,
+		AttributeNamesConstants.MissingTypesName,
+		AttributeNamesConstants.InconsistentHierarchy,
+	};
 public ClassFileStruct(byte[] classFileBytes, int[] offsets, int offset) {
 	this.reference = classFileBytes;
 	this.constantPoolOffsets = offsets;
 	this.structOffset = offset;
 }
+/**
+ * Answer the name of the attribute whose name index is at the given offset. The well known names are
+ * answered as the constants of {@link AttributeNamesConstants} instead of being decoded again for every
+ * attribute of every member, hence the answered name must not be modified.
+ */
+public char[] attributeNameAt(int relativeOffset) {
+	int utf8Offset = this.constantPoolOffsets[u2At(relativeOffset)] - this.structOffset;
+	int length = u2At(utf8Offset + 1);
+	int start = this.structOffset + utf8Offset + 3;
+	nextName : for (char[] name : KNOWN_ATTRIBUTE_NAMES) {
+		if (name.length != length) continue;
+		for (int i = 0; i < length; i++)
+			if (this.reference[start + i] != name[i]) continue nextName;
+		return name;
+	}
+	return utf8At(utf8Offset + 3, length);
+}
 public double doubleAt(int relativeOffset) {
 	return (Double.longBitsToDouble(i8At(relativeOffset)));
 }
@@ -47,8 +47,7 @@ public static FieldInfo createField(byte classFileBytes[], int offsets[], int of
 	TypeAnnotationInfo[] typeAnnotations = null;
 	for (int i = 0; i < attributesCount; i++) {
 		// check the name of each attribute
-		int utf8Offset = fieldInfo.constantPoolOffsets[fieldInfo.u2At(readOffset)] - fieldInfo.structOffset;
-		char[] attributeName = fieldInfo.utf8At(utf8Offset + 3, fieldInfo.u2At(utf8Offset + 1));
+		char[] attributeName = fieldInfo.attributeNameAt(readOffset);
 		if (attributeName.length > 0) {
 			switch(attributeName[0]) {
 				case 'S' :
@@ -333,8 +332,7 @@ private void readConstantAttribute() {
 	int readOffset = 8;
 	boolean isConstant = false;
 	for (int i = 0; i < attributesCount; i++) {
-		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+		char[] attributeName = attributeNameAt(readOffset);
 		if (CharOperation
 			.equals(attributeName, AttributeNamesConstants.ConstantValueName)) {
 			isConstant = true;
@@ -377,7 +375,7 @@ private void readConstantAttribute() {
 					this.constant = LongConstant.fromValue(i8At(relativeOffset + 1));
 					break;
 				case ClassFileConstants.StringTag :
-					utf8Offset = this.constantPoolOffsets[u2At(relativeOffset + 1)] - this.structOffset;
+					int utf8Offset = this.constantPoolOffsets[u2At(relativeOffset + 1)] - this.structOffset;
 					this.constant =
 						StringConstant.fromValue(
 							String.valueOf(utf8At(utf8Offset + 3, u2At(utf8Offset + 1))));
@@ -394,8 +392,7 @@ private void readModifierRelatedAttributes() {
 	int attributesCount = u2At(6);
 	int readOffset = 8;
 	for (int i = 0; i < attributesCount; i++) {
-		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+		char[] attributeName = attributeNameAt(readOffset);
 		// test added for obfuscated .class file. See 79772
 		if (attributeName.length != 0) {
 			switch(attributeName[0]) {
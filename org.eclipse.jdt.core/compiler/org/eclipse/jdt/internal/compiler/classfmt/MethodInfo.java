@@ -50,8 +50,7 @@ public static MethodInfo createMethod(byte classFileBytes[], int offsets[], int
 	TypeAnnotationInfo[] typeAnnotations = null;
 	for (int i = 0; i < attributesCount; i++) {
 		// check the name of each attribute
-		int utf8Offset = methodInfo.constantPoolOffsets[methodInfo.u2At(readOffset)] - methodInfo.structOffset;
-		char[] attributeName = methodInfo.utf8At(utf8Offset + 3, methodInfo.u2At(utf8Offset + 1));
+		char[] attributeName = methodInfo.attributeNameAt(readOffset);
 		if (attributeName.length > 0) {
 			switch(attributeName[0]) {
 				case 'M' :
@@ -378,8 +377,7 @@ private synchronized void readExceptionAttributes() {
 	int readOffset = 8;
 	char[][] names = null;
 	for (int i = 0; i < attributesCount; i++) {
-		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+		char[] attributeName = attributeNameAt(readOffset);
 		if (CharOperation.equals(attributeName, AttributeNamesConstants.ExceptionsName)) {
 			// read the number of exception entries
 			int entriesNumber = u2At(readOffset + 6);
@@ -390,7 +388,7 @@ private synchronized void readExceptionAttributes() {
 			} else {
 				names = new char[entriesNumber][];
 				for (int j = 0; j < entriesNumber; j++) {
-					utf8Offset =
+					int utf8Offset =
 						this.constantPoolOffsets[u2At(
 							this.constantPoolOffsets[u2At(readOffset)] - this.structOffset + 1)]
 							- this.structOffset;
@@ -413,8 +411,7 @@ private synchronized void readModifierRelatedAttributes() {
 	int attributesCount = u2At(6);
 	int readOffset = 8;
 	for (int i = 0; i < attributesCount; i++) {
-		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+		char[] attributeName = attributeNameAt(readOffset);
 		// test added for obfuscated .class file. See 79772
 		if (attributeName.length != 0) {
 			switch(attributeName[0]) {
@@ -466,8 +463,7 @@ private synchronized void readCodeAttribute() {
 	int readOffset = 8;
 	if (attributesCount != 0) {
 		for (int i = 0; i < attributesCount; i++) {
-			int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-			char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+			char[] attributeName = attributeNameAt(readOffset);
 			if (CharOperation.equals(attributeName, AttributeNamesConstants.CodeName)) {
 				decodeCodeAttribute(readOffset);
 				if (this.argumentNames == null) {
@@ -495,8 +491,7 @@ private void decodeCodeAttribute(int offset) {
 	int attributesCount = u2At(readOffset);
 	readOffset += 2;
 	for (int i = 0; i < attributesCount; i++) {
-		int utf8Offset = this.constantPoolOffsets[u2At(readOffset)] - this.structOffset;
-		char[] attributeName = utf8At(utf8Offset + 3, u2At(utf8Offset + 1));
+		char[] attributeName = attributeNameAt(readOffset);
 		if (CharOperation.equals(attributeName, AttributeNamesConstants.LocalVariableTableName)) {
 			decodeLocalVariableAttribute(readOffset, codeLength);
 		}
@@ -45,8 +45,7 @@ public static RecordComponentInfo createComponent(byte classFileBytes[], int off
 	TypeAnnotationInfo[] typeAnnotations = null;
 	for (int i = 0; i < attributesCount; i++) {
 		// check the name of each attribute
-		int utf8Offset = componentInfo.constantPoolOffsets[componentInfo.u2At(readOffset)] - componentInfo.structOffset;
-		char[] attributeName = componentInfo.utf8At(utf8Offset + 3, componentInfo.u2At(utf8Offset + 1));
+		char[] attributeName = componentInfo.attributeNameAt(readOffset);
 		if (attributeName.length > 0) {
 			switch(attributeName[0]) {
 				case 'S' :
@@ -28,6 +28,16 @@ public class CompilerStats implements Comparable {
 	public long analyzeTime;
 	public long generateTime;
 
+	// reading sources ahead of parsing (see ReadManager)
+	public long readChars; // characters read by the reading threads
+	public long readTime; // time the reading threads spent reading and decoding sources
+	public long readWaitTime; // time the parser waited for contents being read
+
+	// pipeline between the processing and the writing threads (see ProcessTaskManager)
+	public long processingWaitTime; // time the processing thread waited for room in the queue
+	public long writingWaitTime; // time the writing thread waited for processed units
+	public int maxQueuedUnits; // highest number of processed units waiting to be written
+
 /**
  * Returns the total elapsed time (between start and end)
  * @return the time spent between start and end
@@ -905,6 +905,43 @@ public void storeDependencyInfo() {
 	for (int i = 0; i < size; i++)
 		rootRefs[i] = this.rootReferences.elementAt(i);
 	this.referenceContext.compilationResult.rootReferences = rootRefs;
+
+	// member level references: a change to the members of a type only affects the units which name a changed member
+	// (see NameFilter) and the units declaring subtypes of the type, which inherit the members without naming them
+	SortedSimpleNameVector superTypeNames = new SortedSimpleNameVector();
+	Set<TypeBinding> superTypes = new HashSet<>();
+	if (this.topLevelTypes != null)
+		for (int i = 0, length = this.topLevelTypes.length; i < length; i++)
+			recordSuperTypeNames(this.topLevelTypes[i], superTypeNames, superTypes);
+	for (LocalTypeBinding localType : this.referenceContext.localTypes.values())
+		recordSuperTypeNames(localType, superTypeNames, superTypes);
+	size = superTypeNames.size;
+	char[][] superTypeRefs = new char[size][];
+	for (int i = 0; i < size; i++)
+		superTypeRefs[i] = superTypeNames.elementAt(i);
+	this.referenceContext.compilationResult.superTypeNames = superTypeRefs;
+	// the filter of the identifiers of the unit was recorded by the parser when reading its method bodies
+}
+private void recordSuperTypeNames(ReferenceBinding declaredType, SortedSimpleNameVector superTypeNames, Set<TypeBinding> superTypes) {
+	recordSuperTypeName(declaredType.superclass(), superTypeNames, superTypes);
+	ReferenceBinding[] interfaces = declaredType.superInterfaces();
+	if (interfaces != null)
+		for (int i = 0, length = interfaces.length; i < length; i++)
+			recordSuperTypeName(interfaces[i], superTypeNames, superTypes);
+	ReferenceBinding[] memberTypes = declaredType.memberTypes();
+	if (memberTypes != null)
+		for (int i = 0, length = memberTypes.length; i < length; i++)
+			recordSuperTypeNames(memberTypes[i], superTypeNames, superTypes);
+}
+private void recordSuperTypeName(ReferenceBinding superType, SortedSimpleNameVector superTypeNames, Set<TypeBinding> superTypes) {
+	if (superType == null || !superTypes.add(superType = (ReferenceBinding) superType.erasure()))
+		return;
+	superTypeNames.add(superType.sourceName());
+	recordSuperTypeName(superType.superclass(), superTypeNames, superTypes);
+	ReferenceBinding[] interfaces = superType.superInterfaces();
+	if (interfaces != null)
+		for (int i = 0, length = interfaces.length; i < length; i++)
+			recordSuperTypeName(interfaces[i], superTypeNames, superTypes);
 }
 @Override
 public String toString() {
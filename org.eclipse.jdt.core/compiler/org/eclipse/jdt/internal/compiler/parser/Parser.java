@@ -74,6 +74,7 @@ import org.eclipse.jdt.internal.compiler.problem.AbortCompilationUnit;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import org.eclipse.jdt.internal.compiler.problem.ProblemSeverities;
 import org.eclipse.jdt.internal.compiler.util.Messages;
+import org.eclipse.jdt.internal.compiler.util.NameFilter;
 import org.eclipse.jdt.internal.compiler.util.Util;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
@@ -12065,6 +12066,14 @@ public int[] getJavaDocPositions() {
 	}
 	return positions;
 }
+/*
+ * Record the identifiers of the given source of a unit whose dependencies are recorded, see CompilationUnitScope#storeDependencyInfo().
+ * The filter is computed from the contents already read to parse the method bodies of the unit, hence by the parsing workers if any.
+ */
+private void recordNameFilter(CompilationResult compilationResult, char[] contents) {
+	if (this.options.produceReferenceInfo)
+		compilationResult.nameFilter = NameFilter.of(contents);
+}
 public void getMethodBodies(CompilationUnitDeclaration unit) {
 	//fill the methods bodies in order for the code to be generated
 
@@ -12090,6 +12099,7 @@ public void getMethodBodies(CompilationUnitDeclaration unit) {
 		? this.readManager.getContents(compilationResult.compilationUnit)
 		: compilationResult.compilationUnit.getContents();
 	this.scanner.setSource(contents, compilationResult);
+	recordNameFilter(compilationResult, contents);
 
 	if (this.javadocParser != null && this.javadocParser.checkDocComment) {
 		this.javadocParser.scanner.setSource(contents);
@@ -13326,6 +13336,7 @@ public CompilationUnitDeclaration parse(
 		this.scanner.setSource(contents);
 		this.compilationUnit.sourceEnd = this.scanner.source.length - 1;
 		if (end != -1) this.scanner.resetTo(start, end);
+		else if (!this.diet) recordNameFilter(compilationResult, contents); // otherwise recorded with the method bodies
 		if (this.javadocParser != null && this.javadocParser.checkDocComment) {
 			this.javadocParser.scanner.setSource(contents);
 			if (end != -1) {
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+
+/**
+ * Retains the package names and the class files read from the jars of the classpath across the
+ * compilations which run in the same VM, e.g. when the batch compiler is repeatedly invoked by a
+ * build daemon, or when the Java builder builds several projects concurrently.
+ * <p>
+ * Jars are identified by their path, size and modification time, so that a jar which changed
+ * on disk is read again. Class files are cached as fully initialized {@link ClassFileReader}s,
+ * which do not retain the bytes they were read from and can be shared by concurrent compilations.
+ * When the estimated size of the cache exceeds its limit, the least recently used jars are evicted.
+ * </p>
+ * <p>
+ * The cache is disabled by default, it is enabled by setting the <code>jdt.compiler.jarCacheSize</code>
+ * system property to the maximum size of the cache in megabytes. The Java builder also enables it when it builds
+ * projects concurrently.
+ * </p>
+ */
+public class ClasspathJarCache {
+
+	private static final Object NOT_FOUND = new Object();
+
+	private static ClasspathJarCache instance;
+
+	private final long maxSize;
+	private long size;
+	private final LinkedHashMap<String, JarContents> jars = new LinkedHashMap<>(16, 0.75f, true /* access order */);
+
+	/**
+	 * The cached contents of one version of a jar.
+	 */
+	public static class JarContents {
+		final ClasspathJarCache cache;
+		final String path;
+		final long length;
+		final long lastModified;
+		Set<String> packages;
+		final Map<String, Object> types = new HashMap<>(); // qualified binary file name -> ClassFileReader or NOT_FOUND
+		long size;
+
+		JarContents(ClasspathJarCache cache, String path, long length, long lastModified) {
+			this.cache = cache;
+			this.path = path;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * Answers the reader of the given class file of the jar, read from the given zip file of the jar unless it is
+		 * cached, or null if the jar does not contain the class file.
+		 */
+		public ClassFileReader readType(ZipFile zipFile, String qualifiedBinaryFileName) throws ClassFormatException, IOException {
+			Object cached;
+			synchronized (this.cache) {
+				cached = this.types.get(qualifiedBinaryFileName);
+			}
+			if (cached == NOT_FOUND)
+				return null;
+			if (cached != null)
+				return (ClassFileReader) cached;
+			ZipEntry entry = zipFile.getEntry(qualifiedBinaryFileName);
+			// fully initialize the reader so that it no longer needs the bytes of the class file
+			ClassFileReader reader = entry == null ? null : ClassFileReader.read(zipFile, qualifiedBinaryFileName, true);
+			synchronized (this.cache) {
+				if (this.types.put(qualifiedBinaryFileName, reader == null ? NOT_FOUND : reader) == null)
+					this.cache.grow(this, qualifiedBinaryFileName.length() * 2 + (entry == null ? 0 : Math.max(entry.getSize(), 0)));
+			}
+			return reader;
+		}
+
+		/**
+		 * Answers the names of the packages of the jar, or null if they have not been computed yet.
+		 * The answered set must not be modified.
+		 */
+		public Set<String> getPackages() {
+			synchronized (this.cache) {
+				return this.packages;
+			}
+		}
+
+		public void setPackages(Set<String> packageNames) {
+			synchronized (this.cache) {
+				if (this.packages != null) return;
+				this.packages = packageNames;
+				long namesSize = 0;
+				for (String packageName : packageNames)
+					namesSize += packageName.length() * 2;
+				this.cache.grow(this, namesSize);
+			}
+		}
+	}
+
+private ClasspathJarCache(long maxSize) {
+	this.maxSize = maxSize;
+}
+
+/**
+ * Answer the cache shared by the compilations of this VM, or null if the cache is disabled.
+ */
+public static ClasspathJarCache getInstance() {
+	return getInstance(0);
+}
+
+/**
+ * Answer the cache shared by the compilations of this VM, or null if the cache is disabled. The given size
+ * in megabytes applies unless the <code>jdt.compiler.jarCacheSize</code> system property is set.
+ */
+public static synchronized ClasspathJarCache getInstance(int defaultMegabytes) {
+	int megabytes = Integer.getInteger("jdt.compiler.jarCacheSize", defaultMegabytes).intValue(); //$NON-NLS-1$
+	if (megabytes <= 0) {
+		instance = null; // release the memory if the cache got disabled
+		return null;
+	}
+	long max = megabytes * 1024L * 1024L;
+	if (instance == null || instance.maxSize != max)
+		instance = new ClasspathJarCache(max);
+	return instance;
+}
+
+/**
+ * Answer the cached contents of the given jar, discarding them if the jar changed since it was cached.
+ */
+public synchronized JarContents getContents(File file, String path) {
+	long length = file.length();
+	long lastModified = file.lastModified();
+	JarContents contents = this.jars.get(path);
+	if (contents != null) {
+		if (contents.length == length && contents.lastModified == lastModified)
+			return contents;
+		this.jars.remove(path);
+		this.size -= contents.size;
+	}
+	contents = new JarContents(this, path, length, lastModified);
+	this.jars.put(path, contents);
+	return contents;
+}
+
+// called with the receiver locked
+void grow(JarContents contents, long delta) {
+	if (this.jars.get(contents.path) != contents)
+		return; // evicted or replaced meanwhile, no longer accounted for
+	contents.size += delta;
+	this.size += delta;
+	if (this.size <= this.maxSize)
+		return;
+	// evict the least recently used jars, keeping the one which is being read
+	for (Iterator<JarContents> iterator = this.jars.values().iterator(); this.size > this.maxSize && iterator.hasNext();) {
+		JarContents eldest = iterator.next();
+		if (eldest == contents) continue;
+		iterator.remove();
+		this.size -= eldest.size;
+	}
+}
+
+public synchronized void clear() {
+	this.jars.clear();
+	this.size = 0;
+}
+
+@Override
+public synchronized String toString() {
+	return "Classpath jar cache: " + this.jars.size() + " jars, " + this.size + '/' + this.maxSize + " bytes"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+}
+}
@@ -13,6 +13,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
@@ -22,7 +26,9 @@ import java.nio.file.FileSystemAlreadyExistsException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.ProviderNotFoundException;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -87,6 +93,14 @@ public class CtSym {
 
 	static boolean VERBOSE = false;
 
+	/**
+	 * System property naming the directory where the paths of the files of each release are persisted, so that other
+	 * VMs do not need to walk ct.sym again (see {@link #getCachedReleasePaths(String)}). Not persisted if not set.
+	 */
+	public static final String INDEX_DIRECTORY_PROPERTY = "jdt.compiler.ctSymIndexDir"; //$NON-NLS-1$
+
+	private static final int INDEX_VERSION = 1;
+
 	/**
 	 * Map from path (release) inside ct.sym file to all class signatures loaded
 	 */
@@ -318,33 +332,121 @@ public class CtSym {
 	 */
 	private Map<String, Path> getCachedReleasePaths(String releaseCode) {
 		Map<String, Path> result = this.allReleasesPaths.computeIfAbsent(releaseCode, x -> {
-			List<Path> roots = releaseRoots(releaseCode);
 			Map<String, Path> allReleaseFiles = new HashMap<>(4999);
+			if (readReleaseIndex(releaseCode, allReleaseFiles))
+				return Collections.unmodifiableMap(allReleaseFiles);
+			List<Path> roots = releaseRoots(releaseCode);
+			List<Path> files = new ArrayList<>(4999);
+			boolean complete = true;
 			for (Path start : roots) {
 				try {
 					Files.walk(start).filter(Files::isRegularFile).forEach(p -> {
-						if (isJRE12Plus()) {
-							// Don't use module name as part of the key
-							String binaryNameWithoutModule = p.subpath(2, p.getNameCount()).toString();
-							allReleaseFiles.put(binaryNameWithoutModule, p);
-							// Cache extra key with module added, see getFullPath().
-							String binaryNameWithModule = p.subpath(1, p.getNameCount()).toString();
-							allReleaseFiles.put(binaryNameWithModule, p);
-						} else {
-							String binaryNameWithoutModule = p.subpath(1, p.getNameCount()).toString();
-							allReleaseFiles.put(binaryNameWithoutModule, p);
-						}
+						files.add(p);
+						addReleaseFile(allReleaseFiles, p);
 					});
 				} catch (IOException e) {
 					// Not much do to if we can't list the dir; anything in there will be treated
 					// as if it were missing.
+					complete = false;
 				}
 			}
+			if (complete)
+				writeReleaseIndex(releaseCode, files);
 			return Collections.unmodifiableMap(allReleaseFiles);
 		});
 		return result;
 	}
 
+	private void addReleaseFile(Map<String, Path> allReleaseFiles, Path p) {
+		if (isJRE12Plus()) {
+			// Don't use module name as part of the key
+			String binaryNameWithoutModule = p.subpath(2, p.getNameCount()).toString();
+			allReleaseFiles.put(binaryNameWithoutModule, p);
+			// Cache extra key with module added, see getFullPath().
+			String binaryNameWithModule = p.subpath(1, p.getNameCount()).toString();
+			allReleaseFiles.put(binaryNameWithModule, p);
+		} else {
+			String binaryNameWithoutModule = p.subpath(1, p.getNameCount()).toString();
+			allReleaseFiles.put(binaryNameWithoutModule, p);
+		}
+	}
+
+	private Path getReleaseIndexFile(String releaseCode) {
+		String directory = System.getProperty(INDEX_DIRECTORY_PROPERTY);
+		if (directory == null)
+			return null;
+		return Paths.get(directory, getReleaseIndexFileName(this.ctSymFile, releaseCode));
+	}
+
+	/**
+	 * Answers the name of the file the paths of the files of the given release of the given ct.sym file are persisted
+	 * in, in the directory named by {@link #INDEX_DIRECTORY_PROPERTY}.
+	 */
+	public static String getReleaseIndexFileName(Path ctSymFile, String releaseCode) {
+		return "ctsym-" + Integer.toHexString(ctSymFile.toString().hashCode()) + '-' + releaseCode + ".index"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/*
+	 * Fills the given map with the files of the given release read from the persisted index, answers false if there is
+	 * no index or if it is outdated.
+	 */
+	private boolean readReleaseIndex(String releaseCode, Map<String, Path> allReleaseFiles) {
+		Path indexFile = getReleaseIndexFile(releaseCode);
+		if (indexFile == null || !Files.isRegularFile(indexFile))
+			return false;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+			if (in.readInt() != INDEX_VERSION
+					|| !in.readUTF().equals(this.ctSymFile.toString())
+					|| in.readLong() != Files.size(this.ctSymFile)
+					|| in.readLong() != Files.getLastModifiedTime(this.ctSymFile).toMillis()
+					|| !in.readUTF().equals(releaseCode))
+				return false;
+			for (int i = in.readInt(); --i >= 0;)
+				addReleaseFile(allReleaseFiles, this.fs.getPath(in.readUTF()));
+			if (VERBOSE) {
+				System.out.println("read ct.sym index: " + indexFile); //$NON-NLS-1$
+			}
+			return true;
+		} catch (IOException | RuntimeException e) {
+			allReleaseFiles.clear(); // walk ct.sym instead
+			return false;
+		}
+	}
+
+	private void writeReleaseIndex(String releaseCode, List<Path> files) {
+		Path indexFile = getReleaseIndexFile(releaseCode);
+		if (indexFile == null)
+			return;
+		Path tempFile = null;
+		try {
+			Files.createDirectories(indexFile.getParent());
+			// write a temporary file first so that other VMs never read a partial index
+			tempFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp"); //$NON-NLS-1$
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(INDEX_VERSION);
+				out.writeUTF(this.ctSymFile.toString());
+				out.writeLong(Files.size(this.ctSymFile));
+				out.writeLong(Files.getLastModifiedTime(this.ctSymFile).toMillis());
+				out.writeUTF(releaseCode);
+				out.writeInt(files.size());
+				for (Path file : files)
+					out.writeUTF(file.toString());
+			}
+			Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+			tempFile = null;
+		} catch (IOException e) {
+			// the index is only an optimization
+		} finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
 	public byte[] getFileBytes(Path path) throws IOException {
 		if (DISABLE_CACHE) {
 			return JRTUtil.safeReadBytes(path);
@@ -34,9 +34,12 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
@@ -146,9 +149,10 @@ public class JRTUtil {
 		return ctSym;
 	}
 
-	/** TEST ONLY (use when changing the "modules.to.load" property). */
+	/** TEST ONLY (use when changing the "modules.to.load" or "jdt.compiler.ctSymIndexDir" property). */
 	public static void reset() {
 		images.clear();
+		ctSymFiles.clear();
 		MODULE_TO_LOAD = System.getProperty("modules.to.load"); //$NON-NLS-1$
 	}
 
@@ -201,6 +205,32 @@ public class JRTUtil {
 		return getJrtSystem(jrt).hasClassFile(qualifiedPackageName, moduleName);
 	}
 
+	/**
+	 * Answers the names of the packages of each module of the given image (e.g. "java/lang"), keyed by
+	 * module name. The table is computed once per image and release, and is shared by all clients instead
+	 * of each walking the image again; it must not be modified.
+	 *
+	 * @param image the path to the root of the JRE or to its jrt-fs.jar
+	 * @param release the older release to answer the packages of, or null for the release of the image
+	 */
+	public static Map<String, Set<String>> getPackagesByModule(File image, String release) throws IOException {
+		JrtFileSystem system = getJrtSystem(image, release);
+		if (system == null)
+			throw new IOException("Unable to read the module image " + image); //$NON-NLS-1$
+		return system.getPackagesByModule();
+	}
+
+	/**
+	 * Answers the names of the files directly contained in the given package of the given module of
+	 * the given image, in the order they are walked. The names are cached and must not be modified.
+	 */
+	public static List<String> getPackageFileNames(File image, String qualifiedPackageName, String moduleName) throws IOException {
+		JrtFileSystem system = getJrtSystem(image);
+		if (system == null)
+			throw new IOException("Unable to read the module image " + image); //$NON-NLS-1$
+		return system.getFileNames(qualifiedPackageName, moduleName);
+	}
+
 	/*
 	 * Returns only the file name after removing trailing '/' if any for folders
 	 */
@@ -329,9 +359,17 @@ final class RuntimeIOException extends RuntimeException {
 
 class JrtFileSystem {
 
-	private final Map<String, String> packageToModule = new HashMap<String, String>();
+	// read without locking, only updated by cachePackage()
+	private final Map<String, String> packageToModule = new ConcurrentHashMap<String, String>();
+
+	private final Map<String, List<String>> packageToModules = new ConcurrentHashMap<String, List<String>>();
 
-	private final Map<String, List<String>> packageToModules = new HashMap<String, List<String>>();
+	// module name -> package names, walked on first request
+	private volatile Map<String, Set<String>> packagesByModule;
+	private final Object packagesByModuleLock = new Object();
+
+	// module + '/' + package name -> names of the files of the package
+	private final Map<String, List<String>> fileNamesByPackage = new ConcurrentHashMap<>();
 
 
 	private final Map<Path, Optional<byte[]>> classCache = new ConcurrentHashMap<>(10007);
@@ -437,19 +475,72 @@ class JrtFileSystem {
 		String knownModule = this.packageToModule.get(qualifiedPackageName);
 		if (knownModule == null || (knownModule != JRTUtil.MULTIPLE && !knownModule.equals(module)))
 			return false;
-		Path packagePath = this.fs.getPath(JRTUtil.MODULES_SUBDIR, module, qualifiedPackageName);
-		if (!Files.exists(packagePath))
-			return false;
 		// iterate files:
 		try {
-			return Files.list(packagePath)
-				.anyMatch(filePath -> filePath.toString().endsWith(SuffixConstants.SUFFIX_STRING_class)
-										|| filePath.toString().endsWith(SuffixConstants.SUFFIX_STRING_CLASS));
+			return getFileNames(qualifiedPackageName, module).stream()
+				.anyMatch(fileName -> fileName.endsWith(SuffixConstants.SUFFIX_STRING_class)
+										|| fileName.endsWith(SuffixConstants.SUFFIX_STRING_CLASS));
 		} catch (IOException e) {
 			return false;
 		}
 	}
 
+	Map<String, Set<String>> getPackagesByModule() throws IOException {
+		Map<String, Set<String>> packages = this.packagesByModule;
+		if (packages != null)
+			return packages;
+		synchronized (this.packagesByModuleLock) {
+			if (this.packagesByModule == null) {
+				final Map<String, Set<String>> walked = new LinkedHashMap<>();
+				walkModuleImage(new JRTUtil.JrtFileVisitor<java.nio.file.Path>() {
+					Set<String> packageNames;
+					@Override
+					public FileVisitResult visitPackage(java.nio.file.Path dir, java.nio.file.Path mod, BasicFileAttributes attrs) throws IOException {
+						this.packageNames.add(dir.toString());
+						return FileVisitResult.CONTINUE;
+					}
+					@Override
+					public FileVisitResult visitFile(java.nio.file.Path file, java.nio.file.Path mod, BasicFileAttributes attrs) throws IOException {
+						return FileVisitResult.CONTINUE;
+					}
+					@Override
+					public FileVisitResult visitModule(java.nio.file.Path path, String name) throws IOException {
+						if (name.endsWith("/")) //$NON-NLS-1$
+							name = name.substring(0, name.length() - 1);
+						this.packageNames = new LinkedHashSet<>();
+						walked.put(name, this.packageNames);
+						return FileVisitResult.CONTINUE;
+					}
+				}, JRTUtil.NOTIFY_PACKAGES | JRTUtil.NOTIFY_MODULES);
+				for (Map.Entry<String, Set<String>> entry : walked.entrySet())
+					entry.setValue(Collections.unmodifiableSet(entry.getValue()));
+				this.packagesByModule = Collections.unmodifiableMap(walked);
+			}
+			return this.packagesByModule;
+		}
+	}
+
+	List<String> getFileNames(String qualifiedPackageName, String module) throws IOException {
+		List<String> fileNames = this.fileNamesByPackage.get(module + '/' + qualifiedPackageName);
+		if (fileNames != null)
+			return fileNames;
+		Path packagePath = this.fs.getPath(JRTUtil.MODULES_SUBDIR, module, qualifiedPackageName);
+		if (!Files.isDirectory(packagePath)) {
+			fileNames = Collections.emptyList();
+		} else {
+			fileNames = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(packagePath)) {
+				for (Path file : stream) {
+					if (!Files.isDirectory(file))
+						fileNames.add(file.getFileName().toString());
+				}
+			}
+			fileNames = Collections.unmodifiableList(fileNames);
+		}
+		this.fileNamesByPackage.put(module + '/' + qualifiedPackageName, fileNames);
+		return fileNames;
+	}
+
 	public InputStream getContentFromJrt(String fileName, String module) throws IOException {
 		if (module != null) {
 			byte[] fileBytes = getFileBytes(fileName, module);
@@ -628,14 +719,16 @@ class JrtFileSystem {
 
 		// We observe an additional module containing package
 		if (currentModule == JRTUtil.MULTIPLE) {
-			// We have already a list => update it
+			// We have already a list => update a copy of it, the list may be read concurrently
 			List<String> list = this.packageToModules.get(packageName);
 			if (!list.contains(module)) {
+				list = new ArrayList<String>(list);
 				if (JRTUtil.JAVA_BASE.equals(module)) {
 					list.add(0, JRTUtil.JAVA_BASE);
 				} else {
 					list.add(module.intern());
 				}
+				this.packageToModules.put(packageName, list);
 			}
 		} else {
 			// We found a second module => create a list
@@ -649,7 +742,7 @@ class JrtFileSystem {
 				list.add(currentModule.intern());
 			}
 			packageName = packageName.intern();
-			this.packageToModules.put(packageName, list);
+			this.packageToModules.put(packageName, list); // before being marked as MULTIPLE for readers
 			this.packageToModule.put(packageName, JRTUtil.MULTIPLE);
 		}
 	}
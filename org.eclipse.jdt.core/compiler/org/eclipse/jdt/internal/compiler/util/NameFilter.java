@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.util;
+
+import java.util.Arrays;
+
+/**
+ * Hash filter of the identifiers of a source, answering whether the source may contain a given name.
+ * <p>
+ * A compilation unit which uses a field or a method names it in its source, so the filter of the
+ * identifiers of the unit tells which members the unit may use explicitly. Words of comments and
+ * literals are identifiers for the filter as well, which only makes the answers more conservative.
+ * The filter answers false positives with a probability of a few percents, never false negatives.
+ * </p>
+ */
+public final class NameFilter {
+
+	private static final int BITS_PER_NAME = 8;
+	private static final int HASH_COUNT = 3;
+	private static final int MAX_BITS = 1 << 16;
+
+/**
+ * Answer the filter of the identifiers of the given source, or null if they cannot be told from
+ * the text of the source, i.e. if the source contains unicode escapes.
+ */
+public static long[] of(char[] source) {
+	int[] hashes = new int[64];
+	int count = 0;
+	int start = -1;
+	int backslashes = 0;
+	for (int i = 0, length = source.length; i <= length; i++) {
+		char c = i < length ? source[i] : ' ';
+		if (c == 'u' && (backslashes & 1) == 1)
+			return null; // an odd number of backslashes starts a unicode escape, which may spell an identifier
+		backslashes = c == '\\' ? backslashes + 1 : 0;
+		if (Character.isJavaIdentifierPart(c) || Character.isSurrogate(c)) {
+			if (start < 0)
+				start = i;
+		} else if (start >= 0) {
+			if (count == hashes.length)
+				hashes = Arrays.copyOf(hashes, count * 2);
+			hashes[count++] = hash(source, start, i);
+			start = -1;
+		}
+	}
+	Arrays.sort(hashes, 0, count);
+	int distinct = 0;
+	for (int i = 0; i < count; i++)
+		if (i == 0 || hashes[i] != hashes[i - 1])
+			hashes[distinct++] = hashes[i];
+
+	int bits = 64;
+	while (bits < distinct * BITS_PER_NAME && bits < MAX_BITS)
+		bits <<= 1;
+	long[] filter = new long[bits >>> 6];
+	for (int i = 0; i < distinct; i++)
+		add(filter, hashes[i]);
+	return filter;
+}
+
+/**
+ * Answer whether the source of the given filter may contain the given name. The answer is true
+ * if the filter is null, i.e. unknown.
+ */
+public static boolean mayContain(long[] filter, char[] name) {
+	if (filter == null)
+		return true;
+	int hash = hash(name, 0, name.length);
+	int mask = (filter.length << 6) - 1;
+	int step = step(hash);
+	for (int i = 0; i < HASH_COUNT; i++, hash += step) {
+		int bit = hash & mask;
+		if ((filter[bit >>> 6] & (1L << bit)) == 0)
+			return false;
+	}
+	return true;
+}
+
+private static void add(long[] filter, int hash) {
+	int mask = (filter.length << 6) - 1;
+	int step = step(hash);
+	for (int i = 0; i < HASH_COUNT; i++, hash += step) {
+		int bit = hash & mask;
+		filter[bit >>> 6] |= 1L << bit;
+	}
+}
+
+// 32-bit FNV-1a, the filters are persisted so the hash must not depend on the VM
+private static int hash(char[] name, int start, int end) {
+	int hash = 0x811c9dc5;
+	for (int i = start; i < end; i++)
+		hash = (hash ^ name[i]) * 0x01000193;
+	return hash;
+}
+
+private static int step(int hash) {
+	return Integer.rotateLeft(hash * 0x9e3779b9, 16) | 1;
+}
+}
@@ -24,9 +24,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -526,6 +528,40 @@ public class Util implements SuffixConstants {
 	 * @return new String(srcBytes, start, length, charset).toCharArray();
 	 **/
 	private static char[] decode(byte[] srcBytes, int start, int length, Charset charset) {
+		if (isAsciiCompatible(charset)) {
+			// fast path: ASCII bytes decode to the same characters, which is all most source files contain
+			int end = start + length;
+			int asciiEnd = start;
+			while (asciiEnd < end && srcBytes[asciiEnd] >= 0)
+				asciiEnd++;
+			if (asciiEnd == end)
+				return widen(srcBytes, start, length, new char[length], 0);
+			if (asciiEnd - start > length / 2) {
+				// decode the remaining bytes only, they start on a character boundary
+				char[] remaining = charsetDecode(srcBytes, asciiEnd, end - asciiEnd, charset);
+				char[] dst = new char[asciiEnd - start + remaining.length];
+				widen(srcBytes, start, asciiEnd - start, dst, 0);
+				System.arraycopy(remaining, 0, dst, asciiEnd - start, remaining.length);
+				return dst;
+			}
+		}
+		return charsetDecode(srcBytes, start, length, charset);
+	}
+
+	private static boolean isAsciiCompatible(Charset charset) {
+		return StandardCharsets.UTF_8.equals(charset)
+				|| StandardCharsets.US_ASCII.equals(charset)
+				|| StandardCharsets.ISO_8859_1.equals(charset);
+	}
+
+	// answers the given ASCII bytes as characters
+	private static char[] widen(byte[] srcBytes, int start, int length, char[] dst, int dstStart) {
+		for (int i = 0; i < length; i++)
+			dst[dstStart + i] = (char) srcBytes[start + i];
+		return dst;
+	}
+
+	private static char[] charsetDecode(byte[] srcBytes, int start, int length, Charset charset) {
 		ByteBuffer srcBuffer = ByteBuffer.wrap(srcBytes, start, length);
 		CharBuffer destBuffer = charset.decode(srcBuffer);
 		char[] dst = destBuffer.array();
@@ -583,6 +619,63 @@ public class Util implements SuffixConstants {
 		return exceptionBuffer.toString();
 	}
 
+	/**
+	 * Answers whether background tasks which mostly wait for I/O (e.g. reading sources ahead of the parser)
+	 * should run on virtual threads, as requested through the <code>jdt.compiler.useVirtualThreads</code>
+	 * system property. Only honored when running on Java 21 or later.
+	 * <p>
+	 * Such tasks must wait through <code>java.util.concurrent</code> locks rather than monitors, which pin
+	 * a virtual thread to its carrier thread, and cannot rely on thread priorities.
+	 * </p>
+	 */
+	public static boolean useVirtualThreads() {
+		return Boolean.getBoolean("jdt.compiler.useVirtualThreads") && VirtualThreads.BUILDER_FACTORY != null; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns a new, not yet started, daemon thread running the given task. A virtual thread is answered
+	 * when {@link #useVirtualThreads()}, so that many compilations running in the same VM share the carrier
+	 * threads of the VM instead of each starting its own platform threads.
+	 * @param task the task to run
+	 * @param name the name of the thread
+	 * @return a new thread
+	 */
+	public static Thread newBackgroundThread(Runnable task, String name) {
+		if (useVirtualThreads()) {
+			try {
+				Object builder = VirtualThreads.BUILDER_FACTORY.invoke(null);
+				builder = VirtualThreads.NAME.invoke(builder, name);
+				return (Thread) VirtualThreads.UNSTARTED.invoke(builder, task);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				// fall back to a platform thread
+			}
+		}
+		Thread thread = new Thread(task, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	// Thread.ofVirtual() is only available on Java 21+, whereas the compiler runs on Java 11
+	private static class VirtualThreads {
+		static final Method BUILDER_FACTORY;
+		static final Method NAME;
+		static final Method UNSTARTED;
+		static {
+			Method factory = null, name = null, unstarted = null;
+			try {
+				factory = Thread.class.getMethod("ofVirtual"); //$NON-NLS-1$
+				Class<?> builderClass = Class.forName("java.lang.Thread$Builder"); //$NON-NLS-1$
+				name = builderClass.getMethod("name", String.class); //$NON-NLS-1$
+				unstarted = builderClass.getMethod("unstarted", Runnable.class); //$NON-NLS-1$
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				factory = null; // not supported by the running VM
+			}
+			BUILDER_FACTORY = factory;
+			NAME = name;
+			UNSTARTED = unstarted;
+		}
+	}
+
 	public static int getLineNumber(int position, int[] lineEnds, int g, int d) {
 		if (lineEnds == null)
 			return 1;
@@ -613,10 +706,15 @@ public class Util implements SuffixConstants {
 
 		InputStream stream = null;
 		try {
-			InputStream inputStream = zip.getInputStream(ze);
-			if (inputStream == null) throw new IOException("Invalid zip entry name : " + ze.getName()); //$NON-NLS-1$
-			stream = new BufferedInputStream(inputStream);
-			return readNBytes(stream, (int) ze.getSize());
+			stream = zip.getInputStream(ze);
+			if (stream == null) throw new IOException("Invalid zip entry name : " + ze.getName()); //$NON-NLS-1$
+			// zip entry streams are buffered already, read the known number of bytes straight into the result
+			int size = (int) ze.getSize();
+			if (size < 0)
+				return stream.readAllBytes();
+			byte[] contents = new byte[size];
+			int read = stream.readNBytes(contents, 0, size);
+			return read == size ? contents : Arrays.copyOf(contents, read);
 		} finally {
 			if (stream != null) {
 				try {
@@ -55,6 +55,7 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.DeltaProcessor.RootInfo;
 import org.eclipse.jdt.internal.core.JavaModelManager.PerProjectInfo;
+import org.eclipse.jdt.internal.core.builder.JavaBuilder;
 import org.eclipse.jdt.internal.core.util.Util;
 
 /**
@@ -261,6 +262,7 @@ public class DeltaProcessingState implements IResourceChangeListener {
 
 	public synchronized void addProjectReferenceChange(IJavaProject project) {
 		this.projectReferenceChanges.add(project);
+		JavaBuilder.resetProjectGraph();
 	}
 
 	public void initializeRoots(boolean initAfterLoad) {
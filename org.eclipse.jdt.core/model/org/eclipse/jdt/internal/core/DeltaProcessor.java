@@ -448,6 +448,7 @@ public class DeltaProcessor {
 									this.manager.containerRemove(javaProject);
 								}
 								this.state.rootsAreStale = true;
+								JavaBuilder.resetProjectGraph();
 							} else if ((delta.getFlags() & IResourceDelta.DESCRIPTION) != 0) {
 								boolean wasJavaProject = this.state.findJavaProject(project.getName()) != null;
 								boolean isJavaProject = JavaProject.hasJavaNature(project);
@@ -479,6 +480,7 @@ public class DeltaProcessor {
 										removeFromParentInfo(javaProject);
 									}
 									this.state.rootsAreStale = true;
+									JavaBuilder.resetProjectGraph();
 								} else {
 									// in case the project was removed then added then changed (see bug 19799)
 									if (isJavaProject) { // need nature check - 18698
@@ -505,6 +507,7 @@ public class DeltaProcessor {
 						this.manager.containerRemove(javaProject);
 						JavaModelManager.getModulePathManager().removeEntry(javaProject);
 						this.state.rootsAreStale = true;
+						JavaBuilder.resetProjectGraph();
 						break;
 				}
 
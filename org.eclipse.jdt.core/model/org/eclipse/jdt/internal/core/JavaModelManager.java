@@ -27,6 +27,8 @@ package org.eclipse.jdt.internal.core;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
@@ -1252,6 +1254,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		public IProject project;
 		public Object savedState;
 		public boolean triedRead;
+		final Object savedStateLock = new Object(); // guards savedState and triedRead, projects may be built concurrently
+		final Object stateFileLock = new Object(); // guards the state file, its journal and persistedState
+		Object persistedState; // the state held by the state file and its journal
+		Job stateCompaction; // writes the persisted state as a whole, guarded by stateFileLock
 		public IClasspathEntry[] rawClasspath;
 		public IClasspathEntry[] referencedEntries;
 		public IJavaModelStatus rawClasspathStatus;
@@ -2256,17 +2262,22 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			return null; // should never be requested on non-Java projects
 		}
 		PerProjectInfo info = getPerProjectInfo(project, true/*create if missing*/);
-		if (!info.triedRead) {
-			info.triedRead = true;
-			try {
-				if (monitor != null)
-					monitor.subTask(Messages.bind(Messages.build_readStateProgress, project.getName()));
-				info.savedState = readState(project);
-			} catch (CoreException e) {
-				Util.log(e, "Exception while reading last build state for: " + project); //$NON-NLS-1$
+		synchronized (info.savedStateLock) {
+			if (!info.triedRead) {
+				info.triedRead = true;
+				try {
+					if (monitor != null)
+						monitor.subTask(Messages.bind(Messages.build_readStateProgress, project.getName()));
+					synchronized (info.stateFileLock) {
+						info.savedState = readState(project);
+						info.persistedState = info.savedState;
+					}
+				} catch (CoreException e) {
+					Util.log(e, "Exception while reading last build state for: " + project); //$NON-NLS-1$
+				}
 			}
+			return info.savedState;
 		}
-		return info.savedState;
 	}
 
 	public String getOption(String optionName) {
@@ -2764,6 +2775,16 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		return workingLocation.append("state.dat").toFile(); //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns the File to append the changes of the last built state to, since it was last saved as a whole to the
+	 * serialization file of the given project.
+	 */
+	private File getStateJournalFile(IProject project) {
+		if (!project.exists()) return null;
+		IPath workingLocation = project.getWorkingLocation(JavaCore.PLUGIN_ID);
+		return workingLocation.append("state.journal").toFile(); //$NON-NLS-1$
+	}
+
 	public static UserLibraryManager getUserLibraryManager() {
 		if (MANAGER.userLibraryManager == null) {
 			UserLibraryManager libraryManager = new UserLibraryManager();
@@ -4111,8 +4132,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				String kind = in.readUTF();
 				if (!kind.equals("STATE")) //$NON-NLS-1$
 					throw new IOException(Messages.build_wrongFileFormat);
-				if (in.readBoolean())
-					return JavaBuilder.readState(project, in);
+				if (in.readBoolean()) {
+					Object state = JavaBuilder.readState(project, in);
+					if (state != null)
+						readStateJournal(project, file, state);
+					return state;
+				}
 				if (JavaBuilder.DEBUG)
 					System.out.println("Saved state thinks last build failed for " + project.getName()); //$NON-NLS-1$
 			} catch (Exception e) {
@@ -4128,6 +4153,32 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		return null;
 	}
 
+	/**
+	 * Applies to the given state the changes appended to the journal of the given state file since it was written.
+	 */
+	private void readStateJournal(IProject project, File stateFile, Object state) throws IOException, CoreException {
+		File journal = getStateJournalFile(project);
+		if (journal == null || !journal.exists())
+			return;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)))) {
+			if (!in.readUTF().equals(JavaCore.PLUGIN_ID) || !in.readUTF().equals("JOURNAL")) //$NON-NLS-1$
+				throw new IOException(Messages.build_wrongFileFormat);
+			if (in.readLong() != stateFile.length() || in.readLong() != stateFile.lastModified()) {
+				// journal of a previous state file, whose changes are held by the state file since it was written as a whole
+				in.close();
+				journal.delete();
+				return;
+			}
+			// records are prefixed by their length, a record partially written by a save which did not complete fails the read
+			int first;
+			while ((first = in.read()) != -1) {
+				byte[] changes = new byte[first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 8 | in.readUnsignedByte()];
+				in.readFully(changes);
+				JavaBuilder.readStateChanges(state, project, new DataInputStream(new ByteArrayInputStream(changes)));
+			}
+		}
+	}
+
 	public static void recreatePersistedContainer(String propertyName, String containerString, boolean addToContainerValues) {
 		int containerPrefixLength = CP_CONTAINER_PREFERENCES_PREFIX.length();
 		int index = propertyName.indexOf('|', containerPrefixLength);
@@ -4329,7 +4380,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	}
 
 	/**
-	 * Saves the built state for the project.
+	 * Saves the built state for the project. Only the changes since the state was last saved are appended to the journal
+	 * of the state file, until the journal outgrows the state file and the state is written as a whole in the background.
 	 */
 	private void saveBuiltState(PerProjectInfo info) throws CoreException {
 		if (JavaBuilder.DEBUG)
@@ -4337,20 +4389,73 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		File file = getSerializationFile(info.project);
 		if (file == null) return;
 		long t = System.currentTimeMillis();
+		Object state;
+		synchronized (info.savedStateLock) {
+			state = info.savedState;
+		}
+		synchronized (info.stateFileLock) {
+			if (state != null && info.persistedState != null && file.exists()) {
+				if (state == info.persistedState && JavaBuilder.isStateSaved(state))
+					return; // unchanged since saved
+				File journal = getStateJournalFile(info.project);
+				boolean appended;
+				try {
+					appended = appendStateChanges(state, file, journal);
+				} catch (RuntimeException | IOException e) {
+					info.persistedState = null;
+					try {
+						file.delete();
+						journal.delete();
+					} catch(SecurityException se) {
+						// could not delete file: cannot do much more
+					}
+					throw new CoreException(
+						new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, Platform.PLUGIN_ERROR,
+							Messages.bind(Messages.build_cannotSaveState, info.project.getName()), e));
+				}
+				if (appended) {
+					info.persistedState = state;
+					if (journal.length() > file.length())
+						scheduleStateCompaction(info);
+					if (JavaBuilder.DEBUG) {
+						t = System.currentTimeMillis() - t;
+						System.out.println(Messages.bind(Messages.build_saveStateComplete, String.valueOf(t)));
+					}
+					return;
+				}
+			}
+			writeBuiltState(info, state, file);
+		}
+		if (JavaBuilder.DEBUG) {
+			t = System.currentTimeMillis() - t;
+			System.out.println(Messages.bind(Messages.build_saveStateComplete, String.valueOf(t)));
+		}
+	}
+
+	/**
+	 * Writes the given built state of the project as a whole to the given state file, dropping the journal of the file.
+	 * The caller holds the state file lock of the project.
+	 */
+	private void writeBuiltState(PerProjectInfo info, Object state, File file) throws CoreException {
+		info.persistedState = null;
+		File journal = getStateJournalFile(info.project);
 		try {
 			try (DataOutputStream out = new DataOutputStream(createOutputStream(file))) {
 				out.writeUTF(JavaCore.PLUGIN_ID);
 				out.writeUTF("STATE"); //$NON-NLS-1$
-				if (info.savedState == null) {
+				if (state == null) {
 					out.writeBoolean(false);
 				} else {
 					out.writeBoolean(true);
-					JavaBuilder.writeState(info.savedState, out);
+					JavaBuilder.writeState(state, out);
 				}
 			}
+			if (journal.exists())
+				journal.delete();
 		} catch (RuntimeException | IOException e) {
 			try {
 				file.delete();
+				journal.delete();
 			} catch(SecurityException se) {
 				// could not delete file: cannot do much more
 			}
@@ -4358,10 +4463,64 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				new Status(IStatus.ERROR, JavaCore.PLUGIN_ID, Platform.PLUGIN_ERROR,
 					Messages.bind(Messages.build_cannotSaveState, info.project.getName()), e));
 		}
-		if (JavaBuilder.DEBUG) {
-			t = System.currentTimeMillis() - t;
-			System.out.println(Messages.bind(Messages.build_saveStateComplete, String.valueOf(t)));
+		if (state != null)
+			JavaBuilder.stateSaved(state);
+		info.persistedState = state;
+	}
+
+	/**
+	 * Appends the changes of the given state since it was last saved to the journal of the given state file.
+	 * Returns false if the changes are unknown, the state must then be written as a whole.
+	 */
+	private boolean appendStateChanges(Object state, File stateFile, File journal) throws IOException {
+		ByteArrayOutputStream changes = new ByteArrayOutputStream();
+		if (!JavaBuilder.writeStateChanges(state, new DataOutputStream(changes)))
+			return false;
+		boolean isNew = !journal.exists();
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journal, true)))) {
+			if (isNew) {
+				// tie the journal to the state file it holds the changes of, see readStateJournal(..)
+				out.writeUTF(JavaCore.PLUGIN_ID);
+				out.writeUTF("JOURNAL"); //$NON-NLS-1$
+				out.writeLong(stateFile.length());
+				out.writeLong(stateFile.lastModified());
+			}
+			out.writeInt(changes.size());
+			changes.writeTo(out);
 		}
+		return true;
+	}
+
+	/**
+	 * Writes the persisted built state of the project as a whole in the background, so that the journal of its state file
+	 * does not grow unbounded.
+	 */
+	private void scheduleStateCompaction(PerProjectInfo info) {
+		if (info.stateCompaction == null) {
+			info.stateCompaction = new Job(Messages.bind(Messages.build_saveStateProgress, info.project.getName())) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					synchronized (info.stateFileLock) {
+						File file = getSerializationFile(info.project);
+						if (info.persistedState == null || file == null || !file.exists())
+							return Status.OK_STATUS; // already written as a whole, or deleted
+						try {
+							writeBuiltState(info, info.persistedState, file);
+						} catch (CoreException e) {
+							return e.getStatus();
+						}
+					}
+					return Status.OK_STATUS;
+				}
+				@Override
+				public boolean belongsTo(Object family) {
+					return JavaCore.PLUGIN_ID.equals(family);
+				}
+			};
+			info.stateCompaction.setSystem(true);
+			info.stateCompaction.setPriority(Job.DECORATE);
+		}
+		info.stateCompaction.schedule(); // no-op if the compaction is waiting already
 	}
 
 	private InputStream createInputStream(File file) throws IOException {
@@ -5203,20 +5362,37 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		if (JavaProject.hasJavaNature(project)) {
 			// should never be requested on non-Java projects
 			PerProjectInfo info = getPerProjectInfo(project, true /*create if missing*/);
-			info.triedRead = true; // no point trying to re-read once using setter
-			info.savedState = state;
+			synchronized (info.savedStateLock) {
+				info.triedRead = true; // no point trying to re-read once using setter
+				info.savedState = state;
+			}
 		}
 		if (state == null) { // delete state file to ensure a full build happens if the workspace crashes
-			try {
-				File file = getSerializationFile(project);
-				if (file != null && file.exists())
-					file.delete();
-			} catch(SecurityException se) {
-				// could not delete file: cannot do much more
+			PerProjectInfo info = getPerProjectInfo(project, false /* don't create info */);
+			if (info != null) {
+				synchronized (info.stateFileLock) {
+					info.persistedState = null;
+					deleteStateFiles(project);
+				}
+			} else {
+				deleteStateFiles(project);
 			}
 		}
 	}
 
+	private void deleteStateFiles(IProject project) {
+		try {
+			File file = getSerializationFile(project);
+			if (file != null && file.exists())
+				file.delete();
+			File journal = getStateJournalFile(project);
+			if (journal != null && journal.exists())
+				journal.delete();
+		} catch(SecurityException se) {
+			// could not delete file: cannot do much more
+		}
+	}
+
 	/**
 	 * Store the preferences value for the given option name.
 	 *
@@ -21,6 +21,8 @@ import org.eclipse.jdt.core.compiler.*;
 import org.eclipse.jdt.internal.compiler.*;
 import org.eclipse.jdt.internal.compiler.Compiler;
 import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
 import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
@@ -34,6 +36,8 @@ import org.eclipse.jdt.internal.core.util.Messages;
 import org.eclipse.jdt.internal.core.util.Util;
 
 import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 /**
@@ -51,6 +55,8 @@ protected State newState;
 protected NameEnvironment nameEnvironment;
 protected ClasspathMultiDirectory[] sourceLocations;
 protected BuildNotifier notifier;
+protected BuildMetrics metrics;
+protected MarkerBatch markerChanges; // applied once the compiler is done with a group of units
 
 protected Compiler compiler;
 protected WorkQueue workQueue;
@@ -58,6 +64,7 @@ protected LinkedHashSet<SourceFile> problemSourceFiles;
 protected boolean compiledAllAtOnce;
 
 private boolean inCompiler;
+private MessageDigest contentDigest;
 
 protected boolean keepStoringProblemMarkers;
 protected Set<SourceFile> filesWithAnnotations = null;
@@ -90,6 +97,8 @@ protected AbstractImageBuilder(JavaBuilder javaBuilder, boolean buildStarting, S
 	this.nameEnvironment = compilationGroup == CompilationGroup.TEST ? javaBuilder.testNameEnvironment : javaBuilder.nameEnvironment;
 	this.sourceLocations = this.nameEnvironment.sourceLocations;
 	this.notifier = javaBuilder.notifier;
+	this.metrics = javaBuilder.metrics;
+	this.markerChanges = new MarkerBatch();
 	this.keepStoringProblemMarkers = true; // may get disabled when missing classfiles are encountered
 
 	if (buildStarting) {
@@ -132,11 +141,14 @@ public void acceptResult(CompilationResult result) {
 	if (!this.workQueue.isCompiled(compilationUnit)) {
 		this.workQueue.finished(compilationUnit);
 
+		BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.UPDATING_MARKERS);
 		try {
 			updateProblemsFor(compilationUnit, result); // record compilation problems before potentially adding duplicate errors
 			updateTasksFor(compilationUnit, result); // record tasks
 		} catch (CoreException e) {
 			throw internalException(e);
+		} finally {
+			this.metrics.exit(previousPhase);
 		}
 
 		if (result.hasInconsistentToplevelHierarchies)
@@ -206,6 +218,7 @@ public void acceptResult(CompilationResult result) {
 		this.compiler.lookupEnvironment.releaseClassFiles(classFiles);
 		finishedWith(typeLocator, result, compilationUnit.getMainTypeName(), definedTypeNames, duplicateTypeNames);
 		this.notifier.compiled(compilationUnit);
+		this.metrics.unitCompiled();
 	}
 }
 
@@ -283,6 +296,7 @@ protected void cleanUp() {
 	this.compiler = null;
 	this.workQueue = null;
 	this.problemSourceFiles = null;
+	this.markerChanges = null; // a failed build is followed by a full build, which recreates all markers
 }
 
 /* Compile the given elements, adding more elements to the work queue
@@ -347,6 +361,7 @@ protected void compile(SourceFile[] units) {
 
 		processAnnotations(participantResults);
 	}
+	applyMarkerChanges();
 }
 
 protected void compile(SourceFile[] units, SourceFile[] additionalUnits, boolean compilingFirstGroup) {
@@ -374,6 +389,7 @@ protected void compile(SourceFile[] units, SourceFile[] additionalUnits, boolean
 	}
 	this.nameEnvironment.setNames(initialTypeNames, additionalUnits);
 	this.notifier.checkCancel();
+	BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.COMPILING);
 	try {
 		this.inCompiler = true;
 		this.compiler.compile(units);
@@ -382,7 +398,9 @@ protected void compile(SourceFile[] units, SourceFile[] additionalUnits, boolean
 		// the Compiler failed after the user has chose to cancel... likely due to an OutOfMemory error
 	} finally {
 		this.inCompiler = false;
+		this.metrics.exit(previousPhase);
 	}
+	applyMarkerChanges();
 	// Check for cancel immediately after a compile, because the compiler may
 	// have been cancelled but without propagating the correct exception
 	this.notifier.checkCancel();
@@ -403,7 +421,6 @@ protected void copyResource(IResource source, IResource destination) throws Core
 
 protected void createProblemFor(IResource resource, IMember javaElement, String message, String problemSeverity) {
 	try {
-		IMarker marker = resource.createMarker(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER);
 		int severity = problemSeverity.equals(JavaCore.WARNING) ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR;
 
 		ISourceRange range = null;
@@ -423,14 +440,35 @@ protected void createProblemFor(IResource resource, IMember javaElement, String
 		}
 		int start = range == null ? 0 : range.getOffset();
 		int end = range == null ? 1 : start + range.getLength();
-		marker.setAttributes(
-			new String[] {IMarker.MESSAGE, IMarker.SEVERITY, IMarker.CHAR_START, IMarker.CHAR_END, IMarker.SOURCE_ID},
-			new Object[] {message, Integer.valueOf(severity), Integer.valueOf(start), Integer.valueOf(end), JavaBuilder.SOURCE_ID});
+		Map<String, Object> attributes = new HashMap<>(7);
+		attributes.put(IMarker.MESSAGE, message);
+		attributes.put(IMarker.SEVERITY, Integer.valueOf(severity));
+		attributes.put(IMarker.CHAR_START, Integer.valueOf(start));
+		attributes.put(IMarker.CHAR_END, Integer.valueOf(end));
+		attributes.put(IMarker.SOURCE_ID, JavaBuilder.SOURCE_ID);
+		this.markerChanges.create(resource, IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, attributes);
+		this.metrics.markersCreated(1);
 	} catch (CoreException e) {
 		throw internalException(e);
 	}
 }
 
+/**
+ * Apply the pending marker changes of the compiled source files to the workspace.
+ */
+protected void applyMarkerChanges() {
+	if (this.markerChanges.isEmpty()) return;
+
+	BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.UPDATING_MARKERS);
+	try {
+		this.markerChanges.apply(this.javaBuilder.currentProject.getWorkspace());
+	} catch (CoreException e) {
+		throw internalException(e);
+	} finally {
+		this.metrics.exit(previousPhase);
+	}
+}
+
 protected void deleteGeneratedFiles(IFile[] deletedGeneratedFiles) {
 	// no op by default
 }
@@ -456,7 +494,7 @@ protected SourceFile findSourceFile(IFile file, boolean mustExist) {
 
 protected void finishedWith(String sourceLocator, CompilationResult result, char[] mainTypeName, ArrayList definedTypeNames, ArrayList duplicateTypeNames) {
 	if (duplicateTypeNames == null) {
-		this.newState.record(sourceLocator, result.qualifiedReferences, result.simpleNameReferences, result.rootReferences, mainTypeName, definedTypeNames);
+		this.newState.record(sourceLocator, result.qualifiedReferences, result.simpleNameReferences, result.rootReferences, result.superTypeNames, result.nameFilter, mainTypeName, definedTypeNames);
 		return;
 	}
 
@@ -472,7 +510,7 @@ protected void finishedWith(String sourceLocator, CompilationResult result, char
 		System.arraycopy(simpleRefs, 0, simpleRefs = new char[sLength + 1][], 0, sLength);
 		simpleRefs[sLength] = typeName;
 	}
-	this.newState.record(sourceLocator, result.qualifiedReferences, simpleRefs, result.rootReferences, mainTypeName, definedTypeNames);
+	this.newState.record(sourceLocator, result.qualifiedReferences, simpleRefs, result.rootReferences, result.superTypeNames, result.nameFilter, mainTypeName, definedTypeNames);
 }
 
 protected IContainer createFolder(IPath packagePath, IContainer outputFolder) throws CoreException {
@@ -550,6 +588,7 @@ protected Compiler newCompiler() {
 	// temporary code to allow the compiler to revert to a single thread
 	String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 	newCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	newCompiler.parsingThreads = ParseTaskManager.getParsingThreads();
 
 	// enable the compiler reference info support
 	options.produceReferenceInfo = true;
@@ -647,20 +686,20 @@ protected void recordParticipantResult(CompilationParticipantResult result) {
 	if (problems != null && problems.length > 0) {
 		// existing problems have already been removed so just add these as new problems
 		this.notifier.updateProblemCounts(problems);
+		BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.UPDATING_MARKERS);
 		try {
 			storeProblemsFor(result.sourceFile, problems);
 		} catch (CoreException e) {
 			// must continue with compile loop so just log the CoreException
 			Util.log(e, "JavaBuilder logging CompilationParticipant's CoreException to help debugging"); //$NON-NLS-1$
+		} finally {
+			this.metrics.exit(previousPhase);
 		}
 	}
 
 	String[] dependencies = result.dependencies;
-	if (dependencies != null) {
-		ReferenceCollection refs = this.newState.references.get(result.sourceFile.typeLocator());
-		if (refs != null)
-			refs.addDependencies(dependencies);
-	}
+	if (dependencies != null)
+		this.newState.addDependencies(result.sourceFile.typeLocator(), dependencies);
 }
 
 /**
@@ -703,6 +742,7 @@ protected void storeProblemsFor(SourceFile sourceFile, CategorizedProblem[] prob
 			boolean isInvalidClasspathError = JavaCore.ERROR.equals(this.javaBuilder.javaProject.getOption(JavaCore.CORE_INCOMPLETE_CLASSPATH, true));
 			// insert extra classpath problem, and make it the only problem for this project (optional)
 			if (isInvalidClasspathError && JavaCore.ABORT.equals(this.javaBuilder.javaProject.getOption(JavaCore.CORE_JAVA_BUILD_INVALID_CLASSPATH, true))) {
+				this.markerChanges.clear(); // the pending changes would be removed too
 				JavaBuilder.removeProblemsAndTasksFor(this.javaBuilder.currentProject); // make this the only problem for this project
 				this.keepStoringProblemMarkers = false;
 			}
@@ -713,7 +753,8 @@ protected void storeProblemsFor(SourceFile sourceFile, CategorizedProblem[] prob
 			attributes.put(IJavaModelMarker.CATEGORY_ID, Integer.valueOf(CategorizedProblem.CAT_BUILDPATH));
 			attributes.put(IMarker.SOURCE_ID, JavaBuilder.SOURCE_ID);
 
-			this.javaBuilder.currentProject.createMarker(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, attributes);
+			this.markerChanges.create(this.javaBuilder.currentProject, IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, attributes);
+			this.metrics.markersCreated(1);
 			// even if we're not keeping more markers, still fall through rest of the problem reporting, so that offending
 			// IsClassPathCorrect problem gets recorded since it may help locate the offending reference
 		}
@@ -742,6 +783,9 @@ protected void storeProblemsFor(SourceFile sourceFile, CategorizedProblem[] prob
 								continue problems; // marker already present
 							}
 						}
+						if (this.markerChanges.isCreating(pkg.resource(), IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, IJavaModelMarker.ID,
+								Integer.valueOf(IProblem.MissingNonNullByDefaultAnnotationOnPackage)))
+							continue problems; // marker about to be created for another source file of the package
 					} catch (CoreException e) {
 						// marker retrieval failed, cannot do much
 						if (JavaModelManager.VERBOSE) {
@@ -789,7 +833,8 @@ protected void storeProblemsFor(SourceFile sourceFile, CategorizedProblem[] prob
 					attributes.put(extraAttributeNames[j], extraAttributeValues[j]);
 				}
 			}
-			resource.createMarker(markerType, attributes);
+			this.markerChanges.create(resource, markerType, attributes);
+			this.metrics.markersCreated(1);
 
 			if (!this.keepStoringProblemMarkers) return; // only want the one error recorded on this source file
 		}
@@ -832,7 +877,8 @@ protected void storeTasksFor(SourceFile sourceFile, CategorizedProblem[] tasks)
 				}
 			}
 
-			resource.createMarker(IJavaModelMarker.TASK_MARKER, attributes);
+			this.markerChanges.create(resource, IJavaModelMarker.TASK_MARKER, attributes);
+			this.metrics.markersCreated(1);
 		}
 	}
 }
@@ -863,16 +909,70 @@ protected char[] writeClassFile(ClassFile classFile, SourceFile compilationUnit,
 	}
 
 	IFile file = container.getFile(filePath.addFileExtension(SuffixConstants.EXTENSION_class));
-	writeClassFileContents(classFile, file, fileName, isTopLevelType, compilationUnit);
+	byte[] bytes = classFile.getBytes();
+	BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.WRITING);
+	long contentHash;
+	try {
+		contentHash = contentHash(bytes);
+		// a class file written by a previous build with the same content is neither read nor written again
+		if (!compilationUnit.updateClassFile // see 46093
+				&& this.newState.isUnchangedClassFile(fileName, contentHash, file.getModificationStamp())
+				&& file.isSynchronized(IResource.DEPTH_ZERO)) {
+			if (JavaBuilder.DEBUG)
+				System.out.println("Skipped over class file with unchanged content hash " + file.getName());//$NON-NLS-1$
+			this.metrics.classFileUnchanged();
+		} else {
+			writeClassFileContents(classFile, file, fileName, isTopLevelType, compilationUnit);
+		}
+	} finally {
+		this.metrics.exit(previousPhase);
+	}
+	recordClassFile(file, fileName, bytes, contentHash);
 	// answer the name of the class file as in Y or Y$M
 	return filePath.lastSegment().toCharArray();
 }
 
+/**
+ * Answer the hash of the given class file content, recorded in the state so that the builds tell whether a class file
+ * changed without reading it.
+ */
+protected long contentHash(byte[] bytes) {
+	if (this.contentDigest == null) {
+		try {
+			this.contentDigest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // every Java platform supports SHA-1
+		}
+	}
+	byte[] digest = this.contentDigest.digest(bytes);
+	long hash = 0;
+	for (int i = 0; i < 8; i++)
+		hash = (hash << 8) | (digest[i] & 0xFF);
+	return hash;
+}
+
+/**
+ * Record the structural fingerprint of the given class file in the new state, so that dependent projects can tell
+ * whether its structure changed since they were built, and its content hash, so that the next builds can tell whether
+ * the class file changed.
+ */
+protected void recordClassFile(IFile file, String qualifiedFileName, byte[] bytes, long contentHash) {
+	try {
+		ClassFileReader reader = new ClassFileReader(bytes, null);
+		// ignore local types since they're only visible inside a single method
+		long fingerprint = reader.isLocal() || reader.isAnonymous() ? 0 : reader.getStructuralFingerprint();
+		this.newState.recordStructuralFingerprint(qualifiedFileName, fingerprint, contentHash, file.getModificationStamp());
+	} catch (ClassFormatException e) {
+		this.newState.removeStructuralFingerprint(qualifiedFileName); // dependents consider unknown types as changed
+	}
+}
+
 protected void writeClassFileContents(ClassFile classFile, IFile file, String qualifiedFileName, boolean isTopLevelType, SourceFile compilationUnit) throws CoreException {
 //	InputStream input = new SequenceInputStream(
 //			new ByteArrayInputStream(classFile.header, 0, classFile.headerOffset),
 //			new ByteArrayInputStream(classFile.contents, 0, classFile.contentsOffset));
-	InputStream input = new ByteArrayInputStream(classFile.getBytes());
+	byte[] bytes = classFile.getBytes();
+	InputStream input = new ByteArrayInputStream(bytes);
 	if (file.exists()) {
 		// Deal with shared output folders... last one wins... no collision cases detected
 		if (JavaBuilder.DEBUG)
@@ -886,5 +986,6 @@ protected void writeClassFileContents(ClassFile classFile, IFile file, String qu
 			System.out.println("Writing new class file " + file.getName());//$NON-NLS-1$
 		file.create(input, IResource.FORCE | IResource.DERIVED, null);
 	}
+	this.metrics.classFileWritten(bytes.length);
 }
 }
@@ -21,5 +21,10 @@ protected AdditionalTypeCollection(char[][] definedTypeNames, char[][][] qualifi
 	super(qualifiedReferences, simpleNameReferences, rootReferences);
 	this.definedTypeNames = definedTypeNames; // do not bother interning member type names (i.e. 'A$M')
 }
+
+protected AdditionalTypeCollection(char[][] definedTypeNames, char[][][] qualifiedReferences, char[][] simpleNameReferences, char[][] rootReferences, char[][] superTypeNames, long[] nameFilter) {
+	super(qualifiedReferences, simpleNameReferences, rootReferences, superTypeNames, nameFilter);
+	this.definedTypeNames = definedTypeNames; // do not bother interning member type names (i.e. 'A$M')
+}
 }
 
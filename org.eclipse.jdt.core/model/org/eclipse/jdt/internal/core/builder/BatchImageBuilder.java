@@ -32,6 +32,10 @@ public class BatchImageBuilder extends AbstractImageBuilder {
 	IncrementalImageBuilder incrementalBuilder; // if annotations or secondary types have to be processed after the compile loop
 	ArrayList secondaryTypes; // qualified names for all secondary types found during batch compile
 	Set<String> typeLocatorsWithUndefinedTypes; // type locators for all source files with errors that may be caused by 'not found' secondary types
+	// class files written by the last build and kept when cleaning the output folders until they are compiled again,
+	// mapped to their qualified file names "p1/p2/A$M"
+	Map<IFile, String> keptClassFiles;
+	Set<IContainer> independentOutputFolders; // whose package folders left empty by deleting kept class files are deleted
 	final CompilationGroup compilationGroup;
 
 protected BatchImageBuilder(JavaBuilder javaBuilder, boolean buildStarting, CompilationGroup compilationGroup) {
@@ -63,11 +67,18 @@ public void build() {
 			JavaBuilder.removeProblemsAndTasksFor(this.javaBuilder.currentProject);
 		}
 		cleanOutputFolders(true);
+		applyMarkerChanges(); // the problems of the duplicate resources
 		this.notifier.updateProgressDelta(0.05f);
 
 		this.notifier.subTask(Messages.build_analyzingSources);
 		LinkedHashSet<SourceFile> sourceFiles = new LinkedHashSet<>(33);
-		addAllSourceFiles(sourceFiles);
+		BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.ANALYZING);
+		try {
+			addAllSourceFiles(sourceFiles);
+			retainKeptClassFiles(sourceFiles);
+		} finally {
+			this.metrics.exit(previousPhase);
+		}
 		this.notifier.updateProgressDelta(0.10f);
 
 		if (sourceFiles.size() > 0) {
@@ -76,13 +87,17 @@ public void build() {
 
 			this.notifier.setProgressPerCompilationUnit(0.75f / allSourceFiles.length);
 			this.workQueue.addAll(allSourceFiles);
+			this.metrics.startCompileLoop(allSourceFiles.length);
 			compile(allSourceFiles);
 
 			if (this.typeLocatorsWithUndefinedTypes != null)
 				if (this.secondaryTypes != null && !this.secondaryTypes.isEmpty())
 					rebuildTypesAffectedBySecondaryTypes();
+			deleteKeptClassFiles(); // before the incremental builder looks at the existing class files
 			if (this.incrementalBuilder != null)
 				this.incrementalBuilder.buildAfterBatchBuild();
+		} else {
+			deleteKeptClassFiles();
 		}
 
 		if (this.javaBuilder.javaProject.hasCycleMarker())
@@ -106,6 +121,12 @@ protected void cleanOutputFolders(boolean copyBack) throws CoreException {
 	boolean deleteAll = JavaCore.CLEAN.equals(
 		this.javaBuilder.javaProject.getOption(JavaCore.CORE_JAVA_BUILD_CLEAN_OUTPUT_FOLDER, true));
 	if (deleteAll) {
+		// when building, the class files of the last build are only deleted if they are not compiled again, so that
+		// the unchanged ones are not rewritten
+		if (copyBack && this.newState.hasLastApiFingerprints()) {
+			this.keptClassFiles = new HashMap<>();
+			this.independentOutputFolders = new HashSet<>();
+		}
 		if (this.compilationGroup != CompilationGroup.TEST) {
 			// CompilationGroup.MAIN is done first, so this notifies the participants only once
 			// calling this for CompilationGroup.TEST could cases generated files for CompilationGroup.MAIN to be deleted.
@@ -137,12 +158,17 @@ protected void cleanOutputFolders(boolean copyBack) throws CoreException {
 							);
 						}
 						try {
-							member.delete(IResource.FORCE, null);
+							if (this.keptClassFiles == null)
+								member.delete(IResource.FORCE, null);
+							else
+								deleteExceptKeptClassFiles(member, outputFolder.getFullPath().segmentCount());
 						} catch(CoreException e) {
 							Util.log(e, "Error occurred while deleting: " + member.getFullPath()); //$NON-NLS-1$
 						}
 					}
 				}
+				if (this.independentOutputFolders != null)
+					this.independentOutputFolders.add(outputFolder);
 				this.notifier.checkCancel();
 				if (copyBack)
 					copyExtraResourcesBack(sourceLocation, true);
@@ -166,6 +192,9 @@ protected void cleanOutputFolders(boolean copyBack) throws CoreException {
 									if (exclusionPatterns != null || inclusionPatterns != null)
 										if (Util.isExcluded(resource.getFullPath(), inclusionPatterns, exclusionPatterns, false))
 											return false;
+									if (BatchImageBuilder.this.keptClassFiles != null
+											&& keepClassFile((IFile) resource, sourceLocation.binaryFolder.getFullPath().segmentCount()))
+										return false;
 									if (!resource.isDerived())
 										resource.setDerived(true, null);
 									try {
@@ -199,9 +228,118 @@ protected void cleanOutputFolders(boolean copyBack) throws CoreException {
 	}
 }
 
+// delete the given member of an output folder, except the class files of the last build which may be kept
+private boolean deleteExceptKeptClassFiles(IResource member, int outputFolderSegmentCount) throws CoreException {
+	if (member.getType() == IResource.FILE) {
+		if (keepClassFile((IFile) member, outputFolderSegmentCount))
+			return false;
+	} else {
+		boolean deletedAll = true;
+		IResource[] members = ((IContainer) member).members();
+		for (int i = 0, l = members.length; i < l; i++)
+			deletedAll &= deleteExceptKeptClassFiles(members[i], outputFolderSegmentCount);
+		if (!deletedAll)
+			return false;
+	}
+	member.delete(IResource.FORCE, null);
+	return true;
+}
+
+private boolean keepClassFile(IFile file, int outputFolderSegmentCount) {
+	if (!org.eclipse.jdt.internal.compiler.util.Util.isClassFileName(file.getName()))
+		return false;
+	String qualifiedFileName = file.getFullPath().removeFirstSegments(outputFolderSegmentCount).removeFileExtension().toString();
+	if (!this.newState.wasWrittenByLastBuild(qualifiedFileName, file.getModificationStamp())
+			|| !file.isSynchronized(IResource.DEPTH_ZERO))
+		return false;
+	this.keptClassFiles.put(file, qualifiedFileName);
+	return true;
+}
+
+/*
+ * Only keep the class files of the primary types of the given source files, and of their member and local types,
+ * since the compiler answers these types from source. The other class files of the last build, e.g. of deleted or
+ * secondary types, are deleted before compiling so that they are not found in place of missing types.
+ */
+private void retainKeptClassFiles(Set<SourceFile> sourceFiles) throws CoreException {
+	if (this.keptClassFiles == null) return;
+
+	Set<String> primaryTypeNames = new HashSet<>((int) (sourceFiles.size() / 0.75 + 1));
+	for (SourceFile sourceFile : sourceFiles)
+		primaryTypeNames.add(sourceFile.initialTypeName);
+	for (Iterator<Map.Entry<IFile, String>> iterator = this.keptClassFiles.entrySet().iterator(); iterator.hasNext();) {
+		Map.Entry<IFile, String> entry = iterator.next();
+		String qualifiedFileName = entry.getValue();
+		boolean isCompiled = primaryTypeNames.contains(qualifiedFileName);
+		for (int index = qualifiedFileName.indexOf('$'); !isCompiled && index > 0; index = qualifiedFileName.indexOf('$', index + 1))
+			isCompiled = primaryTypeNames.contains(qualifiedFileName.substring(0, index));
+		if (!isCompiled) {
+			deleteKeptClassFile(entry.getKey(), qualifiedFileName);
+			iterator.remove();
+		}
+	}
+}
+
+// delete the class files kept when cleaning the output folders which were not compiled again
+private void deleteKeptClassFiles() throws CoreException {
+	if (this.keptClassFiles == null) return;
+
+	for (Map.Entry<IFile, String> entry : this.keptClassFiles.entrySet())
+		deleteKeptClassFile(entry.getKey(), entry.getValue());
+	this.keptClassFiles = null;
+	this.independentOutputFolders = null;
+}
+
+private void deleteKeptClassFile(IFile classFile, String qualifiedFileName) throws CoreException {
+	if (JavaBuilder.DEBUG)
+		System.out.println("Deleting class file of the last build " + classFile.getName()); //$NON-NLS-1$
+	classFile.delete(IResource.FORCE, null);
+
+	// as cleaning the output folder would have, delete the package folders left empty
+	int packageDepth = new Path(qualifiedFileName).segmentCount() - 1;
+	IContainer outputFolder = classFile.getParent();
+	for (int i = 0; i < packageDepth; i++)
+		outputFolder = outputFolder.getParent();
+	if (!this.independentOutputFolders.contains(outputFolder))
+		return;
+	IContainer folder = classFile.getParent();
+	for (int i = 0; i < packageDepth && folder.exists() && folder.members().length == 0; i++) {
+		IContainer parent = folder.getParent();
+		folder.delete(IResource.FORCE, null);
+		folder = parent;
+	}
+}
+
+@Override
+protected void recordClassFile(IFile file, String qualifiedFileName, byte[] bytes, long contentHash) {
+	if (this.keptClassFiles != null)
+		this.keptClassFiles.remove(file); // compiled again
+	super.recordClassFile(file, qualifiedFileName, bytes, contentHash);
+}
+
+@Override
+protected void writeClassFileContents(ClassFile classFile, IFile file, String qualifiedFileName, boolean isTopLevelType, SourceFile compilationUnit) throws CoreException {
+	try {
+		super.writeClassFileContents(classFile, file, qualifiedFileName, isTopLevelType, compilationUnit);
+	} catch (CoreException e) {
+		IStatus status = e.getStatus();
+		if (this.keptClassFiles == null || !(status instanceof IResourceStatus) || status.getCode() != IResourceStatus.CASE_VARIANT_EXISTS)
+			throw e;
+		// a kept class file of the last build only differs by case, e.g. after a type was renamed: delete it now
+		IFile collision = file.getParent().getFile(new Path(((IResourceStatus) status).getPath().lastSegment()));
+		String collisionName = this.keptClassFiles.remove(collision);
+		if (collisionName == null)
+			throw e;
+		deleteKeptClassFile(collision, collisionName);
+		super.writeClassFileContents(classFile, file, qualifiedFileName, isTopLevelType, compilationUnit);
+	}
+}
+
 @Override
 protected void cleanUp() {
 	this.incrementalBuilder = null;
+	this.keptClassFiles = null;
+	this.independentOutputFolders = null;
 	this.secondaryTypes = null;
 	this.typeLocatorsWithUndefinedTypes = null;
 	super.cleanUp();
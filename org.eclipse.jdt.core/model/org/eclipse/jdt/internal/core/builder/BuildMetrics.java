@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+
+/**
+ * Durations and counters of the build of a project, published by the {@link JavaBuilder} to its
+ * {@link BuildMetrics.Listener listeners} once the build is finished, e.g. to track the latency of incremental builds.
+ * <p>
+ * The durations of the {@link Phase phases} exclude each other: while the compiler writes a class file, the time is
+ * accounted to {@link Phase#WRITING} and not to {@link Phase#COMPILING}. The time spent outside of the phases, e.g.
+ * reading the deltas or cleaning the output folders, is the difference between {@link #getDuration()} and the sum of
+ * the phases.
+ * </p>
+ * <p>
+ * A build is compiled in loops: each loop compiles the affected source files, i.e. the changed source files for the
+ * first loop of an incremental build, and the dependents of the types which changed in the previous loop for the next
+ * ones. A full build compiles all the source files of a compilation group in a single loop.
+ * </p>
+ * <p>
+ * The metrics are recorded by the thread building the project, listeners may keep them once the build is finished.
+ * </p>
+ */
+public class BuildMetrics {
+
+	/** The timed phases of a build. */
+	public enum Phase {
+		/** Finding the source files to compile, e.g. the source files affected by the changes of the deltas. */
+		ANALYZING,
+		/** Compiling the source files, except writing their class files and updating their markers. */
+		COMPILING,
+		/** Writing the class files, including the comparison with the existing ones of an incremental build. */
+		WRITING,
+		/** Creating and removing the problem and task markers of the compiled source files. */
+		UPDATING_MARKERS
+	}
+
+	/** Notified of the metrics of each build of a Java project, see {@link JavaBuilder#addBuildMetricsListener(Listener)}. */
+	public interface Listener {
+		/**
+		 * Notification that the build of a project is finished. Called by the thread which built the project, so
+		 * listeners should return quickly.
+		 */
+		void buildFinished(BuildMetrics metrics);
+	}
+
+	private final String projectName;
+	private final int kind;
+	private final long startTime;
+	private final long startNanos;
+	private long duration = -1;
+
+	private final long[] phaseDurations = new long[Phase.values().length];
+	private Phase phase; // the phase being timed, null if none
+	private long phaseStart;
+
+	private int compileLoops;
+	private int[] affectedSourceFiles = new int[5];
+	private int[] compiledUnits = new int[5];
+
+	private int classFilesWritten;
+	private int classFilesUnchanged;
+	private long bytesWritten;
+	private int markersCreated;
+	private int markersRemoved;
+
+BuildMetrics(String projectName, int kind) {
+	this.projectName = projectName;
+	this.kind = kind;
+	this.startTime = System.currentTimeMillis();
+	this.startNanos = System.nanoTime();
+}
+
+/**
+ * Start timing the given phase, and answer the phase which was timed so far so that it is resumed by
+ * {@link #exit(Phase)}.
+ */
+Phase enter(Phase newPhase) {
+	long now = System.nanoTime();
+	if (this.phase != null)
+		this.phaseDurations[this.phase.ordinal()] += now - this.phaseStart;
+	Phase previous = this.phase;
+	this.phase = newPhase;
+	this.phaseStart = now;
+	return previous;
+}
+
+/**
+ * Stop timing the current phase, and resume the given one, as answered by {@link #enter(Phase)}.
+ */
+void exit(Phase previous) {
+	enter(previous);
+}
+
+void startCompileLoop(int affectedSourceFileCount) {
+	if (this.compileLoops == this.compiledUnits.length) {
+		System.arraycopy(this.compiledUnits, 0, this.compiledUnits = new int[this.compileLoops * 2], 0, this.compileLoops);
+		System.arraycopy(this.affectedSourceFiles, 0, this.affectedSourceFiles = new int[this.compileLoops * 2], 0, this.compileLoops);
+	}
+	this.affectedSourceFiles[this.compileLoops++] = affectedSourceFileCount;
+}
+
+void unitCompiled() {
+	if (this.compileLoops == 0)
+		startCompileLoop(0);
+	this.compiledUnits[this.compileLoops - 1]++;
+}
+
+void classFileWritten(int length) {
+	this.classFilesWritten++;
+	this.bytesWritten += length;
+}
+
+void classFileUnchanged() {
+	this.classFilesUnchanged++;
+}
+
+void markersCreated(int count) {
+	this.markersCreated += count;
+}
+
+void markersRemoved(int count) {
+	this.markersRemoved += count;
+}
+
+void finished() {
+	enter(null);
+	this.duration = System.nanoTime() - this.startNanos;
+}
+
+/**
+ * Answer the name of the built project.
+ */
+public String getProjectName() {
+	return this.projectName;
+}
+
+/**
+ * Answer the kind of the build as requested to the builder, e.g. {@link IncrementalProjectBuilder#AUTO_BUILD},
+ * even if the builder performed a full build since the last state of the project was missing.
+ */
+public int getKind() {
+	return this.kind;
+}
+
+/**
+ * Answer when the build started, in milliseconds since the epoch.
+ */
+public long getStartTime() {
+	return this.startTime;
+}
+
+/**
+ * Answer the duration of the build in nanoseconds, or -1 if it is not finished.
+ */
+public long getDuration() {
+	return this.duration;
+}
+
+/**
+ * Answer the time spent in the given phase, in nanoseconds.
+ */
+public long getDuration(Phase timedPhase) {
+	return this.phaseDurations[timedPhase.ordinal()];
+}
+
+/**
+ * Answer the number of compile loops of the build, 0 if nothing was compiled.
+ */
+public int getCompileLoopCount() {
+	return this.compileLoops;
+}
+
+/**
+ * Answer the number of source files affected by the changes before the given compile loop, i.e. the number of source
+ * files which the loop was asked to compile.
+ */
+public int getAffectedSourceFileCount(int loop) {
+	if (loop < 0 || loop >= this.compileLoops)
+		throw new IndexOutOfBoundsException(Integer.toString(loop));
+	return this.affectedSourceFiles[loop];
+}
+
+/**
+ * Answer the number of compilation units compiled by the given compile loop, which may differ from the number of
+ * affected source files since the compiler also compiles the units it needs from source, and since participants may
+ * add units.
+ */
+public int getCompiledUnitCount(int loop) {
+	if (loop < 0 || loop >= this.compileLoops)
+		throw new IndexOutOfBoundsException(Integer.toString(loop));
+	return this.compiledUnits[loop];
+}
+
+/**
+ * Answer the number of compilation units compiled by the build.
+ */
+public int getCompiledUnitCount() {
+	int count = 0;
+	for (int i = 0; i < this.compileLoops; i++)
+		count += this.compiledUnits[i];
+	return count;
+}
+
+/**
+ * Answer the number of class files written by the build.
+ */
+public int getClassFilesWritten() {
+	return this.classFilesWritten;
+}
+
+/**
+ * Answer the number of class files which were not written since they did not change.
+ */
+public int getClassFilesUnchanged() {
+	return this.classFilesUnchanged;
+}
+
+/**
+ * Answer the number of bytes of the class files written by the build.
+ */
+public long getBytesWritten() {
+	return this.bytesWritten;
+}
+
+/**
+ * Answer the number of problem and task markers created by the build.
+ */
+public int getMarkersCreated() {
+	return this.markersCreated;
+}
+
+/**
+ * Answer the number of problem and task markers removed from the compiled source files by the build.
+ */
+public int getMarkersRemoved() {
+	return this.markersRemoved;
+}
+
+@Override
+public String toString() {
+	StringBuilder buffer = new StringBuilder("Build metrics of "); //$NON-NLS-1$
+	buffer.append(this.projectName).append(" (kind ").append(this.kind).append("): ") //$NON-NLS-1$ //$NON-NLS-2$
+		.append(TimeUnit.NANOSECONDS.toMillis(this.duration)).append("ms"); //$NON-NLS-1$
+	for (Phase timedPhase : Phase.values())
+		buffer.append(", ").append(timedPhase).append(' ') //$NON-NLS-1$
+			.append(TimeUnit.NANOSECONDS.toMillis(getDuration(timedPhase))).append("ms"); //$NON-NLS-1$
+	buffer.append("\n\t").append(this.compileLoops).append(" compile loops (affected/compiled units:"); //$NON-NLS-1$ //$NON-NLS-2$
+	for (int i = 0; i < this.compileLoops; i++)
+		buffer.append(' ').append(this.affectedSourceFiles[i]).append('/').append(this.compiledUnits[i]);
+	buffer.append(")\n\t").append(this.classFilesWritten).append(" class files written (") //$NON-NLS-1$ //$NON-NLS-2$
+		.append(this.bytesWritten).append(" bytes), ").append(this.classFilesUnchanged).append(" unchanged") //$NON-NLS-1$ //$NON-NLS-2$
+		.append("\n\t").append(this.markersCreated).append(" markers created, ") //$NON-NLS-1$ //$NON-NLS-2$
+		.append(this.markersRemoved).append(" markers removed"); //$NON-NLS-1$
+	return buffer.toString();
+}
+}
@@ -43,6 +43,7 @@ import org.eclipse.jdt.internal.compiler.env.IBinaryType;
 import org.eclipse.jdt.internal.compiler.env.IModule;
 import org.eclipse.jdt.internal.compiler.env.NameEnvironmentAnswer;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
+import org.eclipse.jdt.internal.compiler.util.ClasspathJarCache;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SimpleSet;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
@@ -86,20 +87,31 @@ protected static void addToPackageSet(SimpleSet packageSet, String fileName, boo
  */
 protected SimpleSet findPackageSet() {
 	String zipFileName = this.zipFilename;
-	PackageCacheEntry cacheEntry = (PackageCacheEntry) PackageCache.get(zipFileName);
-	if(cacheEntry != null && cacheEntry.zipFile.get() == this.zipFile) {
-		return cacheEntry.packageSet;
-	}
 	long timestamp = this.lastModified();
 	long fileSize = new File(zipFileName).length();
-	if (cacheEntry != null && cacheEntry.lastModified == timestamp && cacheEntry.fileSize == fileSize) {
-		cacheEntry.zipFile = new WeakReference<ZipFile>(this.zipFile);
-		return cacheEntry.packageSet;
+	synchronized (PackageCache) { // projects may be built concurrently
+		PackageCacheEntry cacheEntry = (PackageCacheEntry) PackageCache.get(zipFileName);
+		if(cacheEntry != null && cacheEntry.zipFile.get() == this.zipFile) {
+			return cacheEntry.packageSet;
+		}
+		if (cacheEntry != null && cacheEntry.lastModified == timestamp && cacheEntry.fileSize == fileSize) {
+			cacheEntry.zipFile = new WeakReference<ZipFile>(this.zipFile);
+			return cacheEntry.packageSet;
+		}
+	}
+	// large jars persist their packages across sessions, subclasses answer packages which depend on their settings
+	boolean persistIndex = getClass() == ClasspathJar.class && fileSize >= JarPackageIndex.MIN_JAR_SIZE;
+	SimpleSet packageSet = persistIndex ? JarPackageIndex.read(zipFileName, timestamp, fileSize) : null;
+	if (packageSet == null) {
+		packageSet = new SimpleSet(41);
+		packageSet.add(""); //$NON-NLS-1$
+		readJarContent(packageSet);
+		if (persistIndex)
+			JarPackageIndex.write(zipFileName, timestamp, fileSize, packageSet);
+	}
+	synchronized (PackageCache) {
+		PackageCache.put(zipFileName, new PackageCacheEntry(this.zipFile, timestamp, fileSize, packageSet));
 	}
-	final SimpleSet packageSet = new SimpleSet(41);
-	packageSet.add(""); //$NON-NLS-1$
-	readJarContent(packageSet);
-	PackageCache.put(zipFileName, new PackageCacheEntry(this.zipFile, timestamp, fileSize, packageSet));
 	return packageSet;
 }
 protected String readJarContent(final SimpleSet packageSet) {
@@ -157,6 +169,7 @@ IFile resource;
 ZipFile zipFile;
 long lastModified;
 boolean closeZipFileAtEnd;
+ClasspathJarCache.JarContents cachedContents; // non null if the class files of the jar are shared with the builds of other projects
 private SimpleSet knownPackageNames;
 // Meant for ClasspathMultiReleaseJar, not used in here
 String compliance;
@@ -237,6 +250,7 @@ public void cleanup() {
 	}
 	this.module = null; // TODO(SHMOD): is this safe?
 	this.knownPackageNames = null;
+	this.cachedContents = null;
 }
 
 @Override
@@ -261,15 +275,17 @@ public NameEnvironmentAnswer findClass(String binaryFileName, String qualifiedPa
 	if (!isPackage(qualifiedPackageName, moduleName)) return null; // most common case
 
 	try {
-		IBinaryType reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		IBinaryType reader = this.cachedContents != null
+				? this.cachedContents.readType(this.zipFile, qualifiedBinaryFileName)
+				: ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
 		if (reader != null) {
 			char[] modName = this.module == null ? null : this.module.name();
 			if (reader instanceof ClassFileReader) {
 				ClassFileReader classReader = (ClassFileReader) reader;
-				if (classReader.moduleName == null)
-					classReader.moduleName = modName;
-				else
+				if (classReader.moduleName != null)
 					modName = classReader.moduleName;
+				else if (this.cachedContents == null) // cached readers are shared, do not tie them to this classpath entry
+					classReader.moduleName = modName;
 				}
 			String fileNameWithoutExtension = qualifiedBinaryFileName.substring(0, qualifiedBinaryFileName.length() - SuffixConstants.SUFFIX_CLASS.length);
 			return createAnswer(fileNameWithoutExtension, reader, modName);
@@ -337,6 +353,11 @@ private boolean scanContent() {
 		} else {
 			this.knownPackageNames = findPackageSet();
 		}
+		if (this.cachedContents == null && getClass() == ClasspathJar.class) { // subclasses read their jars differently
+			ClasspathJarCache cache = ClasspathJarCache.getInstance(JavaBuilder.isParallelBuild() ? JavaBuilder.PARALLEL_BUILD_JAR_CACHE_SIZE : 0);
+			if (cache != null)
+				this.cachedContents = cache.getContents(new File(this.zipFilename), this.zipFilename);
+		}
 		return true;
 	} catch(Exception e) {
 		this.knownPackageNames = new SimpleSet(); // assume for this build the zipFile is empty
@@ -23,7 +23,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import org.eclipse.core.runtime.IPath;
@@ -44,8 +46,9 @@ import org.eclipse.jdt.internal.core.JavaProject;
 public class ClasspathJrt extends ClasspathLocation implements IMultiModuleEntry {
 
 //private HashMap<String, SimpleSet> packagesInModule = null;
-protected static HashMap<String, HashMap<String, SimpleSet>> PackageCache = new HashMap<>();
-protected static HashMap<String, HashMap<String, IModule>> ModulesCache = new HashMap<>();
+// filled while holding the lock of ClasspathJrt, as projects may be built concurrently
+protected static Map<String, HashMap<String, SimpleSet>> PackageCache = new ConcurrentHashMap<>();
+protected static Map<String, HashMap<String, IModule>> ModulesCache = new ConcurrentHashMap<>();
 String zipFilename; // keep for equals
 File jrtFile;
 static final Set<String> NO_LIMIT_MODULES = new HashSet<>();
@@ -75,7 +78,7 @@ void setZipFile(String zipFilename) {
  * @param jrt The ClasspathJar to use
  * @return A SimpleSet with the all the package names in the zipFile.
  */
-static HashMap<String, SimpleSet> findPackagesInModules(final ClasspathJrt jrt) {
+static synchronized HashMap<String, SimpleSet> findPackagesInModules(final ClasspathJrt jrt) {
 	String zipFileName = jrt.zipFilename;
 	HashMap<String, SimpleSet> cache = PackageCache.get(jrt.getKey());
 	if (cache != null) {
@@ -85,39 +88,27 @@ static HashMap<String, SimpleSet> findPackagesInModules(final ClasspathJrt jrt)
 	PackageCache.put(zipFileName, packagesInModule);
 	try {
 		final File imageFile = jrt.jrtFile;
-		org.eclipse.jdt.internal.compiler.util.JRTUtil.walkModuleImage(imageFile,
-				new org.eclipse.jdt.internal.compiler.util.JRTUtil.JrtFileVisitor<Path>() {
-			SimpleSet packageSet = null;
-			@Override
-			public FileVisitResult visitPackage(Path dir, Path mod, BasicFileAttributes attrs) throws IOException {
-				ClasspathJar.addToPackageSet(this.packageSet, dir.toString(), true);
-				return FileVisitResult.CONTINUE;
-			}
-
-			@Override
-			public FileVisitResult visitFile(Path file, Path mod, BasicFileAttributes attrs) throws IOException {
-				return FileVisitResult.CONTINUE;
-			}
-
-			@Override
-			public FileVisitResult visitModule(Path path, String name) throws IOException {
-				jrt.acceptModule(JRTUtil.getClassfileContent(imageFile, IModule.MODULE_INFO_CLASS, name), name);
-				this.packageSet = new SimpleSet(41);
-				this.packageSet.add(""); //$NON-NLS-1$
-				if (name.endsWith("/")) { //$NON-NLS-1$
-					name = name.substring(0, name.length() - 1);
-				}
-				packagesInModule.put(name, this.packageSet);
-				return FileVisitResult.CONTINUE;
-			}
-		}, JRTUtil.NOTIFY_PACKAGES | JRTUtil.NOTIFY_MODULES);
+		// the packages of the image are walked once and shared by all its clients
+		for (Map.Entry<String, Set<String>> entry : JRTUtil.getPackagesByModule(imageFile, null).entrySet()) {
+			String name = entry.getKey();
+			jrt.acceptModule(JRTUtil.getClassfileContent(imageFile, IModule.MODULE_INFO_CLASS, name), name);
+			packagesInModule.put(name, newPackageSet(entry.getValue()));
+		}
 	} catch (IOException e) {
 		// TODO: Java 9 Should report better
 	}
 	return packagesInModule;
 }
 
-public static void loadModules(final ClasspathJrt jrt) {
+static SimpleSet newPackageSet(Set<String> packageNames) {
+	SimpleSet packageSet = new SimpleSet(packageNames.size() + 1);
+	packageSet.add(""); //$NON-NLS-1$
+	for (String packageName : packageNames)
+		ClasspathJar.addToPackageSet(packageSet, packageName, true);
+	return packageSet;
+}
+
+public static synchronized void loadModules(final ClasspathJrt jrt) {
 	HashMap<String, IModule> cache = ModulesCache.get(jrt.getKey());
 
 	if (cache == null) {
@@ -25,6 +25,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 import org.eclipse.core.runtime.CoreException;
@@ -130,44 +132,21 @@ public class ClasspathJrtWithReleaseOption extends ClasspathJrt {
 		if (this.fs == null || !this.ctSym.isJRE12Plus()) {
 			return ClasspathJrt.findPackagesInModules(this);
 		}
-		HashMap<String, SimpleSet> cache = PackageCache.get(this.modPathString);
-		if (cache != null) {
-			return cache;
-		}
-		final HashMap<String, SimpleSet> packagesInModule = new HashMap<>();
-		PackageCache.put(this.modPathString, packagesInModule);
-		try {
-			JRTUtil.walkModuleImage(this.jrtFile, this.release, new JRTUtil.JrtFileVisitor<Path>() {
-						SimpleSet packageSet = null;
-
-						@Override
-						public FileVisitResult visitPackage(Path dir, Path mod, BasicFileAttributes attrs)
-								throws IOException {
-							ClasspathJar.addToPackageSet(this.packageSet, dir.toString(), true);
-							return FileVisitResult.CONTINUE;
-						}
-
-						@Override
-						public FileVisitResult visitFile(Path file, Path mod, BasicFileAttributes attrs)
-								throws IOException {
-							return FileVisitResult.CONTINUE;
-						}
-
-						@Override
-						public FileVisitResult visitModule(Path path, String name) throws IOException {
-							this.packageSet = new SimpleSet(41);
-							this.packageSet.add(""); //$NON-NLS-1$
-							if (name.endsWith("/")) { //$NON-NLS-1$
-								name = name.substring(0, name.length() - 1);
-							}
-							packagesInModule.put(name, this.packageSet);
-							return FileVisitResult.CONTINUE;
-						}
-					}, JRTUtil.NOTIFY_PACKAGES | JRTUtil.NOTIFY_MODULES);
-		} catch (IOException e) {
-			// return empty handed
+		synchronized (ClasspathJrt.class) { // see ClasspathJrt.PackageCache
+			HashMap<String, SimpleSet> cache = PackageCache.get(this.modPathString);
+			if (cache != null) {
+				return cache;
+			}
+			final HashMap<String, SimpleSet> packagesInModule = new HashMap<>();
+			PackageCache.put(this.modPathString, packagesInModule);
+			try {
+				for (Map.Entry<String, Set<String>> entry : JRTUtil.getPackagesByModule(this.jrtFile, this.release).entrySet())
+					packagesInModule.put(entry.getKey(), newPackageSet(entry.getValue()));
+			} catch (IOException e) {
+				// return empty handed
+			}
+			return packagesInModule;
 		}
-		return packagesInModule;
 	}
 
 	public void loadModules() {
@@ -178,6 +157,12 @@ public class ClasspathJrtWithReleaseOption extends ClasspathJrt {
 		if (this.modPathString == null) {
 			return;
 		}
+		synchronized (ClasspathJrt.class) { // see ClasspathJrt.ModulesCache
+			loadReleaseModules();
+		}
+	}
+
+	private void loadReleaseModules() {
 		HashMap<String, IModule> cache = ModulesCache.get(this.modPathString);
 		if (cache == null) {
 			List<Path> releaseRoots = this.ctSym.releaseRoots(this.releaseCode);
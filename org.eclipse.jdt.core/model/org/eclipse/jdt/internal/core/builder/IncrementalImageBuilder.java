@@ -26,13 +26,13 @@ import org.eclipse.jdt.internal.compiler.problem.*;
 import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
 import org.eclipse.jdt.internal.compiler.util.SuffixConstants;
 import org.eclipse.jdt.internal.core.CompilationGroup;
+import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.util.Messages;
 import org.eclipse.jdt.internal.core.util.Util;
 
 import java.io.*;
 import java.net.URI;
 import java.util.*;
-import java.util.Map.Entry;
 
 /**
  * The incremental image builder
@@ -45,6 +45,8 @@ protected LinkedHashSet<SourceFile> previousSourceFiles;
 protected Set<String> qualifiedStrings;
 protected Set<String> simpleStrings;
 protected Set<String> rootStrings;
+// structural changes limited to the members of a type, keyed by the qualified file name of the type "p1/p2/A$B"
+protected Map<String, MemberChange> memberChanges;
 protected SimpleLookupTable secondaryTypesToRemove;
 protected boolean hasStructuralChanges;
 protected boolean makeOutputFolderConsistent;
@@ -53,6 +55,16 @@ private IncrementalImageBuilder testImageBuilder;
 
 public static int MaxCompileLoop = 5; // perform a full build if it takes more than ? incremental compile loops
 
+static class MemberChange {
+	final char[] typeName; // simple source name
+	final char[][] memberNames;
+
+	MemberChange(char[] typeName, char[][] memberNames) {
+		this.typeName = typeName;
+		this.memberNames = memberNames;
+	}
+}
+
 protected IncrementalImageBuilder(JavaBuilder javaBuilder, State buildState, CompilationGroup compilationGroup) {
 	super(javaBuilder, true, buildState, compilationGroup);
 	this.nameEnvironment.isIncrementalBuild = true;
@@ -99,6 +111,8 @@ public boolean build(SimpleLookupTable deltas) {
 	if (JavaBuilder.DEBUG)
 		System.out.println("INCREMENTAL build"); //$NON-NLS-1$
 
+	// finding the affected source files is interleaved with the compile loops, which time their own phases
+	BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.ANALYZING);
 	try {
 		resetCollections();
 
@@ -165,6 +179,7 @@ public boolean build(SimpleLookupTable deltas) {
 		if (this.testImageBuilder != null) {
 			this.testImageBuilder.cleanUp();
 		}
+		this.metrics.exit(previousPhase);
 	}
 	return true;
 }
@@ -187,6 +202,7 @@ private boolean incrementalBuildLoop() throws CoreException {
 		this.workQueue.addAll(allSourceFiles);
 		this.notifier.setProgressPerCompilationUnit(increment / allSourceFiles.length);
 		increment = increment / 2;
+		this.metrics.startCompileLoop(allSourceFiles.length);
 		compile(allSourceFiles);
 		removeSecondaryTypes();
 		addAffectedSourceFiles();
@@ -202,6 +218,7 @@ protected void buildAfterBatchBuild() {
 		System.out.println("INCREMENTAL build after batch build @ " + new Date(System.currentTimeMillis())); //$NON-NLS-1$
 
 	// this is a copy of the incremental build loop
+	BuildMetrics.Phase previousPhase = this.metrics.enter(BuildMetrics.Phase.ANALYZING);
 	try {
 		addAffectedSourceFiles();
 		while (this.sourceFiles.size() > 0) {
@@ -211,6 +228,7 @@ protected void buildAfterBatchBuild() {
 			resetCollections();
 			this.notifier.setProgressPerCompilationUnit(0.08f / allSourceFiles.length);
 			this.workQueue.addAll(allSourceFiles);
+			this.metrics.startCompileLoop(allSourceFiles.length);
 			compile(allSourceFiles);
 			removeSecondaryTypes();
 			addAffectedSourceFiles();
@@ -219,18 +237,48 @@ protected void buildAfterBatchBuild() {
 		throw internalException(e);
 	} finally {
 		cleanUp();
+		this.metrics.exit(previousPhase);
 	}
 }
 
 protected void addAffectedSourceFiles() {
-	if (this.qualifiedStrings.size() == 0 && this.simpleStrings.size() == 0) return;
+	if (this.qualifiedStrings.size() == 0 && this.simpleStrings.size() == 0 && this.memberChanges.isEmpty()) return;
 	if(this.testImageBuilder != null) {
 		this.testImageBuilder.addAffectedSourceFiles(this.qualifiedStrings, this.simpleStrings, this.rootStrings, null);
+		this.testImageBuilder.addAffectedSourceFiles(this.memberChanges);
 	}
 	addAffectedSourceFiles(this.qualifiedStrings, this.simpleStrings, this.rootStrings, null);
+	addAffectedSourceFiles(this.memberChanges);
+}
+
+/**
+ * Add the dependents of the types whose structural changes are limited to members, when they may use one of
+ * the changed members, see {@link ReferenceCollection#includesMembers(char[], char[][])}.
+ */
+protected void addAffectedSourceFiles(Map<String, MemberChange> changes) {
+	for (Map.Entry<String, MemberChange> entry : changes.entrySet()) {
+		Set<String> qualifiedNames = new HashSet<>(3);
+		Set<String> simpleNames = new HashSet<>(3);
+		Set<String> rootNames = new HashSet<>(3);
+		addDependentsOf(new Path(entry.getKey()), false, qualifiedNames, simpleNames, rootNames);
+		MemberChange change = entry.getValue();
+		for (String typeLocator : getDependents(qualifiedNames, simpleNames, rootNames)) {
+			if (!this.newState.getReferences().get(typeLocator).includesMembers(change.typeName, change.memberNames)) {
+				if (JavaBuilder.DEBUG)
+					System.out.println("  skipping source file " + typeLocator + " which does not use the changed members of " + entry.getKey()); //$NON-NLS-1$ //$NON-NLS-2$
+				continue;
+			}
+			addAffectedSourceFile(typeLocator, null);
+		}
+	}
 }
 
 protected void addAffectedSourceFiles(Set<String> qualifiedSet, Set<String> simpleSet, Set<String> rootSet, Set<String> affectedTypes) {
+	for (String typeLocator : getDependents(qualifiedSet, simpleSet, rootSet))
+		addAffectedSourceFile(typeLocator, affectedTypes);
+}
+
+private List<String> getDependents(Set<String> qualifiedSet, Set<String> simpleSet, Set<String> rootSet) {
 	// the qualifiedStrings are of the form 'p1/p2' & the simpleStrings are just 'X'
 	char[][][] internedQualifiedNames = ReferenceCollection.internQualifiedNames(qualifiedSet);
 	// if a well known qualified name was found then we can skip over these
@@ -242,23 +290,22 @@ protected void addAffectedSourceFiles(Set<String> qualifiedSet, Set<String> simp
 		internedSimpleNames = null;
 	char[][] internedRootNames = ReferenceCollection.internSimpleNames(rootSet, false);
 
-	next: for (Entry<String, ReferenceCollection> entry : this.newState.references.entrySet()) {
-		String typeLocator = entry.getKey();
-		if (affectedTypes != null && !affectedTypes.contains(typeLocator)) continue next;
-		ReferenceCollection refs = entry.getValue();
-		if (refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames)) {
-			IFile file = this.javaBuilder.currentProject.getFile(typeLocator);
-			SourceFile sourceFile = findSourceFile(file, true);
-			if (sourceFile == null) continue next;
-			if (this.sourceFiles.contains(sourceFile)) continue next;
-			if (this.compiledAllAtOnce && this.previousSourceFiles != null && this.previousSourceFiles.contains(sourceFile))
-				continue next; // can skip previously compiled files since already saw hierarchy related problems
+	// look the dependents up in the index of the state rather than testing the references of every unit
+	return this.newState.getDependents(internedQualifiedNames, internedSimpleNames, internedRootNames);
+}
 
-			if (JavaBuilder.DEBUG)
-				System.out.println("  adding affected source file " + typeLocator); //$NON-NLS-1$
-			this.sourceFiles.add(sourceFile);
-		}
-	}
+private void addAffectedSourceFile(String typeLocator, Set<String> affectedTypes) {
+	if (affectedTypes != null && !affectedTypes.contains(typeLocator)) return;
+	IFile file = this.javaBuilder.currentProject.getFile(typeLocator);
+	SourceFile sourceFile = findSourceFile(file, true);
+	if (sourceFile == null) return;
+	if (this.sourceFiles.contains(sourceFile)) return;
+	if (this.compiledAllAtOnce && this.previousSourceFiles != null && this.previousSourceFiles.contains(sourceFile))
+		return; // can skip previously compiled files since already saw hierarchy related problems
+
+	if (JavaBuilder.DEBUG)
+		System.out.println("  adding affected source file " + typeLocator); //$NON-NLS-1$
+	this.sourceFiles.add(sourceFile);
 }
 
 protected void addDependentsOf(IPath path, boolean isStructuralChange) {
@@ -282,10 +329,8 @@ protected void addDependentsOf(IPath path, boolean isStructuralChange, Set<Strin
 			}
 	}
 
-	if (isStructuralChange && !this.hasStructuralChanges) {
-		this.newState.tagAsStructurallyChanged();
-		this.hasStructuralChanges = true;
-	}
+	if (isStructuralChange)
+		tagAsStructurallyChanged();
 	// the qualifiedStrings are of the form 'p1/p2' & the simpleStrings are just 'X'
 	rootNames.add(path.segment(0));
 	String packageName = path.removeLastSegments(1).toString();
@@ -300,6 +345,24 @@ protected void addDependentsOf(IPath path, boolean isStructuralChange, Set<Strin
 			+ typeName + " in " + packageName); //$NON-NLS-1$
 }
 
+/**
+ * Add the dependents of the given type which use one of the given members, once the current compile loop is done.
+ */
+protected void addMemberDependentsOf(String qualifiedFileName, char[] typeName, char[][] memberNames) {
+	tagAsStructurallyChanged();
+	this.memberChanges.put(qualifiedFileName, new MemberChange(typeName, memberNames));
+	if (JavaBuilder.DEBUG)
+		System.out.println("  will look for dependents of " + qualifiedFileName //$NON-NLS-1$
+			+ " using " + CharOperation.toString(memberNames)); //$NON-NLS-1$
+}
+
+private void tagAsStructurallyChanged() {
+	if (!this.hasStructuralChanges) {
+		this.newState.tagAsStructurallyChanged();
+		this.hasStructuralChanges = true;
+	}
+}
+
 protected boolean checkForClassFileChanges(IResourceDelta binaryDelta, ClasspathMultiDirectory md, int segmentCount) throws CoreException {
 	IResource resource = binaryDelta.getResource();
 	// remember that if inclusion & exclusion patterns change then a full build is done
@@ -339,6 +402,7 @@ protected void cleanUp() {
 	this.qualifiedStrings = null;
 	this.simpleStrings = null;
 	this.rootStrings = null;
+	this.memberChanges = null;
 	this.secondaryTypesToRemove = null;
 	this.hasStructuralChanges = false;
 }
@@ -424,11 +488,12 @@ protected boolean findAffectedSourceFiles(IResourceDelta delta, ClasspathLocatio
 					}
 					int segmentCount = binaryDelta.getFullPath().segmentCount();
 					IResourceDelta[] children = binaryDelta.getAffectedChildren(); // .class files from class folder
-					StringSet structurallyChangedTypes = null;
+					// the state of the prerequisite project tells which class files of its output folder changed structurally
+					State prereqState = null;
 					if (bLocation.isOutputFolder())
-						structurallyChangedTypes = this.newState.getStructurallyChangedTypes(this.javaBuilder.getLastState(prereqProject));
+						prereqState = this.javaBuilder.getLastState(prereqProject);
 					for (int j = 0, m = children.length; j < m; j++)
-						findAffectedSourceFiles(children[j], segmentCount, structurallyChangedTypes);
+						findAffectedSourceFiles(children[j], segmentCount, prereqState);
 					this.notifier.checkCancel();
 				}
 			}
@@ -437,7 +502,7 @@ protected boolean findAffectedSourceFiles(IResourceDelta delta, ClasspathLocatio
 	return true;
 }
 
-protected void findAffectedSourceFiles(IResourceDelta binaryDelta, int segmentCount, StringSet structurallyChangedTypes) {
+protected void findAffectedSourceFiles(IResourceDelta binaryDelta, int segmentCount, State prereqState) {
 	// When a package becomes a type or vice versa, expect 2 deltas,
 	// one on the folder & one on the class file
 	IResource resource = binaryDelta.getResource();
@@ -473,7 +538,7 @@ protected void findAffectedSourceFiles(IResourceDelta binaryDelta, int segmentCo
 				case IResourceDelta.CHANGED :
 					IResourceDelta[] children = binaryDelta.getAffectedChildren();
 					for (int i = 0, l = children.length; i < l; i++)
-						findAffectedSourceFiles(children[i], segmentCount, structurallyChangedTypes);
+						findAffectedSourceFiles(children[i], segmentCount, prereqState);
 			}
 			return;
 		case IResource.FILE :
@@ -489,7 +554,7 @@ protected void findAffectedSourceFiles(IResourceDelta binaryDelta, int segmentCo
 					case IResourceDelta.CHANGED :
 						if ((binaryDelta.getFlags() & IResourceDelta.CONTENT) == 0)
 							return; // skip it since it really isn't changed
-						if (structurallyChangedTypes != null && !structurallyChangedTypes.includes(typePath.toString()))
+						if (!this.newState.isStructurallyChanged(prereqState, typePath.toString()))
 							return; // skip since it wasn't a structural change
 						if (JavaBuilder.DEBUG)
 							System.out.println("Found changed class file " + typePath); //$NON-NLS-1$
@@ -829,6 +894,7 @@ protected void resetCollections() {
 		this.qualifiedStrings = new HashSet<>(3);
 		this.simpleStrings = new HashSet<>(3);
 		this.rootStrings = new HashSet<>(3);
+		this.memberChanges = new LinkedHashMap<>(3);
 		this.hasStructuralChanges = false;
 	} else {
 		this.previousSourceFiles = this.sourceFiles.isEmpty() ? null : (LinkedHashSet) this.sourceFiles.clone();
@@ -837,6 +903,7 @@ protected void resetCollections() {
 		this.qualifiedStrings.clear();
 		this.simpleStrings.clear();
 		this.rootStrings.clear();
+		this.memberChanges.clear();
 		this.workQueue.clear();
 	}
 }
@@ -844,6 +911,7 @@ protected void resetCollections() {
 @Override
 protected void updateProblemsFor(SourceFile sourceFile, CompilationResult result) throws CoreException {
 	if (CharOperation.equals(sourceFile.getMainTypeName(), TypeConstants.PACKAGE_INFO_NAME)) {
+		applyMarkerChanges(); // include the markers created for the package by the other source files
 		IResource pkgResource = sourceFile.resource.getParent();
 		IMarker[] findMarkers = pkgResource.findMarkers(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, false,
 				IResource.DEPTH_ZERO);
@@ -858,7 +926,10 @@ protected void updateProblemsFor(SourceFile sourceFile, CompilationResult result
 	if (problems == null && markers.length == 0) return;
 
 	this.notifier.updateProblemCounts(markers, problems);
-	JavaBuilder.removeProblemsFor(sourceFile.resource);
+	this.markerChanges.remove(sourceFile.resource, IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER);
+	for (String markerType : JavaModelManager.getJavaModelManager().compilationParticipants.managedMarkerTypes())
+		this.markerChanges.remove(sourceFile.resource, markerType);
+	this.metrics.markersRemoved(markers.length);
 	storeProblemsFor(sourceFile, problems);
 }
 
@@ -868,7 +939,8 @@ protected void updateTasksFor(SourceFile sourceFile, CompilationResult result) t
 	CategorizedProblem[] tasks = result.getTasks();
 	if (tasks == null && markers.length == 0) return;
 
-	JavaBuilder.removeTasksFor(sourceFile.resource);
+	this.markerChanges.remove(sourceFile.resource, IJavaModelMarker.TASK_MARKER);
+	this.metrics.markersRemoved(markers.length);
 	storeTasksFor(sourceFile, tasks);
 }
 
@@ -887,8 +959,11 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 			if (!file.isDerived())
 				file.setDerived(true, null);
 			file.setContents(new ByteArrayInputStream(bytes), true, false, null);
-		} else if (JavaBuilder.DEBUG) {
-			System.out.println("Skipped over unchanged class file " + file.getName());//$NON-NLS-1$
+			this.metrics.classFileWritten(bytes.length);
+		} else {
+			if (JavaBuilder.DEBUG)
+				System.out.println("Skipped over unchanged class file " + file.getName());//$NON-NLS-1$
+			this.metrics.classFileUnchanged();
 		}
 	} else {
 		if (isTopLevelType)
@@ -897,6 +972,7 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 			System.out.println("Writing new class file " + file.getName());//$NON-NLS-1$
 		try {
 			file.create(new ByteArrayInputStream(bytes), IResource.FORCE | IResource.DERIVED, null);
+			this.metrics.classFileWritten(bytes.length);
 		} catch (CoreException e) {
 			if (e.getStatus().getCode() == IResourceStatus.CASE_VARIANT_EXISTS) {
 				IStatus status = e.getStatus();
@@ -922,6 +998,7 @@ protected void writeClassFileContents(ClassFile classfile, IFile file, String qu
 						boolean success = false;
 						try {
 							file.create(new ByteArrayInputStream(bytes), IResource.FORCE | IResource.DERIVED, null);
+							this.metrics.classFileWritten(bytes.length);
 							success = true;
 						} catch (CoreException ignored) {
 							// ignore the second exception
@@ -950,11 +1027,20 @@ protected boolean writeClassFileCheck(IFile file, String fileName, byte[] newByt
 		String filePath = location.getSchemeSpecificPart();
 		ClassFileReader reader = new ClassFileReader(oldBytes, filePath.toCharArray());
 		// ignore local types since they're only visible inside a single method
-		if (!(reader.isLocal() || reader.isAnonymous()) && reader.hasStructuralChanges(newBytes)) {
-			if (JavaBuilder.DEBUG)
-				System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
-			addDependentsOf(new Path(fileName), true);
-			this.newState.wasStructurallyChanged(fileName);
+		if (!(reader.isLocal() || reader.isAnonymous())) {
+			// when the changes are limited to members, only the dependents which use them are affected
+			char[][] changedMembers = reader.getStructurallyChangedMembers(newBytes);
+			if (changedMembers == null) {
+				if (JavaBuilder.DEBUG)
+					System.out.println("Type has structural changes " + fileName); //$NON-NLS-1$
+				addDependentsOf(new Path(fileName), true);
+				this.newState.wasStructurallyChanged(fileName);
+			} else if (changedMembers.length > 0) {
+				if (JavaBuilder.DEBUG)
+					System.out.println("Type has structural changes to members " + fileName); //$NON-NLS-1$
+				addMemberDependentsOf(fileName, reader.getSourceName(), changedMembers);
+				this.newState.wasStructurallyChanged(fileName);
+			}
 		}
 	} catch (JavaModelException jme) {
 		Throwable e = jme.getCause();
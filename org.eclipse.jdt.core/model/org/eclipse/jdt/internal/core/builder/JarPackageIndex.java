@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.compiler.util.SimpleSet;
+import org.eclipse.jdt.internal.core.util.Util;
+
+/**
+ * Persists the package names of large jars in the state location of the Java core plug-in, so that
+ * the central directory of these jars does not have to be walked again by the next session.
+ * <p>
+ * An index file records the path, size and modification time of its jar, and is ignored as soon as
+ * the jar changed. The index files of the jars which changed or were deleted since they were indexed
+ * are deleted by {@link #cleanUp()}, once per session.
+ * </p>
+ */
+public class JarPackageIndex {
+
+	static final int VERSION = 1;
+	static final long MIN_JAR_SIZE = 1024 * 1024; // smaller jars are walked quickly enough
+	private static final String INDEX_FOLDER = "jarPackageIndexes"; //$NON-NLS-1$
+	private static final String INDEX_EXTENSION = ".index"; //$NON-NLS-1$
+	private static volatile boolean cleanedUp = false;
+
+/**
+ * Answer the package names of the given jar read from its index, or null if the jar was not
+ * indexed yet or changed since it was indexed.
+ */
+public static SimpleSet read(String zipFileName, long lastModified, long fileSize) {
+	if (!cleanedUp)
+		cleanUp();
+	File indexFile = getIndexFile(zipFileName);
+	if (indexFile == null || !indexFile.exists())
+		return null;
+	try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+		if (in.readInt() == VERSION
+				&& zipFileName.equals(in.readUTF())
+				&& in.readLong() == lastModified
+				&& in.readLong() == fileSize) {
+			int size = in.readInt();
+			SimpleSet packageSet = new SimpleSet(size + 1);
+			for (int i = 0; i < size; i++)
+				packageSet.add(in.readUTF());
+			return packageSet;
+		}
+	} catch (IOException e) {
+		Util.log(e, "Unable to read the package index of " + zipFileName); //$NON-NLS-1$
+	}
+	// the jar changed (or its name clashes with another jar), the index is written again once its packages are read
+	indexFile.delete();
+	return null;
+}
+
+/**
+ * Record the package names of the given jar, replacing its previous index if any.
+ */
+public static void write(String zipFileName, long lastModified, long fileSize, SimpleSet packageSet) {
+	File indexFile = getIndexFile(zipFileName);
+	if (indexFile == null)
+		return;
+	File folder = indexFile.getParentFile();
+	if (!folder.isDirectory() && !folder.mkdirs())
+		return;
+	// write a temporary file first so that concurrent readers never see a partial index
+	File tempFile = new File(folder, indexFile.getName() + ".tmp" + Thread.currentThread().getId()); //$NON-NLS-1$
+	try {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+			out.writeInt(VERSION);
+			out.writeUTF(zipFileName);
+			out.writeLong(lastModified);
+			out.writeLong(fileSize);
+			out.writeInt(packageSet.elementSize);
+			Object[] names = packageSet.values;
+			for (int i = 0, l = names.length; i < l; i++)
+				if (names[i] != null)
+					out.writeUTF((String) names[i]);
+		}
+		if (!tempFile.renameTo(indexFile)) {
+			indexFile.delete();
+			tempFile.renameTo(indexFile);
+		}
+	} catch (IOException e) {
+		Util.log(e, "Unable to write the package index of " + zipFileName); //$NON-NLS-1$
+	} finally {
+		tempFile.delete();
+	}
+}
+
+/**
+ * Delete the index files of the jars which were deleted or changed since they were indexed, as well as the
+ * index files of previous versions.
+ */
+public static synchronized void cleanUp() {
+	cleanedUp = true;
+	File folder = getIndexFolder();
+	File[] files = folder == null ? null : folder.listFiles();
+	if (files == null)
+		return;
+	for (File file : files) {
+		if (file.getName().endsWith(INDEX_EXTENSION) && !isValid(file))
+			file.delete();
+	}
+}
+
+// answer whether the jar of the given index file still exists and was not changed since it was indexed
+private static boolean isValid(File indexFile) {
+	try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+		if (in.readInt() != VERSION)
+			return false;
+		File jar = new File(in.readUTF());
+		return in.readLong() == jar.lastModified() && in.readLong() == jar.length() && jar.isFile();
+	} catch (IOException e) {
+		return false;
+	}
+}
+
+/**
+ * Answer the index file of the given jar, or null if not running as a plug-in.
+ */
+public static File getIndexFile(String zipFileName) {
+	File folder = getIndexFolder();
+	if (folder == null)
+		return null;
+	// the index file records the full path of its jar, so that a name clash only costs a walk of the central directory
+	String name = new File(zipFileName).getName();
+	return new File(folder, name + '_' + Integer.toHexString(zipFileName.hashCode()) + INDEX_EXTENSION);
+}
+
+private static File getIndexFolder() {
+	if (JavaCore.getPlugin() == null)
+		return null; // not running as a plug-in
+	return JavaCore.getPlugin().getStateLocation().append(INDEX_FOLDER).toFile();
+}
+}
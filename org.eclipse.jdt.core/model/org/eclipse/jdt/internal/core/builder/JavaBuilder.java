@@ -16,6 +16,8 @@ package org.eclipse.jdt.internal.core.builder;
 
 import org.eclipse.core.resources.*;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 
 import org.eclipse.jdt.core.*;
 import org.eclipse.jdt.core.compiler.*;
@@ -39,6 +41,7 @@ NameEnvironment testNameEnvironment;
 SimpleLookupTable binaryLocationsPerProject; // maps a project to its binary resources (output folders, class folders, zip/jar files)
 public State lastState;
 BuildNotifier notifier;
+BuildMetrics metrics;
 char[][] extraResourceFileFilters;
 String[] extraResourceFolderFilters;
 public static final String SOURCE_ID = "JDT"; //$NON-NLS-1$
@@ -51,6 +54,20 @@ public static boolean SHOW_STATS = false;
  * specify VM property: {@code -Dorg.eclipse.disableAutoBuildOnSettingsChange=true}
  */
 private static final boolean DISABLE_AUTO_BUILDING_ON_SETTINGS_CHANGE = Boolean.getBoolean("org.eclipse.disableAutoBuildOnSettingsChange"); //$NON-NLS-1$
+/**
+ * When set, the build of a project is scheduled with a rule covering the project rather than the workspace, so that
+ * independent Java projects are built concurrently when the workspace allows concurrent builds
+ * (see {@link IWorkspaceDescription#setMaxConcurrentBuilds(int)}).
+ * Specify VM property: {@code -Dorg.eclipse.jdt.core.parallelBuild=true}, see {@link #isParallelBuild()}
+ */
+public static final String PARALLEL_BUILD_PROPERTY = "org.eclipse.jdt.core.parallelBuild"; //$NON-NLS-1$
+/**
+ * Size in megabytes of the cache of the class files read from jars, shared by the projects built concurrently,
+ * unless set by the {@code jdt.compiler.jarCacheSize} VM property.
+ */
+static final int PARALLEL_BUILD_JAR_CACHE_SIZE = 256;
+// classpath dependencies of the projects of the workspace, used to schedule parallel builds, see resetProjectGraph()
+private static volatile ProjectGraph projectGraph;
 private static final IPath JDT_CORE_SETTINGS_PATH = Path.fromPortableString(JavaProject.DEFAULT_PREFERENCES_DIRNAME + IPath.SEPARATOR + JavaProject.JAVA_CORE_PREFS_FILE);
 
 /**
@@ -60,6 +77,41 @@ private static final IPath JDT_CORE_SETTINGS_PATH = Path.fromPortableString(Java
  */
 static LinkedHashSet<String> builtProjects;
 
+private static final ListenerList<BuildMetrics.Listener> buildMetricsListeners = new ListenerList<>();
+
+/**
+ * Add a listener notified of the metrics of each build of a Java project, once the build is finished.
+ * Has no effect if the listener was added already.
+ */
+public static void addBuildMetricsListener(BuildMetrics.Listener listener) {
+	buildMetricsListeners.add(listener);
+}
+
+/**
+ * Remove the given listener of the metrics of the builds. Has no effect if the listener was not added.
+ */
+public static void removeBuildMetricsListener(BuildMetrics.Listener listener) {
+	buildMetricsListeners.remove(listener);
+}
+
+private static void publishBuildMetrics(BuildMetrics buildMetrics) {
+	buildMetrics.finished();
+	if (SHOW_STATS)
+		System.out.println(buildMetrics);
+	for (BuildMetrics.Listener listener : buildMetricsListeners) {
+		SafeRunner.run(new ISafeRunnable() {
+			@Override
+			public void handleException(Throwable exception) {
+				Util.log(exception, "Exception occurred in listener of build metrics"); //$NON-NLS-1$
+			}
+			@Override
+			public void run() throws Exception {
+				listener.buildFinished(buildMetrics);
+			}
+		});
+	}
+}
+
 public static IMarker[] getProblemsFor(IResource resource) {
 	try {
 		if (resource != null && resource.exists()) {
@@ -165,6 +217,36 @@ public static void writeState(Object state, DataOutputStream out) throws IOExcep
 	((State) state).write(out);
 }
 
+/**
+ * Write the changes of the given state since it was last saved. Answer false if they are unknown, the state must then be
+ * written as a whole with {@link #writeState(Object, DataOutputStream)}.
+ */
+public static boolean writeStateChanges(Object state, DataOutputStream out) throws IOException {
+	return ((State) state).writeChanges(out);
+}
+
+/**
+ * Apply changes written by {@link #writeStateChanges(Object, DataOutputStream)} to the given state, read from the state
+ * file they were saved after.
+ */
+public static void readStateChanges(Object state, IProject project, DataInputStream in) throws IOException, CoreException {
+	((State) state).readChanges(project, in);
+}
+
+/**
+ * Answer whether the given state did not change since it was last saved, or {@link #stateSaved(Object) written as a whole}.
+ */
+public static boolean isStateSaved(Object state) {
+	return ((State) state).isSaved();
+}
+
+/**
+ * Tell that the given state was written as a whole to its state file, further changes are saved relative to it.
+ */
+public static void stateSaved(Object state) {
+	((State) state).saved();
+}
+
 @Override
 protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) throws CoreException {
 	this.currentProject = getProject();
@@ -176,6 +258,7 @@ protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) thro
 	this.notifier = new BuildNotifier(monitor,kind,
 			kind == IncrementalProjectBuilder.AUTO_BUILD ? this::isInterrupted : ()->false);
 	this.notifier.begin();
+	BuildMetrics buildMetrics = this.metrics = new BuildMetrics(this.currentProject.getName(), kind);
 	boolean ok = false;
 	try {
 		this.notifier.checkCancel();
@@ -185,6 +268,8 @@ protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) thro
 			if (kind == FULL_BUILD) {
 				if (DEBUG)
 					System.out.println("JavaBuilder: Performing full build as requested"); //$NON-NLS-1$
+				// the last state tells which class files the full build does not have to rewrite
+				this.lastState = getLastState(this.currentProject);
 				buildAll();
 			} else {
 				if ((this.lastState = getLastState(this.currentProject)) == null) {
@@ -254,14 +339,55 @@ protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) thro
 			clearLastState();
 		this.notifier.done();
 		cleanup();
+		publishBuildMetrics(buildMetrics);
 	}
 	IProject[] requiredProjects = getRequiredProjects(true);
-	if (DEBUG)
+	if (DEBUG) {
 		System.out.println("JavaBuilder: Finished build of " + this.currentProject.getName() //$NON-NLS-1$
-			+ " @ " + new Date(System.currentTimeMillis()) + "\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			+ " @ " + new Date(System.currentTimeMillis())); //$NON-NLS-1$
+		System.out.println(NamePool.getStatistics() + "\n"); //$NON-NLS-1$
+	}
 	return requiredProjects;
 }
 
+/**
+ * Answer the rule of the build of the project. The workspace builds a project once the projects it references are built,
+ * and the references of a Java project include its classpath prerequisites (see DynamicProjectReferences), so in
+ * parallel mode the rule only has to prevent the concurrent builds of the projects which read each other's output
+ * while writing their own, i.e. the projects of a classpath cycle.
+ */
+@Override
+public ISchedulingRule getRule(int kind, Map<String, String> args) {
+	if (!isParallelBuild())
+		return super.getRule(kind, args);
+	IProject project = getProject();
+	ProjectGraph graph = projectGraph;
+	if (graph == null)
+		projectGraph = graph = new ProjectGraph(project.getWorkspace().getRoot());
+	Set<IProject> cycle = graph.getCycle(project);
+	if (cycle.size() == 1)
+		return project;
+	if (DEBUG)
+		System.out.println("JavaBuilder: Scheduling the build of " + project.getName() + " with the projects of its cycle " + cycle); //$NON-NLS-1$ //$NON-NLS-2$
+	return new MultiRule(cycle.toArray(new ISchedulingRule[cycle.size()]));
+}
+
+/**
+ * Answer whether independent Java projects may be built concurrently, i.e. whether the {@link #PARALLEL_BUILD_PROPERTY}
+ * VM property is set.
+ */
+public static boolean isParallelBuild() {
+	return Boolean.getBoolean(PARALLEL_BUILD_PROPERTY);
+}
+
+/**
+ * Forget the classpath dependencies between the projects of the workspace, called when a project is added, opened,
+ * closed or removed, or when its classpath changes the projects it requires.
+ */
+public static void resetProjectGraph() {
+	projectGraph = null;
+}
+
 private void buildAll() {
 	this.notifier.checkCancel();
 	this.notifier.subTask(Messages.bind(Messages.build_preparingBuild, this.currentProject.getName()));
@@ -306,6 +432,7 @@ protected void clean(IProgressMonitor monitor) throws CoreException {
 			+ " @ " + new Date(System.currentTimeMillis())); //$NON-NLS-1$
 	this.notifier = new BuildNotifier(monitor,CLEAN_BUILD, ()->false);
 	this.notifier.begin();
+	this.metrics = new BuildMetrics(this.currentProject.getName(), CLEAN_BUILD); // not published since nothing is compiled
 	try {
 		this.notifier.checkCancel();
 
@@ -360,6 +487,7 @@ private void cleanup() {
 	this.binaryLocationsPerProject = null;
 	this.lastState = null;
 	this.notifier = null;
+	this.metrics = null;
 	this.extraResourceFileFilters = null;
 	this.extraResourceFolderFilters = null;
 }
@@ -634,10 +762,12 @@ private int initializeBuilder(int kind, boolean forBuild) throws CoreException {
 
 		// Flush the existing external files cache if this is the beginning of a build cycle
 		String projectName = this.currentProject.getName();
-		if (builtProjects == null || builtProjects.contains(projectName)) {
-			builtProjects = new LinkedHashSet();
+		synchronized (JavaBuilder.class) {
+			if (builtProjects == null || builtProjects.contains(projectName)) {
+				builtProjects = new LinkedHashSet();
+			}
+			builtProjects.add(projectName);
 		}
-		builtProjects.add(projectName);
 	}
 
 	this.binaryLocationsPerProject = new SimpleLookupTable(3);
@@ -805,6 +935,7 @@ private void recordNewState(State state) {
 			state.recordStructuralDependency(prereqProject, getLastState(prereqProject));
 	}
 
+	state.buildFinished();
 	if (DEBUG)
 		System.out.println("JavaBuilder: Recording new state : " + state); //$NON-NLS-1$
 	// state.dump();
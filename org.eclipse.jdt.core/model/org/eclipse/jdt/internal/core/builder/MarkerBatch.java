@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * The marker changes of the source files compiled by an image builder, applied to the workspace in a single
+ * operation rather than one marker at a time, so that the workspace records the changes of many source files at once.
+ * <p>
+ * The changes are applied in the order they were added, so that the markers of a source file may be removed then
+ * created again. Until they are applied, the changes are not visible to the markers read from the workspace.
+ * </p>
+ */
+class MarkerBatch {
+
+	// a marker to create with its attributes, or the markers of a type to remove when the attributes are null
+	private static final class MarkerChange {
+		final IResource resource;
+		final String type;
+		final Map<String, Object> attributes;
+
+		MarkerChange(IResource resource, String type, Map<String, Object> attributes) {
+			this.resource = resource;
+			this.type = type;
+			this.attributes = attributes;
+		}
+	}
+
+	private ArrayList<MarkerChange> changes = new ArrayList<>();
+
+/**
+ * Create a marker of the given type with the given attributes on the given resource.
+ */
+void create(IResource resource, String type, Map<String, Object> attributes) {
+	this.changes.add(new MarkerChange(resource, type, attributes));
+}
+
+/**
+ * Remove the markers of the given type from the given resource and its members, ignoring failures as
+ * {@link JavaBuilder#removeProblemsFor(IResource)} does.
+ */
+void remove(IResource resource, String type) {
+	this.changes.add(new MarkerChange(resource, type, null));
+}
+
+/**
+ * Answer whether a marker of the given type is about to be created on the given resource with the given value of
+ * the given attribute.
+ */
+boolean isCreating(IResource resource, String type, String attributeName, Object value) {
+	for (int i = this.changes.size(); --i >= 0;) {
+		MarkerChange change = this.changes.get(i);
+		if (change.attributes != null && change.resource.equals(resource) && change.type.equals(type)
+				&& value.equals(change.attributes.get(attributeName)))
+			return true;
+	}
+	return false;
+}
+
+boolean isEmpty() {
+	return this.changes.isEmpty();
+}
+
+/**
+ * Discard the changes which were not applied.
+ */
+void clear() {
+	this.changes = new ArrayList<>();
+}
+
+/**
+ * Apply the changes to the workspace and clear them.
+ */
+void apply(IWorkspace workspace) throws CoreException {
+	if (this.changes.isEmpty()) return;
+
+	final ArrayList<MarkerChange> toApply = this.changes;
+	this.changes = new ArrayList<>();
+	IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+		@Override
+		public void run(IProgressMonitor monitor) throws CoreException {
+			for (int i = 0, l = toApply.size(); i < l; i++) {
+				MarkerChange change = toApply.get(i);
+				if (change.attributes != null) {
+					change.resource.createMarker(change.type, change.attributes);
+				} else if (change.resource.exists()) {
+					try {
+						change.resource.deleteMarkers(change.type, false, IResource.DEPTH_INFINITE);
+					} catch (CoreException e) {
+						// assume there were no markers
+					}
+				}
+			}
+		}
+	};
+	if (workspace.isTreeLocked())
+		runnable.run(null);
+	else
+		workspace.run(runnable, null/*markers need no rule*/, IWorkspace.AVOID_UPDATE, null);
+}
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+
+/**
+ * Workspace wide pool of the names held by the build states of the projects, so that a name referenced by many
+ * compilation units of many projects is held once. After interning, names with equal contents are identical.
+ * <p>
+ * The pool is concurrent, since projects may be built concurrently (see {@link JavaBuilder#isParallelBuild()}), and
+ * only references its names weakly: a name is dropped from the pool once no state holds it anymore, e.g. when its
+ * project is closed or deleted.
+ * </p>
+ */
+public abstract class NamePool<T> {
+
+/** Simple names, e.g. the simple name references of compilation units. */
+public static final NamePool<char[]> SIMPLE_NAMES = new NamePool<char[]>("simple names") { //$NON-NLS-1$
+	@Override
+	int hashCode(char[] name) {
+		return CharOperation.hashCode(name);
+	}
+	@Override
+	boolean equals(char[] name, char[] other) {
+		return CharOperation.equals(name, other);
+	}
+	@Override
+	int sizeOf(char[] name) {
+		return name.length;
+	}
+};
+
+/** Qualified names, whose segments are {@link #SIMPLE_NAMES} already. */
+public static final NamePool<char[][]> QUALIFIED_NAMES = new NamePool<char[][]>("qualified names") { //$NON-NLS-1$
+	@Override
+	int hashCode(char[][] qualifiedName) {
+		return Arrays.hashCode(qualifiedName); // segments are interned
+	}
+	@Override
+	boolean equals(char[][] qualifiedName, char[][] other) {
+		return Arrays.equals(qualifiedName, other);
+	}
+	@Override
+	int sizeOf(char[][] qualifiedName) {
+		return 0; // the characters are counted by the simple names
+	}
+};
+
+/** Type locators and qualified type and class file names of the states, e.g. "src/p1/A.java" or "p1/A$M". */
+public static final NamePool<String> STRINGS = new NamePool<String>("strings") { //$NON-NLS-1$
+	@Override
+	int hashCode(String string) {
+		return string.hashCode();
+	}
+	@Override
+	boolean equals(String string, String other) {
+		return string.equals(other);
+	}
+	@Override
+	int sizeOf(String string) {
+		return string.length();
+	}
+};
+
+private final String name;
+// keyed by the entries themselves, looked up with a Lookup so that no entry is created for the names already pooled
+private final ConcurrentHashMap<Object, Entry<T>> entries = new ConcurrentHashMap<>();
+private final ReferenceQueue<T> collected = new ReferenceQueue<>();
+private final LongAdder lookups = new LongAdder();
+private final LongAdder hits = new LongAdder();
+private final LongAdder characters = new LongAdder();
+
+// weakly references a pooled name, and keeps its hash code so that it can be removed once the name is collected
+private static final class Entry<T> extends WeakReference<T> {
+	final NamePool<T> pool;
+	final int hash;
+	final int size;
+
+	Entry(NamePool<T> pool, T name, int hash, ReferenceQueue<T> queue) {
+		super(name, queue);
+		this.pool = pool;
+		this.hash = hash;
+		this.size = pool.sizeOf(name);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Entry))
+			return false;
+		Entry<?> other = (Entry<?>) obj;
+		if (this.hash != other.hash || this.pool != other.pool)
+			return false;
+		T name = get();
+		Object otherName = other.get();
+		// collected entries are only equal to themselves, so that they are removed by identity
+		return name != null && otherName != null && this.pool.equals(name, this.pool.cast(otherName));
+	}
+}
+
+// strongly references a name being interned, only equal to the entry of an equal name which is not collected yet
+private static final class Lookup<T> {
+	final NamePool<T> pool;
+	final T name;
+	final int hash;
+
+	Lookup(NamePool<T> pool, T name, int hash) {
+		this.pool = pool;
+		this.name = name;
+		this.hash = hash;
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof Entry))
+			return false;
+		Entry<?> entry = (Entry<?>) obj;
+		if (this.hash != entry.hash || this.pool != entry.pool)
+			return false;
+		Object pooledName = entry.get();
+		return pooledName != null && this.pool.equals(this.name, this.pool.cast(pooledName));
+	}
+}
+
+NamePool(String name) {
+	this.name = name;
+}
+
+abstract int hashCode(T pooledName);
+
+abstract boolean equals(T pooledName, T other);
+
+// number of characters held by the given name, for the statistics of the pool
+abstract int sizeOf(T pooledName);
+
+@SuppressWarnings("unchecked")
+T cast(Object pooledName) {
+	return (T) pooledName;
+}
+
+/**
+ * Answer the name of the pool equal to the given one, after adding the given one to the pool if none is.
+ */
+public T intern(T pooledName) {
+	expungeCollected();
+	this.lookups.increment();
+	int hash = hashCode(pooledName);
+	// most names are pooled already, only create the weak reference of a new entry if the lookup misses
+	Entry<T> existing = this.entries.get(new Lookup<>(this, pooledName, hash));
+	if (existing != null) {
+		T interned = existing.get();
+		if (interned != null) {
+			this.hits.increment();
+			return interned;
+		}
+	}
+	Entry<T> entry = new Entry<>(this, pooledName, hash, this.collected);
+	while (true) {
+		existing = this.entries.putIfAbsent(entry, entry);
+		if (existing == null) {
+			this.characters.add(entry.size);
+			return pooledName;
+		}
+		T interned = existing.get();
+		if (interned != null) {
+			this.hits.increment();
+			return interned;
+		}
+		// collected but not expunged yet
+		if (this.entries.remove(existing, existing))
+			this.characters.add(-existing.size);
+	}
+}
+
+private void expungeCollected() {
+	Object collectedEntry;
+	while ((collectedEntry = this.collected.poll()) != null) {
+		Entry<?> entry = (Entry<?>) collectedEntry;
+		if (this.entries.remove(entry, entry))
+			this.characters.add(-entry.size);
+	}
+}
+
+/**
+ * Answer the number of names in the pool.
+ */
+public int size() {
+	expungeCollected();
+	return this.entries.size();
+}
+
+/**
+ * Answer the number of characters of the names in the pool, i.e. the characters held once thanks to the pool.
+ */
+public long getCharacterCount() {
+	expungeCollected();
+	return this.characters.sum();
+}
+
+/**
+ * Answer the number of names interned since the pool was created.
+ */
+public long getLookupCount() {
+	return this.lookups.sum();
+}
+
+/**
+ * Answer the number of names interned since the pool was created which were in the pool already, i.e. the duplicates
+ * which the pool avoided.
+ */
+public long getHitCount() {
+	return this.hits.sum();
+}
+
+/**
+ * Answer the statistics of the pools, e.g. to size the heap of a workspace.
+ */
+public static String getStatistics() {
+	return SIMPLE_NAMES + "\n" + QUALIFIED_NAMES + "\n" + STRINGS; //$NON-NLS-1$ //$NON-NLS-2$
+}
+
+@Override
+public String toString() {
+	return "Pool of " + this.name + ": " + size() + " names of " + getCharacterCount() + " characters, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			+ getHitCount() + " hits out of " + getLookupCount() + " lookups"; //$NON-NLS-1$ //$NON-NLS-2$
+}
+}
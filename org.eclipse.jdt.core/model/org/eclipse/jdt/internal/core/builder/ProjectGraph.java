@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.internal.core.JavaProject;
+
+/**
+ * Dependency graph of the Java projects of a workspace, along the project entries of their resolved classpaths.
+ * <p>
+ * The graph is the one the workspace builds projects in, since {@link org.eclipse.jdt.internal.core.DynamicProjectReferences}
+ * answers the same prerequisites as the references of a project. It is acyclic unless the classpaths form cycles,
+ * which {@link JavaCore#CORE_CIRCULAR_CLASSPATH} may allow.
+ * </p>
+ * <p>
+ * The prerequisites of a project are computed once, the Java builder drops the graph when they may change
+ * (see {@link JavaBuilder#resetProjectGraph()}). The graph may be used by concurrent builds.
+ * </p>
+ */
+class ProjectGraph {
+
+	private final IWorkspaceRoot workspaceRoot;
+	private final Map<IProject, List<IProject>> prerequisites = new ConcurrentHashMap<>();
+
+ProjectGraph(IWorkspaceRoot workspaceRoot) {
+	this.workspaceRoot = workspaceRoot;
+}
+
+/**
+ * Answer the projects required by the classpath of the given project, which may not exist.
+ */
+List<IProject> getPrerequisites(IProject project) {
+	List<IProject> result = this.prerequisites.get(project);
+	if (result == null) {
+		result = new ArrayList<>();
+		if (JavaProject.hasJavaNature(project)) {
+			JavaProject javaProject = (JavaProject) JavaCore.create(project);
+			try {
+				for (String projectName : javaProject.projectPrerequisites(javaProject.getResolvedClasspath()))
+					result.add(this.workspaceRoot.getProject(projectName));
+			} catch (JavaModelException e) {
+				// a project whose classpath cannot be resolved has no prerequisites
+			}
+		}
+		List<IProject> previous = this.prerequisites.putIfAbsent(project, result);
+		if (previous != null)
+			result = previous;
+	}
+	return result;
+}
+
+/**
+ * Answer the projects of the classpath cycle of the given project, i.e. the project itself and the projects it requires
+ * directly or indirectly which require it too. The answer only holds the given project if it is not part of a cycle.
+ */
+Set<IProject> getCycle(IProject project) {
+	// walk the prerequisites, remembering the reversed edges between the reachable projects
+	Map<IProject, List<IProject>> dependents = new HashMap<>();
+	Set<IProject> reachable = new LinkedHashSet<>();
+	Deque<IProject> toVisit = new ArrayDeque<>();
+	reachable.add(project);
+	toVisit.add(project);
+	while (!toVisit.isEmpty()) {
+		IProject current = toVisit.poll();
+		for (IProject prerequisite : getPrerequisites(current)) {
+			dependents.computeIfAbsent(prerequisite, p -> new ArrayList<>()).add(current);
+			if (reachable.add(prerequisite))
+				toVisit.add(prerequisite);
+		}
+	}
+
+	// the projects of the cycle are the reachable ones which also reach the given project
+	Set<IProject> cycle = new LinkedHashSet<>();
+	cycle.add(project);
+	toVisit.add(project);
+	while (!toVisit.isEmpty()) {
+		List<IProject> currentDependents = dependents.get(toVisit.poll());
+		if (currentDependents != null)
+			for (IProject dependent : currentDependents)
+				if (cycle.add(dependent))
+					toVisit.add(dependent);
+	}
+	return cycle;
+}
+}
@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.compiler.lookup.CompilationUnitScope;
 import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
+import org.eclipse.jdt.internal.compiler.util.NameFilter;
 import org.eclipse.jdt.internal.compiler.util.SortedCharArrays;
 
 public class ReferenceCollection {
@@ -33,11 +34,23 @@ public class ReferenceCollection {
 char[][][] qualifiedNameReferences;
 char[][] simpleNameReferences;
 char[][] rootReferences;
+// member level references, null if unknown: the simple names of the supertypes of the types declared by the unit
+// and the filter of the identifiers of the unit, see CompilationResult
+char[][] superTypeNames;
+long[] nameFilter;
 
 protected ReferenceCollection(char[][][] qualifiedNameReferences, char[][] simpleNameReferences, char[][] rootReferences) {
+	this(qualifiedNameReferences, simpleNameReferences, rootReferences, null, null);
+}
+
+protected ReferenceCollection(char[][][] qualifiedNameReferences, char[][] simpleNameReferences, char[][] rootReferences, char[][] superTypeNames, long[] nameFilter) {
 	this.qualifiedNameReferences = internQualifiedNames(qualifiedNameReferences, false);
 	this.simpleNameReferences = internSimpleNames(simpleNameReferences, true);
 	this.rootReferences = internSimpleNames(rootReferences, false);
+	if (superTypeNames != null && nameFilter != null) {
+		this.superTypeNames = internSimpleNames(superTypeNames, false);
+		this.nameFilter = nameFilter;
+	}
 }
 
 /**
@@ -54,10 +67,8 @@ public void addDependencies(String[] typeNameDependencies) {
 	next: for(String typeNameDependency: typeNameDependencies) {
 		char[][] qualifiedTypeName = CharOperation.splitOn('.', typeNameDependency.toCharArray());
 		if (!isWellKnownQualifiedName(qualifiedTypeName)) {
-			int qLength = qualifiedTypeName.length;
-			QualifiedNameSet internedNames = InternedQualifiedNames[qLength <= MaxQualifiedNames ? qLength - 1 : 0];
 			qualifiedTypeName = internSimpleNames(qualifiedTypeName, false, false);
-			qualifiedTypeName = internedNames.add(qualifiedTypeName);
+			qualifiedTypeName = NamePool.QUALIFIED_NAMES.intern(qualifiedTypeName);
 			int idx;
 			while ((idx = Arrays.binarySearch(this.qualifiedNameReferences, qualifiedTypeName, SortedCharArrays.CHAR_CHAR_ARR_COMPARATOR)) < 0) {
 				this.simpleNameReferences = ensureContainedInSortedOrder(this.simpleNameReferences, qualifiedTypeName[qualifiedTypeName.length - 1]);
@@ -77,6 +88,25 @@ public void addDependencies(String[] typeNameDependencies) {
 	}
 }
 
+/**
+ * Answer whether the unit may be affected by a structural change limited to the given members of the type with the
+ * given simple name, i.e. whether it declares a subtype of the type, which inherits the members, or may name one of
+ * the members. The answer is true if the member level references of the unit are unknown.
+ *
+ * @see org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader#getStructurallyChangedMembers(byte[])
+ */
+public boolean includesMembers(char[] typeName, char[][] memberNames) {
+	if (this.nameFilter == null)
+		return true;
+	for (char[] superTypeName : this.superTypeNames)
+		if (CharOperation.equals(superTypeName, typeName))
+			return true;
+	for (char[] memberName : memberNames)
+		if (NameFilter.mayContain(this.nameFilter, memberName))
+			return true;
+	return false;
+}
+
 public boolean includes(char[] simpleName) {
 	boolean result = sortedArrayContains(this.simpleNameReferences, simpleName, SortedCharArrays.CHAR_ARR_COMPARATOR);
 	if (REFERENCE_COLLECTION_DEBUG) {
@@ -274,18 +304,7 @@ static final char[][] WellKnownSimpleNames = new char[][] {
 static final char[][][] EmptyQualifiedNames = new char[0][][];
 static final char[][] EmptySimpleNames = CharOperation.NO_CHAR_CHAR;
 
-// each array contains qualified char[][], one for size 2, 3, 4, 5, 6, 7 & the rest
-static final int MaxQualifiedNames = 7;
-static QualifiedNameSet[] InternedQualifiedNames = new QualifiedNameSet[MaxQualifiedNames];
-// each array contains simple char[], one for size 1 to 29 & the rest
-static final int MaxSimpleNames = 30;
-static NameSet[] InternedSimpleNames = new NameSet[MaxSimpleNames];
-static {
-	for (int i = 0; i < MaxQualifiedNames; i++)
-		InternedQualifiedNames[i] = new QualifiedNameSet(37);
-	for (int i = 0; i < MaxSimpleNames; i++)
-		InternedSimpleNames[i] = new NameSet(37);
-}
+// the names are interned in the pools shared by the states of all projects, see NamePool
 
 //TODO: remove once ReferenceCollection.internQualifiedNames(StringSet) is adapted to use java.util.Set, so that git history is preserved
 public static char[][][] internQualifiedNames(Set<String> qualifiedStrings) {
@@ -368,10 +387,6 @@ static char[][][] internQualifiedNames(char[][][] qualifiedNames, boolean keepWe
 			}
 		}
 
-		// InternedQualifiedNames[0] is for the rest (> 7 & 1)
-		// InternedQualifiedNames[1] is for size 2...
-		// InternedQualifiedNames[6] is for size 7
-		QualifiedNameSet internedNames = InternedQualifiedNames[qLength <= MaxQualifiedNames ? qLength - 1 : 0];
 		qualifiedName = internSimpleNames(qualifiedName, false, false);
 		// This code is duplicated to encourage the JIT to inline more stuff
 		if (doSort && isSorted) {
@@ -380,7 +395,7 @@ static char[][][] internQualifiedNames(char[][][] qualifiedNames, boolean keepWe
 			}
 			prev = qualifiedName;
 		}
-		keepers[index++] = internedNames.add(qualifiedName);
+		keepers[index++] = qLength == 0 ? CharOperation.NO_CHAR_CHAR : NamePool.QUALIFIED_NAMES.intern(qualifiedName);
 	}
 	if (length > index) {
 		if (index == 0) return EmptyQualifiedNames;
@@ -470,11 +485,7 @@ static char[][] internSimpleNames(char[][] simpleNames, boolean removeWellKnown,
 			}
 		}
 
-		// InternedSimpleNames[0] is for the rest (> 29)
-		// InternedSimpleNames[1] is for size 1...
-		// InternedSimpleNames[29] is for size 29
-		NameSet internedNames = InternedSimpleNames[sLength < MaxSimpleNames ? sLength : 0];
-		keepers[index++] = internedNames.add(name);
+		keepers[index++] = NamePool.SIMPLE_NAMES.intern(name);
 		// This code is duplicated to encourage the JIT to inline more stuff
 		if (doSort && isSorted) {
 			if (prev != null && SortedCharArrays.compareCharArray(prev, name) > 0) {
@@ -631,7 +642,9 @@ public boolean equals(Object obj) {
 	ReferenceCollection other = (ReferenceCollection) obj;
 	return Arrays.deepEquals(this.qualifiedNameReferences, other.qualifiedNameReferences)
 			&& Arrays.deepEquals(this.rootReferences, other.rootReferences)
-			&& Arrays.deepEquals(this.simpleNameReferences, other.simpleNameReferences);
+			&& Arrays.deepEquals(this.simpleNameReferences, other.simpleNameReferences)
+			&& Arrays.deepEquals(this.superTypeNames, other.superTypeNames)
+			&& Arrays.equals(this.nameFilter, other.nameFilter);
 }
 
 }
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Inverted index of the references of a {@link State}: maps the simple, qualified and root names referenced
+ * by the compilation units of a project to the type locators of these units, so that the units affected by a
+ * change are looked up instead of testing the {@link ReferenceCollection} of every unit.
+ * <p>
+ * The names of reference collections are interned, so the index is keyed by identity like the collections
+ * compare them. The index answers candidates, which still have to be confirmed by
+ * {@link ReferenceCollection#includes(char[][][], char[][], char[][])}.
+ * </p>
+ */
+class ReferenceIndex {
+
+	private final Map<char[], Set<String>> simpleNames;
+	private final Map<char[][], Set<String>> qualifiedNames;
+	private final Map<char[], Set<String>> rootNames;
+	// position of each type locator in the references of the state, so that dependents are answered in the same order
+	private final Map<String, Integer> positions;
+	private int nextPosition;
+
+ReferenceIndex(Map<String, ReferenceCollection> references) {
+	int size = references.size();
+	this.simpleNames = new HashMap<>(size);
+	this.qualifiedNames = new HashMap<>(size);
+	this.rootNames = new HashMap<>();
+	this.positions = new HashMap<>((int) (size / 0.75 + 1));
+	for (Entry<String, ReferenceCollection> entry : references.entrySet())
+		add(entry.getKey(), entry.getValue());
+}
+
+/**
+ * Index the names of the given collection. Names already indexed for the type locator are kept.
+ */
+void add(String typeLocator, ReferenceCollection refs) {
+	if (!this.positions.containsKey(typeLocator))
+		this.positions.put(typeLocator, Integer.valueOf(this.nextPosition++));
+	for (char[] name : refs.simpleNameReferences)
+		addTo(this.simpleNames, name, typeLocator);
+	for (char[][] name : refs.qualifiedNameReferences)
+		addTo(this.qualifiedNames, name, typeLocator);
+	for (char[] name : refs.rootReferences)
+		addTo(this.rootNames, name, typeLocator);
+}
+
+/**
+ * Remove the names of the given collection. The position of the type locator is kept if the collection is replaced,
+ * as the references of the state keep the position of a replaced entry.
+ */
+void remove(String typeLocator, ReferenceCollection refs, boolean isReplaced) {
+	if (!isReplaced)
+		this.positions.remove(typeLocator);
+	for (char[] name : refs.simpleNameReferences)
+		removeFrom(this.simpleNames, name, typeLocator);
+	for (char[][] name : refs.qualifiedNameReferences)
+		removeFrom(this.qualifiedNames, name, typeLocator);
+	for (char[] name : refs.rootReferences)
+		removeFrom(this.rootNames, name, typeLocator);
+}
+
+/**
+ * Answer the type locators whose references may include the given names, sorted by their position in the
+ * references of the state, or null if all of them may. The names have the same meaning as for
+ * {@link ReferenceCollection#includes(char[][][], char[][], char[][])}.
+ */
+List<String> getCandidates(char[][][] qualified, char[][] simple, char[][] roots) {
+	// every condition which must hold for a unit to be included gives a superset of the answer, use the smallest one
+	List<Set<String>> best = null;
+	int bestSize = Integer.MAX_VALUE;
+	if (roots != null) {
+		List<Set<String>> sets = lookup(this.rootNames, roots, null);
+		int size = sizeOf(sets);
+		if (size < bestSize) {
+			best = sets;
+			bestSize = size;
+		}
+	}
+	if (simple != null) {
+		List<Set<String>> sets = lookup(this.simpleNames, simple, null);
+		int size = sizeOf(sets);
+		if (size < bestSize) {
+			best = sets;
+			bestSize = size;
+		}
+	}
+	if (qualified != null) {
+		List<Set<String>> sets = lookup(this.qualifiedNames, qualified, null);
+		for (char[][] name : qualified)
+			if (name.length == 1) // also matched by simple name references
+				lookup(this.simpleNames, new char[][] {name[0]}, sets);
+		int size = sizeOf(sets);
+		if (size < bestSize) {
+			best = sets;
+			bestSize = size;
+		}
+	}
+	if (best == null)
+		return null;
+
+	Set<String> candidates = new HashSet<>(bestSize);
+	for (Set<String> set : best)
+		candidates.addAll(set);
+	List<String> sorted = new ArrayList<>(candidates);
+	sorted.sort((a, b) -> Integer.compare(this.positions.get(a).intValue(), this.positions.get(b).intValue()));
+	return sorted;
+}
+
+private static <K> List<Set<String>> lookup(Map<K, Set<String>> index, K[] names, List<Set<String>> sets) {
+	if (sets == null)
+		sets = new ArrayList<>(names.length);
+	for (K name : names) {
+		Set<String> typeLocators = index.get(name);
+		if (typeLocators != null)
+			sets.add(typeLocators);
+	}
+	return sets;
+}
+
+private static int sizeOf(List<Set<String>> sets) {
+	int size = 0;
+	for (Set<String> set : sets)
+		size += set.size();
+	return size;
+}
+
+private static <K> void addTo(Map<K, Set<String>> index, K name, String typeLocator) {
+	Set<String> typeLocators = index.get(name);
+	if (typeLocators == null)
+		index.put(name, typeLocators = new HashSet<>(4));
+	typeLocators.add(typeLocator);
+}
+
+private static <K> void removeFrom(Map<K, Set<String>> index, K name, String typeLocator) {
+	Set<String> typeLocators = index.get(name);
+	if (typeLocators != null && typeLocators.remove(typeLocator) && typeLocators.isEmpty())
+		index.remove(name);
+}
+}
@@ -18,12 +18,16 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.builder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -31,6 +35,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -68,6 +74,24 @@ public ClasspathLocation[] testBinaryLocations;
 Map<String, ReferenceCollection> references;
 // keyed by qualified type name "p1/p2/A", value is the project relative path which defines this type "src1/p1/p2/A.java"
 public Map<String, String> typeLocators;
+// inverted index of the references, built when dependents are first looked up
+private ReferenceIndex referenceIndex;
+// keyed by the qualified class file name "p1/p2/A$B", value is its structural fingerprint and the structural build time
+// of the build which last changed its structure, so that dependent projects only look at types changed since they were built.
+// Also holds the hash of the class file content as written, so that builds do not rewrite class files which did not change.
+// Sorted so that the member types "p1/p2/A$..." of a type follow it, see removeStructuralFingerprints(String)
+SortedMap<String, ApiFingerprint> apiFingerprints;
+// fingerprints of the last state, compared to the class files written by a full build
+private Map<String, ApiFingerprint> lastApiFingerprints;
+// sections of a read state which are only decoded when first used, see read(IProject, DataInputStream).
+// The map of a section is assigned before the section is cleared, so a cleared section tells the map is set.
+private volatile byte[] referencesSection;
+private volatile byte[] apiFingerprintsSection;
+// type locators the references section refers to by their position
+private String[] sectionTypeLocators;
+// changes since the state was last saved, see writeChanges(DataOutputStream). Null if they are unknown, the state must then
+// be saved as a whole
+private Changes changes;
 
 int buildNumber;
 long lastStructuralBuildTime;
@@ -75,11 +99,10 @@ SimpleLookupTable structuralBuildTimes;
 
 private String[] knownPackageNames; // of the form "p1/p2"
 
-private long previousStructuralBuildTime;
-private StringSet structurallyChangedTypes;
-public static int MaxStructurallyChangedTypes = 100; // keep track of ? structurally changed types, otherwise consider all to be changed
+public static final byte VERSION = 0x002A;
 
-public static final byte VERSION = 0x0026;
+static final byte REFERENCES_SECTION = 1;
+static final byte API_FINGERPRINTS_SECTION = 2;
 
 static final byte SOURCE_FOLDER = 1;
 static final byte BINARY_FOLDER = 2;
@@ -91,14 +114,68 @@ private static final int[] PROBLEM_IDS = new int[] { 0, IProblem.ForbiddenRefere
 		IProblem.ForbiddenReference | AccessRule.IgnoreIfBetter,
 		IProblem.DiscouragedReference | AccessRule.IgnoreIfBetter };
 
+/**
+ * Keys of the entries of a state which changed since the state was last saved. The header of the state, i.e. its build
+ * numbers, locations and structural build times, is small and saved with every change.
+ */
+static final class Changes {
+	boolean header;
+	final Set<String> typeLocators; // of the changed or removed references
+	final Set<String> typeNames; // of the changed or removed type locators
+	final Set<String> classFileNames; // of the changed or removed API fingerprints
+
+	Changes() {
+		this.typeLocators = new HashSet<>();
+		this.typeNames = new HashSet<>();
+		this.classFileNames = new HashSet<>();
+	}
+
+	Changes(Changes changes) {
+		this.header = changes.header;
+		this.typeLocators = new HashSet<>(changes.typeLocators);
+		this.typeNames = new HashSet<>(changes.typeNames);
+		this.classFileNames = new HashSet<>(changes.classFileNames);
+	}
+
+	boolean isEmpty() {
+		return !this.header && this.typeLocators.isEmpty() && this.typeNames.isEmpty() && this.classFileNames.isEmpty();
+	}
+}
+
+static final class ApiFingerprint {
+	final long fingerprint;
+	final long structuralBuildTime;
+	final long contentHash;
+	final long modificationStamp; // of the class file once written, IResource.NULL_STAMP if unknown
+
+	ApiFingerprint(long fingerprint, long structuralBuildTime, long contentHash, long modificationStamp) {
+		this.fingerprint = fingerprint;
+		this.structuralBuildTime = structuralBuildTime;
+		this.contentHash = contentHash;
+		this.modificationStamp = modificationStamp;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.fingerprint);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof ApiFingerprint))
+			return false;
+		ApiFingerprint other = (ApiFingerprint) obj;
+		return this.fingerprint == other.fingerprint && this.structuralBuildTime == other.structuralBuildTime
+				&& this.contentHash == other.contentHash && this.modificationStamp == other.modificationStamp;
+	}
+}
+
 State() {
 	// constructor with no argument
 }
 
 protected State(JavaBuilder javaBuilder) {
 	this.knownPackageNames = null;
-	this.previousStructuralBuildTime = -1;
-	this.structurallyChangedTypes = null;
 	this.javaProjectName = javaBuilder.currentProject.getName();
 	this.sourceLocations = javaBuilder.nameEnvironment.sourceLocations;
 	this.binaryLocations = javaBuilder.nameEnvironment.binaryLocations;
@@ -106,6 +183,8 @@ protected State(JavaBuilder javaBuilder) {
 	this.testBinaryLocations = javaBuilder.testNameEnvironment.binaryLocations;
 	this.references = new LinkedHashMap<>(7);
 	this.typeLocators = new LinkedHashMap<>(7);
+	this.apiFingerprints = new TreeMap<>();
+	this.lastApiFingerprints = javaBuilder.lastState == null ? null : javaBuilder.lastState.apiFingerprints();
 
 	this.buildNumber = 0; // indicates a full build
 	this.lastStructuralBuildTime = computeStructuralBuildTime(javaBuilder.lastState == null ? 0 : javaBuilder.lastState.lastStructuralBuildTime);
@@ -121,14 +200,32 @@ long computeStructuralBuildTime(long previousTime) {
 
 void copyFrom(State lastState) {
 	this.knownPackageNames = null;
-	this.previousStructuralBuildTime = lastState.previousStructuralBuildTime;
-	this.structurallyChangedTypes = lastState.structurallyChangedTypes;
 	this.buildNumber = lastState.buildNumber + 1;
 	this.lastStructuralBuildTime = lastState.lastStructuralBuildTime;
 	this.structuralBuildTimes = lastState.structuralBuildTimes;
 
-	this.references = new LinkedHashMap<>(lastState.references);
+	this.references = new LinkedHashMap<>(lastState.references());
 	this.typeLocators = new LinkedHashMap<>(lastState.typeLocators);
+	this.apiFingerprints = new TreeMap<>(lastState.apiFingerprints());
+	// the changes of the last state may not be saved yet, they are saved with the changes of this state
+	synchronized (lastState) {
+		this.changes = lastState.changes == null ? null : new Changes(lastState.changes);
+	}
+	if (this.changes != null)
+		this.changes.header = true;
+	// take over the index rather than copying it, the last state builds a new one if it is used again
+	this.referenceIndex = lastState.referenceIndex;
+	lastState.referenceIndex = null;
+}
+
+void addDependencies(String typeLocator, String[] dependencies) {
+	ReferenceCollection refs = references().get(typeLocator);
+	if (refs != null) {
+		refs.addDependencies(dependencies);
+		referencesChanged(typeLocator);
+		if (this.referenceIndex != null)
+			this.referenceIndex.add(typeLocator, refs); // dependencies only add names
+	}
 }
 
 /**
@@ -151,11 +248,10 @@ public boolean equals(Object obj) {
 			&& Arrays.equals(this.testSourceLocations, other.testSourceLocations)
 			&& Arrays.equals(this.testBinaryLocations, other.testBinaryLocations)
 			&& Objects.equals(this.typeLocators, other.typeLocators)
-			&& Objects.equals(this.references, other.references);
+			&& Objects.equals(references(), other.references())
+			&& Objects.equals(apiFingerprints(), other.apiFingerprints());
 // Below fields aren't persisted
-//			&& this.previousStructuralBuildTime == other.previousStructuralBuildTime
 //			&& Arrays.equals(this.knownPackageNames, other.knownPackageNames)
-//			&& Objects.equals(this.structurallyChangedTypes, other.structurallyChangedTypes)
 //			&& Objects.equals(this.structuralBuildTimes, other.structuralBuildTimes)
 }
 
@@ -165,24 +261,90 @@ public int hashCode() {
 }
 
 public char[][] getDefinedTypeNamesFor(String typeLocator) {
-	Object c = this.references.get(typeLocator);
+	Object c = references().get(typeLocator);
 	if (c instanceof AdditionalTypeCollection)
 		return ((AdditionalTypeCollection) c).definedTypeNames;
 	return null; // means only one type is defined with the same name as the file... saves space
 }
 
+/**
+ * Answer the type locators whose references include the given names, in the order of the references.
+ * The names have the same meaning as for {@link ReferenceCollection#includes(char[][][], char[][], char[][])}.
+ */
+List<String> getDependents(char[][][] qualifiedNames, char[][] simpleNames, char[][] rootNames) {
+	Map<String, ReferenceCollection> refs = references();
+	if (this.referenceIndex == null)
+		this.referenceIndex = new ReferenceIndex(refs);
+	List<String> candidates = this.referenceIndex.getCandidates(qualifiedNames, simpleNames, rootNames);
+	if (candidates == null)
+		candidates = new ArrayList<>(refs.keySet());
+	List<String> dependents = new ArrayList<>();
+	for (String typeLocator : candidates)
+		if (refs.get(typeLocator).includes(qualifiedNames, simpleNames, rootNames))
+			dependents.add(typeLocator);
+	return dependents;
+}
+
 public Map<String, ReferenceCollection> getReferences() {
+	return references();
+}
+
+// the references, decoded from the state file when first asked for
+private Map<String, ReferenceCollection> references() {
+	if (this.referencesSection != null)
+		readReferencesSection();
 	return this.references;
 }
 
-StringSet getStructurallyChangedTypes(State prereqState) {
-	if (prereqState != null && prereqState.previousStructuralBuildTime > 0) {
-		Object o = this.structuralBuildTimes.get(prereqState.javaProjectName);
-		long previous = o == null ? 0 : ((Long) o).longValue();
-		if (previous == prereqState.previousStructuralBuildTime)
-			return prereqState.structurallyChangedTypes;
+private synchronized void readReferencesSection() {
+	byte[] section = this.referencesSection;
+	if (section == null)
+		return; // decoded by another thread meanwhile
+	try {
+		this.references = readReferences(sectionReader(section), this.sectionTypeLocators);
+	} catch (IOException e) {
+		throw new IllegalStateException("Corrupted references section in the state of " + this.javaProjectName, e); //$NON-NLS-1$
 	}
-	return null;
+	this.sectionTypeLocators = null;
+	this.referencesSection = null;
+}
+
+// the API fingerprints, decoded from the state file when first asked for. Also asked for by the builds of dependent projects
+private SortedMap<String, ApiFingerprint> apiFingerprints() {
+	if (this.apiFingerprintsSection != null)
+		readApiFingerprintsSection();
+	return this.apiFingerprints;
+}
+
+private synchronized void readApiFingerprintsSection() {
+	byte[] section = this.apiFingerprintsSection;
+	if (section == null)
+		return; // decoded by another thread meanwhile
+	try {
+		this.apiFingerprints = readApiFingerprints(sectionReader(section));
+	} catch (IOException e) {
+		throw new IllegalStateException("Corrupted API fingerprints section in the state of " + this.javaProjectName, e); //$NON-NLS-1$
+	}
+	this.apiFingerprintsSection = null;
+}
+
+private static CompressedReader sectionReader(byte[] section) {
+	return new CompressedReader(new DataInputStream(new ByteArrayInputStream(section)));
+}
+
+/**
+ * Answer whether the structure of the given class file of the prerequisite project changed since this state
+ * was built against the prerequisite project. The answer is true if unknown.
+ */
+boolean isStructurallyChanged(State prereqState, String qualifiedFileName) {
+	if (prereqState == null)
+		return true;
+	ApiFingerprint apiFingerprint = prereqState.apiFingerprints().get(qualifiedFileName);
+	if (apiFingerprint == null)
+		return true;
+	Object o = this.structuralBuildTimes.get(prereqState.javaProjectName);
+	long previous = o == null ? 0 : ((Long) o).longValue();
+	return apiFingerprint.structuralBuildTime > previous;
 }
 
 public boolean isDuplicateLocator(String qualifiedTypeName, String typeLocator) {
@@ -226,23 +388,98 @@ boolean isSourceFolderEmpty(IContainer sourceFolder) {
 	return true;
 }
 
-void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[] mainTypeName, ArrayList typeNames) {
+void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[][] superTypeNames, long[] nameFilter, char[] mainTypeName, ArrayList typeNames) {
+	ReferenceCollection refs;
 	if (typeNames.size() == 1 && CharOperation.equals(mainTypeName, (char[]) typeNames.get(0))) {
-		this.references.put(typeLocator, new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs));
+		refs = new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs, superTypeNames, nameFilter);
 	} else {
 		char[][] definedTypeNames = new char[typeNames.size()][]; // can be empty when no types are defined
 		typeNames.toArray(definedTypeNames);
-		this.references.put(typeLocator, new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs));
+		refs = new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs, superTypeNames, nameFilter);
+	}
+	typeLocator = NamePool.STRINGS.intern(typeLocator);
+	ReferenceCollection previous = references().put(typeLocator, refs);
+	referencesChanged(typeLocator);
+	if (this.referenceIndex != null) {
+		if (previous != null)
+			this.referenceIndex.remove(typeLocator, previous, true);
+		this.referenceIndex.add(typeLocator, refs);
 	}
 }
 
+/**
+ * Record the structural fingerprint and the content of a class file written by the current build. The class file is
+ * considered structurally changed by this build if its fingerprint differs from the one recorded by a previous build.
+ */
+void recordStructuralFingerprint(String qualifiedFileName, long fingerprint, long contentHash, long modificationStamp) {
+	qualifiedFileName = NamePool.STRINGS.intern(qualifiedFileName);
+	ApiFingerprint previous = getApiFingerprint(qualifiedFileName);
+	if (previous != null && previous.fingerprint == fingerprint) {
+		if (previous.contentHash != contentHash || previous.modificationStamp != modificationStamp)
+			previous = new ApiFingerprint(fingerprint, previous.structuralBuildTime, contentHash, modificationStamp);
+		if (apiFingerprints().put(qualifiedFileName, previous) != previous)
+			fingerprintChanged(qualifiedFileName);
+		return;
+	}
+	apiFingerprints().put(qualifiedFileName, new ApiFingerprint(fingerprint, this.lastStructuralBuildTime, contentHash, modificationStamp));
+	fingerprintChanged(qualifiedFileName);
+}
+
+// the fingerprint recorded by this build, or by a previous one
+private ApiFingerprint getApiFingerprint(String qualifiedFileName) {
+	ApiFingerprint apiFingerprint = apiFingerprints().get(qualifiedFileName);
+	if (apiFingerprint == null && this.lastApiFingerprints != null)
+		apiFingerprint = this.lastApiFingerprints.get(qualifiedFileName); // full build
+	return apiFingerprint;
+}
+
+/**
+ * Answer whether the class file of the given name was last written by a build of this project with the given content,
+ * and was not modified since, i.e. still has the modification stamp it had once written.
+ */
+boolean isUnchangedClassFile(String qualifiedFileName, long contentHash, long modificationStamp) {
+	ApiFingerprint apiFingerprint = getApiFingerprint(qualifiedFileName);
+	return apiFingerprint != null && apiFingerprint.contentHash == contentHash
+			&& apiFingerprint.modificationStamp == modificationStamp && modificationStamp != IResource.NULL_STAMP;
+}
+
+/**
+ * Answer whether the fingerprints of the last build of this project are known, i.e. whether this is the state of a full
+ * build which replaces a known state.
+ */
+boolean hasLastApiFingerprints() {
+	return this.lastApiFingerprints != null;
+}
+
+/**
+ * Answer whether the class file of the given name was written by the last build of this project and was not modified
+ * since, so that a full build may keep it until it is compiled again rather than deleting it.
+ */
+boolean wasWrittenByLastBuild(String qualifiedFileName, long modificationStamp) {
+	if (this.lastApiFingerprints == null || modificationStamp == IResource.NULL_STAMP)
+		return false;
+	ApiFingerprint apiFingerprint = this.lastApiFingerprints.get(qualifiedFileName);
+	return apiFingerprint != null && apiFingerprint.modificationStamp == modificationStamp;
+}
+
+void removeStructuralFingerprint(String qualifiedFileName) {
+	if (apiFingerprints().remove(qualifiedFileName) != null)
+		fingerprintChanged(qualifiedFileName);
+}
+
+/**
+ * Release what is only needed while building, once the receiver became the last built state.
+ */
+void buildFinished() {
+	this.lastApiFingerprints = null;
+}
+
 void recordLocatorForType(String qualifiedTypeName, String typeLocator) {
 	this.knownPackageNames = null;
-	// in the common case, the qualifiedTypeName is a substring of the typeLocator so share the char[] by using String.substring()
-	int start = typeLocator.indexOf(qualifiedTypeName, 0);
-	if (start > 0)
-		qualifiedTypeName = typeLocator.substring(start, start + qualifiedTypeName.length());
-	this.typeLocators.put(qualifiedTypeName, typeLocator);
+	// share the names with the references and the states of other projects
+	qualifiedTypeName = NamePool.STRINGS.intern(qualifiedTypeName);
+	this.typeLocators.put(qualifiedTypeName, NamePool.STRINGS.intern(typeLocator));
+	typeNameChanged(qualifiedTypeName);
 }
 
 void recordStructuralDependency(IProject prereqProject, State prereqState) {
@@ -253,8 +490,20 @@ void recordStructuralDependency(IProject prereqProject, State prereqState) {
 
 void removeLocator(String typeLocatorToRemove) {
 	this.knownPackageNames = null;
-	this.references.remove(typeLocatorToRemove);
-	this.typeLocators.values().removeIf(v -> typeLocatorToRemove.equals(v));
+	ReferenceCollection previous = references().remove(typeLocatorToRemove);
+	if (previous != null) {
+		referencesChanged(typeLocatorToRemove);
+		if (this.referenceIndex != null)
+			this.referenceIndex.remove(typeLocatorToRemove, previous, false);
+	}
+	for (Iterator<Entry<String, String>> iterator = this.typeLocators.entrySet().iterator(); iterator.hasNext();) {
+		Entry<String, String> entry = iterator.next();
+		if (typeLocatorToRemove.equals(entry.getValue())) {
+			iterator.remove();
+			typeNameChanged(entry.getKey());
+			removeStructuralFingerprints(entry.getKey());
+		}
+	}
 }
 
 void removePackage(IResourceDelta sourceDelta) {
@@ -274,7 +523,38 @@ void removePackage(IResourceDelta sourceDelta) {
 
 void removeQualifiedTypeName(String qualifiedTypeNameToRemove) {
 	this.knownPackageNames = null;
-	this.typeLocators.remove(qualifiedTypeNameToRemove);
+	if (this.typeLocators.remove(qualifiedTypeNameToRemove) != null)
+		typeNameChanged(qualifiedTypeNameToRemove);
+	removeStructuralFingerprints(qualifiedTypeNameToRemove);
+}
+
+// remove the fingerprints of the given type and of its member types
+private void removeStructuralFingerprints(String qualifiedTypeName) {
+	SortedMap<String, ApiFingerprint> fingerprints = apiFingerprints();
+	if (fingerprints.isEmpty())
+		return;
+	if (fingerprints.remove(qualifiedTypeName) != null)
+		fingerprintChanged(qualifiedTypeName);
+	// the names "A$..." of the member types are sorted between "A$" and "A%"
+	Map<String, ApiFingerprint> memberTypes = fingerprints.subMap(qualifiedTypeName + '$', qualifiedTypeName + '%');
+	for (String name : memberTypes.keySet())
+		fingerprintChanged(name);
+	memberTypes.clear();
+}
+
+private void referencesChanged(String typeLocator) {
+	if (this.changes != null)
+		this.changes.typeLocators.add(typeLocator);
+}
+
+private void typeNameChanged(String qualifiedTypeName) {
+	if (this.changes != null)
+		this.changes.typeNames.add(qualifiedTypeName);
+}
+
+private void fingerprintChanged(String qualifiedFileName) {
+	if (this.changes != null)
+		this.changes.classFileNames.add(qualifiedFileName);
 }
 
 static State read(IProject project, DataInputStream input) throws IOException, CoreException {
@@ -288,45 +568,106 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 	}
 
 	State newState = new State();
-	newState.javaProjectName = in.readStringUsingDictionary();
-	if (!project.getName().equals(newState.javaProjectName)) {
+	if (!newState.readHeader(project, in))
+		return null;
+
+	int length;
+	String[] internedTypeLocators = new String[length = in.readInt()];
+	for (int i = 0; i < length; i++)
+		internedTypeLocators[i] = NamePool.STRINGS.intern(in.readStringUsingLast());
+
+	length = in.readInt();
+	newState.typeLocators = new LinkedHashMap<>((int) (length / 0.75 + 1));
+	for (int i = 0; i < length; i++)
+		newState.recordLocatorForType(in.readStringUsingLast(), internedTypeLocators[in.readIntInRange(internedTypeLocators.length)]);
+
+	// the sections are kept undecoded until used, most states of a workspace are only read for their type locators
+	for (int i = 0, sectionCount = in.readInt(); i < sectionCount; i++) {
+		byte id = in.readByte();
+		byte[] section = new byte[in.readInt()];
+		input.readFully(section);
+		switch (id) {
+			case REFERENCES_SECTION :
+				newState.sectionTypeLocators = internedTypeLocators;
+				newState.referencesSection = section;
+				break;
+			case API_FINGERPRINTS_SECTION :
+				newState.apiFingerprintsSection = section;
+		}
+	}
+	newState.changes = new Changes();
+	if (JavaBuilder.DEBUG)
+		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
+	return newState;
+}
+
+// answer false if the state is not the one of the given project
+private boolean readHeader(IProject project, CompressedReader in) throws IOException, CoreException {
+	this.javaProjectName = in.readStringUsingDictionary();
+	if (!project.getName().equals(this.javaProjectName)) {
 		if (JavaBuilder.DEBUG)
 			System.out.println("Project's name does not match... answered null"); //$NON-NLS-1$
-		return null;
+		return false;
 	}
-	newState.buildNumber = in.readInt();
-	newState.lastStructuralBuildTime = in.readLong();
+	this.buildNumber = in.readInt();
+	this.lastStructuralBuildTime = in.readLong();
 
 	ArrayList<ClasspathLocation> allLocationsForEEA = null;
 	if (JavaCore.ENABLED.equals(JavaCore.create(project).getOption(JavaCore.CORE_JAVA_BUILD_EXTERNAL_ANNOTATIONS_FROM_ALL_LOCATIONS, true))) {
 		allLocationsForEEA = new ArrayList<>(); // signals that we are collecting locations
 	}
 
-	newState.sourceLocations = readSourceLocations(project, in, allLocationsForEEA);
-	newState.binaryLocations = readBinaryLocations(project, in, newState.sourceLocations, allLocationsForEEA);
+	this.sourceLocations = readSourceLocations(project, in, allLocationsForEEA);
+	this.binaryLocations = readBinaryLocations(project, in, this.sourceLocations, allLocationsForEEA);
 
-	newState.testSourceLocations = readSourceLocations(project, in, allLocationsForEEA);
-	newState.testBinaryLocations = readBinaryLocations(project, in, newState.testSourceLocations, allLocationsForEEA);
+	this.testSourceLocations = readSourceLocations(project, in, allLocationsForEEA);
+	this.testBinaryLocations = readBinaryLocations(project, in, this.testSourceLocations, allLocationsForEEA);
 
 	int length;
-	newState.structuralBuildTimes = new SimpleLookupTable(length = in.readInt());
+	this.structuralBuildTimes = new SimpleLookupTable(length = in.readInt());
 	for (int i = 0; i < length; i++)
-		newState.structuralBuildTimes.put(in.readStringUsingDictionary(), Long.valueOf(in.readLong()));
+		this.structuralBuildTimes.put(in.readStringUsingDictionary(), Long.valueOf(in.readLong()));
+	return true;
+}
 
-	String[] internedTypeLocators = new String[length = in.readInt()];
-	for (int i = 0; i < length; i++)
-		internedTypeLocators[i] = in.readStringUsingLast();
+/**
+ * Apply a record of changes written by {@link #writeChanges(DataOutputStream)} to the receiver, which was read from the
+ * state file the changes were saved after.
+ */
+void readChanges(IProject project, DataInputStream input) throws IOException, CoreException {
+	CompressedReader in = new CompressedReader(input);
+	if (VERSION != in.readByte() || !readHeader(project, in))
+		throw new IOException("Changes of another state version or project"); //$NON-NLS-1$
+	this.changes = null; // the changes read are saved already
+	this.knownPackageNames = null;
 
-	length = in.readInt();
-	newState.typeLocators = new LinkedHashMap<>((int) (length / 0.75 + 1));
-	for (int i = 0; i < length; i++)
-		newState.recordLocatorForType(in.readStringUsingLast(), internedTypeLocators[in.readIntInRange(internedTypeLocators.length)]);
+	Map<String, ReferenceCollection> refs = references();
+	String[] internedTypeLocators = new String[in.readInt()];
+	for (int i = 0; i < internedTypeLocators.length; i++)
+		internedTypeLocators[i] = NamePool.STRINGS.intern(in.readStringUsingLast());
+	refs.putAll(readReferences(in, internedTypeLocators));
+	for (int i = 0, length = in.readInt(); i < length; i++)
+		refs.remove(in.readStringUsingLast());
+
+	for (int i = 0, length = in.readInt(); i < length; i++)
+		recordLocatorForType(in.readStringUsingLast(), in.readStringUsingDictionary());
+	for (int i = 0, length = in.readInt(); i < length; i++)
+		this.typeLocators.remove(in.readStringUsingLast());
+
+	Map<String, ApiFingerprint> fingerprints = apiFingerprints();
+	fingerprints.putAll(readApiFingerprints(in));
+	for (int i = 0, length = in.readInt(); i < length; i++)
+		fingerprints.remove(in.readStringUsingLast());
+	this.changes = new Changes();
+}
 
+private static Map<String, ReferenceCollection> readReferences(CompressedReader in, String[] internedTypeLocators) throws IOException {
 	/*
 	 * Here we read global arrays of names for the entire project - do not mess up the ordering while interning
 	 */
 	char[][] internedRootNames = ReferenceCollection.internSimpleNames(readNames(in), false /* keep well known */, false /* do not sort */);
 	char[][] internedSimpleNames = ReferenceCollection.internSimpleNames(readNames(in), false /* keep well known */, false /* do not sort */);
+	int length;
 	char[][][] internedQualifiedNames = new char[length = in.readInt()][][];
 	for (int i = 0; i < length; i++) {
 		int qLength = in.readInt();
@@ -338,7 +679,7 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 	internedQualifiedNames = ReferenceCollection.internQualifiedNames(internedQualifiedNames, false /* drop well known */, false /* do not sort */);
 
 	length = in.readInt();
-	newState.references = new LinkedHashMap((int) (length / 0.75 + 1));
+	Map<String, ReferenceCollection> references = new LinkedHashMap<>((int) (length / 0.75 + 1));
 	for (int i = 0; i < length; i++) {
 		String typeLocator = internedTypeLocators[in.readInt()];
 		ReferenceCollection collection = null;
@@ -354,7 +695,9 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 				char[][] rootNames = new char[in.readInt()][];
 				for (int j = 0, m = rootNames.length; j < m; j++)
 					rootNames[j] = internedRootNames[in.readIntInRange(internedRootNames.length)];
-				collection = new AdditionalTypeCollection(additionalTypeNames, qualifiedNames, simpleNames, rootNames);
+				char[][] superTypeNames = readSuperTypeNames(in, internedSimpleNames);
+				collection = new AdditionalTypeCollection(additionalTypeNames, qualifiedNames, simpleNames, rootNames,
+						superTypeNames, superTypeNames == null ? null : readNameFilter(in));
 				break;
 			case 2 :
 				char[][][] qNames = new char[in.readInt()][][];
@@ -366,13 +709,39 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 				char[][] rNames = new char[in.readInt()][];
 				for (int j = 0, m = rNames.length; j < m; j++)
 					rNames[j] = internedRootNames[in.readIntInRange(internedRootNames.length)];
-				collection = new ReferenceCollection(qNames, sNames, rNames);
+				char[][] stNames = readSuperTypeNames(in, internedSimpleNames);
+				collection = new ReferenceCollection(qNames, sNames, rNames, stNames, stNames == null ? null : readNameFilter(in));
 		}
-		newState.references.put(typeLocator, collection);
+		references.put(typeLocator, collection);
 	}
-	if (JavaBuilder.DEBUG)
-		System.out.println("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
-	return newState;
+	return references;
+}
+
+private static SortedMap<String, ApiFingerprint> readApiFingerprints(CompressedReader in) throws IOException {
+	int length = in.readInt();
+	SortedMap<String, ApiFingerprint> apiFingerprints = new TreeMap<>();
+	for (int i = 0; i < length; i++)
+		apiFingerprints.put(NamePool.STRINGS.intern(in.readStringUsingLast()),
+				new ApiFingerprint(in.readLong(), in.readLong(), in.readLong(), in.readLong()));
+	return apiFingerprints;
+}
+
+// null if the member level references of the collection are unknown, see ReferenceCollection
+private static char[][] readSuperTypeNames(CompressedReader in, char[][] internedSimpleNames) throws IOException {
+	int length = in.readInt();
+	if (length < 0)
+		return null;
+	char[][] superTypeNames = new char[length][];
+	for (int i = 0; i < length; i++)
+		superTypeNames[i] = internedSimpleNames[in.readIntInRange(internedSimpleNames.length)];
+	return superTypeNames;
+}
+
+private static long[] readNameFilter(CompressedReader in) throws IOException {
+	long[] nameFilter = new long[in.readInt()];
+	for (int i = 0; i < nameFilter.length; i++)
+		nameFilter[i] = in.readLong();
+	return nameFilter;
 }
 
 private static ClasspathMultiDirectory[] readSourceLocations(IProject project, CompressedReader in, List<ClasspathLocation> allLocationsForEEA) throws IOException {
@@ -486,8 +855,10 @@ private static AccessRuleSet readRestriction(CompressedReader in) throws IOExcep
 	return new AccessRuleSet(accessRules, in.readByte(), manager.intern(in.readStringUsingDictionary()));
 }
 
-void tagAsNoopBuild() {
+synchronized void tagAsNoopBuild() {
 	this.buildNumber = -1; // tag the project since it has no source folders and can be skipped
+	if (this.changes != null)
+		this.changes.header = true; // the receiver is the last built state, which may be saved meanwhile
 }
 
 boolean wasNoopBuild() {
@@ -495,9 +866,7 @@ boolean wasNoopBuild() {
 }
 
 void tagAsStructurallyChanged() {
-	this.previousStructuralBuildTime = this.lastStructuralBuildTime;
-	this.structurallyChangedTypes = new StringSet(7);
-	this.lastStructuralBuildTime = computeStructuralBuildTime(this.previousStructuralBuildTime);
+	this.lastStructuralBuildTime = computeStructuralBuildTime(this.lastStructuralBuildTime);
 }
 
 boolean wasStructurallyChanged(IProject prereqProject, State prereqState) {
@@ -510,16 +879,84 @@ boolean wasStructurallyChanged(IProject prereqProject, State prereqState) {
 }
 
 void wasStructurallyChanged(String typeName) {
-	if (this.structurallyChangedTypes != null) {
-		if (this.structurallyChangedTypes.elementSize > MaxStructurallyChangedTypes)
-			this.structurallyChangedTypes = null; // too many to keep track of
-		else
-			this.structurallyChangedTypes.add(typeName);
-	}
+	// recorded even if the fingerprint of the class file does not change
+	ApiFingerprint previous = apiFingerprints().get(typeName);
+	apiFingerprints().put(typeName, previous == null
+			? new ApiFingerprint(0, this.lastStructuralBuildTime, 0, IResource.NULL_STAMP)
+			: new ApiFingerprint(previous.fingerprint, this.lastStructuralBuildTime, previous.contentHash, previous.modificationStamp));
+	fingerprintChanged(typeName);
 }
 
 void write(DataOutputStream output) throws IOException {
 	CompressedWriter out=new CompressedWriter(output);
+	int length;
+	writeHeader(out);
+
+/*
+ * String[]	Interned type locators
+ */
+	byte[] referencesBytes;
+	String[] locators;
+	synchronized (this) { // the sections may be decoded meanwhile, by the build of this project or of a dependent one
+		referencesBytes = this.referencesSection;
+		locators = this.sectionTypeLocators;
+	}
+	if (referencesBytes == null)
+		locators = this.references.keySet().toArray(new String[this.references.size()]);
+	out.writeInt(length = locators.length);
+	SimpleLookupTable internedTypeLocators = new SimpleLookupTable(length);
+	for (String key : locators) {
+		out.writeStringUsingLast(key);
+		internedTypeLocators.put(key, Integer.valueOf(internedTypeLocators.elementSize));
+	}
+
+/*
+ * Type locators table
+ * String		type name
+ * int			interned locator id
+ */
+	out.writeInt(length = this.typeLocators.size());
+	if (length > 0) {
+		Set<Entry<String, String>> entries = this.typeLocators.entrySet();
+		for (Entry<String, String> entry : entries) {
+			String key = entry.getKey();
+			String value = entry.getValue();
+			if (key != null) {
+				length--;
+				out.writeStringUsingLast(key);
+				Integer index = (Integer) internedTypeLocators.get(value);
+				out.writeIntInRange(index.intValue(), internedTypeLocators.elementSize);
+			}
+		}
+		if (JavaBuilder.DEBUG && length != 0)
+			System.out.println("typeLocators table is inconsistent"); //$NON-NLS-1$
+	}
+
+/*
+ * Sections, each written by its own CompressedWriter so that it can be decoded on its own when first used.
+ * Sections which were never decoded since the state was read are unchanged and written back as read.
+ * int		number of sections
+ * byte		section id
+ * int		section length
+ * byte[]	section
+ */
+	if (referencesBytes == null) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeReferences(new CompressedWriter(new DataOutputStream(bytes)), this.references, internedTypeLocators);
+		referencesBytes = bytes.toByteArray();
+	}
+	byte[] apiFingerprintsBytes = this.apiFingerprintsSection;
+	if (apiFingerprintsBytes == null) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeApiFingerprints(new CompressedWriter(new DataOutputStream(bytes)), this.apiFingerprints);
+		apiFingerprintsBytes = bytes.toByteArray();
+	}
+	out.writeInt(2);
+	writeSection(output, REFERENCES_SECTION, referencesBytes);
+	writeSection(output, API_FINGERPRINTS_SECTION, apiFingerprintsBytes);
+}
+
+private void writeHeader(CompressedWriter out) throws IOException {
 	int length;
 	Object[] keyTable;
 	Object[] valueTable;
@@ -582,47 +1019,118 @@ void write(DataOutputStream output) throws IOException {
 		if (JavaBuilder.DEBUG && length != 0)
 			System.out.println("structuralBuildNumbers table is inconsistent"); //$NON-NLS-1$
 	}
+}
+
+/**
+ * Write the changes of the receiver since it was last saved, as a record read back by
+ * {@link #readChanges(IProject, DataInputStream)} on the state file the receiver was saved to. Answer false if the changes
+ * are unknown, the receiver must then be written as a whole. The changes are considered saved once written.
+ */
+synchronized boolean writeChanges(DataOutputStream output) throws IOException {
+	if (this.changes == null)
+		return false;
+	CompressedWriter out = new CompressedWriter(output);
+	writeHeader(out);
 
 /*
- * String[]	Interned type locators
+ * String[]	Interned type locators of the changed references
+ * References table of the changed references
+ * String[]	Type locators of the removed references
  */
-	out.writeInt(length = this.references.size());
-	SimpleLookupTable internedTypeLocators = new SimpleLookupTable(length);
-	if (length > 0) {
-		Set<String> keys = this.references.keySet();
-		for (String key : keys) {
-			if (key != null) {
-				length--;
-				out.writeStringUsingLast(key);
-				internedTypeLocators.put(key, Integer.valueOf(internedTypeLocators.elementSize));
-			}
+	Map<String, ReferenceCollection> changedReferences = new LinkedHashMap<>();
+	List<String> removed = new ArrayList<>();
+	if (!this.changes.typeLocators.isEmpty()) {
+		Map<String, ReferenceCollection> refs = references();
+		for (String typeLocator : this.changes.typeLocators) {
+			ReferenceCollection collection = refs.get(typeLocator);
+			if (collection == null)
+				removed.add(typeLocator);
+			else
+				changedReferences.put(typeLocator, collection);
 		}
-		if (JavaBuilder.DEBUG && length != 0)
-			System.out.println("references table is inconsistent"); //$NON-NLS-1$
 	}
+	SimpleLookupTable internedTypeLocators = new SimpleLookupTable(changedReferences.size());
+	out.writeInt(changedReferences.size());
+	for (String typeLocator : changedReferences.keySet()) {
+		out.writeStringUsingLast(typeLocator);
+		internedTypeLocators.put(typeLocator, Integer.valueOf(internedTypeLocators.elementSize));
+	}
+	writeReferences(out, changedReferences, internedTypeLocators);
+	writeStrings(out, removed);
 
 /*
- * Type locators table
+ * Type locators of the changed type names
  * String		type name
- * int			interned locator id
+ * String		type locator
+ * String[]	Removed type names
  */
-	out.writeInt(length = this.typeLocators.size());
-	if (length > 0) {
-		Set<Entry<String, String>> entries = this.typeLocators.entrySet();
-		for (Entry<String, String> entry : entries) {
-			String key = entry.getKey();
-			String value = entry.getValue();
-			if (key != null) {
-				length--;
-				out.writeStringUsingLast(key);
-				Integer index = (Integer) internedTypeLocators.get(value);
-				out.writeIntInRange(index.intValue(), internedTypeLocators.elementSize);
-			}
+	Map<String, String> changedTypeLocators = new LinkedHashMap<>();
+	removed.clear();
+	for (String typeName : this.changes.typeNames) {
+		String typeLocator = this.typeLocators.get(typeName);
+		if (typeLocator == null)
+			removed.add(typeName);
+		else
+			changedTypeLocators.put(typeName, typeLocator);
+	}
+	out.writeInt(changedTypeLocators.size());
+	for (Entry<String, String> entry : changedTypeLocators.entrySet()) {
+		out.writeStringUsingLast(entry.getKey());
+		out.writeStringUsingDictionary(entry.getValue());
+	}
+	writeStrings(out, removed);
+
+/*
+ * API fingerprints table of the changed fingerprints
+ * String[]	Class file names of the removed fingerprints
+ */
+	Map<String, ApiFingerprint> changedFingerprints = new LinkedHashMap<>();
+	removed.clear();
+	if (!this.changes.classFileNames.isEmpty()) {
+		Map<String, ApiFingerprint> fingerprints = apiFingerprints();
+		for (String classFileName : this.changes.classFileNames) {
+			ApiFingerprint apiFingerprint = fingerprints.get(classFileName);
+			if (apiFingerprint == null)
+				removed.add(classFileName);
+			else
+				changedFingerprints.put(classFileName, apiFingerprint);
 		}
-		if (JavaBuilder.DEBUG && length != 0)
-			System.out.println("typeLocators table is inconsistent"); //$NON-NLS-1$
 	}
+	writeApiFingerprints(out, changedFingerprints);
+	writeStrings(out, removed);
+
+	this.changes = new Changes();
+	return true;
+}
 
+/**
+ * Answer whether the receiver did not change since it was last saved.
+ */
+synchronized boolean isSaved() {
+	return this.changes != null && this.changes.isEmpty();
+}
+
+/**
+ * Forget the changes of the receiver, which was just written as a whole to its state file.
+ */
+synchronized void saved() {
+	this.changes = new Changes();
+}
+
+private static void writeStrings(CompressedWriter out, List<String> strings) throws IOException {
+	out.writeInt(strings.size());
+	for (String string : strings)
+		out.writeStringUsingLast(string);
+}
+
+private static void writeSection(DataOutputStream out, byte id, byte[] section) throws IOException {
+	out.writeByte(id);
+	out.writeInt(section.length);
+	out.write(section);
+}
+
+private static void writeReferences(CompressedWriter out, Map<String, ReferenceCollection> references, SimpleLookupTable internedTypeLocators) throws IOException {
+	int length;
 /*
  * char[][]	Interned root names
  * char[][][]	Interned qualified names
@@ -631,7 +1139,7 @@ void write(DataOutputStream output) throws IOException {
 	SimpleLookupTable internedRootNames = new SimpleLookupTable(3);
 	SimpleLookupTable internedQualifiedNames = new SimpleLookupTable(31);
 	SimpleLookupTable internedSimpleNames = new SimpleLookupTable(31);
-	for (ReferenceCollection collection : this.references.values()) {
+	for (ReferenceCollection collection : references.values()) {
 		char[][] rNames = collection.rootReferences;
 		for (int j = 0, m = rNames.length; j < m; j++) {
 			char[] rName = rNames[j];
@@ -656,6 +1164,14 @@ void write(DataOutputStream output) throws IOException {
 			if (!internedSimpleNames.containsKey(sName)) // remember the names have been interned
 				internedSimpleNames.put(sName, Integer.valueOf(internedSimpleNames.elementSize));
 		}
+		char[][] stNames = collection.superTypeNames;
+		if (stNames != null) {
+			for (int j = 0, m = stNames.length; j < m; j++) {
+				char[] stName = stNames[j];
+				if (!internedSimpleNames.containsKey(stName)) // remember the names have been interned
+					internedSimpleNames.put(stName, Integer.valueOf(internedSimpleNames.elementSize));
+			}
+		}
 	}
 	char[][] internedArray = new char[internedRootNames.elementSize][];
 	Object[] rootNames = internedRootNames.keyTable;
@@ -704,9 +1220,9 @@ void write(DataOutputStream output) throws IOException {
  * int		interned locator id
  * ReferenceCollection
 */
-	out.writeInt(length = this.references.size());
+	out.writeInt(length = references.size());
 	if (length > 0) {
-		for (Entry<String, ReferenceCollection> entry : this.references.entrySet()) {
+		for (Entry<String, ReferenceCollection> entry : references.entrySet()) {
 			String key = entry.getKey();
 			length--;
 			Integer index = (Integer) internedTypeLocators.get(key);
@@ -740,12 +1256,47 @@ void write(DataOutputStream output) throws IOException {
 				index = (Integer) internedRootNames.get(rNames[j]);
 				out.writeIntInRange(index.intValue(), internedRootNames.elementSize);
 			}
+			char[][] stNames = collection.superTypeNames;
+			if (stNames == null) {
+				out.writeInt(-1); // member level references are unknown
+			} else {
+				int stLength = stNames.length;
+				out.writeInt(stLength);
+				for (int j = 0; j < stLength; j++) {
+					index = (Integer) internedSimpleNames.get(stNames[j]);
+					out.writeIntInRange(index.intValue(), internedSimpleNames.elementSize);
+				}
+				long[] nameFilter = collection.nameFilter;
+				out.writeInt(nameFilter.length);
+				for (int j = 0; j < nameFilter.length; j++)
+					out.writeLong(nameFilter[j]);
+			}
 		}
 		if (JavaBuilder.DEBUG && length != 0)
 			System.out.println("references table is inconsistent"); //$NON-NLS-1$
 	}
 }
 
+private static void writeApiFingerprints(CompressedWriter out, Map<String, ApiFingerprint> apiFingerprints) throws IOException {
+/*
+ * API fingerprints table
+ * String		qualified class file name
+ * long		structural fingerprint
+ * long		structural build time of the last structural change
+ * long		hash of the class file content
+ * long		modification stamp of the class file once written
+ */
+	out.writeInt(apiFingerprints.size());
+	for (Entry<String, ApiFingerprint> entry : apiFingerprints.entrySet()) {
+		out.writeStringUsingLast(entry.getKey());
+		ApiFingerprint apiFingerprint = entry.getValue();
+		out.writeLong(apiFingerprint.fingerprint);
+		out.writeLong(apiFingerprint.structuralBuildTime);
+		out.writeLong(apiFingerprint.contentHash);
+		out.writeLong(apiFingerprint.modificationStamp);
+	}
+}
+
 private void writeSourceLocations(CompressedWriter out, ClasspathMultiDirectory[] srcLocations) throws IOException {
 	int length;
 	out.writeInt(length = srcLocations.length);
@@ -14,8 +14,12 @@
 package org.eclipse.jdt.internal.core.index;
 
 import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -36,14 +40,15 @@ private int headerInfoOffset;
 private int numberOfChunks;
 private int sizeOfLastChunk;
 private int[] chunkOffsets;
-private int documentReferenceSize; // 1, 2 or more bytes... depends on # of document names
+private int documentReferenceSize; // 1, 2 or more bytes... depends on # of document names, only recorded in the header since document numbers are varints
 private int startOfCategoryTables;
 private HashtableOfIntValues categoryOffsets, categoryEnds;
 
 private int cacheUserCount;
 private String[][] cachedChunks; // decompressed chunks of document names
-private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s) or offset if not read yet
-private char[] cachedCategoryName;
+private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s) of the index being written
+private HashtableOfObject categoryBlockIndexes; // category name -> BlockIndex of its table, read when first queried
+private ByteBuffer mappedIndexFile; // the index file mapped in memory when first queried, until it is replaced
 
 private static final int DEFAULT_BUFFER_SIZE = 2048;
 private static int BUFFER_READ_SIZE = DEFAULT_BUFFER_SIZE;
@@ -53,7 +58,7 @@ private int bufferIndex, bufferEnd; // used when reading from the file into the
 private int streamEnd; // used when writing data from the streamBuffer to the file
 char separator = Index.DEFAULT_SEPARATOR;
 
-public static final String SIGNATURE= "INDEX VERSION 1.131"; //$NON-NLS-1$
+public static final String SIGNATURE= "INDEX VERSION 1.132"; //$NON-NLS-1$
 private static final char[] SIGNATURE_CHARS = SIGNATURE.toCharArray();
 public static boolean DEBUG = false;
 
@@ -61,6 +66,13 @@ private static final int RE_INDEXED = -1;
 private static final int DELETED = -2;
 
 private static final int CHUNK_SIZE = 100;
+private static final int BLOCK_SIZE = 32; // number of words in a block of a category table
+
+// mapped index files cannot be deleted or renamed on Windows until the mapping is garbage collected
+public static boolean MAP_INDEX_FILES = Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.core.index.mapIndexFiles", //$NON-NLS-1$
+		Boolean.toString(!System.getProperty("os.name").toLowerCase().contains("windows")))); //$NON-NLS-1$ //$NON-NLS-2$
+// the n-grams of the category tables queried with a substring or subword key are kept softly until the index is replaced
+private static final boolean NGRAM_INDEXES = Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.core.index.ngramIndexes", "true")); //$NON-NLS-1$ //$NON-NLS-2$
 
 private static final SimpleSetOfCharArray INTERNED_CATEGORY_NAMES = new SimpleSetOfCharArray(20);
 private static final String TMP_EXT = ".tmp"; //$NON-NLS-1$
@@ -89,6 +101,167 @@ int[] asArray() {
 }
 }
 
+/*
+ * The sparse index of the blocks of sorted words of a category table: the first word of each block and its offset.
+ */
+static class BlockIndex {
+
+final int wordCount;
+final char[][] firstWords;
+final int[] blockOffsets; // one more than the blocks, the last one is the end of the last block
+SoftReference<NgramIndex> ngramIndex; // read when first needed by a substring or subword query, released if memory is low
+
+BlockIndex(int wordCount, char[][] firstWords, int[] blockOffsets) {
+	this.wordCount = wordCount;
+	this.firstWords = firstWords;
+	this.blockOffsets = blockOffsets;
+}
+int blockCount() {
+	return this.firstWords.length;
+}
+/*
+ * Answer the first block which may contain words starting with the given prefix.
+ */
+int firstBlockFor(char[] prefix) {
+	int low = 0, high = this.firstWords.length - 1;
+	while (low < high) {
+		int mid = (low + high + 1) >>> 1;
+		if (CharOperation.compareTo(this.firstWords[mid], prefix) <= 0)
+			low = mid;
+		else
+			high = mid - 1;
+	}
+	return low;
+}
+}
+
+/*
+ * Reads the category tables at given offsets, from the mapped index file or else from pages of the index file read
+ * when needed. The pages are read from one stream of the index file, which is only reopened when reading before it,
+ * hence the reader must be closed once the category tables are read.
+ */
+static class IndexReader implements Closeable {
+
+private static final int PAGE_SIZE = 8192;
+
+private final ByteBuffer mapped;
+private final IndexLocation location;
+private InputStream stream;
+private long streamPosition;
+private byte[] page;
+private int pageStart, pageEnd;
+int position;
+
+IndexReader(ByteBuffer mapped, IndexLocation location, int position) {
+	this.mapped = mapped;
+	this.location = location;
+	this.position = position;
+}
+private byte readByte() throws IOException {
+	if (this.mapped != null)
+		return this.mapped.get(this.position++);
+	if (this.position < this.pageStart || this.position >= this.pageEnd)
+		readPage();
+	return this.page[this.position++ - this.pageStart];
+}
+private void readPage() throws IOException {
+	if (this.page == null)
+		this.page = new byte[PAGE_SIZE];
+	if (this.stream != null && this.position < this.streamPosition)
+		close(); // streams cannot read backwards, e.g. the blocks of a table before its block index
+	if (this.stream == null) {
+		this.stream = this.location.getInputStream();
+		if (this.stream == null)
+			throw new IOException("Cannot read index location " + this.location); //$NON-NLS-1$
+		this.streamPosition = 0;
+	}
+	long toSkip = this.position - this.streamPosition;
+	while (toSkip > 0) {
+		long skipped = this.stream.skip(toSkip);
+		if (skipped <= 0)
+			throw new EOFException(NLS.bind("Cannot read index location \"{0}\" at offset {1}", this.location, this.position)); //$NON-NLS-1$
+		toSkip -= skipped;
+	}
+	int read = this.stream.readNBytes(this.page, 0, PAGE_SIZE);
+	if (read <= 0)
+		throw new EOFException(NLS.bind("Cannot read index location \"{0}\" at offset {1}", this.location, this.position)); //$NON-NLS-1$
+	this.pageStart = this.position;
+	this.pageEnd = this.position + read;
+	this.streamPosition = this.pageEnd;
+}
+/*
+ * Close the stream of the index file if a page was read. The reader remains usable, the stream is reopened if
+ * another page is needed.
+ */
+@Override
+public void close() throws IOException {
+	if (this.stream == null) return;
+	try {
+		this.stream.close();
+	} finally {
+		this.stream = null;
+		this.location.close();
+	}
+}
+int readVarInt() throws IOException {
+	int value = 0;
+	for (int shift = 0; shift < 32; shift += 7) {
+		byte b = readByte();
+		value |= (b & 0x7F) << shift;
+		if (b >= 0)
+			return value;
+	}
+	throw new IOException("Index file is corrupted " + this.location); //$NON-NLS-1$
+}
+/*
+ * Read the next word of a block, which shares its first characters with the given previous word of the block.
+ */
+char[] readWord(char[] previous) throws IOException {
+	int shared = readVarInt();
+	int length = shared + readVarInt();
+	char[] word = new char[length];
+	if (shared > 0)
+		System.arraycopy(previous, 0, word, 0, shared);
+	for (int i = shared; i < length; i++)
+		word[i] = (char) readVarInt();
+	return word;
+}
+int[] readDocumentNumbers() throws IOException {
+	int length = readVarInt();
+	readVarInt(); // number of bytes of the document numbers
+	int[] documentNumbers = new int[length];
+	int documentNumber = 0;
+	for (int i = 0; i < length; i++)
+		documentNumbers[i] = documentNumber += readVarInt();
+	return documentNumbers;
+}
+PostingList readPostingList() throws IOException {
+	int length = readVarInt();
+	readVarInt(); // number of bytes of the document numbers
+	PostingList documentNumbers = new PostingList(1);
+	int documentNumber = 0;
+	for (int i = 0; i < length; i++)
+		documentNumbers.add(documentNumber += readVarInt());
+	return documentNumbers;
+}
+/*
+ * Answer the offset of the document numbers at the current position if they are read from the mapped index file, else
+ * the document numbers themselves, read while the stream is at their position.
+ */
+Object readDocumentTable() throws IOException {
+	if (this.mapped == null)
+		return readPostingList();
+	int offset = this.position;
+	skipDocumentNumbers();
+	return Integer.valueOf(offset);
+}
+void skipDocumentNumbers() throws IOException {
+	readVarInt(); // number of document numbers
+	int numberOfBytes = readVarInt();
+	this.position += numberOfBytes;
+}
+}
+
 
 DiskIndex() {
 	this.headerInfoOffset = -1;
@@ -99,7 +272,8 @@ DiskIndex() {
 	this.cacheUserCount = -1;
 	this.cachedChunks = null;
 	this.categoryTables = null;
-	this.cachedCategoryName = null;
+	this.categoryBlockIndexes = null;
+	this.mappedIndexFile = null;
 	this.categoryOffsets = null;
 	this.categoryEnds = null;
 }
@@ -142,25 +316,21 @@ SimpleSet addDocumentNames(String substring, MemoryIndex memoryIndex) throws IOE
 	}
 	return results;
 }
-private HashtableOfObject addQueryResult(HashtableOfObject results, char[] word, Object docs, MemoryIndex memoryIndex, boolean prevResults) throws IOException {
+private HashtableOfObject addQueryResult(HashtableOfObject results, char[] word, Object docs, PostingList changedDocs, boolean prevResults) throws IOException {
 	// must skip over documents which have been added/changed/deleted in the memory index
 	if (results == null)
 		results = new HashtableOfObject(13);
 	EntryResult result = prevResults ? (EntryResult) results.get(word) : null;
-	if (memoryIndex == null) {
+	if (changedDocs == null) {
 		if (result == null)
 			results.putUnsafely(word, new EntryResult(word, docs));
 		else
 			result.addDocumentTable(docs);
 	} else {
-		SimpleLookupTable docsToRefs = memoryIndex.docsToReferences;
 		if (result == null) result = new EntryResult(word, null);
-		int[] docNumbers = readDocumentNumbers(docs);
-		for (int i = 0, l = docNumbers.length; i < l; i++) {
-			String docName = readDocumentName(docNumbers[i]);
-			if (!docsToRefs.containsKey(docName))
-				result.addDocumentName(docName);
-		}
+		PostingList unchangedDocs = readPostingList(docs).andNot(changedDocs);
+		if (!unchangedDocs.isEmpty())
+			result.addDocumentTable(unchangedDocs);
 		if (!result.isEmpty())
 			results.put(word, result);
 	}
@@ -172,86 +342,120 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 
 	HashtableOfObject results = null; // initialized if needed
 
+	// the words are sorted, so only the blocks which may contain the words starting with the prefix of the key are read
+	char[] prefix = key == null ? null : literalPrefix(key, matchRule);
+	boolean exactMatch = key != null && matchRule == (SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+	Pattern pattern = key != null && matchRule == SearchPattern.R_REGEXP_MATCH ? Pattern.compile(new String(key)) : null;
+	PostingList changedDocs = null; // the numbers of the documents of the memory index, read when the first word matches
+
 	// No need to check the results table for duplicates while processing the
 	// first category table or if the first category tables doesn't have any results.
 	boolean prevResults = false;
-	if (key == null) {
-		for (int i = 0, l = categories.length; i < l; i++) {
-			HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], true); // cache if key is null since its a definite match
-			if (wordsToDocNumbers != null) {
-				char[][] words = wordsToDocNumbers.keyTable;
-				Object[] values = wordsToDocNumbers.valueTable;
-				if (results == null)
-					results = new HashtableOfObject(wordsToDocNumbers.elementSize);
-				for (int j = 0, m = words.length; j < m; j++)
-					if (words[j] != null)
-						results = addQueryResult(results, words[j], values[j], memoryIndex, prevResults);
+	for (int i = 0, l = categories.length; i < l; i++) {
+		BlockIndex blockIndex = readBlockIndex(categories[i]);
+		if (blockIndex != null && blockIndex.blockCount() > 0) {
+			if (key == null && results == null)
+				results = new HashtableOfObject(blockIndex.wordCount);
+			// the n-grams of the words narrow the words which may match a substring or subword key to the candidates
+			int[] candidates = null;
+			if (key != null && prefix == null && NGRAM_INDEXES && (matchRule & (SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH)) != 0) {
+				PostingList candidateWords = readNgramIndex(blockIndex).candidates(key, matchRule);
+				if (candidateWords != null)
+					candidates = candidateWords.toArray();
 			}
-			prevResults = results != null;
-		}
-		if (results != null && this.cachedChunks == null)
-			cacheDocumentNames();
-	} else {
-		switch (matchRule) {
-			case SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE:
-				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
-					Object value;
-					if (wordsToDocNumbers != null && (value = wordsToDocNumbers.get(key)) != null)
-						results = addQueryResult(results, key, value, memoryIndex, prevResults);
-					prevResults = results != null;
-				}
-				break;
-			case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE:
-				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
-					if (wordsToDocNumbers != null) {
-						char[][] words = wordsToDocNumbers.keyTable;
-						Object[] values = wordsToDocNumbers.valueTable;
-						for (int j = 0, m = words.length; j < m; j++) {
-							char[] word = words[j];
-							if (word != null && key[0] == word[0] && CharOperation.prefixEquals(key, word))
-								results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
-						}
+			int nextCandidate = 0;
+			try (IndexReader reader = new IndexReader(getMappedIndexFile(), this.indexLocation, 0)) {
+				nextBlock: for (int block = prefix == null ? 0 : blockIndex.firstBlockFor(prefix), blocks = blockIndex.blockCount(); block < blocks; block++) {
+					if (candidates != null) {
+						if (nextCandidate == candidates.length) break nextBlock;
+						block = candidates[nextCandidate] / BLOCK_SIZE; // skip the blocks without candidates
 					}
-					prevResults = results != null;
-				}
-				break;
-			case SearchPattern.R_REGEXP_MATCH:
-				Pattern pattern = Pattern.compile(new String(key));
-				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
-					if (wordsToDocNumbers != null) {
-						char[][] words = wordsToDocNumbers.keyTable;
-						Object[] values = wordsToDocNumbers.valueTable;
-						for (int j = 0, m = words.length; j < m; j++) {
-							char[] word = words[j];
-							if (word != null && pattern.matcher(new String(word)).matches())
-								results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
+					reader.position = blockIndex.blockOffsets[block];
+					int blockEnd = blockIndex.blockOffsets[block + 1];
+					char[] word = null;
+					for (int position = block * BLOCK_SIZE; reader.position < blockEnd; position++) {
+						word = reader.readWord(word);
+						if (candidates != null) {
+							if (nextCandidate == candidates.length) break nextBlock;
+							if (candidates[nextCandidate] != position) {
+								reader.skipDocumentNumbers();
+								continue;
+							}
+							nextCandidate++;
 						}
-					}
-					prevResults = results != null;
-				}
-				break;
-			default:
-				for (int i = 0, l = categories.length; i < l; i++) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(categories[i], false);
-					if (wordsToDocNumbers != null) {
-						char[][] words = wordsToDocNumbers.keyTable;
-						Object[] values = wordsToDocNumbers.valueTable;
-						for (int j = 0, m = words.length; j < m; j++) {
-							char[] word = words[j];
-							if (word != null && Index.isMatch(key, word, matchRule))
-								results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
+						if (prefix != null) {
+							int comparison = comparePrefix(prefix, word);
+							if (comparison > 0) break nextBlock; // after the words starting with the prefix
+							if (comparison < 0) { // before the words starting with the prefix
+								reader.skipDocumentNumbers();
+								continue;
+							}
+						}
+						boolean isMatch;
+						if (key == null)
+							isMatch = true;
+						else if (exactMatch)
+							isMatch = word.length == key.length; // the key is the first word starting with itself
+						else if (pattern != null)
+							isMatch = pattern.matcher(new String(word)).matches();
+						else
+							isMatch = Index.isMatch(key, word, matchRule);
+						if (isMatch) {
+							Object documentTable = reader.readDocumentTable();
+							if (memoryIndex != null && changedDocs == null) {
+								reader.close(); // reading the document names closes the index location, the next page is read from a new stream
+								changedDocs = readDocumentNumbers(memoryIndex.docsToReferences);
+							}
+							results = addQueryResult(results, word, documentTable, changedDocs, prevResults);
+						} else {
+							reader.skipDocumentNumbers();
 						}
+						if (exactMatch)
+							break nextBlock;
 					}
-					prevResults = results != null;
 				}
+			}
 		}
+		prevResults = results != null;
 	}
+	if (key == null && results != null && this.cachedChunks == null)
+		cacheDocumentNames();
 
 	return results;
 }
+/*
+ * Answer the characters which start all the words matching the given key with the given match rule, or null if the
+ * matching words may start with any character.
+ */
+private static char[] literalPrefix(char[] key, int matchRule) {
+	if (key.length == 0 || (matchRule & (SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH)) != 0)
+		return null;
+	switch (matchRule & Index.MATCH_RULE_INDEX_MASK) {
+		case SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE :
+		case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			return key;
+		case SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			int length = 0;
+			while (length < key.length && key[length] != '*' && key[length] != '?')
+				length++;
+			return length == 0 ? null : CharOperation.subarray(key, 0, length);
+		case SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE :
+		case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			return new char[] {key[0]}; // see Index.isMatch(char[], char[], int)
+	}
+	return null;
+}
+/*
+ * Answer 0 if the given word starts with the given prefix, a negative number if the word is sorted before the words
+ * starting with the prefix, and a positive number if it is sorted after them.
+ */
+private static int comparePrefix(char[] prefix, char[] word) {
+	int length = Math.min(prefix.length, word.length);
+	for (int i = 0; i < length; i++)
+		if (word[i] != prefix[i])
+			return word[i] - prefix[i];
+	return word.length >= prefix.length ? 0 : -1;
+}
 private void cacheDocumentNames() throws IOException {
 	// will need all document names so get them now
 	this.cachedChunks = new String[this.numberOfChunks][];
@@ -482,7 +686,7 @@ private void mergeCategory(char[] categoryName, DiskIndex onDisk, int[] position
 	if (wordsToDocs == null)
 		wordsToDocs = new HashtableOfObject(3);
 
-	HashtableOfObject oldWordsToDocs = onDisk.readCategoryTable(categoryName, true);
+	HashtableOfObject oldWordsToDocs = onDisk.readCategoryTable(categoryName);
 	if (oldWordsToDocs != null) {
 		char[][] oldWords = oldWordsToDocs.keyTable;
 		Object[] oldArrayOffsets = oldWordsToDocs.valueTable;
@@ -519,7 +723,6 @@ private void mergeCategory(char[] categoryName, DiskIndex onDisk, int[] position
 				}
 			}
 		}
-		onDisk.categoryTables.put(categoryName, null); // flush cached table
 	}
 	writeCategoryTable(categoryName, wordsToDocs, stream);
 }
@@ -587,6 +790,7 @@ DiskIndex mergeWith(MemoryIndex memoryIndex) throws IOException {
 		newDiskIndex.writeOffsetToHeader(offsetToHeader);
 
 		// rename file by deleting previous index file & renaming temp one
+		this.mappedIndexFile = null;
 		try {
 			Files.deleteIfExists(oldIndexFile.toPath());
 		} catch (Exception e2) {
@@ -644,102 +848,106 @@ private synchronized String[] readAllDocumentNames() throws IOException {
 		this.streamBuffer = null;
 	}
 }
-private synchronized HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
+private synchronized BlockIndex readBlockIndex(char[] categoryName) throws IOException {
 	// result will be null if categoryName is unknown
 	int offset = this.categoryOffsets.get(categoryName);
 	if (offset == HashtableOfIntValues.NO_VALUE) {
 		return null;
 	}
 
-	if (this.categoryTables == null) {
-		this.categoryTables = new HashtableOfObject(3);
+	if (this.categoryBlockIndexes == null) {
+		this.categoryBlockIndexes = new HashtableOfObject(3);
 	} else {
-		HashtableOfObject cachedTable = (HashtableOfObject) this.categoryTables.get(categoryName);
-		if (cachedTable != null) {
-			if (readDocNumbers) { // must cache remaining document number arrays
-				Object[] arrayOffsets = cachedTable.valueTable;
-				for (int i = 0, l = arrayOffsets.length; i < l; i++)
-					if (arrayOffsets[i] instanceof Integer)
-						arrayOffsets[i] = readDocumentNumbers(arrayOffsets[i]);
-			}
-			return cachedTable;
-		}
+		BlockIndex cachedIndex = (BlockIndex) this.categoryBlockIndexes.get(categoryName);
+		if (cachedIndex != null)
+			return cachedIndex;
 	}
 
-	InputStream stream = this.indexLocation.getInputStream();
-	HashtableOfObject categoryTable = null;
-	char[][] matchingWords = null;
-	int count = 0;
-	int firstOffset = -1;
-	this.streamBuffer = new byte[BUFFER_READ_SIZE];
-	try {
-		stream.skip(offset);
-		this.bufferIndex = 0;
-		this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
-		int size = readStreamInt(stream);
-		try {
-			categoryTable = new HashtableOfObject(size);
-		} catch (NegativeArraySizeException | OutOfMemoryError e) {
-			String message = "Failed to read index data from " + this.indexLocation + " at offset " + offset //$NON-NLS-1$ //$NON-NLS-2$
-					+ " and size " + size; //$NON-NLS-1$
-			throw new IOException(message, e);
+	// must be same order as writeCategoryTable()
+	try (IndexReader reader = new IndexReader(getMappedIndexFile(), this.indexLocation, offset)) {
+		int wordCount = reader.readVarInt();
+		int blockCount = reader.readVarInt();
+		long length = this.indexLocation.length();
+		if (length != -1 && (wordCount > length || blockCount > wordCount)) {
+			//  not an accurate check, but good enough  https://bugs.eclipse.org/bugs/show_bug.cgi?id=350612
+			if (DEBUG)
+				System.out.println("Index file is corrupted " + this.indexLocation); //$NON-NLS-1$
+			throw new IOException("Index file is corrupted " + this.indexLocation); //$NON-NLS-1$
 		}
-		int largeArraySize = 256;
-		for (int i = 0; i < size; i++) {
-			char[] word = readStreamChars(stream);
-			int arrayOffset = readStreamInt(stream);
-			// if arrayOffset is:
-			//		<= 0 then the array size == 1 with the value -> -arrayOffset
-			//		> 1 & < 256 then the size of the array is > 1 & < 256, the document array follows immediately
-			//		256 if the array size >= 256 followed by another int which is the offset to the array (written prior to the table)
-			if (arrayOffset <= 0) {
-				categoryTable.putUnsafely(word, new int[] {-arrayOffset}); // store 1 element array by negating documentNumber
-			} else if (arrayOffset < largeArraySize) {
-				categoryTable.putUnsafely(word, readStreamDocumentArray(stream, arrayOffset)); // read in-lined array providing size
-			} else {
-				arrayOffset = readStreamInt(stream); // read actual offset
-				if (readDocNumbers) {
-					if (matchingWords == null)
-						matchingWords = new char[size][];
-					if (count == 0)
-						firstOffset = arrayOffset;
-					matchingWords[count++] = word;
-				}
-				categoryTable.putUnsafely(word, Integer.valueOf(arrayOffset)); // offset to array in the file
+		char[][] firstWords = new char[blockCount][];
+		int[] blockOffsets = new int[blockCount + 1];
+		for (int i = 0; i < blockCount; i++) {
+			firstWords[i] = reader.readWord(null);
+			blockOffsets[i] = reader.readVarInt();
+		}
+		blockOffsets[blockCount] = offset; // the blocks are written before the table
+		BlockIndex blockIndex = new BlockIndex(wordCount, firstWords, blockOffsets);
+		this.categoryBlockIndexes.put(INTERNED_CATEGORY_NAMES.get(categoryName), blockIndex);
+		return blockIndex;
+	}
+}
+/*
+ * Answer the n-grams of the words of the category table with the given block index, read the first time they are needed.
+ */
+private synchronized NgramIndex readNgramIndex(BlockIndex blockIndex) throws IOException {
+	NgramIndex ngramIndex = blockIndex.ngramIndex == null ? null : blockIndex.ngramIndex.get();
+	if (ngramIndex != null)
+		return ngramIndex;
+
+	long start = DEBUG ? System.currentTimeMillis() : 0;
+	ngramIndex = new NgramIndex(blockIndex.wordCount);
+	try (IndexReader reader = new IndexReader(getMappedIndexFile(), this.indexLocation, 0)) {
+		int position = 0;
+		for (int block = 0, blocks = blockIndex.blockCount(); block < blocks; block++) {
+			reader.position = blockIndex.blockOffsets[block];
+			int blockEnd = blockIndex.blockOffsets[block + 1];
+			char[] word = null;
+			while (reader.position < blockEnd) {
+				word = reader.readWord(word);
+				reader.skipDocumentNumbers();
+				ngramIndex.add(position++, word);
 			}
 		}
-		this.categoryTables.put(INTERNED_CATEGORY_NAMES.get(categoryName), categoryTable);
-		// cache the table as long as its not too big
-		// in practice, some tables can be greater than 500K when they contain more than 10K elements
-		this.cachedCategoryName = categoryTable.elementSize < 20000 ? categoryName : null;
-	} catch (IOException ioe) {
-		this.streamBuffer = null;
-		throw ioe;
-	} finally {
-		stream.close();
-		this.indexLocation.close();
+	}
+	ngramIndex.trim();
+	if (DEBUG)
+		System.out.println("DiskIndex: read the n-grams of " + blockIndex.wordCount + " words of " + this.indexLocation //$NON-NLS-1$ //$NON-NLS-2$
+				+ " in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+	blockIndex.ngramIndex = new SoftReference<>(ngramIndex);
+	return ngramIndex;
+}
+private synchronized HashtableOfObject readCategoryTable(char[] categoryName) throws IOException {
+	// result will be null if categoryName is unknown
+	BlockIndex blockIndex = readBlockIndex(categoryName);
+	if (blockIndex == null) {
+		return null;
 	}
 
-	if (matchingWords != null && count > 0) {
-		stream = this.indexLocation.getInputStream();
-		try {
-			stream.skip(firstOffset);
-			this.bufferIndex = 0;
-			this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
-			for (int i = 0; i < count; i++) { // each array follows the previous one
-				categoryTable.put(matchingWords[i], readStreamDocumentArray(stream, readStreamInt(stream)));
+	HashtableOfObject categoryTable = new HashtableOfObject(blockIndex.wordCount);
+	try (IndexReader reader = new IndexReader(getMappedIndexFile(), this.indexLocation, 0)) {
+		for (int block = 0, blocks = blockIndex.blockCount(); block < blocks; block++) {
+			reader.position = blockIndex.blockOffsets[block];
+			int blockEnd = blockIndex.blockOffsets[block + 1];
+			char[] word = null;
+			while (reader.position < blockEnd) {
+				word = reader.readWord(word);
+				categoryTable.putUnsafely(word, reader.readDocumentNumbers());
 			}
-		} catch (IOException ioe) {
-			this.streamBuffer = null;
-			throw ioe;
-		} finally {
-			stream.close();
-			this.indexLocation.close();
 		}
 	}
-	this.streamBuffer = null;
 	return categoryTable;
 }
+private synchronized ByteBuffer getMappedIndexFile() throws IOException {
+	if (this.mappedIndexFile == null && MAP_INDEX_FILES) {
+		File indexFile = this.indexLocation.getIndexFile();
+		if (indexFile != null) { // not a pre-built index in a jar
+			try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+				this.mappedIndexFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		}
+	}
+	return this.mappedIndexFile;
+}
 private void readChunk(String[] docNames, InputStream stream, int index, int size) throws IOException {
 	String current = new String(readStreamChars(stream));
 	docNames[index++] = current;
@@ -806,24 +1014,55 @@ synchronized String readDocumentName(int docNumber) throws IOException {
 	this.streamBuffer = null;
 	return chunk[docNumber - (chunkNumber * CHUNK_SIZE)];
 }
-synchronized int[] readDocumentNumbers(Object arrayOffset) throws IOException {
-	// arrayOffset is either a cached array of docNumbers or an Integer offset in the file
-	if (arrayOffset instanceof int[])
-		return (int[]) arrayOffset;
+synchronized PostingList readPostingList(Object documentTable) throws IOException {
+	// documentTable is either the posting list of the document numbers or an Integer offset in the file
+	if (documentTable instanceof PostingList)
+		return (PostingList) documentTable;
 
-	InputStream stream = this.indexLocation.getInputStream();
-	try (stream) {
-		int offset = ((Integer) arrayOffset).intValue();
-		stream.skip(offset);
-		this.streamBuffer = new byte[BUFFER_READ_SIZE];
-		this.bufferIndex = 0;
-		this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
-		return readStreamDocumentArray(stream, readStreamInt(stream));
-	} finally {
-		this.indexLocation.close();
-		this.streamBuffer = null;
+	try (IndexReader reader = new IndexReader(getMappedIndexFile(), this.indexLocation, ((Integer) documentTable).intValue())) {
+		return reader.readPostingList();
 	}
 }
+/*
+ * Answer the numbers of the given documents which are in this index.
+ */
+private PostingList readDocumentNumbers(SimpleLookupTable documents) throws IOException {
+	int[] documentNumbers = new int[documents.elementSize];
+	int count = 0;
+	Object[] documentNames = documents.keyTable;
+	for (int i = 0, l = documentNames.length; i < l; i++) {
+		if (documentNames[i] != null) {
+			int documentNumber = readDocumentNumber((String) documentNames[i]);
+			if (documentNumber >= 0)
+				documentNumbers[count++] = documentNumber;
+		}
+	}
+	if (count < documentNumbers.length)
+		System.arraycopy(documentNumbers, 0, documentNumbers = new int[count], 0, count);
+	Util.sort(documentNumbers);
+	return PostingList.of(documentNumbers);
+}
+/*
+ * Answer the number of the given document, or -1 if the document is not in this index.
+ */
+private int readDocumentNumber(String documentName) throws IOException {
+	if (this.numberOfChunks <= 0) return -1;
+
+	// the document names are sorted, see mergeWith(MemoryIndex)
+	int low = 0;
+	int high = (this.numberOfChunks - 1) * CHUNK_SIZE + this.sizeOfLastChunk - 1;
+	while (low <= high) {
+		int mid = (low + high) >>> 1;
+		int comparison = readDocumentName(mid).compareTo(documentName);
+		if (comparison < 0)
+			low = mid + 1;
+		else if (comparison > 0)
+			high = mid - 1;
+		else
+			return mid;
+	}
+	return -1;
+}
 private void readHeaderInfo(InputStream stream) throws IOException {
 
 	// must be same order as writeHeaderInfo()
@@ -867,7 +1106,7 @@ private void readHeaderInfo(InputStream stream) throws IOException {
 	if (previousCategory != null) {
 		this.categoryEnds.put(previousCategory, this.headerInfoOffset); // cache end of the category table
 	}
-	this.categoryTables = new HashtableOfObject(3);
+	this.categoryBlockIndexes = new HashtableOfObject(3);
 }
 synchronized void startQuery() {
 	this.cacheUserCount++;
@@ -877,15 +1116,6 @@ synchronized void stopQuery() {
 		// clear cached items
 		this.cacheUserCount = -1;
 		this.cachedChunks = null;
-		if (this.categoryTables != null) {
-			if (this.cachedCategoryName == null) {
-				this.categoryTables = null;
-			} else if (this.categoryTables.elementSize > 1) {
-				HashtableOfObject newTables = new HashtableOfObject(3);
-				newTables.put(this.cachedCategoryName, this.categoryTables.get(this.cachedCategoryName));
-				this.categoryTables = newTables;
-			}
-		}
 	}
 }
 private void readStreamBuffer(InputStream stream) throws IOException {
@@ -988,47 +1218,6 @@ private char[] readStreamChars(InputStream stream) throws IOException {
 	}
 	return word;
 }
-private int[] readStreamDocumentArray(InputStream stream, int arraySize) throws IOException {
-	int[] indexes = new int[arraySize];
-	if (arraySize == 0) return indexes;
-
-	int i = 0;
-	switch (this.documentReferenceSize) {
-		case 1 :
-			while (i < arraySize) {
-				// how many bytes without refilling the buffer?
-				int bytesInBuffer = i + this.bufferEnd - this.bufferIndex;
-				if (bytesInBuffer > arraySize)
-					bytesInBuffer = arraySize;
-				while (i < bytesInBuffer) {
-					indexes[i++] = this.streamBuffer[this.bufferIndex++] & 0xFF;
-				}
-				if (i < arraySize && stream != null)
-					readStreamBuffer(stream);
-			}
-			break;
-		case 2 :
-			while (i < arraySize) {
-				// how many shorts without refilling the buffer?
-				int shortsInBuffer = i + ((this.bufferEnd - this.bufferIndex) / 2);
-				if (shortsInBuffer > arraySize)
-					shortsInBuffer = arraySize;
-				while (i < shortsInBuffer) {
-					int val = (this.streamBuffer[this.bufferIndex++] & 0xFF) << 8;
-					indexes[i++] = val + (this.streamBuffer[this.bufferIndex++] & 0xFF);
-				}
-				if (i < arraySize && stream != null)
-					readStreamBuffer(stream);
-			}
-			break;
-		default :
-			while (i < arraySize) {
-				indexes[i++] = readStreamInt(stream);
-			}
-			break;
-	}
-	return indexes;
-}
 private int readStreamInt(InputStream stream) throws IOException {
 	if (this.bufferIndex + 4 >= this.bufferEnd) {
 		readStreamBuffer(stream);
@@ -1114,94 +1303,65 @@ private void writeCategories(FileOutputStream stream) throws IOException {
 }
 private void writeCategoryTable(char[] categoryName, HashtableOfObject wordsToDocs, FileOutputStream stream) throws IOException {
 	// the format of a category table is as follows:
-	// any document number arrays with >= 256 elements are written before the table (the offset to each array is remembered)
-	// then the number of word->int[] pairs in the table is written
-	// for each word -> int[] pair, the word is written followed by:
-	//		an int <= 0 if the array size == 1
-	//		an int > 1 & < 256 for the size of the array if its > 1 & < 256, the document array follows immediately
-	//		256 if the array size >= 256 followed by another int which is the offset to the array (written prior to the table)
-
-	int largeArraySize = 256;
+	// the words are sorted, then written in blocks of BLOCK_SIZE words before the table, each word followed by its documents:
+	//		a varint for the number of characters shared with the previous word of the block (0 for the first word of a block),
+	//		a varint for the number of remaining characters followed by each remaining character as a varint
+	//		a varint for the number of documents, a varint for the number of bytes of the document numbers,
+	//		then the sorted document numbers, each one as a varint of its difference with the previous one
+	// then the table itself is written as a sparse index of the blocks:
+	//		a varint for the number of words and a varint for the number of blocks
+	//		for each block, its first word (as the first word of a block) followed by a varint for the offset of the block
+	// the last block ends at the start of the table
+
+	char[][] words = new char[wordsToDocs.elementSize][];
+	int wordCount = 0;
+	char[][] keys = wordsToDocs.keyTable;
 	Object[] values = wordsToDocs.valueTable;
-	for (int i = 0, l = values.length; i < l; i++) {
-		Object o = values[i];
-		if (o != null) {
-			if (o instanceof IntList)
-				o = values[i] = ((IntList) values[i]).asArray();
-			int[] documentNumbers = (int[]) o;
-			if (documentNumbers.length >= largeArraySize) {
-				values[i] = Integer.valueOf(this.streamEnd);
-				writeDocumentNumbers(documentNumbers, stream);
-			}
+	for (int i = 0, l = keys.length; i < l; i++)
+		if (values[i] != null)
+			words[wordCount++] = keys[i];
+	if (wordCount < words.length)
+		System.arraycopy(words, 0, words = new char[wordCount][], 0, wordCount);
+	Util.sort(words);
+
+	int blockCount = (wordCount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+	int[] blockOffsets = new int[blockCount];
+	char[] previous = null;
+	for (int i = 0; i < wordCount; i++) {
+		char[] word = words[i];
+		int shared = 0;
+		if (i % BLOCK_SIZE == 0) {
+			blockOffsets[i / BLOCK_SIZE] = this.streamEnd;
+		} else {
+			int max = Math.min(previous.length, word.length);
+			while (shared < max && previous[shared] == word[shared])
+				shared++;
 		}
+		writeStreamWord(stream, word, shared);
+		Object o = wordsToDocs.get(word);
+		writeDocumentNumbers(o instanceof IntList ? ((IntList) o).asArray() : (int[]) o, stream);
+		previous = word;
 	}
 
 	this.categoryOffsets.put(categoryName, this.streamEnd); // remember the offset to the start of the table
 	this.categoryTables.put(categoryName, null); // flush cached table
-	writeStreamInt(stream, wordsToDocs.elementSize);
-	char[][] words = wordsToDocs.keyTable;
-	for (int i = 0, l = words.length; i < l; i++) {
-		Object o = values[i];
-		if (o != null) {
-			writeStreamChars(stream, words[i]);
-			if (o instanceof int[]) {
-				int[] documentNumbers = (int[]) o;
-				if (documentNumbers.length == 1)
-					writeStreamInt(stream, -documentNumbers[0]); // store an array of 1 element by negating the documentNumber (can be zero)
-				else
-					writeDocumentNumbers(documentNumbers, stream);
-			} else {
-				writeStreamInt(stream, largeArraySize); // mark to identify that an offset follows
-				writeStreamInt(stream, ((Integer) o).intValue()); // offset in the file of the array of document numbers
-			}
-		}
+	writeStreamVarInt(stream, wordCount);
+	writeStreamVarInt(stream, blockCount);
+	for (int i = 0; i < blockCount; i++) {
+		writeStreamWord(stream, words[i * BLOCK_SIZE], 0);
+		writeStreamVarInt(stream, blockOffsets[i]);
 	}
 }
 private void writeDocumentNumbers(int[] documentNumbers, FileOutputStream stream) throws IOException {
-	// must store length as a positive int to detect in-lined array of 1 element
 	int length = documentNumbers.length;
-	writeStreamInt(stream, length);
 	Util.sort(documentNumbers);
-	int start = 0;
-	switch (this.documentReferenceSize) {
-		case 1 :
-			while ((this.bufferIndex + length - start) >= BUFFER_WRITE_SIZE) {
-				// when documentNumbers is large, write BUFFER_WRITE_SIZE parts & fall thru to write the last part
-				int bytesLeft = BUFFER_WRITE_SIZE - this.bufferIndex;
-				for (int i=0; i < bytesLeft; i++) {
-					this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-				}
-				stream.write(this.streamBuffer, 0, this.bufferIndex);
-				this.bufferIndex = 0;
-			}
-			while (start < length) {
-				this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-			}
-			this.streamEnd += length;
-			break;
-		case 2 :
-			while ((this.bufferIndex + ((length - start) * 2)) >= BUFFER_WRITE_SIZE) {
-				// when documentNumbers is large, write BUFFER_WRITE_SIZE parts & fall thru to write the last part
-				int shortsLeft = (BUFFER_WRITE_SIZE - this.bufferIndex) / 2;
-				for (int i=0; i < shortsLeft; i++) {
-					this.streamBuffer[this.bufferIndex++] = (byte) (documentNumbers[start] >> 8);
-					this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-				}
-				stream.write(this.streamBuffer, 0, this.bufferIndex);
-				this.bufferIndex = 0;
-			}
-			while (start < length) {
-				this.streamBuffer[this.bufferIndex++] = (byte) (documentNumbers[start] >> 8);
-				this.streamBuffer[this.bufferIndex++] = (byte) documentNumbers[start++];
-			}
-			this.streamEnd += length * 2;
-			break;
-		default :
-			while (start < length) {
-				writeStreamInt(stream, documentNumbers[start++]);
-			}
-			break;
-	}
+	int numberOfBytes = 0;
+	for (int i = 0, previous = 0; i < length; previous = documentNumbers[i++])
+		numberOfBytes += varIntSize(documentNumbers[i] - previous);
+	writeStreamVarInt(stream, length);
+	writeStreamVarInt(stream, numberOfBytes);
+	for (int i = 0, previous = 0; i < length; previous = documentNumbers[i++])
+		writeStreamVarInt(stream, documentNumbers[i] - previous);
 }
 private void writeHeaderInfo(FileOutputStream stream) throws IOException {
 	writeStreamInt(stream, this.numberOfChunks);
@@ -1336,6 +1496,34 @@ private void writeStreamChars(FileOutputStream stream, char[] array, int start,
 	}
 	this.streamEnd += this.bufferIndex - oldIndex;
 }
+private static int varIntSize(int value) {
+	int size = 1;
+	while ((value & ~0x7F) != 0) {
+		value >>>= 7;
+		size++;
+	}
+	return size;
+}
+private void writeStreamVarInt(FileOutputStream stream, int value) throws IOException {
+	if ((this.bufferIndex + 5) >= BUFFER_WRITE_SIZE)  {
+		stream.write(this.streamBuffer, 0, this.bufferIndex);
+		this.bufferIndex = 0;
+	}
+	int oldIndex = this.bufferIndex;
+	while ((value & ~0x7F) != 0) {
+		this.streamBuffer[this.bufferIndex++] = (byte) ((value & 0x7F) | 0x80);
+		value >>>= 7;
+	}
+	this.streamBuffer[this.bufferIndex++] = (byte) value;
+	this.streamEnd += this.bufferIndex - oldIndex;
+}
+// writes a word of a block, which shares its first characters with the previous word of the block
+private void writeStreamWord(FileOutputStream stream, char[] word, int shared) throws IOException {
+	writeStreamVarInt(stream, shared);
+	writeStreamVarInt(stream, word.length - shared);
+	for (int i = shared, l = word.length; i < l; i++)
+		writeStreamVarInt(stream, word[i]);
+}
 private void writeStreamInt(FileOutputStream stream, int val) throws IOException {
 	if ((this.bufferIndex + 4) >= BUFFER_WRITE_SIZE)  {
 		stream.write(this.streamBuffer, 0, this.bufferIndex);
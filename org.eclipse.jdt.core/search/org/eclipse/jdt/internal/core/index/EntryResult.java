@@ -44,26 +44,24 @@ public void addDocumentTable(Object table) {
 public char[] getWord() {
 	return this.word;
 }
-public String[] getDocumentNames(Index index) throws java.io.IOException {
-	if (this.documentTables != null) {
-		int length = this.documentTables.length;
-		if (length == 1 && this.documentNames == null) { // have a single table
-			Object offset = this.documentTables[0];
-			int[] numbers = index.diskIndex.readDocumentNumbers(offset);
-			String[] names = new String[numbers.length];
-			for (int i = 0, l = numbers.length; i < l; i++)
-				names[i] = index.diskIndex.readDocumentName(numbers[i]);
-			return names;
-		}
-
-		for (int i = 0; i < length; i++) {
-			Object offset = this.documentTables[i];
-			int[] numbers = index.diskIndex.readDocumentNumbers(offset);
-			for (int j = 0, k = numbers.length; j < k; j++)
-				addDocumentName(index.diskIndex.readDocumentName(numbers[j]));
-		}
-	}
+/**
+ * Answer the numbers of the documents of the disk index of the given index which contain the word, as given to
+ * {@link Index#getDocumentNames(PostingList)}. The documents of the memory index are not included.
+ */
+public PostingList getDocumentNumbers(Index index) throws java.io.IOException {
+	if (this.documentTables == null)
+		return PostingList.EMPTY;
 
+	int length = this.documentTables.length;
+	PostingList[] documentNumbers = new PostingList[length];
+	for (int i = 0; i < length; i++)
+		documentNumbers[i] = index.diskIndex.readPostingList(this.documentTables[i]);
+	return PostingList.union(documentNumbers);
+}
+/**
+ * Answer the names of the documents of the memory index of the given index which contain the word.
+ */
+public String[] getMemoryDocumentNames() {
 	if (this.documentNames == null)
 		return CharOperation.NO_STRINGS;
 
@@ -75,6 +73,20 @@ public String[] getDocumentNames(Index index) throws java.io.IOException {
 			names[count++] = (String) values[i];
 	return names;
 }
+public String[] getDocumentNames(Index index) throws java.io.IOException {
+	// the documents of the memory index are skipped by the document tables, so the names are distinct
+	String[] memoryNames = getMemoryDocumentNames();
+	if (this.documentTables == null)
+		return memoryNames;
+
+	String[] names = index.getDocumentNames(getDocumentNumbers(index));
+	if (memoryNames.length == 0)
+		return names;
+	int length = names.length;
+	System.arraycopy(names, 0, names = new String[length + memoryNames.length], 0, length);
+	System.arraycopy(memoryNames, 0, names, length, memoryNames.length);
+	return names;
+}
 public boolean isEmpty() {
 	return this.documentTables == null && this.documentNames == null;
 }
@@ -183,6 +183,25 @@ public EntryResult[] query(char[][] categories, char[] key, int matchRule) throw
 	}
 	return entryResults;
 }
+/**
+ * Returns the names of the documents of the disk index with the given numbers, as answered by
+ * {@link EntryResult#getDocumentNumbers(Index)}.
+ */
+public String[] getDocumentNames(PostingList documentNumbers) throws IOException {
+	int[] numbers = documentNumbers.toArray();
+	String[] names = new String[numbers.length];
+	for (int i = 0, l = numbers.length; i < l; i++)
+		names[i] = this.diskIndex.readDocumentName(numbers[i]);
+	return names;
+}
+/**
+ * Returns an object identifying the numbers of the documents of the disk index. The numbers of the documents change
+ * when a query saves the index, so the document numbers answered by different queries can only be combined if they
+ * have the same numbering.
+ */
+public Object getDocumentNumbering() {
+	return this.diskIndex;
+}
 /**
  * Returns the document names that contain the given substring, if null then returns all of them.
  */
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
+
+/**
+ * The n-grams of the words of a category table of a disk index, used to narrow the words which may match a substring
+ * or subword key instead of matching every word of the table.
+ * <p>
+ * The words are identified by their position in the sorted words of the table. Each lower case character and each
+ * sequence of 3 lower case characters of a word is mapped to the posting list of the positions of the words containing
+ * it. A word matching a substring key contains all the trigrams of the key, and a word matching a subword or camel
+ * case key contains all the characters of the key.
+ * </p>
+ * <p>
+ * The n-grams of 600,000 type declarations of 39 characters on average take about 35MB, so the disk index only
+ * references them softly.
+ * </p>
+ */
+class NgramIndex {
+
+private static final int TRIGRAM = 3;
+
+private final HashtableOfObject ngrams; // char[] n-gram -> PostingList of the positions of the words
+
+NgramIndex(int wordCount) {
+	this.ngrams = new HashtableOfObject(wordCount < 1000 ? 100 : 2000);
+}
+/*
+ * Add the n-grams of the given word, which must follow the words already added.
+ */
+void add(int position, char[] word) {
+	int length = word.length;
+	char[] lowerCase = new char[length];
+	for (int i = 0; i < length; i++)
+		lowerCase[i] = Character.toLowerCase(word[i]);
+	char[] unigram = new char[1], trigram = new char[TRIGRAM]; // copied when added to the table
+	for (int i = 0; i < length; i++) {
+		unigram[0] = lowerCase[i];
+		addNgram(position, unigram);
+		if (i + TRIGRAM <= length) {
+			System.arraycopy(lowerCase, i, trigram, 0, TRIGRAM);
+			addNgram(position, trigram);
+		}
+	}
+}
+/*
+ * Release the space reserved for the positions of the words to add, once all the words are added.
+ */
+void trim() {
+	Object[] positions = this.ngrams.valueTable;
+	for (int i = 0, length = positions.length; i < length; i++)
+		if (positions[i] != null)
+			((PostingList) positions[i]).trim();
+}
+private void addNgram(int position, char[] ngram) {
+	PostingList positions = (PostingList) this.ngrams.get(ngram);
+	if (positions == null)
+		this.ngrams.put(ngram.clone(), positions = new PostingList(1));
+	positions.add(position); // the n-grams occurring several times in the word are added once
+}
+/*
+ * Answer the positions of the words which may match the given key with the given match rule, or null if any word may
+ * match the key.
+ */
+PostingList candidates(char[] key, int matchRule) {
+	int length = key.length;
+	if (length == 0 || (matchRule & (SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH)) == 0)
+		return null;
+
+	// the words matching the rest of the rule, see Index.isMatch(char[], char[], int)
+	boolean contiguous = (matchRule & SearchPattern.R_SUBWORD_MATCH) == 0;
+	switch (matchRule & ~(SearchPattern.R_SUBSTRING_MATCH | SearchPattern.R_SUBWORD_MATCH | SearchPattern.R_CASE_SENSITIVE)) {
+		case SearchPattern.R_EXACT_MATCH :
+		case SearchPattern.R_PREFIX_MATCH :
+			break;
+		case SearchPattern.R_CAMELCASE_MATCH :
+		case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH :
+			contiguous = false;
+			break;
+		default : // wild cards and regular expressions may match any character
+			return null;
+	}
+
+	char[] lowerCase = new char[length];
+	for (int i = 0; i < length; i++)
+		lowerCase[i] = Character.toLowerCase(key[i]);
+	PostingList candidates = null;
+	if (contiguous && length >= TRIGRAM) {
+		for (int i = 0; i + TRIGRAM <= length; i++) {
+			candidates = intersect(candidates, new char[] {lowerCase[i], lowerCase[i + 1], lowerCase[i + 2]});
+			if (candidates.isEmpty()) break;
+		}
+	} else {
+		for (int i = 0; i < length; i++) {
+			candidates = intersect(candidates, new char[] {lowerCase[i]});
+			if (candidates.isEmpty()) break;
+		}
+	}
+	return candidates;
+}
+private PostingList intersect(PostingList candidates, char[] ngram) {
+	PostingList positions = (PostingList) this.ngrams.get(ngram);
+	if (positions == null)
+		return PostingList.EMPTY;
+	return candidates == null ? positions : candidates.and(positions);
+}
+}
@@ -0,0 +1,353 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of document numbers of a disk index, answered by the entries of a query.
+ * <p>
+ * The document numbers are grouped by their high 16 bits. The low 16 bits of the numbers of a group are kept in a
+ * sorted array when the group has at most {@link #MAX_ARRAY_SIZE} numbers, and in a bitmap of 65536 bits otherwise,
+ * so that a set of many numbers takes at most 8K bytes per 65536 documents. The unions and intersections of bitmaps
+ * are computed a long at a time.
+ * </p>
+ * A posting list is not modified once it is built.
+ */
+public final class PostingList {
+
+public static final PostingList EMPTY = new PostingList(0);
+
+public static final int MAX_ARRAY_SIZE = 4096; // an array of more numbers is bigger than a bitmap
+private static final int BITMAP_LENGTH = 1024; // longs in a bitmap of 65536 bits
+
+private char[] keys; // the high 16 bits of the numbers of each group, sorted
+private Object[] containers; // char[] of the sorted low 16 bits of the numbers of each group, or long[] bitmap
+private int[] cardinalities; // number of document numbers in each group
+private int size; // number of groups
+
+PostingList(int initialSize) {
+	this.keys = new char[initialSize];
+	this.containers = new Object[initialSize];
+	this.cardinalities = new int[initialSize];
+	this.size = 0;
+}
+/**
+ * Answer the posting list of the given document numbers, which must be sorted.
+ */
+public static PostingList of(int[] documentNumbers) {
+	PostingList postingList = new PostingList(1);
+	for (int i = 0, length = documentNumbers.length; i < length; i++)
+		postingList.add(documentNumbers[i]);
+	return postingList;
+}
+/*
+ * Add the given document number, which must not be less than the document numbers already added. Adding the last
+ * document number again has no effect.
+ */
+void add(int documentNumber) {
+	char key = (char) (documentNumber >>> 16);
+	char low = (char) documentNumber;
+	if (this.size == 0 || this.keys[this.size - 1] != key) {
+		addContainer(key, new char[4], 0);
+	}
+	int last = this.size - 1;
+	int cardinality = this.cardinalities[last];
+	Object container = this.containers[last];
+	if (container instanceof char[]) {
+		char[] array = (char[]) container;
+		if (cardinality > 0 && array[cardinality - 1] == low) {
+			return;
+		} else if (cardinality == MAX_ARRAY_SIZE) {
+			long[] bitmap = toBitmap(array, cardinality);
+			bitmap[low >>> 6] |= 1L << low;
+			this.containers[last] = bitmap;
+		} else {
+			if (cardinality == array.length)
+				System.arraycopy(array, 0, array = new char[Math.min(cardinality * 2, MAX_ARRAY_SIZE)], 0, cardinality);
+			array[cardinality] = low;
+			this.containers[last] = array;
+		}
+	} else {
+		long[] bitmap = (long[]) container;
+		if ((bitmap[low >>> 6] & (1L << low)) != 0)
+			return;
+		bitmap[low >>> 6] |= 1L << low;
+	}
+	this.cardinalities[last] = cardinality + 1;
+}
+/*
+ * Release the space reserved for the document numbers to add, once all are added.
+ */
+void trim() {
+	if (this.size < this.keys.length) {
+		System.arraycopy(this.keys, 0, this.keys = new char[this.size], 0, this.size);
+		System.arraycopy(this.containers, 0, this.containers = new Object[this.size], 0, this.size);
+		System.arraycopy(this.cardinalities, 0, this.cardinalities = new int[this.size], 0, this.size);
+	}
+	for (int i = 0; i < this.size; i++) {
+		Object container = this.containers[i];
+		if (container instanceof char[] && ((char[]) container).length > this.cardinalities[i])
+			System.arraycopy(container, 0, this.containers[i] = new char[this.cardinalities[i]], 0, this.cardinalities[i]);
+	}
+}
+private void addContainer(char key, Object container, int cardinality) {
+	if (this.size == this.keys.length) {
+		int newLength = this.size * 2 + 1;
+		System.arraycopy(this.keys, 0, this.keys = new char[newLength], 0, this.size);
+		System.arraycopy(this.containers, 0, this.containers = new Object[newLength], 0, this.size);
+		System.arraycopy(this.cardinalities, 0, this.cardinalities = new int[newLength], 0, this.size);
+	}
+	this.keys[this.size] = key;
+	this.containers[this.size] = container;
+	this.cardinalities[this.size++] = cardinality;
+}
+// adds a group computed by a set operation, unless it is empty
+private void addBitmap(char key, long[] bitmap, int cardinality) {
+	if (cardinality == 0) return;
+	if (cardinality > MAX_ARRAY_SIZE)
+		addContainer(key, bitmap, cardinality);
+	else
+		addContainer(key, toArray(bitmap, cardinality), cardinality);
+}
+private static long[] toBitmap(char[] array, int cardinality) {
+	long[] bitmap = new long[BITMAP_LENGTH];
+	for (int i = 0; i < cardinality; i++)
+		bitmap[array[i] >>> 6] |= 1L << array[i];
+	return bitmap;
+}
+private static char[] toArray(long[] bitmap, int cardinality) {
+	char[] array = new char[cardinality];
+	int index = 0;
+	for (int i = 0; i < BITMAP_LENGTH; i++) {
+		long word = bitmap[i];
+		while (word != 0) {
+			array[index++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+			word &= word - 1;
+		}
+	}
+	return array;
+}
+private static int cardinality(long[] bitmap) {
+	int cardinality = 0;
+	for (int i = 0; i < BITMAP_LENGTH; i++)
+		cardinality += Long.bitCount(bitmap[i]);
+	return cardinality;
+}
+private long[] bitmapAt(int index) {
+	Object container = this.containers[index];
+	return container instanceof long[] ? (long[]) container : null;
+}
+/**
+ * Answer the union of the given posting lists.
+ */
+public static PostingList union(PostingList[] lists) {
+	int length = lists.length;
+	if (length == 0) return EMPTY;
+	if (length == 1) return lists[0];
+
+	PostingList union = new PostingList(lists[0].size);
+	int[] positions = new int[length];
+	long[] bitmap = null;
+	while (true) {
+		// the smallest key of the groups not added yet
+		int key = Integer.MAX_VALUE;
+		for (int i = 0; i < length; i++)
+			if (positions[i] < lists[i].size && lists[i].keys[positions[i]] < key)
+				key = lists[i].keys[positions[i]];
+		if (key == Integer.MAX_VALUE) return union;
+
+		int matching = 0, last = 0;
+		for (int i = 0; i < length; i++) {
+			if (positions[i] < lists[i].size && lists[i].keys[positions[i]] == key) {
+				matching++;
+				last = i;
+			}
+		}
+		if (matching == 1) { // shared by the union since posting lists are not modified
+			PostingList list = lists[last];
+			int position = positions[last]++;
+			union.addContainer((char) key, list.containers[position], list.cardinalities[position]);
+			continue;
+		}
+
+		if (bitmap == null)
+			bitmap = new long[BITMAP_LENGTH];
+		for (int i = 0; i < length; i++) {
+			PostingList list = lists[i];
+			int position = positions[i];
+			if (position < list.size && list.keys[position] == key) {
+				long[] other = list.bitmapAt(position);
+				if (other != null) {
+					for (int j = 0; j < BITMAP_LENGTH; j++)
+						bitmap[j] |= other[j];
+				} else {
+					char[] array = (char[]) list.containers[position];
+					for (int j = 0, l = list.cardinalities[position]; j < l; j++)
+						bitmap[array[j] >>> 6] |= 1L << array[j];
+				}
+				positions[i]++;
+			}
+		}
+		int cardinality = cardinality(bitmap);
+		if (cardinality > MAX_ARRAY_SIZE) {
+			union.addContainer((char) key, bitmap, cardinality);
+			bitmap = null;
+		} else {
+			union.addContainer((char) key, toArray(bitmap, cardinality), cardinality);
+			Arrays.fill(bitmap, 0L);
+		}
+	}
+}
+/**
+ * Answer the document numbers of this posting list which are also in the given posting list.
+ */
+public PostingList and(PostingList other) {
+	return intersect(other, false);
+}
+/**
+ * Answer the document numbers of this posting list which are not in the given posting list.
+ */
+public PostingList andNot(PostingList other) {
+	return intersect(other, true);
+}
+private PostingList intersect(PostingList other, boolean complement) {
+	if (this.size == 0 || (other.size == 0 && complement)) return this;
+	if (other.size == 0) return EMPTY;
+
+	PostingList result = new PostingList(complement ? this.size : Math.min(this.size, other.size));
+	int i = 0, j = 0;
+	while (i < this.size) {
+		char key = this.keys[i];
+		while (j < other.size && other.keys[j] < key)
+			j++;
+		if (j == other.size || other.keys[j] != key) {
+			if (complement)
+				result.addContainer(key, this.containers[i], this.cardinalities[i]);
+			i++;
+			continue;
+		}
+
+		long[] bitmap = bitmapAt(i), otherBitmap = other.bitmapAt(j);
+		if (bitmap != null && otherBitmap != null) {
+			long[] words = new long[BITMAP_LENGTH];
+			if (complement) {
+				for (int k = 0; k < BITMAP_LENGTH; k++)
+					words[k] = bitmap[k] & ~otherBitmap[k];
+			} else {
+				for (int k = 0; k < BITMAP_LENGTH; k++)
+					words[k] = bitmap[k] & otherBitmap[k];
+			}
+			result.addBitmap(key, words, cardinality(words));
+		} else if (bitmap != null) { // the other group is an array
+			char[] otherArray = (char[]) other.containers[j];
+			int otherCardinality = other.cardinalities[j];
+			if (complement) {
+				long[] words = bitmap.clone();
+				int cardinality = this.cardinalities[i];
+				for (int k = 0; k < otherCardinality; k++) {
+					char low = otherArray[k];
+					if ((words[low >>> 6] & (1L << low)) != 0) {
+						words[low >>> 6] &= ~(1L << low);
+						cardinality--;
+					}
+				}
+				result.addBitmap(key, words, cardinality);
+			} else {
+				char[] array = new char[otherCardinality];
+				int cardinality = 0;
+				for (int k = 0; k < otherCardinality; k++) {
+					char low = otherArray[k];
+					if ((bitmap[low >>> 6] & (1L << low)) != 0)
+						array[cardinality++] = low;
+				}
+				if (cardinality > 0)
+					result.addContainer(key, array, cardinality);
+			}
+		} else { // this group is an array
+			char[] array = (char[]) this.containers[i];
+			int cardinality = this.cardinalities[i];
+			char[] kept = new char[cardinality];
+			int keptCardinality = 0;
+			if (otherBitmap != null) {
+				for (int k = 0; k < cardinality; k++) {
+					char low = array[k];
+					if (((otherBitmap[low >>> 6] & (1L << low)) != 0) != complement)
+						kept[keptCardinality++] = low;
+				}
+			} else {
+				char[] otherArray = (char[]) other.containers[j];
+				int otherCardinality = other.cardinalities[j];
+				for (int k = 0, m = 0; k < cardinality; k++) {
+					char low = array[k];
+					while (m < otherCardinality && otherArray[m] < low)
+						m++;
+					if ((m < otherCardinality && otherArray[m] == low) != complement)
+						kept[keptCardinality++] = low;
+				}
+			}
+			if (keptCardinality > 0)
+				result.addContainer(key, kept, keptCardinality);
+		}
+		i++;
+		j++;
+	}
+	return result.size == 0 ? EMPTY : result;
+}
+/**
+ * Answer the number of document numbers in this posting list.
+ */
+public int cardinality() {
+	int cardinality = 0;
+	for (int i = 0; i < this.size; i++)
+		cardinality += this.cardinalities[i];
+	return cardinality;
+}
+public boolean isEmpty() {
+	return this.size == 0;
+}
+/**
+ * Answer the document numbers of this posting list, sorted.
+ */
+public int[] toArray() {
+	int[] documentNumbers = new int[cardinality()];
+	int index = 0;
+	for (int i = 0; i < this.size; i++) {
+		int high = this.keys[i] << 16;
+		long[] bitmap = bitmapAt(i);
+		if (bitmap != null) {
+			for (int j = 0; j < BITMAP_LENGTH; j++) {
+				long word = bitmap[j];
+				while (word != 0) {
+					documentNumbers[index++] = high | ((j << 6) + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+		} else {
+			char[] array = (char[]) this.containers[i];
+			for (int j = 0, l = this.cardinalities[i]; j < l; j++)
+				documentNumbers[index++] = high | array[j];
+		}
+	}
+	return documentNumbers;
+}
+@Override
+public String toString() {
+	int bitmaps = 0;
+	for (int i = 0; i < this.size; i++)
+		if (bitmapAt(i) != null)
+			bitmaps++;
+	return "PostingList of " + cardinality() + " documents in " + this.size + " groups, " + bitmaps + " bitmaps"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+}
+}
@@ -301,6 +301,10 @@ class AddJarFileToIndex extends BinaryContainer {
 		return this.containerPath.toOSString(); // external jar
 	}
 	@Override
+	public Object getIndexKey() {
+		return this.containerPath;
+	}
+	@Override
 	protected Integer updatedIndexState() {
 
 		Integer updateState = null;
@@ -51,6 +51,10 @@ public class IndexAllProject extends IndexRequest {
 			return this.project.equals(((IndexAllProject) o).project);
 		return false;
 	}
+	@Override
+	public Object getIndexKey() {
+		return this.containerPath; // the source files are then indexed by the jobs it requests, which run alone
+	}
 	/**
 	 * Ensure consistency of a project index. Need to walk all nested resources,
 	 * and discover resources which have either been changed, added or deleted
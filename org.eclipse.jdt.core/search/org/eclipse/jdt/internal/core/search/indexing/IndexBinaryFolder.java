@@ -42,6 +42,10 @@ public class IndexBinaryFolder extends IndexRequest {
 			return this.folder.equals(((IndexBinaryFolder) o).folder);
 		return false;
 	}
+	@Override
+	public Object getIndexKey() {
+		return this.containerPath; // the class files are then indexed by the jobs it requests, which run alone
+	}
 	/**
 	 * Ensure consistency of a folder index. Need to walk all nested resources,
 	 * and discover resources which have either been changed, added or deleted
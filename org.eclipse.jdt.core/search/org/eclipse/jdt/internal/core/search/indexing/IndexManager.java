@@ -137,6 +137,10 @@ public class IndexManager extends JobManager implements IIndexConstants {
 	public static final String INDEX_MANAGER_NOTIFY_IDLE_WAIT_PROPERTY = "jdt.core.indexManager.notifyIdleWait"; //$NON-NLS-1$
 	private static final long INDEX_MANAGER_NOTIFY_IDLE_WAIT = getNotifyIdleWait();
 
+	// maximum number of jars, binary folders and projects indexed at the same time, in different indexes (1 by default)
+	public static final String INDEX_MANAGER_CONCURRENT_JOBS_PROPERTY = "jdt.core.indexManager.concurrentJobs"; //$NON-NLS-1$
+	private static final int INDEX_MANAGER_CONCURRENT_JOBS = getConcurrentJobs();
+
 	// Debug
 	public static boolean DEBUG = false;
 
@@ -808,6 +812,16 @@ public synchronized void jobWasCancelled(IPath containerPath) {
 	}
 	updateIndexState(indexLocation, UNKNOWN_STATE);
 }
+@Override
+protected synchronized void concurrentJobDone(IJob job) {
+	// remember that one job was executed, and we will need to save indexes at some point
+	this.needToSave = true;
+	super.concurrentJobDone(job);
+}
+@Override
+protected int getMaxConcurrentJobs() {
+	return INDEX_MANAGER_CONCURRENT_JOBS;
+}
 /**
  * Advance to the next available job, once the current one has been completed.
  * Note: clients awaiting until the job count is zero are still waiting at this point.
@@ -1168,6 +1182,10 @@ public void saveIndex(Index index) throws IOException {
 				if(job == first) {
 					break;
 				}
+				// nor the jobs executed concurrently, such as the one saving this index
+				if (isRunning(job)) {
+					continue;
+				}
 				if (job instanceof IndexRequest) {
 					if (((IndexRequest) job).containerPath.equals(containerPath)) {
 						return;
@@ -1565,6 +1583,19 @@ private static long getNotifyIdleWait() {
 	return idleWait;
 }
 
+private static int getConcurrentJobs() {
+	int concurrentJobs = 1;
+	String concurrentJobsPropertyValue = System.getProperty(INDEX_MANAGER_CONCURRENT_JOBS_PROPERTY);
+	if (concurrentJobsPropertyValue != null) {
+		try {
+			concurrentJobs = Integer.parseInt(concurrentJobsPropertyValue);
+		} catch (NumberFormatException e) {
+			Util.log(e, "Failed to parse value of property \"" + INDEX_MANAGER_CONCURRENT_JOBS_PROPERTY + "\": " + concurrentJobsPropertyValue); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+	return concurrentJobs;
+}
+
 public Optional<Set<String>> findMatchingIndexNames(QualifierQuery query) {
 	if(DISABLE_META_INDEX) {
 		return Optional.empty();
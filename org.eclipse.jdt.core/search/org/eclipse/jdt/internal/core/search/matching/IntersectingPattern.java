@@ -36,48 +36,70 @@ public IntersectingPattern(int patternKind, int matchRule) {
 public void findIndexMatches(Index index, IndexQueryRequestor requestor, SearchParticipant participant, IJavaSearchScope scope, IProgressMonitor progressMonitor) throws IOException {
 	if (progressMonitor != null && progressMonitor.isCanceled()) throw new OperationCanceledException();
 
-	resetQuery();
-	SimpleSet intersectedNames = null;
+	PostingList intersectedNumbers = null; // documents of the disk index
+	SimpleSet intersectedNames = null; // documents of the memory index
+	String[] names;
 	try {
 		index.startQuery();
-		do {
-			SearchPattern pattern = currentPattern();
-			EntryResult[] entries = pattern.queryIn(index);
-			if (entries == null) return;
+		Object numbering = null;
+		query: while (true) {
+			resetQuery();
+			intersectedNumbers = null;
+			intersectedNames = null;
+			do {
+				SearchPattern pattern = currentPattern();
+				EntryResult[] entries = pattern.queryIn(index);
+				if (entries == null) return;
+				Object newNumbering = index.getDocumentNumbering();
+				if (numbering != null && numbering != newNumbering) {
+					// the query saved the index, the numbers of the previous queries are obsolete
+					numbering = newNumbering;
+					continue query;
+				}
+				numbering = newNumbering;
 
-			SearchPattern decodedResult = pattern.getBlankPattern();
-			SimpleSet newIntersectedNames = new SimpleSet(3);
-			for (int i = 0, l = entries.length; i < l; i++) {
-				if (progressMonitor != null && progressMonitor.isCanceled()) throw new OperationCanceledException();
+				SearchPattern decodedResult = pattern.getBlankPattern();
+				PostingList[] entryNumbers = new PostingList[entries.length];
+				int count = 0;
+				SimpleSet newIntersectedNames = new SimpleSet(3);
+				for (int i = 0, l = entries.length; i < l; i++) {
+					if (progressMonitor != null && progressMonitor.isCanceled()) throw new OperationCanceledException();
 
-				EntryResult entry = entries[i];
-				decodedResult.decodeIndexKey(entry.getWord());
-				if (pattern.matchesDecodedKey(decodedResult)) {
-					String[] names = entry.getDocumentNames(index);
-					if (intersectedNames != null) {
-						for (int j = 0, n = names.length; j < n; j++)
-							if (intersectedNames.includes(names[j]))
-								newIntersectedNames.add(names[j]);
-					} else {
-						for (int j = 0, n = names.length; j < n; j++)
-							newIntersectedNames.add(names[j]);
+					EntryResult entry = entries[i];
+					decodedResult.decodeIndexKey(entry.getWord());
+					if (pattern.matchesDecodedKey(decodedResult)) {
+						entryNumbers[count++] = entry.getDocumentNumbers(index);
+						String[] memoryNames = entry.getMemoryDocumentNames();
+						for (int j = 0, n = memoryNames.length; j < n; j++)
+							if (intersectedNames == null || intersectedNames.includes(memoryNames[j]))
+								newIntersectedNames.add(memoryNames[j]);
 					}
 				}
-			}
+				if (count < entryNumbers.length)
+					System.arraycopy(entryNumbers, 0, entryNumbers = new PostingList[count], 0, count);
+				PostingList newIntersectedNumbers = PostingList.union(entryNumbers);
+				if (intersectedNumbers != null)
+					newIntersectedNumbers = newIntersectedNumbers.and(intersectedNumbers);
 
-			if (newIntersectedNames.elementSize == 0) return;
-			intersectedNames = newIntersectedNames;
-		} while (hasNextQuery());
+				if (newIntersectedNumbers.isEmpty() && newIntersectedNames.elementSize == 0) return;
+				intersectedNumbers = newIntersectedNumbers;
+				intersectedNames = newIntersectedNames;
+			} while (hasNextQuery());
+			break;
+		}
+		names = index.getDocumentNames(intersectedNumbers);
 	} finally {
 		index.stopQuery();
 	}
 
 	String containerPath = index.containerPath;
 	char separator = index.separator;
-	Object[] names = intersectedNames.values;
 	for (int i = 0, l = names.length; i < l; i++)
-		if (names[i] != null)
-			acceptMatch((String) names[i], containerPath, separator, null/*no pattern*/, requestor, participant, scope, progressMonitor); // AndPatterns cannot provide the decoded result
+		acceptMatch(names[i], containerPath, separator, null/*no pattern*/, requestor, participant, scope, progressMonitor); // AndPatterns cannot provide the decoded result
+	Object[] memoryNames = intersectedNames.values;
+	for (int i = 0, l = memoryNames.length; i < l; i++)
+		if (memoryNames[i] != null)
+			acceptMatch((String) memoryNames[i], containerPath, separator, null/*no pattern*/, requestor, participant, scope, progressMonitor);
 }
 
 @Override
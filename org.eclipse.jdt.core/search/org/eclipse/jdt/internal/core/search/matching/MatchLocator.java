@@ -26,11 +26,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 import java.util.zip.ZipFile;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.*;
+import org.eclipse.core.runtime.preferences.IPreferencesService;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IAnnotatable;
 import org.eclipse.jdt.core.IAnnotation;
@@ -123,6 +125,13 @@ static {
 	}
 }
 
+/**
+ * Preference enabling the parallel location of the matches of the documents of several projects, or of many
+ * documents of a project, see {@link ParallelMatchLocator}.
+ */
+public static final String ENABLE_PARALLEL_MATCH_LOCATING = "enableParallelJavaMatchLocating";//$NON-NLS-1$
+public static final boolean ENABLE_PARALLEL_MATCH_LOCATING_DEFAULT = false;
+
 // permanent state
 public SearchPattern pattern;
 public PatternLocator patternLocator;
@@ -173,6 +182,7 @@ HashSet methodHandles;
 private TypeBinding unitScopeTypeBinding = null; // cached
 
 private final boolean searchPackageDeclaration;
+private ParallelMatchLocator parallelLocator; // non null if the possible matches are located by several workers
 private int sourceStartOfMethodToRetain;
 private int sourceEndOfMethodToRetain;
 
@@ -1384,6 +1394,10 @@ protected void locateMatches(JavaProject javaProject, PossibleMatchSet matchSet,
 		this.progressWorked += expected-length;
 		this.progressMonitor.worked( expected-length);
 	}
+	if (this.parallelLocator != null) {
+		this.parallelLocator.add(javaProject, possibleMatches);
+		return;
+	}
 	// locate matches (processed matches are limited to avoid problem while using VM default memory heap size)
 	for (int index = 0; index < length;) {
 		int max = Math.min(MAX_AT_ONCE, length - index);
@@ -1444,6 +1458,10 @@ public void locateMatches(SearchDocument[] searchDocuments) throws CoreException
 
 		// initialize pattern for polymorphic search (i.e. method reference pattern)
 		this.patternLocator.initializePolymorphicSearch(this);
+		if (isParallelMatchLocatingEnabled() && ParallelMatchLocator.canRunInParallel(this)) {
+			// the workers initialize their own pattern locator from this one
+			this.parallelLocator = new ParallelMatchLocator(this, ForkJoinPool.getCommonPoolParallelism());
+		}
 
 		JavaProject previousJavaProject = null;
 		PossibleMatchSet matchSet = new PossibleMatchSet();
@@ -1534,12 +1552,15 @@ public void locateMatches(SearchDocument[] searchDocuments) throws CoreException
 				// problem with classpath in last project -> ignore
 			}
 		}
+		if (this.parallelLocator != null)
+			this.parallelLocator.locateMatches();
 
 		if (this.searchPackageDeclaration) {
 			locatePackageDeclarations(searchParticipant, javaModelProjects);
 		}
 
 	} finally {
+		this.parallelLocator = null;
 		if (this.progressMonitor != null)
 			this.progressMonitor.done();
 		if (this.nameEnvironment != null)
@@ -1549,6 +1570,13 @@ public void locateMatches(SearchDocument[] searchDocuments) throws CoreException
 		this.bindings = null;
 	}
 }
+private static boolean isParallelMatchLocatingEnabled() {
+	IPreferencesService preferenceService = Platform.getPreferencesService();
+	if (preferenceService == null) {
+		return ENABLE_PARALLEL_MATCH_LOCATING_DEFAULT;
+	}
+	return preferenceService.getBoolean(JavaCore.PLUGIN_ID, ENABLE_PARALLEL_MATCH_LOCATING, ENABLE_PARALLEL_MATCH_LOCATING_DEFAULT, null);
+}
 private IJavaSearchScope getSubScope(String optionString, long value, boolean ref) {
 	if (this.subScope != null)
 		return this.subScope;
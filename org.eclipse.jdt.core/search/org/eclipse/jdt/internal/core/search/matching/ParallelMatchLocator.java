@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.matching;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.IParallelizable;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.eclipse.jdt.internal.compiler.lookup.Binding;
+import org.eclipse.jdt.internal.compiler.util.SimpleLookupTable;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.JavaProject;
+import org.eclipse.jdt.internal.core.search.AbstractSearchScope;
+import org.eclipse.jdt.internal.core.search.BasicSearchEngine;
+import org.eclipse.jdt.internal.core.util.HandleFactory;
+import org.eclipse.jdt.internal.core.util.Util;
+
+/**
+ * Locates the matches of the possible matches of a {@link MatchLocator} on several workers.
+ * <p>
+ * The possible matches are partitioned as the sequential locator processes them: by project, then in chunks of at
+ * most {@link MatchLocator#MAX_AT_ONCE} possible matches. Each chunk is parsed and resolved in its own lookup
+ * environment, so the workers locate the chunks independently, each with its own match locator, pattern locator and
+ * handle factory. The matches found by the workers are buffered, then reported to the search requestor by the thread
+ * of the search, in the order the sequential locator would have reported them.
+ * </p>
+ */
+class ParallelMatchLocator {
+
+	// possible matches of a project located by the same lookup environment, and the matches found in them
+	private static final class Partition {
+		final JavaProject javaProject;
+		final PossibleMatch[] possibleMatches;
+		final int start;
+		final int length;
+		final CompletableFuture<Void> located = new CompletableFuture<>();
+		final List<SearchMatch> matches = new ArrayList<>();
+		HashMap<SearchMatch, Binding> matchBinding;
+
+		Partition(JavaProject javaProject, PossibleMatch[] possibleMatches, int start, int length) {
+			this.javaProject = javaProject;
+			this.possibleMatches = possibleMatches;
+			this.start = start;
+			this.length = length;
+		}
+	}
+
+	// cancels the workers when the search is canceled, or when locating a partition failed
+	private static final class WorkerMonitor extends NullProgressMonitor {
+		private volatile boolean canceled;
+		private final IProgressMonitor original;
+
+		WorkerMonitor(IProgressMonitor original) {
+			this.original = original;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return this.canceled || (this.original != null && this.original.isCanceled());
+		}
+
+		@Override
+		public void setCanceled(boolean canceled) {
+			this.canceled = canceled;
+		}
+	}
+
+	// a worker locating partitions one at a time, buffering the matches of the current one
+	private final class Worker implements Runnable {
+		Partition partition;
+
+		@Override
+		public void run() {
+			JavaModelManager manager = JavaModelManager.getJavaModelManager();
+			MatchLocator worker = null;
+			try {
+				worker = newWorkerLocator(this);
+				manager.cacheZipFiles(worker);
+				// reuse the super type names collected by the thread of the search instead of collecting them again
+				worker.patternLocator.initializePolymorphicSearch(worker, ParallelMatchLocator.this.locator.patternLocator);
+				int index;
+				while ((index = ParallelMatchLocator.this.nextPartition.getAndIncrement()) < ParallelMatchLocator.this.partitions.size()) {
+					this.partition = ParallelMatchLocator.this.partitions.get(index);
+					if (ParallelMatchLocator.this.monitor.isCanceled())
+						throw new OperationCanceledException();
+					worker.matchBinding = this.partition.matchBinding = new HashMap<>();
+					try {
+						worker.locateMatches(this.partition.javaProject, this.partition.possibleMatches, this.partition.start, this.partition.length);
+					} catch (JavaModelException e) {
+						// problem with classpath in this project -> skip it
+					}
+					worker.patternLocator.clear();
+					this.partition.located.complete(null);
+				}
+			} catch (Throwable e) {
+				abort(e);
+			} finally {
+				if (worker != null) {
+					if (worker.nameEnvironment != null)
+						worker.nameEnvironment.cleanup();
+					worker.unitScope = null;
+					manager.flushZipFiles(worker);
+				}
+			}
+		}
+	}
+
+	private final MatchLocator locator; // reports the matches to the search requestor
+	private final WorkerMonitor monitor;
+	private final List<Partition> partitions = new ArrayList<>();
+	private final AtomicInteger nextPartition = new AtomicInteger();
+	private final int maxWorkers;
+
+ParallelMatchLocator(MatchLocator locator, int maxWorkers) {
+	this.locator = locator;
+	this.monitor = new WorkerMonitor(locator.progressMonitor);
+	this.maxWorkers = maxWorkers;
+}
+
+/**
+ * Answer whether the matches of the given locator may be located in parallel.
+ */
+static boolean canRunInParallel(MatchLocator locator) {
+	return locator.getClass() == MatchLocator.class // subclasses may rely on a single locator
+		&& IParallelizable.isParallelSearchSupported(locator.pattern)
+		&& IParallelizable.isParallelSearchSupported(locator.scope)
+		&& ForkJoinPool.getCommonPoolParallelism() > 1;
+}
+
+/**
+ * Add the given possible matches of a project, to be located once all the possible matches are added.
+ */
+void add(JavaProject javaProject, PossibleMatch[] possibleMatches) {
+	for (int index = 0, length = possibleMatches.length; index < length;) {
+		int max = Math.min(MatchLocator.MAX_AT_ONCE, length - index);
+		this.partitions.add(new Partition(javaProject, possibleMatches, index, max));
+		index += max;
+	}
+}
+
+/**
+ * Locate the matches of the added possible matches and report them to the search requestor of the locator.
+ */
+void locateMatches() throws CoreException {
+	int partitionCount = this.partitions.size();
+	if (partitionCount == 0) return;
+
+	long start = 0;
+	if (BasicSearchEngine.VERBOSE) {
+		start = System.currentTimeMillis();
+	}
+	if (this.locator.scope instanceof IParallelizable) // before the workers clone it
+		((IParallelizable) this.locator.scope).initBeforeSearch(this.monitor);
+	int workers = Math.min(this.maxWorkers, partitionCount);
+	for (int i = 0; i < workers; i++)
+		ForkJoinPool.commonPool().execute(new Worker());
+	try {
+		for (int i = 0; i < partitionCount; i++) {
+			Partition partition = this.partitions.get(i);
+			try {
+				partition.located.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof CoreException)
+					throw (CoreException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new RuntimeException(cause);
+			}
+			if (this.locator.progressMonitor != null && this.locator.progressMonitor.isCanceled())
+				throw new OperationCanceledException();
+			this.locator.matchBinding.putAll(partition.matchBinding);
+			for (SearchMatch match : partition.matches)
+				this.locator.requestor.acceptSearchMatch(match);
+			this.partitions.set(i, null); // release the possible matches and matches of the reported partition
+			if (this.locator.progressMonitor != null) {
+				this.locator.progressWorked += partition.length;
+				this.locator.progressMonitor.worked(partition.length);
+			}
+		}
+	} finally {
+		this.monitor.setCanceled(true); // stop the workers if reporting failed
+	}
+	if (BasicSearchEngine.VERBOSE) {
+		System.out.println("-> located matches of " + partitionCount + " partitions on " + workers //$NON-NLS-1$ //$NON-NLS-2$
+				+ " workers in " + (System.currentTimeMillis() - start) + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
+
+// create a locator reporting the matches to the partition of the given worker
+private MatchLocator newWorkerLocator(final Worker owner) {
+	SearchRequestor buffer = new SearchRequestor() {
+		@Override
+		public void acceptSearchMatch(SearchMatch match) {
+			owner.partition.matches.add(match);
+		}
+	};
+	MatchLocator worker = new MatchLocator(clone(this.locator.pattern), buffer, clone(this.locator.scope), this.monitor);
+	worker.workingCopies = this.locator.workingCopies;
+	worker.handleFactory = new HandleFactory();
+	worker.bindings = new SimpleLookupTable();
+	worker.progressStep = 1; // progress is reported by the thread of the search
+	return worker;
+}
+
+// fail the partitions not located yet, so that the failure is reported by the thread of the search
+private void abort(Throwable failure) {
+	this.monitor.setCanceled(true);
+	for (int i = 0, length = this.partitions.size(); i < length; i++) {
+		Partition partition = this.partitions.get(i);
+		if (partition != null)
+			partition.located.completeExceptionally(failure);
+	}
+}
+
+private static SearchPattern clone(SearchPattern searchPattern) {
+	if (searchPattern instanceof Cloneable) {
+		try {
+			searchPattern = searchPattern.clone();
+		} catch (CloneNotSupportedException e) {
+			Util.log(new Status(IStatus.WARNING, JavaCore.PLUGIN_ID,
+					"ParallelMatchLocator could not clone " + searchPattern, e)); //$NON-NLS-1$
+		}
+	}
+	return searchPattern;
+}
+
+private static IJavaSearchScope clone(IJavaSearchScope searchScope) {
+	if (searchScope instanceof AbstractSearchScope) {
+		try {
+			searchScope = ((AbstractSearchScope) searchScope).clone();
+		} catch (CloneNotSupportedException e) {
+			Util.log(new Status(IStatus.WARNING, JavaCore.PLUGIN_ID,
+					"ParallelMatchLocator could not clone " + searchScope, e)); //$NON-NLS-1$
+		}
+	}
+	return searchScope;
+}
+}
@@ -58,4 +58,17 @@ public interface IJob {
 	public default boolean waitNeeded() {
 		return false;
 	}
+
+	/**
+	 * Answers the key of the index updated by this job when it may run concurrently with the jobs updating other
+	 * indexes, or {@code null} if it must run alone. Default implementation returns {@code null}.
+	 * <p>
+	 * Jobs with the same key are run one at a time, in the order they were requested.
+	 * </p>
+	 *
+	 * @return the key of the index updated by this job, or {@code null}
+	 */
+	public default Object getIndexKey() {
+		return null;
+	}
 }
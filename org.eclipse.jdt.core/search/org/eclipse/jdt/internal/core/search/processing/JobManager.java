@@ -13,10 +13,17 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.core.search.processing;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -34,6 +41,10 @@ public abstract class JobManager implements Runnable {
 
 	protected volatile boolean executing;
 
+	/* jobs of the queue executed by the workers, see getMaxConcurrentJobs() */
+	private final Set<IJob> runningJobs = Collections.newSetFromMap(new IdentityHashMap<>());
+	private ExecutorService workers;
+
 	/* background processing */
 	protected volatile Thread processingThread;
 	protected volatile Job progressJob;
@@ -73,6 +84,20 @@ public abstract class JobManager implements Runnable {
 		}
 		return null;
 	}
+	/**
+	 * Remove the given job from the queue, once a worker has completed it.
+	 * Note: unlike with {@link #moveToNextJob()}, the job may not be the first one of the queue.
+	 */
+	protected synchronized void concurrentJobDone(IJob job) {
+		this.runningJobs.remove(job);
+		for (Iterator<IJob> it = this.awaitingJobs.iterator(); it.hasNext();) {
+			if (it.next() == job) {
+				it.remove();
+				break;
+			}
+		}
+		notifyAll(); // wake up the background thread and the clients waiting until the queue is empty
+	}
 	public synchronized void disable() {
 		this.enableCount--;
 		if (VERBOSE)
@@ -97,10 +122,16 @@ public abstract class JobManager implements Runnable {
 
 		try {
 			IJob currentJob;
+			List<IJob> runningJobs = new ArrayList<>();
 			// cancel current job if it belongs to the given family
 			synchronized(this){
 				currentJob = currentJob();
 				disable();
+				for (IJob job : this.runningJobs) {
+					if (jobFamily == null || job.belongsTo(jobFamily)) {
+						runningJobs.add(job);
+					}
+				}
 			}
 			if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily))) {
 				currentJob.cancel();
@@ -116,6 +147,19 @@ public abstract class JobManager implements Runnable {
 					}
 				}
 			}
+			// same for the jobs of the family executed by the workers
+			for (IJob job : runningJobs) {
+				job.cancel();
+			}
+			while (this.processingThread != null && isAnyRunning(runningJobs)) {
+				try {
+					if (VERBOSE)
+						Util.verbose("-> waiting end of concurrent background jobs"); //$NON-NLS-1$
+					Thread.sleep(50);
+				} catch(InterruptedException e){
+					// ignore
+				}
+			}
 
 			synchronized(this) {
 				Iterator<IJob> it = this.awaitingJobs.iterator();
@@ -142,6 +186,28 @@ public abstract class JobManager implements Runnable {
 			Util.verbose("ENABLING  background indexing"); //$NON-NLS-1$
 		notifyAll(); // wake up the background thread if it is waiting (context must be synchronized)
 	}
+	/**
+	 * Answer the maximum number of jobs executed at the same time by the workers. The jobs answering an index key are
+	 * executed by the workers when this is more than 1, see {@link IJob#getIndexKey()}. Default implementation returns 1,
+	 * all the jobs are then executed one at a time by the background thread.
+	 */
+	protected int getMaxConcurrentJobs() {
+		return 1;
+	}
+	private synchronized boolean isAnyRunning(List<IJob> jobs) {
+		for (IJob job : jobs) {
+			if (this.runningJobs.contains(job)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	/**
+	 * Answer whether the given job of the queue is being executed by a worker.
+	 */
+	protected synchronized boolean isRunning(IJob job) {
+		return this.runningJobs.contains(job);
+	}
 	protected synchronized boolean isJobWaiting(IJob request) {
 		if(this.awaitingJobs.size() <= 1) {
 			return false;
@@ -155,6 +221,10 @@ public abstract class JobManager implements Runnable {
 			if(job == first) {
 				break;
 			}
+			// nor the jobs executed by the workers
+			if (this.runningJobs.contains(job)) {
+				continue;
+			}
 			if (request.equals(job)) {
 				return true;
 			}
@@ -429,19 +499,23 @@ public abstract class JobManager implements Runnable {
 						}
 						continue;
 					}
+					if (this.progressJob == null) {
+						ProgressJob pJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
+						pJob.setPriority(Job.LONG);
+						pJob.setSystem(true);
+						pJob.schedule();
+						this.progressJob = pJob;
+					}
+					if (getMaxConcurrentJobs() > 1) {
+						// the jobs which may run concurrently are executed by the workers
+						if ((job = takeNextJob()) == null) continue;
+					}
 					if (VERBOSE) {
 						Util.verbose(awaitingJobsCount() + " awaiting jobs"); //$NON-NLS-1$
 						Util.verbose("STARTING background job - " + job); //$NON-NLS-1$
 					}
 					try {
 						this.executing = true;
-						if (this.progressJob == null) {
-							ProgressJob pJob = new ProgressJob(Messages.bind(Messages.jobmanager_indexing, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
-							pJob.setPriority(Job.LONG);
-							pJob.setSystem(true);
-							pJob.schedule();
-							this.progressJob = pJob;
-						}
 						/*boolean status = */job.execute(null);
 						//if (status == FAILED) request(job);
 					} finally {
@@ -485,6 +559,61 @@ public abstract class JobManager implements Runnable {
 			throw e;
 		}
 	}
+	/*
+	 * Submit to the workers the jobs of the queue which may run concurrently, then answer the job to execute in the
+	 * background thread, or null once a worker has completed its job. A job without index key is executed when it is
+	 * the first one of the queue and no worker is running, and the jobs of the same index are executed in the order of
+	 * the queue.
+	 */
+	private synchronized IJob takeNextJob() throws InterruptedException {
+		if (this.processingThread == null) return null;
+
+		if (this.enableCount > 0) {
+			Set<Object> indexKeys = new HashSet<>(); // indexes of the jobs preceding the current one
+			for (IJob job : this.awaitingJobs) {
+				Object indexKey = job.getIndexKey();
+				if (indexKey == null) {
+					if (this.runningJobs.isEmpty())
+						return job; // the first one of the queue
+					break;
+				}
+				if (!indexKeys.add(indexKey) || this.runningJobs.contains(job))
+					continue;
+				if (this.runningJobs.size() >= getMaxConcurrentJobs())
+					break;
+				submit(job);
+			}
+		}
+		wait(); // until a worker has completed its job, or a job is requested (or reenabled)
+		return null;
+	}
+	private void submit(IJob job) {
+		if (this.workers == null) {
+			// platform threads like the background thread: the workers are less prioritary, and wait in monitors of the indexes
+			this.workers = Executors.newFixedThreadPool(getMaxConcurrentJobs(), task -> {
+				Thread worker = new Thread(task, processName());
+				worker.setDaemon(true);
+				worker.setPriority(Thread.NORM_PRIORITY-1);
+				worker.setContextClassLoader(this.getClass().getClassLoader());
+				return worker;
+			});
+		}
+		this.runningJobs.add(job);
+		if (VERBOSE)
+			Util.verbose("STARTING  concurrent background job - " + job); //$NON-NLS-1$
+		this.workers.execute(() -> {
+			try {
+				job.execute(null);
+			} catch (RuntimeException e) {
+				// the index of the job may be inconsistent, but the other jobs are not affected
+				Util.log(e, "Background Indexer Crash Recovery - " + job); //$NON-NLS-1$
+			} finally {
+				if (VERBOSE)
+					Util.verbose("FINISHED  concurrent background job - " + job); //$NON-NLS-1$
+				concurrentJobDone(job);
+			}
+		});
+	}
 	/**
 	 * Stop background processing, and wait until the current job is completed before returning
 	 */
@@ -505,6 +634,14 @@ public abstract class JobManager implements Runnable {
 				// in case processing thread is handling a job
 				thread.join();
 			}
+			ExecutorService pool;
+			synchronized (this) {
+				pool = this.workers;
+				this.workers = null;
+			}
+			if (pool != null) {
+				pool.shutdown(); // the jobs of the workers were discarded above
+			}
 			Job job = this.progressJob;
 			if (job != null) {
 				job.cancel();